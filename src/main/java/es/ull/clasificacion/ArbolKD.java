@@ -0,0 +1,255 @@
+package clasificacion;
+
+import java.util.Arrays;
+
+/**
+ * @brief Índice KD-tree para búsquedas exactas de los k vecinos más cercanos.
+ *
+ * Se construye una vez sobre las {@link Caracteristicas} del dataset dividiendo
+ * recursivamente por la mediana de la dimensión de mayor rango. La búsqueda mantiene la
+ * distancia (sin raíz) desde la consulta a la región de cada nodo, actualizándola de forma
+ * incremental al cruzar cada plano de corte, y descarta las ramas que no pueden mejorar el
+ * k-ésimo vecino. Es exacta para las distancias euclidiana, manhattan y minkowski con pesos.
+ */
+public class ArbolKD implements IndiceVecinos {
+
+	/** Número máximo de filas en una hoja */
+	private static final int TAMANO_HOJA = 16;
+
+	/** Métrica usada en las búsquedas */
+	private final Metrica metrica;
+
+	/** Número de dimensiones */
+	private final int dimension;
+
+	/** Pesos de cada dimensión */
+	private final double[] pesos;
+
+	/** Valores de las filas reordenados según el árbol */
+	private final double[] puntos;
+
+	/** Índice original de cada fila en el orden del árbol */
+	private final int[] orden;
+
+	/** Dimensión de corte de cada nodo, o -1 si es hoja */
+	private int[] ejes;
+
+	/** Valor de corte de cada nodo */
+	private double[] cortes;
+
+	/** Hijo izquierdo (valores menores o iguales al corte) de cada nodo */
+	private int[] izquierdos;
+
+	/** Hijo derecho (valores mayores o iguales al corte) de cada nodo */
+	private int[] derechos;
+
+	/** Primera fila (en el orden del árbol) de cada nodo */
+	private int[] inicios;
+
+	/** Fila siguiente a la última de cada nodo */
+	private int[] fines;
+
+	/** Número de nodos construidos */
+	private int nodos;
+
+	/**
+	 * @brief Construye el árbol sobre las características de un dataset.
+	 * @param datos Características del dataset de entrenamiento.
+	 * @param metrica Métrica de distancia a utilizar.
+	 */
+	public ArbolKD(Caracteristicas datos, Metrica metrica) {
+		this.metrica = metrica;
+		this.dimension = datos.getDimension();
+		this.pesos = datos.getPesos().clone();
+		int n = datos.getFilas();
+		int[] perm = new int[n];
+		for (int i = 0; i < n; ++i) perm[i] = i;
+
+		int capacidad = Math.max(1, 4 * (n / TAMANO_HOJA) + 1);
+		ejes = new int[capacidad];
+		cortes = new double[capacidad];
+		izquierdos = new int[capacidad];
+		derechos = new int[capacidad];
+		inicios = new int[capacidad];
+		fines = new int[capacidad];
+		construir(datos.getValores(), perm, 0, n);
+
+		this.orden = perm;
+		this.puntos = new double[n * dimension];
+		double[] valores = datos.getValores();
+		for (int i = 0; i < n; ++i) {
+			System.arraycopy(valores, perm[i] * dimension, puntos, i * dimension, dimension);
+		}
+	}
+
+	/**
+	 * @brief Devuelve el número de filas indexadas.
+	 * @return Número de filas.
+	 */
+	public int size() {
+		return orden.length;
+	}
+
+	/**
+	 * @brief Busca los k vecinos más cercanos a una consulta.
+	 *
+	 * Solo intervienen las {@code consulta.length} primeras dimensiones; las demás no
+	 * restringen la búsqueda, igual que en el recorrido lineal de {@link KNN}.
+	 *
+	 * @param consulta Vector de la instancia a clasificar.
+	 * @param k Número de vecinos a buscar.
+	 * @return Vecinos ordenados por distancia creciente.
+	 * @throws IllegalArgumentException si la consulta tiene más dimensiones que el índice.
+	 */
+	public Vecinos buscar(double[] consulta, int k) {
+		if (consulta.length > dimension) {
+			throw new IllegalArgumentException("La consulta tiene " + consulta.length + " dimensiones y el índice " + dimension);
+		}
+		MonticuloVecinos mejores = new MonticuloVecinos(Math.max(1, Math.min(k, orden.length)));
+		if (orden.length > 0) {
+			buscar(0, consulta, 0.0, new double[dimension], mejores);
+		}
+		return mejores.extraer(metrica);
+	}
+
+	/**
+	 * @brief Búsqueda recursiva en un nodo.
+	 * @param nodo Nodo a explorar.
+	 * @param consulta Vector de consulta.
+	 * @param cota Suma de términos desde la consulta a la región del nodo.
+	 * @param desplazamientos Distancia ponderada a la región en cada dimensión.
+	 * @param mejores Candidatos encontrados hasta ahora.
+	 */
+	private void buscar(int nodo, double[] consulta, double cota, double[] desplazamientos, MonticuloVecinos mejores) {
+		int eje = ejes[nodo];
+		if (eje < 0) {
+			for (int i = inicios[nodo]; i < fines[nodo]; ++i) {
+				double umbral = mejores.umbral();
+				double suma = metrica.sumaAcotada(puntos, i * dimension, consulta, pesos, umbral);
+				if (suma <= umbral) mejores.ofrecer(suma, orden[i]);
+			}
+			return;
+		}
+		if (eje >= consulta.length) {
+			buscar(izquierdos[nodo], consulta, cota, desplazamientos, mejores);
+			if (cota <= mejores.umbral()) {
+				buscar(derechos[nodo], consulta, cota, desplazamientos, mejores);
+			}
+			return;
+		}
+		double diferencia = consulta[eje] - cortes[nodo];
+		int cercano = diferencia <= 0 ? izquierdos[nodo] : derechos[nodo];
+		int lejano = diferencia <= 0 ? derechos[nodo] : izquierdos[nodo];
+		buscar(cercano, consulta, cota, desplazamientos, mejores);
+
+		double anterior = desplazamientos[eje];
+		double nuevo = diferencia * pesos[eje];
+		double cotaLejana = cota - metrica.termino(anterior) + metrica.termino(nuevo);
+		if (cotaLejana <= mejores.umbral()) {
+			desplazamientos[eje] = nuevo;
+			buscar(lejano, consulta, cotaLejana, desplazamientos, mejores);
+			desplazamientos[eje] = anterior;
+		}
+	}
+
+	/**
+	 * @brief Construye recursivamente el subárbol de las filas perm[inicio, fin).
+	 * @param valores Matriz de características por filas.
+	 * @param perm Permutación de filas que se reordena durante la construcción.
+	 * @param inicio Primera fila del nodo.
+	 * @param fin Fila siguiente a la última del nodo.
+	 * @return Índice del nodo construido.
+	 */
+	private int construir(double[] valores, int[] perm, int inicio, int fin) {
+		int nodo = nuevoNodo(inicio, fin);
+		int eje = fin - inicio > TAMANO_HOJA ? ejeDeMayorRango(valores, dimension, pesos, perm, inicio, fin) : -1;
+		if (eje < 0) {
+			ejes[nodo] = -1;
+			return nodo;
+		}
+		int mitad = (inicio + fin) >>> 1;
+		seleccionar(valores, dimension, perm, inicio, fin - 1, mitad, eje);
+		ejes[nodo] = eje;
+		cortes[nodo] = valores[perm[mitad] * dimension + eje];
+		int izquierdo = construir(valores, perm, inicio, mitad);
+		int derecho = construir(valores, perm, mitad, fin);
+		izquierdos[nodo] = izquierdo;
+		derechos[nodo] = derecho;
+		return nodo;
+	}
+
+	/**
+	 * @brief Reserva un nodo nuevo, ampliando los arrays si es necesario.
+	 * @param inicio Primera fila del nodo.
+	 * @param fin Fila siguiente a la última del nodo.
+	 * @return Índice del nodo.
+	 */
+	private int nuevoNodo(int inicio, int fin) {
+		if (nodos == ejes.length) {
+			int capacidad = 2 * nodos;
+			ejes = Arrays.copyOf(ejes, capacidad);
+			cortes = Arrays.copyOf(cortes, capacidad);
+			izquierdos = Arrays.copyOf(izquierdos, capacidad);
+			derechos = Arrays.copyOf(derechos, capacidad);
+			inicios = Arrays.copyOf(inicios, capacidad);
+			fines = Arrays.copyOf(fines, capacidad);
+		}
+		inicios[nodos] = inicio;
+		fines[nodos] = fin;
+		return nodos++;
+	}
+
+	/**
+	 * @brief Busca la dimensión con mayor rango ponderado entre las filas dadas.
+	 * @return Dimensión elegida, o -1 si todas las filas son iguales.
+	 */
+	static int ejeDeMayorRango(double[] valores, int dimension, double[] pesos, int[] perm, int inicio, int fin) {
+		int mejor = -1;
+		double mayorRango = 0.0;
+		for (int j = 0; j < dimension; ++j) {
+			double min = Double.POSITIVE_INFINITY;
+			double max = Double.NEGATIVE_INFINITY;
+			for (int i = inicio; i < fin; ++i) {
+				double valor = valores[perm[i] * dimension + j];
+				if (valor < min) min = valor;
+				if (valor > max) max = valor;
+			}
+			double rango = (max - min) * Math.abs(pesos[j]);
+			if (rango > mayorRango) {
+				mayorRango = rango;
+				mejor = j;
+			}
+		}
+		return mejor;
+	}
+
+	/**
+	 * @brief Quickselect: deja en perm[k] la fila con el k-ésimo valor de la dimensión eje,
+	 *        con las menores a la izquierda y las mayores a la derecha.
+	 */
+	static void seleccionar(double[] valores, int dimension, int[] perm, int izquierda, int derecha, int k, int eje) {
+		while (izquierda < derecha) {
+			double pivote = valores[perm[(izquierda + derecha) >>> 1] * dimension + eje];
+			int i = izquierda;
+			int j = derecha;
+			while (i <= j) {
+				while (valores[perm[i] * dimension + eje] < pivote) i++;
+				while (valores[perm[j] * dimension + eje] > pivote) j--;
+				if (i <= j) {
+					int aux = perm[i];
+					perm[i] = perm[j];
+					perm[j] = aux;
+					i++;
+					j--;
+				}
+			}
+			if (k <= j) {
+				derecha = j;
+			} else if (k >= i) {
+				izquierda = i;
+			} else {
+				return;
+			}
+		}
+	}
+}
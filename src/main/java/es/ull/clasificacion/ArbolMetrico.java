@@ -0,0 +1,231 @@
+package clasificacion;
+
+import java.util.Arrays;
+
+/**
+ * @brief Índice ball-tree (árbol métrico) para búsquedas exactas de los k vecinos más cercanos.
+ *
+ * Cada nodo guarda el centroide de sus filas y el radio de la bola que las contiene según la
+ * métrica del índice. Durante la búsqueda, por la desigualdad triangular ninguna fila de un
+ * nodo puede estar a menos de {@code d(consulta, centro) - radio}, así que se descartan los
+ * nodos cuya cota supera la distancia del k-ésimo vecino. A diferencia del {@link ArbolKD},
+ * las cotas no dependen de cortes por ejes y se mantienen útiles con muchas dimensiones.
+ */
+public class ArbolMetrico implements IndiceVecinos {
+
+	/** Número máximo de filas en una hoja */
+	private static final int TAMANO_HOJA = 32;
+
+	/** Holgura relativa para que el redondeo no descarte vecinos empatados */
+	private static final double HOLGURA = 1e-12;
+
+	/** Métrica usada en las búsquedas */
+	private final Metrica metrica;
+
+	/** Número de dimensiones */
+	private final int dimension;
+
+	/** Pesos de cada dimensión */
+	private final double[] pesos;
+
+	/** Valores de las filas reordenados según el árbol */
+	private final double[] puntos;
+
+	/** Índice original de cada fila en el orden del árbol */
+	private final int[] orden;
+
+	/** Centroide de cada nodo, por filas */
+	private double[] centros;
+
+	/** Radio de cada nodo */
+	private double[] radios;
+
+	/** Hijo izquierdo de cada nodo, o -1 si es hoja */
+	private int[] izquierdos;
+
+	/** Hijo derecho de cada nodo, o -1 si es hoja */
+	private int[] derechos;
+
+	/** Primera fila (en el orden del árbol) de cada nodo */
+	private int[] inicios;
+
+	/** Fila siguiente a la última de cada nodo */
+	private int[] fines;
+
+	/** Número de nodos construidos */
+	private int nodos;
+
+	/**
+	 * @brief Construye el árbol sobre las características de un dataset.
+	 * @param datos Características del dataset de entrenamiento.
+	 * @param metrica Métrica de distancia a utilizar.
+	 */
+	public ArbolMetrico(Caracteristicas datos, Metrica metrica) {
+		this.metrica = metrica;
+		this.dimension = datos.getDimension();
+		this.pesos = datos.getPesos().clone();
+		int n = datos.getFilas();
+		int[] perm = new int[n];
+		for (int i = 0; i < n; ++i) perm[i] = i;
+
+		int capacidad = Math.max(1, 4 * (n / TAMANO_HOJA) + 1);
+		centros = new double[capacidad * dimension];
+		radios = new double[capacidad];
+		izquierdos = new int[capacidad];
+		derechos = new int[capacidad];
+		inicios = new int[capacidad];
+		fines = new int[capacidad];
+		if (n > 0) construir(datos.getValores(), perm, 0, n);
+
+		this.orden = perm;
+		this.puntos = new double[n * dimension];
+		double[] valores = datos.getValores();
+		for (int i = 0; i < n; ++i) {
+			System.arraycopy(valores, perm[i] * dimension, puntos, i * dimension, dimension);
+		}
+	}
+
+	/**
+	 * @brief Devuelve el número de filas indexadas.
+	 * @return Número de filas.
+	 */
+	public int size() {
+		return orden.length;
+	}
+
+	/**
+	 * @brief Busca los k vecinos más cercanos a una consulta.
+	 *
+	 * Solo intervienen las {@code consulta.length} primeras dimensiones, igual que en el
+	 * recorrido lineal de {@link KNN}.
+	 *
+	 * @param consulta Vector de la instancia a clasificar.
+	 * @param k Número de vecinos a buscar.
+	 * @return Vecinos ordenados por distancia creciente.
+	 * @throws IllegalArgumentException si la consulta tiene más dimensiones que el índice.
+	 */
+	public Vecinos buscar(double[] consulta, int k) {
+		if (consulta.length > dimension) {
+			throw new IllegalArgumentException("La consulta tiene " + consulta.length + " dimensiones y el índice " + dimension);
+		}
+		MonticuloVecinos mejores = new MonticuloVecinos(Math.max(1, Math.min(k, orden.length)));
+		if (orden.length > 0) {
+			buscar(0, consulta, distanciaCentro(0, consulta), mejores);
+		}
+		return mejores.extraer(metrica);
+	}
+
+	/**
+	 * @brief Búsqueda recursiva en un nodo.
+	 * @param nodo Nodo a explorar.
+	 * @param consulta Vector de consulta.
+	 * @param distancia Distancia de la consulta al centro del nodo.
+	 * @param mejores Candidatos encontrados hasta ahora.
+	 */
+	private void buscar(int nodo, double[] consulta, double distancia, MonticuloVecinos mejores) {
+		if (descartable(distancia - radios[nodo], mejores)) return;
+		if (izquierdos[nodo] < 0) {
+			for (int i = inicios[nodo]; i < fines[nodo]; ++i) {
+				double umbral = mejores.umbral();
+				double suma = metrica.sumaAcotada(puntos, i * dimension, consulta, pesos, umbral);
+				if (suma <= umbral) mejores.ofrecer(suma, orden[i]);
+			}
+			return;
+		}
+		int izquierdo = izquierdos[nodo];
+		int derecho = derechos[nodo];
+		double distanciaIzquierdo = distanciaCentro(izquierdo, consulta);
+		double distanciaDerecho = distanciaCentro(derecho, consulta);
+		if (distanciaIzquierdo <= distanciaDerecho) {
+			buscar(izquierdo, consulta, distanciaIzquierdo, mejores);
+			buscar(derecho, consulta, distanciaDerecho, mejores);
+		} else {
+			buscar(derecho, consulta, distanciaDerecho, mejores);
+			buscar(izquierdo, consulta, distanciaIzquierdo, mejores);
+		}
+	}
+
+	/**
+	 * @brief Indica si ninguna fila a la distancia mínima dada puede entrar entre los k mejores.
+	 * @param cota Distancia mínima posible desde la consulta a las filas del nodo.
+	 * @param mejores Candidatos encontrados hasta ahora.
+	 * @return true si el nodo puede descartarse.
+	 */
+	private boolean descartable(double cota, MonticuloVecinos mejores) {
+		if (!mejores.lleno() || cota <= 0) return false;
+		double peor = metrica.raiz(mejores.umbral());
+		return cota > peor + HOLGURA * Math.max(1.0, peor);
+	}
+
+	/**
+	 * @brief Calcula la distancia de la consulta al centro de un nodo.
+	 * @param nodo Nodo.
+	 * @param consulta Vector de consulta.
+	 * @return Distancia al centro.
+	 */
+	private double distanciaCentro(int nodo, double[] consulta) {
+		return metrica.distancia(centros, nodo * dimension, consulta, pesos);
+	}
+
+	/**
+	 * @brief Construye recursivamente el subárbol de las filas perm[inicio, fin).
+	 * @param valores Matriz de características por filas.
+	 * @param perm Permutación de filas que se reordena durante la construcción.
+	 * @param inicio Primera fila del nodo.
+	 * @param fin Fila siguiente a la última del nodo.
+	 * @return Índice del nodo construido.
+	 */
+	private int construir(double[] valores, int[] perm, int inicio, int fin) {
+		int nodo = nuevoNodo(inicio, fin);
+		int desde = nodo * dimension;
+		for (int i = inicio; i < fin; ++i) {
+			for (int j = 0; j < dimension; ++j) {
+				centros[desde + j] += valores[perm[i] * dimension + j];
+			}
+		}
+		for (int j = 0; j < dimension; ++j) {
+			centros[desde + j] /= fin - inicio;
+		}
+		double[] centro = Arrays.copyOfRange(centros, desde, desde + dimension);
+		double radio = 0.0;
+		for (int i = inicio; i < fin; ++i) {
+			radio = Math.max(radio, metrica.distancia(valores, perm[i] * dimension, centro, pesos));
+		}
+		radios[nodo] = radio;
+
+		int eje = fin - inicio > TAMANO_HOJA ? ArbolKD.ejeDeMayorRango(valores, dimension, pesos, perm, inicio, fin) : -1;
+		if (eje < 0) {
+			izquierdos[nodo] = -1;
+			derechos[nodo] = -1;
+			return nodo;
+		}
+		int mitad = (inicio + fin) >>> 1;
+		ArbolKD.seleccionar(valores, dimension, perm, inicio, fin - 1, mitad, eje);
+		int izquierdo = construir(valores, perm, inicio, mitad);
+		int derecho = construir(valores, perm, mitad, fin);
+		izquierdos[nodo] = izquierdo;
+		derechos[nodo] = derecho;
+		return nodo;
+	}
+
+	/**
+	 * @brief Reserva un nodo nuevo, ampliando los arrays si es necesario.
+	 * @param inicio Primera fila del nodo.
+	 * @param fin Fila siguiente a la última del nodo.
+	 * @return Índice del nodo.
+	 */
+	private int nuevoNodo(int inicio, int fin) {
+		if (nodos == radios.length) {
+			int capacidad = 2 * nodos;
+			centros = Arrays.copyOf(centros, capacidad * dimension);
+			radios = Arrays.copyOf(radios, capacidad);
+			izquierdos = Arrays.copyOf(izquierdos, capacidad);
+			derechos = Arrays.copyOf(derechos, capacidad);
+			inicios = Arrays.copyOf(inicios, capacidad);
+			fines = Arrays.copyOf(fines, capacidad);
+		}
+		inicios[nodos] = inicio;
+		fines[nodos] = fin;
+		return nodos++;
+	}
+}
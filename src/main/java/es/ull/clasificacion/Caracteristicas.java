@@ -0,0 +1,137 @@
+package clasificacion;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import datos.*;
+
+/**
+ * @brief Matriz de características numéricas de un dataset en memoria contigua.
+ *
+ * Contiene, fila a fila, los valores de los atributos cuantitativos del dataset (excepto
+ * el último atributo, que es la clase), en el mismo orden que {@link Instancia#getVector()},
+ * junto con el peso de cada columna. Es la representación que usan los índices de vecinos.
+ */
+public final class Caracteristicas {
+
+	/** Número de filas (instancias) */
+	private final int filas;
+
+	/** Número de dimensiones (atributos cuantitativos) */
+	private final int dimension;
+
+	/** Valores por filas: la fila i ocupa las posiciones [i * dimension, (i + 1) * dimension) */
+	private final double[] valores;
+
+	/** Peso de cada dimensión */
+	private final double[] pesos;
+
+	/**
+	 * @brief Construye la matriz de características a partir de un dataset.
+	 * @param datos Dataset de entrenamiento.
+	 */
+	public Caracteristicas(Dataset datos) {
+		List<Cuantitativo> columnas = columnas(datos);
+		this.filas = datos.numeroCasos();
+		this.dimension = columnas.size();
+		this.valores = new double[filas * dimension];
+		this.pesos = new double[dimension];
+		for (int j = 0; j < dimension; ++j) {
+			pesos[j] = columnas.get(j).getPeso();
+			columnas.get(j).copyTo(valores, j, dimension);
+		}
+	}
+
+	/**
+	 * @brief Construye la matriz de características de una selección de filas de un dataset.
+	 *
+	 * La fila i de la matriz es la fila {@code seleccion[i]} del dataset; no se copia el
+	 * dataset, solo las filas seleccionadas.
+	 *
+	 * @param datos Dataset de entrenamiento.
+	 * @param seleccion Índices de las filas del dataset, en el orden deseado.
+	 */
+	public Caracteristicas(Dataset datos, int[] seleccion) {
+		List<Cuantitativo> columnas = columnas(datos);
+		this.filas = seleccion.length;
+		this.dimension = columnas.size();
+		this.valores = new double[filas * dimension];
+		this.pesos = new double[dimension];
+		for (int j = 0; j < dimension; ++j) {
+			Cuantitativo columna = columnas.get(j);
+			pesos[j] = columna.getPeso();
+			for (int i = 0; i < filas; ++i) {
+				valores[i * dimension + j] = columna.getDouble(seleccion[i]);
+			}
+		}
+	}
+
+	/**
+	 * @brief Obtiene las columnas cuantitativas que forman las características.
+	 * @param datos Dataset.
+	 * @return Atributos cuantitativos excepto el último atributo.
+	 */
+	static List<Cuantitativo> columnas(Dataset datos) {
+		List<Cuantitativo> columnas = new ArrayList<>();
+		for (int j = 0; j < datos.numeroAtributos() - 1; ++j) {
+			if (datos.get(j) instanceof Cuantitativo) {
+				columnas.add((Cuantitativo) datos.get(j));
+			}
+		}
+		return columnas;
+	}
+
+	/**
+	 * @brief Convierte una instancia a clasificar en un vector de consulta.
+	 *
+	 * Usa {@link Instancia#getVector()}, igual que el recorrido lineal de {@link KNN}.
+	 *
+	 * @param nueva Instancia a clasificar.
+	 * @return Vector de consulta.
+	 */
+	public static double[] consulta(Instancia nueva) {
+		return nueva.getVector().toArray();
+	}
+
+	/**
+	 * @brief Devuelve el número de filas.
+	 * @return Número de filas.
+	 */
+	public int getFilas() {
+		return filas;
+	}
+
+	/**
+	 * @brief Devuelve el número de dimensiones.
+	 * @return Número de dimensiones.
+	 */
+	public int getDimension() {
+		return dimension;
+	}
+
+	/**
+	 * @brief Devuelve el valor de una celda.
+	 * @param fila Índice de la fila.
+	 * @param j Índice de la dimensión.
+	 * @return Valor de la celda.
+	 */
+	public double get(int fila, int j) {
+		return valores[fila * dimension + j];
+	}
+
+	/**
+	 * @brief Devuelve la matriz de valores por filas (sin copiar).
+	 * @return Valores de la matriz.
+	 */
+	double[] getValores() {
+		return valores;
+	}
+
+	/**
+	 * @brief Devuelve los pesos de cada dimensión (sin copiar).
+	 * @return Pesos de las dimensiones.
+	 */
+	double[] getPesos() {
+		return pesos;
+	}
+}
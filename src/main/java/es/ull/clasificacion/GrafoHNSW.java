@@ -0,0 +1,426 @@
+package clasificacion;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import datos.Dataset;
+import datos.Instancia;
+import vectores.Vector;
+
+/**
+ * @brief Índice aproximado de vecinos basado en un grafo HNSW (Hierarchical Navigable Small World).
+ *
+ * Cada fila se inserta en un número aleatorio de niveles; en cada nivel se enlaza con hasta
+ * {@code M} vecinos (el doble en el nivel 0) elegidos con la heurística de diversidad del
+ * algoritmo original. Las búsquedas descienden de forma voraz por los niveles superiores y
+ * exploran el nivel 0 con una lista de {@code efSearch} candidatos: cuanto mayor es
+ * {@code efSearch}, mayor es la exhaustividad (recall) y mayor la latencia. La exhaustividad
+ * real sobre un dataset puede medirse con {@link #recall}.
+ */
+public class GrafoHNSW implements IndiceVecinos {
+
+	/** Métrica usada en las búsquedas */
+	private final Metrica metrica;
+
+	/** Número de dimensiones */
+	private final int dimension;
+
+	/** Pesos de cada dimensión */
+	private final double[] pesos;
+
+	/** Valores de las filas por filas */
+	private final double[] puntos;
+
+	/** Número de filas */
+	private final int filas;
+
+	/** Número de enlaces por nodo en los niveles superiores */
+	private final int m;
+
+	/** Tamaño de la lista de candidatos durante la construcción */
+	private final int efConstruccion;
+
+	/** Tamaño de la lista de candidatos durante la búsqueda */
+	private int efBusqueda;
+
+	/** Enlaces de cada nodo en cada uno de sus niveles */
+	private final int[][][] enlaces;
+
+	/** Número de enlaces de cada nodo en cada uno de sus niveles */
+	private final int[][] grados;
+
+	/** Nodo de entrada al grafo (el de mayor nivel) */
+	private int entrada = -1;
+
+	/** Nivel más alto del grafo */
+	private int nivelMaximo = -1;
+
+	/**
+	 * @brief Construye el grafo sobre las características de un dataset.
+	 * @param datos Características del dataset de entrenamiento.
+	 * @param metrica Métrica de distancia a utilizar.
+	 * @param m Número de enlaces por nodo (el nivel 0 admite 2·m).
+	 * @param efConstruccion Tamaño de la lista de candidatos al insertar.
+	 * @param efBusqueda Tamaño de la lista de candidatos al buscar.
+	 * @param semilla Semilla para la asignación aleatoria de niveles.
+	 */
+	public GrafoHNSW(Caracteristicas datos, Metrica metrica, int m, int efConstruccion, int efBusqueda, long semilla) {
+		if (m < 2) throw new IllegalArgumentException("M debe ser al menos 2");
+		if (efConstruccion < 1) throw new IllegalArgumentException("efConstruction debe ser mayor que 0");
+		setEfBusqueda(efBusqueda);
+		this.metrica = metrica;
+		this.dimension = datos.getDimension();
+		this.pesos = datos.getPesos().clone();
+		this.puntos = datos.getValores().clone();
+		this.filas = datos.getFilas();
+		this.m = m;
+		this.efConstruccion = efConstruccion;
+		this.enlaces = new int[filas][][];
+		this.grados = new int[filas][];
+
+		Random random = new Random(semilla);
+		double factorNivel = 1.0 / Math.log(m);
+		for (int i = 0; i < filas; ++i) {
+			int nivel = (int) (-Math.log(1.0 - random.nextDouble()) * factorNivel);
+			insertar(i, nivel);
+		}
+	}
+
+	/**
+	 * @brief Devuelve el número de filas indexadas.
+	 * @return Número de filas.
+	 */
+	public int size() {
+		return filas;
+	}
+
+	/**
+	 * @brief Devuelve el tamaño de la lista de candidatos durante la búsqueda.
+	 * @return Valor de efSearch.
+	 */
+	public int getEfBusqueda() {
+		return efBusqueda;
+	}
+
+	/**
+	 * @brief Cambia el tamaño de la lista de candidatos durante la búsqueda.
+	 * @param efBusqueda Nuevo valor de efSearch (se usa como mínimo k).
+	 */
+	public void setEfBusqueda(int efBusqueda) {
+		if (efBusqueda < 1) throw new IllegalArgumentException("efSearch debe ser mayor que 0");
+		this.efBusqueda = efBusqueda;
+	}
+
+	/**
+	 * @brief Busca de forma aproximada los k vecinos más cercanos a una consulta.
+	 * @param consulta Vector de la instancia a clasificar.
+	 * @param k Número de vecinos a buscar.
+	 * @return Vecinos ordenados por distancia creciente.
+	 * @throws IllegalArgumentException si la consulta tiene más dimensiones que el índice.
+	 */
+	public Vecinos buscar(double[] consulta, int k) {
+		if (consulta.length > dimension) {
+			throw new IllegalArgumentException("La consulta tiene " + consulta.length + " dimensiones y el índice " + dimension);
+		}
+		if (filas == 0) return new Vecinos(new int[0], new double[0]);
+		int actual = entrada;
+		double distanciaActual = distancia(actual, consulta);
+		for (int nivel = nivelMaximo; nivel > 0; --nivel) {
+			Vecinos mejor = buscarEnNivel(consulta, actual, distanciaActual, 1, nivel);
+			actual = mejor.getIndice(0);
+			distanciaActual = mejor.getDistancia(0);
+		}
+		Vecinos candidatos = buscarEnNivel(consulta, actual, distanciaActual, Math.max(efBusqueda, k), 0);
+		int total = Math.min(k, candidatos.size());
+		int[] indices = new int[total];
+		double[] distancias = new double[total];
+		for (int i = 0; i < total; ++i) {
+			indices[i] = candidatos.getIndice(i);
+			distancias[i] = metrica.raiz(candidatos.getDistancia(i));
+		}
+		return new Vecinos(indices, distancias);
+	}
+
+	/**
+	 * @brief Mide la exhaustividad (recall@k) del grafo frente al recorrido lineal de {@link KNN}.
+	 *
+	 * Para cada consulta se calculan las distancias exactas con {@link KNN#getDistancias} sobre el
+	 * mismo dataset y se cuenta qué fracción de los k vecinos devueltos por el grafo está a una
+	 * distancia no mayor que la del k-ésimo vecino exacto (así los empates no penalizan).
+	 *
+	 * @param datos Dataset sobre el que se construyó el grafo.
+	 * @param consultas Instancias de prueba.
+	 * @param k Número de vecinos.
+	 * @return Recall medio entre 0 y 1.
+	 */
+	public double recall(Dataset datos, List<Instancia> consultas, int k) {
+		if (filas == 0 || consultas.isEmpty()) return 1.0;
+		KNN exacto = new KNN(k, metrica.getTipo());
+		int total = Math.min(k, filas);
+		double aciertos = 0.0;
+		for (Instancia consulta : consultas) {
+			Vector distancias = exacto.getDistancias(datos, consulta);
+			MonticuloVecinos mejores = new MonticuloVecinos(total);
+			for (int i = 0; i < distancias.size(); ++i) {
+				mejores.ofrecer(distancias.get(i), i);
+			}
+			double limite = mejores.umbral();
+			limite += 1e-9 * Math.max(1.0, limite);
+			Vecinos aproximados = buscar(Caracteristicas.consulta(consulta), k);
+			for (int i = 0; i < aproximados.size(); ++i) {
+				if (distancias.get(aproximados.getIndice(i)) <= limite) aciertos++;
+			}
+		}
+		return aciertos / (total * (double) consultas.size());
+	}
+
+	/**
+	 * @brief Inserta una fila en el grafo.
+	 * @param nodo Índice de la fila.
+	 * @param nivel Nivel más alto del nodo.
+	 */
+	private void insertar(int nodo, int nivel) {
+		enlaces[nodo] = new int[nivel + 1][];
+		grados[nodo] = new int[nivel + 1];
+		for (int l = 0; l <= nivel; ++l) {
+			enlaces[nodo][l] = new int[maximoEnlaces(l) + 1];
+		}
+		if (entrada < 0) {
+			entrada = nodo;
+			nivelMaximo = nivel;
+			return;
+		}
+		double[] consulta = Arrays.copyOfRange(puntos, nodo * dimension, (nodo + 1) * dimension);
+		int actual = entrada;
+		double distanciaActual = distancia(actual, consulta);
+		for (int l = nivelMaximo; l > nivel; --l) {
+			Vecinos mejor = buscarEnNivel(consulta, actual, distanciaActual, 1, l);
+			actual = mejor.getIndice(0);
+			distanciaActual = mejor.getDistancia(0);
+		}
+		for (int l = Math.min(nivel, nivelMaximo); l >= 0; --l) {
+			Vecinos candidatos = buscarEnNivel(consulta, actual, distanciaActual, efConstruccion, l);
+			int[] elegidos = seleccionarVecinos(candidatos.getIndices(), candidatos.getDistancias(), m);
+			for (int vecino : elegidos) {
+				enlazar(nodo, vecino, l);
+				enlazar(vecino, nodo, l);
+			}
+			actual = candidatos.getIndice(0);
+			distanciaActual = candidatos.getDistancia(0);
+		}
+		if (nivel > nivelMaximo) {
+			entrada = nodo;
+			nivelMaximo = nivel;
+		}
+	}
+
+	/**
+	 * @brief Añade un enlace dirigido y recorta la lista si supera el máximo del nivel.
+	 * @param origen Nodo del que sale el enlace.
+	 * @param destino Nodo al que llega el enlace.
+	 * @param nivel Nivel del enlace.
+	 */
+	private void enlazar(int origen, int destino, int nivel) {
+		int[] lista = enlaces[origen][nivel];
+		lista[grados[origen][nivel]++] = destino;
+		int grado = grados[origen][nivel];
+		int maximo = maximoEnlaces(nivel);
+		if (grado <= maximo) return;
+
+		double[] distancias = new double[grado];
+		for (int i = 0; i < grado; ++i) {
+			distancias[i] = metrica.suma(puntos, lista[i] * dimension, puntos, origen * dimension, dimension, pesos);
+		}
+		ordenar(lista, distancias, grado);
+		int[] elegidos = seleccionarVecinos(Arrays.copyOf(lista, grado), distancias, maximo);
+		System.arraycopy(elegidos, 0, lista, 0, elegidos.length);
+		grados[origen][nivel] = elegidos.length;
+	}
+
+	/**
+	 * @brief Heurística de selección de vecinos: se prefiere un candidato si está más cerca del
+	 *        nodo que de los ya elegidos, y se completa con los descartados más cercanos.
+	 * @param candidatos Candidatos ordenados por distancia creciente.
+	 * @param distancias Distancias (sin raíz) de cada candidato al nodo.
+	 * @param maximo Número máximo de vecinos a elegir.
+	 * @return Vecinos elegidos.
+	 */
+	private int[] seleccionarVecinos(int[] candidatos, double[] distancias, int maximo) {
+		int[] elegidos = new int[Math.min(maximo, candidatos.length)];
+		boolean[] usados = new boolean[candidatos.length];
+		int total = 0;
+		for (int i = 0; i < candidatos.length && total < elegidos.length; ++i) {
+			boolean diverso = true;
+			for (int j = 0; j < total && diverso; ++j) {
+				double entreEllos = metrica.suma(puntos, candidatos[i] * dimension, puntos, elegidos[j] * dimension, dimension, pesos);
+				if (entreEllos < distancias[i]) diverso = false;
+			}
+			if (diverso) {
+				elegidos[total++] = candidatos[i];
+				usados[i] = true;
+			}
+		}
+		for (int i = 0; i < candidatos.length && total < elegidos.length; ++i) {
+			if (!usados[i]) elegidos[total++] = candidatos[i];
+		}
+		return elegidos;
+	}
+
+	/**
+	 * @brief Búsqueda voraz en un nivel con una lista de ef candidatos.
+	 * @param consulta Vector de consulta.
+	 * @param inicio Nodo de partida.
+	 * @param distanciaInicio Distancia (sin raíz) de la consulta al nodo de partida.
+	 * @param ef Número de candidatos a conservar.
+	 * @param nivel Nivel del grafo.
+	 * @return Los ef nodos más cercanos encontrados, con distancias sin raíz.
+	 */
+	private Vecinos buscarEnNivel(double[] consulta, int inicio, double distanciaInicio, int ef, int nivel) {
+		MonticuloVecinos resultado = new MonticuloVecinos(ef);
+		ColaMinima pendientes = new ColaMinima();
+		ConjuntoVisitados visitados = new ConjuntoVisitados();
+		visitados.anadir(inicio);
+		resultado.ofrecer(distanciaInicio, inicio);
+		pendientes.anadir(distanciaInicio, inicio);
+		while (!pendientes.isEmpty()) {
+			if (pendientes.minimo() > resultado.umbral()) break;
+			int actual = pendientes.extraer();
+			int[] lista = enlaces[actual][nivel];
+			int grado = grados[actual][nivel];
+			for (int i = 0; i < grado; ++i) {
+				int vecino = lista[i];
+				if (!visitados.anadir(vecino)) continue;
+				double d = distancia(vecino, consulta);
+				if (d < resultado.umbral()) {
+					resultado.ofrecer(d, vecino);
+					pendientes.anadir(d, vecino);
+				}
+			}
+		}
+		return resultado.extraer();
+	}
+
+	/**
+	 * @brief Calcula la distancia (sin raíz) de un nodo a la consulta.
+	 */
+	private double distancia(int nodo, double[] consulta) {
+		return metrica.suma(puntos, nodo * dimension, consulta, pesos);
+	}
+
+	/**
+	 * @brief Devuelve el número máximo de enlaces de un nivel.
+	 */
+	private int maximoEnlaces(int nivel) {
+		return nivel == 0 ? 2 * m : m;
+	}
+
+	/**
+	 * @brief Ordena por inserción los primeros n elementos por distancia creciente.
+	 */
+	private static void ordenar(int[] nodos, double[] distancias, int n) {
+		for (int i = 1; i < n; ++i) {
+			double d = distancias[i];
+			int nodo = nodos[i];
+			int j = i - 1;
+			while (j >= 0 && (distancias[j] > d || (distancias[j] == d && nodos[j] > nodo))) {
+				distancias[j + 1] = distancias[j];
+				nodos[j + 1] = nodos[j];
+				j--;
+			}
+			distancias[j + 1] = d;
+			nodos[j + 1] = nodo;
+		}
+	}
+
+	/**
+	 * @brief Cola de prioridad de mínimos sobre arrays primitivos.
+	 */
+	private static final class ColaMinima {
+		private double[] claves = new double[16];
+		private int[] nodos = new int[16];
+		private int tamano;
+
+		boolean isEmpty() {
+			return tamano == 0;
+		}
+
+		double minimo() {
+			return claves[0];
+		}
+
+		void anadir(double clave, int nodo) {
+			if (tamano == claves.length) {
+				claves = Arrays.copyOf(claves, 2 * tamano);
+				nodos = Arrays.copyOf(nodos, 2 * tamano);
+			}
+			int i = tamano++;
+			while (i > 0) {
+				int padre = (i - 1) >>> 1;
+				if (claves[padre] <= clave) break;
+				claves[i] = claves[padre];
+				nodos[i] = nodos[padre];
+				i = padre;
+			}
+			claves[i] = clave;
+			nodos[i] = nodo;
+		}
+
+		int extraer() {
+			int resultado = nodos[0];
+			double clave = claves[--tamano];
+			int nodo = nodos[tamano];
+			int i = 0;
+			while (true) {
+				int hijo = 2 * i + 1;
+				if (hijo >= tamano) break;
+				if (hijo + 1 < tamano && claves[hijo + 1] < claves[hijo]) hijo++;
+				if (claves[hijo] >= clave) break;
+				claves[i] = claves[hijo];
+				nodos[i] = nodos[hijo];
+				i = hijo;
+			}
+			claves[i] = clave;
+			nodos[i] = nodo;
+			return resultado;
+		}
+	}
+
+	/**
+	 * @brief Conjunto de nodos visitados con direccionamiento abierto.
+	 */
+	private static final class ConjuntoVisitados {
+		private int[] tabla = new int[64];
+		private int tamano;
+
+		ConjuntoVisitados() {
+			Arrays.fill(tabla, -1);
+		}
+
+		/**
+		 * @return true si el nodo no estaba en el conjunto.
+		 */
+		boolean anadir(int nodo) {
+			if (2 * (tamano + 1) > tabla.length) ampliar();
+			int mascara = tabla.length - 1;
+			int i = (nodo * 0x9E3779B9) >>> 7 & mascara;
+			while (tabla[i] >= 0) {
+				if (tabla[i] == nodo) return false;
+				i = (i + 1) & mascara;
+			}
+			tabla[i] = nodo;
+			tamano++;
+			return true;
+		}
+
+		private void ampliar() {
+			int[] anterior = tabla;
+			tabla = new int[2 * anterior.length];
+			Arrays.fill(tabla, -1);
+			tamano = 0;
+			for (int nodo : anterior) {
+				if (nodo >= 0) anadir(nodo);
+			}
+		}
+	}
+}
@@ -0,0 +1,24 @@
+package clasificacion;
+
+/**
+ * @brief Interfaz que define el contrato de los índices de búsqueda de vecinos.
+ *
+ * Un índice se construye una vez sobre las {@link Caracteristicas} del dataset de
+ * entrenamiento y responde a consultas de los k vecinos más cercanos.
+ */
+public interface IndiceVecinos {
+
+	/**
+	 * @brief Busca los k vecinos más cercanos a una consulta.
+	 * @param consulta Vector de la instancia a clasificar.
+	 * @param k Número de vecinos a buscar.
+	 * @return Vecinos ordenados por distancia creciente.
+	 */
+	public Vecinos buscar(double[] consulta, int k);
+
+	/**
+	 * @brief Devuelve el número de filas indexadas.
+	 * @return Número de filas.
+	 */
+	public int size();
+}
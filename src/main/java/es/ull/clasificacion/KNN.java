@@ -4,6 +4,7 @@ import java.security.SecureRandom;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.random.RandomGenerator;
 
 import datos.*;
 import vectores.Vector;
@@ -15,12 +16,24 @@ import vectores.Vector;
  * usando diferentes métricas de distancia.
  */
 public class KNN {
+	/** Número de dimensiones a partir del cual se indexa con un árbol métrico en lugar de un KD-tree */
+	private static final int DIMENSION_MAXIMA_KD = 20;
+
+	/** Semilla para la asignación de niveles del grafo HNSW */
+	private static final long SEMILLA_HNSW = 1234;
+
 	/** Número de vecinos a considerar */
 	private int vecinos;
 
 	/** Tipo de distancia a utilizar ("manhattan", "minkowski", "euclidiana") */
 	private String tipoDistancia;
 
+	/** Índice de vecinos construido sobre el dataset de entrenamiento (opcional) */
+	private IndiceVecinos indice;
+
+	/** Dataset sobre el que se construyó el índice */
+	private Dataset datosIndice;
+
 	/**
 	 * @brief Constructor que establece el número de vecinos y usa distancia euclidiana por defecto.
 	 * @param k Número de vecinos a considerar.
@@ -96,18 +109,52 @@ public class KNN {
 	 * @return Vector con las distancias calculadas.
 	 */
 	public Vector getDistancias(Dataset datos, Instancia nueva) {
+		double[] consulta = Caracteristicas.consulta(nueva);
+		double[] pesos = getPesos(datos, consulta.length);
+		Metrica metrica = new Metrica(tipoDistancia);
+		Fila fila = datos.cursor();
+		comprobarDimension(metrica, fila, consulta);
 		Vector aux = new Vector();
-		ArrayList<Atributo> pesosString = new ArrayList<>(datos.getAtributos());
-		ArrayList<Double> pesosDouble = new ArrayList<>();
-		for (Atributo str : pesosString) {
-			pesosDouble.add(str.getPeso());
-		}
-		for (int i = 0; i < datos.numeroCasos(); ++i) {
-			aux.add(calcularDistancia(datos.getInstance(i).getVector(), nueva.getVector(), pesosDouble));
+		for (int i = 0; i < fila.size(); ++i) {
+			aux.add(metrica.raiz(metrica.suma(fila.mover(i), consulta, pesos)));
 		}
 		return aux;
 	}
 
+	/**
+	 * @brief Obtiene los pesos de las primeras dimensiones.
+	 *
+	 * La dimensión j es el j-ésimo atributo cuantitativo, igual que en {@link Fila} y en
+	 * {@link Caracteristicas}, así que cada dimensión usa el peso de su propia columna aunque
+	 * haya atributos cualitativos delante.
+	 *
+	 * @param datos Dataset con las instancias de entrenamiento.
+	 * @param dimension Número de dimensiones de la consulta.
+	 * @return Pesos de cada dimensión.
+	 */
+	private static double[] getPesos(Dataset datos, int dimension) {
+		List<Cuantitativo> columnas = Caracteristicas.columnas(datos);
+		double[] pesos = new double[dimension];
+		for (int j = 0; j < dimension; ++j) {
+			pesos[j] = columnas.get(j).getPeso();
+		}
+		return pesos;
+	}
+
+	/**
+	 * @brief Comprueba, para la distancia euclidiana, que la consulta tiene una dimensión
+	 *        menos que las filas, igual que {@link #getDistanciaEuclidea(Vector, Vector, List)}.
+	 * @param metrica Métrica de la búsqueda.
+	 * @param fila Cursor sobre el dataset.
+	 * @param consulta Vector de la instancia a clasificar.
+	 * @throws IllegalArgumentException si los tamaños no coinciden.
+	 */
+	private static void comprobarDimension(Metrica metrica, Fila fila, double[] consulta) {
+		if (fila.size() > 0 && metrica.getTipo().equals("euclidiana") && fila.dimension() - 1 != consulta.length) {
+			throw new IllegalArgumentException("Los vectores deben tener el mismo tamaño: vieja.size() = " + fila.dimension() + ", nueva.size() = " + consulta.length);
+		}
+	}
+
 	/**
 	 * @brief Determina la clase predominante entre un conjunto de candidatos,
 	 *        basándose en la suma acumulada de sus distancias.
@@ -190,6 +237,65 @@ public class KNN {
 		return Math.sqrt(dist);
 	}
 
+	/**
+	 * @brief Selecciona los k vecinos más cercanos a partir de sus distancias.
+	 *
+	 * Recorre las distancias una sola vez manteniendo un montículo de máximos con los k mejores
+	 * candidatos, en O(n log k) y sin reservar memoria por fila. A igual distancia se prefiere
+	 * la fila de menor índice.
+	 *
+	 * @param distancias Vector con las distancias de cada candidato.
+	 * @return Índices y distancias de los k vecinos, de menor a mayor distancia.
+	 */
+	public Vecinos seleccionarVecinos(Vector distancias) {
+		if (distancias.size() == 0) return new Vecinos(new int[0], new double[0]);
+		MonticuloVecinos mejores = new MonticuloVecinos(Math.min(vecinos, distancias.size()));
+		for (int i = 0; i < distancias.size(); ++i) {
+			double distancia = distancias.get(i);
+			if (distancia <= mejores.umbral()) mejores.ofrecer(distancia, i);
+		}
+		return mejores.extraer();
+	}
+
+	/**
+	 * @brief Busca los k vecinos más cercanos recorriendo todas las instancias del dataset.
+	 * @param datos Dataset con las instancias de entrenamiento.
+	 * @param nueva Instancia nueva a clasificar.
+	 * @return Índices y distancias de los k vecinos, de menor a mayor distancia.
+	 */
+	public Vecinos seleccionarVecinos(Dataset datos, Instancia nueva) {
+		return seleccionarVecinos(datos, Caracteristicas.consulta(nueva));
+	}
+
+	/**
+	 * @brief Busca los k vecinos más cercanos a un vector de consulta recorriendo todas las
+	 *        instancias del dataset.
+	 *
+	 * Las filas se leen con un único {@link Fila} directamente de las columnas y cada
+	 * distancia se calcula con {@link Metrica#sumaAcotada(Fila, double[], double[], double)}
+	 * tomando como umbral el k-ésimo mejor candidato del montículo, así que la mayoría de filas
+	 * se descartan sin sumar todas las dimensiones ni calcular la raíz; esta solo se aplica a
+	 * los k elegidos. La memoria reservada no depende del número de filas.
+	 *
+	 * @param datos Dataset con las instancias de entrenamiento.
+	 * @param consulta Vector de la instancia a clasificar.
+	 * @return Índices y distancias de los k vecinos, de menor a mayor distancia.
+	 */
+	public Vecinos seleccionarVecinos(Dataset datos, double[] consulta) {
+		if (datos.numeroCasos() == 0) return new Vecinos(new int[0], new double[0]);
+		double[] pesos = getPesos(datos, consulta.length);
+		Metrica metrica = new Metrica(tipoDistancia);
+		Fila fila = datos.cursor();
+		comprobarDimension(metrica, fila, consulta);
+		MonticuloVecinos mejores = new MonticuloVecinos(Math.min(vecinos, fila.size()));
+		for (int i = 0; i < fila.size(); ++i) {
+			double umbral = mejores.umbral();
+			double suma = metrica.sumaAcotada(fila.mover(i), consulta, pesos, umbral);
+			if (suma <= umbral) mejores.ofrecer(suma, i);
+		}
+		return mejores.extraer(metrica);
+	}
+
 	/**
 	 * @brief Obtiene la clase del vecino más cercano entre los k vecinos más próximos.
 	 *
@@ -200,44 +306,208 @@ public class KNN {
 	 * @return Clase asignada por el algoritmo KNN.
 	 */
 	public String getVecino(List<Instancia> candidatos, Vector distancias) {
-		Vector aux = new Vector();
-		ArrayList<Integer> indices = new ArrayList<>();
+		Vecinos cercanos = this.seleccionarVecinos(distancias);
+		ArrayList<Instancia> elegidos = new ArrayList<>();
+		Vector distanciasElegidos = new Vector();
+		for (int i = 0; i < cercanos.size(); i++) {
+			elegidos.add(candidatos.get(cercanos.getIndice(i)));
+			distanciasElegidos.add(cercanos.getDistancia(i));
+		}
+		return this.getClase(elegidos, distanciasElegidos);
+	}
+
+	/**
+	 * @brief Construye un índice de vecinos sobre el dataset de entrenamiento.
+	 *
+	 * Se usa un KD-tree con pocas dimensiones y un árbol métrico (ball-tree) a partir de
+	 * {@value #DIMENSION_MAXIMA_KD}, donde el KD-tree deja de descartar ramas. Las siguientes
+	 * llamadas a {@link #clasificar} con este mismo dataset usarán el índice en lugar del
+	 * recorrido lineal. Si el dataset se modifica, el índice debe reconstruirse.
+	 *
+	 * @param datos Dataset con las instancias de entrenamiento.
+	 */
+	public void construirIndice(Dataset datos) {
+		Caracteristicas caracteristicas = new Caracteristicas(datos);
+		Metrica metrica = new Metrica(tipoDistancia);
+		if (caracteristicas.getDimension() > DIMENSION_MAXIMA_KD) {
+			setIndice(datos, new ArbolMetrico(caracteristicas, metrica));
+		} else {
+			setIndice(datos, new ArbolKD(caracteristicas, metrica));
+		}
+	}
+
+	/**
+	 * @brief Construye un índice aproximado HNSW sobre el dataset de entrenamiento.
+	 *
+	 * Las búsquedas dejan de ser exactas a cambio de latencia; el grafo devuelto permite
+	 * ajustar efSearch y medir la exhaustividad con {@link GrafoHNSW#recall}.
+	 *
+	 * @param datos Dataset con las instancias de entrenamiento.
+	 * @param m Número de enlaces por nodo.
+	 * @param efConstruccion Tamaño de la lista de candidatos al insertar.
+	 * @param efBusqueda Tamaño de la lista de candidatos al buscar.
+	 * @return Grafo construido y asignado como índice.
+	 */
+	public GrafoHNSW construirIndiceAproximado(Dataset datos, int m, int efConstruccion, int efBusqueda) {
+		GrafoHNSW grafo = new GrafoHNSW(new Caracteristicas(datos), new Metrica(tipoDistancia), m, efConstruccion, efBusqueda, SEMILLA_HNSW);
+		setIndice(datos, grafo);
+		return grafo;
+	}
+
+	/**
+	 * @brief Asigna un índice de vecinos ya construido sobre un dataset.
+	 * @param datos Dataset sobre el que se construyó el índice.
+	 * @param indice Índice de vecinos, o null para volver al recorrido lineal.
+	 */
+	public void setIndice(Dataset datos, IndiceVecinos indice) {
+		this.indice = indice;
+		this.datosIndice = indice == null ? null : datos;
+	}
 
-		// Agregar los primeros k vecinos
-		for (int i = 0; i < vecinos; i++) {
-			aux.add(distancias.get(i));
-			indices.add(i);
+	/**
+	 * @brief Indica si hay un índice construido sobre el dataset dado.
+	 * @param datos Dataset con las instancias de entrenamiento.
+	 * @return true si clasificar usará el índice para este dataset.
+	 */
+	public boolean tieneIndice(Dataset datos) {
+		return indice != null && datosIndice == datos;
+	}
+
+	/**
+	 * @brief Obtiene la clase ganadora entre los vecinos devueltos por un índice.
+	 *
+	 * Sigue el mismo criterio que {@link #getClase(List, Vector)}, pero acumula las distancias
+	 * por código de clase en lugar de buscar cada nombre en una lista.
+	 *
+	 * @param datos Dataset con las instancias de entrenamiento.
+	 * @param cercanos Vecinos más cercanos encontrados.
+	 * @return Clase asignada por el algoritmo KNN.
+	 */
+	public String getClase(Dataset datos, Vecinos cercanos) {
+		Cualitativo clases = (Cualitativo) datos.get(datos.numeroAtributos() - 1);
+		int[] codigos = new int[cercanos.size()];
+		for (int i = 0; i < codigos.length; i++) {
+			codigos[i] = clases.getCodigo(cercanos.getIndice(i));
 		}
+		return clases.valor(votar(codigos, cercanos, clases.nCodigos(), null));
+	}
 
-		// Mantener los k vecinos más cercanos
-		for (int i = vecinos; i < distancias.size(); ++i) {
-			if (aux.getMax() > distancias.get(i)) {
-				aux.set(aux.getMaxInt(), distancias.get(i));
-				indices.set(aux.getMaxInt(), i);
+	/**
+	 * @brief Elige el código de clase con menor distancia acumulada entre los vecinos.
+	 *
+	 * Las clases se consideran en el orden en que aparecen entre los vecinos y los empates
+	 * se resuelven aleatoriamente, igual que en {@link #getClase(List, Vector)}. Si se da un
+	 * generador, el desempate es reproducible; si no, se usa un SecureRandom nuevo.
+	 *
+	 * @param codigos Código de clase de cada vecino.
+	 * @param cercanos Vecinos con sus distancias, en el mismo orden que los códigos; solo
+	 *        votan los {@code codigos.length} primeros.
+	 * @param nCodigos Número de códigos posibles.
+	 * @param aleatorio Generador para los desempates, o null.
+	 * @return Código de la clase ganadora.
+	 */
+	static int votar(int[] codigos, Vecinos cercanos, int nCodigos, RandomGenerator aleatorio) {
+		double[] acumuladas = new double[nCodigos];
+		boolean[] vistas = new boolean[nCodigos];
+		int[] orden = new int[codigos.length];
+		int distintas = 0;
+		for (int i = 0; i < codigos.length; i++) {
+			int codigo = codigos[i];
+			if (!vistas[codigo]) {
+				vistas[codigo] = true;
+				orden[distintas++] = codigo;
 			}
+			acumuladas[codigo] += cercanos.getDistancia(i);
 		}
 
-		ArrayList<Instancia> elegidos = new ArrayList<>();
-		for (int i = 0; i < indices.size(); i++) {
-			elegidos.add(candidatos.get(indices.get(i)));
+		double minDistancia = Double.POSITIVE_INFINITY;
+		for (int i = 0; i < distintas; i++) {
+			minDistancia = Math.min(minDistancia, acumuladas[orden[i]]);
+		}
+		int ganadores = 0;
+		for (int i = 0; i < distintas; i++) {
+			if (acumuladas[orden[i]] == minDistancia) orden[ganadores++] = orden[i];
+		}
+
+		if (ganadores > 1) {
+			RandomGenerator desempate = aleatorio == null ? new SecureRandom() : aleatorio;
+			return orden[desempate.nextInt(ganadores)];
 		}
+		return orden[0];
+	}
 
-		return this.getClase(elegidos, distancias);
+	/**
+	 * @brief Prepara un modelo inmutable con los datos de entrenamiento, el k y la distancia
+	 *        de este clasificador.
+	 * @param datos Dataset con las instancias de entrenamiento.
+	 * @return Modelo preparado.
+	 */
+	public ModeloKNN ajustar(Dataset datos) {
+		return new ModeloKNN(datos, vecinos, tipoDistancia);
 	}
 
 	/**
 	 * @brief Clasifica una instancia nueva según los k vecinos más cercanos.
 	 *
+	 * Si hay un índice construido sobre el dataset se usa para buscar los vecinos;
+	 * en otro caso se recorren todas las instancias.
+	 *
 	 * @param datos Dataset con las instancias de entrenamiento.
 	 * @param nueva Instancia nueva a clasificar.
 	 * @return Clase asignada a la instancia nueva.
 	 */
 	public String clasificar(Dataset datos, Instancia nueva) {
-		Vector aux = this.getDistancias(datos, nueva);
-		ArrayList<Instancia> elegidos = new ArrayList<>();
-		for (int i = 0; i < datos.numeroCasos(); ++i) {
-			elegidos.add(datos.getInstance(i));
+		return this.clasificar(datos, Caracteristicas.consulta(nueva));
+	}
+
+	/**
+	 * @brief Clasifica varias instancias nuevas a la vez.
+	 * @param datos Dataset con las instancias de entrenamiento.
+	 * @param nuevas Instancias a clasificar.
+	 * @return Clase y vecinos de cada instancia, en el mismo orden.
+	 * @see #clasificar(Dataset, double[][])
+	 */
+	public List<Prediccion> clasificar(Dataset datos, List<Instancia> nuevas) {
+		double[][] consultas = new double[nuevas.size()][];
+		for (int q = 0; q < consultas.length; ++q) {
+			consultas[q] = Caracteristicas.consulta(nuevas.get(q));
+		}
+		return this.clasificar(datos, consultas);
+	}
+
+	/**
+	 * @brief Clasifica varios vectores de consulta a la vez.
+	 *
+	 * Si hay un índice construido sobre el dataset se busca cada consulta en él; en otro caso
+	 * se prepara un {@link ModeloKNN} y las distancias se calculan por bloques de consultas y
+	 * filas (ver {@link ModeloKNN#vecinos(double[][])}).
+	 *
+	 * @param datos Dataset con las instancias de entrenamiento.
+	 * @param consultas Vectores de las instancias a clasificar, todos de la misma longitud.
+	 * @return Clase y vecinos de cada consulta, en el mismo orden.
+	 */
+	public List<Prediccion> clasificar(Dataset datos, double[][] consultas) {
+		if (tieneIndice(datos)) {
+			List<Prediccion> predicciones = new ArrayList<>(consultas.length);
+			for (double[] consulta : consultas) {
+				Vecinos cercanos = indice.buscar(consulta, vecinos);
+				predicciones.add(new Prediccion(this.getClase(datos, cercanos), cercanos));
+			}
+			return predicciones;
+		}
+		return this.ajustar(datos).clasificar(consultas);
+	}
+
+	/**
+	 * @brief Clasifica un vector de consulta según los k vecinos más cercanos.
+	 * @param datos Dataset con las instancias de entrenamiento.
+	 * @param consulta Vector de la instancia a clasificar, como el de {@link Caracteristicas#consulta}.
+	 * @return Clase asignada a la consulta.
+	 */
+	public String clasificar(Dataset datos, double[] consulta) {
+		if (tieneIndice(datos)) {
+			return this.getClase(datos, indice.buscar(consulta, vecinos));
 		}
-		return this.getVecino(elegidos, aux);
+		return this.getClase(datos, this.seleccionarVecinos(datos, consulta));
 	}
 }
@@ -0,0 +1,143 @@
+package clasificacion;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * @brief Matriz simétrica de distancias entre todas las filas de un modelo.
+ *
+ * Solo se guarda el triángulo superior sin la diagonal, empaquetado por filas en un único
+ * array primitivo de n(n-1)/2 posiciones; cada posición es la suma de términos de la métrica
+ * (la distancia sin raíz). El cálculo se reparte entre hilos emparejando la fila i con la
+ * n-1-i para que todas las tareas tengan el mismo trabajo.
+ *
+ * Sirve para la validación dejando uno fuera: los vecinos de cada fila se obtienen de la
+ * matriz sin volver a calcular distancias, excluyendo la propia fila.
+ */
+public final class MatrizDistancias {
+
+	/** Número de filas */
+	private final int filas;
+
+	/** Métrica de las distancias */
+	private final Metrica metrica;
+
+	/** Triángulo superior empaquetado: la pareja (i, j) con i &lt; j está en indice(i, j) */
+	private final double[] sumas;
+
+	/**
+	 * @brief Calcula la matriz de distancias entre las filas de un modelo.
+	 *
+	 * Solo intervienen las primeras dimensiones, igual que con una consulta de esa longitud.
+	 *
+	 * @param modelo Modelo con las filas.
+	 * @param dimensiones Número de dimensiones que intervienen en la distancia.
+	 * @param hilos Número de hilos del cálculo.
+	 * @throws IllegalArgumentException si hay demasiadas filas para un array, si las
+	 *         dimensiones superan las del modelo o si el número de hilos es menor que 1.
+	 */
+	public MatrizDistancias(ModeloKNN modelo, int dimensiones, int hilos) {
+		if (dimensiones > modelo.getDimension()) {
+			throw new IllegalArgumentException("Se piden " + dimensiones + " dimensiones y el modelo tiene " + modelo.getDimension());
+		}
+		if (hilos < 1) throw new IllegalArgumentException("El número de hilos debe ser al menos 1: " + hilos);
+		this.filas = modelo.size();
+		this.metrica = modelo.getMetrica();
+		long parejas = (long) filas * (filas - 1) / 2;
+		if (parejas > Integer.MAX_VALUE - 8) {
+			throw new IllegalArgumentException("Demasiadas filas para la matriz de distancias: " + filas);
+		}
+		this.sumas = new double[(int) parejas];
+
+		double[] valores = modelo.getValores();
+		int dimension = modelo.getDimension();
+		int mitad = (filas + 1) / 2;
+		IntConsumer pareja = i -> {
+			calcularFila(valores, dimension, dimensiones, i);
+			if (filas - 1 - i != i) calcularFila(valores, dimension, dimensiones, filas - 1 - i);
+		};
+		if (hilos == 1) {
+			IntStream.range(0, mitad).forEach(pareja);
+		} else {
+			ForkJoinPool pool = new ForkJoinPool(hilos);
+			try {
+				pool.invoke(ForkJoinTask.adapt(() -> IntStream.range(0, mitad).parallel().forEach(pareja)));
+			} finally {
+				pool.shutdown();
+			}
+		}
+	}
+
+	/**
+	 * @brief Calcula las distancias de una fila a todas las posteriores.
+	 * @param valores Características ponderadas por filas.
+	 * @param dimension Número de dimensiones de cada fila.
+	 * @param dimensiones Número de dimensiones que intervienen.
+	 * @param i Fila.
+	 */
+	private void calcularFila(double[] valores, int dimension, int dimensiones, int i) {
+		int posicion = indice(i, i + 1);
+		for (int j = i + 1; j < filas; ++j) {
+			double suma = 0.0;
+			for (int d = 0; d < dimensiones; ++d) {
+				suma += metrica.termino(valores[i * dimension + d] - valores[j * dimension + d]);
+			}
+			sumas[posicion++] = suma;
+		}
+	}
+
+	/**
+	 * @brief Posición de la pareja (i, j), con i &lt; j, en el triángulo empaquetado.
+	 * @param i Fila menor.
+	 * @param j Fila mayor.
+	 * @return Posición en el array.
+	 */
+	private int indice(int i, int j) {
+		return (int) ((long) i * filas - (long) i * (i + 1) / 2 + (j - i - 1));
+	}
+
+	/**
+	 * @brief Devuelve el número de filas.
+	 * @return Número de filas.
+	 */
+	public int size() {
+		return filas;
+	}
+
+	/**
+	 * @brief Devuelve la distancia entre dos filas.
+	 * @param i Primera fila.
+	 * @param j Segunda fila.
+	 * @return Distancia entre las filas (0 si son la misma).
+	 */
+	public double get(int i, int j) {
+		if (i == j) return 0.0;
+		return metrica.raiz(i < j ? sumas[indice(i, j)] : sumas[indice(j, i)]);
+	}
+
+	/**
+	 * @brief Devuelve los k vecinos más cercanos de una fila sin contar la propia fila.
+	 *
+	 * A igual distancia se prefiere la fila de menor índice, igual que en {@link ModeloKNN}.
+	 *
+	 * @param fila Fila cuyos vecinos se buscan.
+	 * @param k Número de vecinos.
+	 * @return Vecinos ordenados por distancia creciente.
+	 */
+	public Vecinos vecinos(int fila, int k) {
+		if (filas < 2) return new Vecinos(new int[0], new double[0]);
+		MonticuloVecinos mejores = new MonticuloVecinos(Math.min(k, filas - 1));
+		for (int j = 0; j < fila; ++j) {
+			double suma = sumas[indice(j, fila)];
+			if (suma <= mejores.umbral()) mejores.ofrecer(suma, j);
+		}
+		int posicion = fila + 1 < filas ? indice(fila, fila + 1) : 0;
+		for (int j = fila + 1; j < filas; ++j) {
+			double suma = sumas[posicion++];
+			if (suma <= mejores.umbral()) mejores.ofrecer(suma, j);
+		}
+		return mejores.extraer(metrica);
+	}
+}
@@ -0,0 +1,207 @@
+package clasificacion;
+
+import java.nio.DoubleBuffer;
+
+import datos.Fila;
+
+/**
+ * @brief Métrica de distancia ponderada sobre vectores primitivos.
+ *
+ * Reproduce las distancias de {@link KNN#calcularDistancia} ("euclidiana", "manhattan" y
+ * "minkowski" con p = 3) descompuestas en una suma de términos por dimensión y una raíz
+ * final, de forma que los índices de vecinos puedan acumular cotas dimensión a dimensión.
+ */
+public final class Metrica {
+
+	/** Orden usado por la distancia Minkowski, igual que en {@link KNN#calcularDistancia} */
+	public static final int P_MINKOWSKI = 3;
+
+	/** Tipo de distancia normalizado ("manhattan", "minkowski" o "euclidiana") */
+	private final String tipo;
+
+	/**
+	 * @brief Constructor que establece el tipo de distancia.
+	 * @param tipoDistancia Tipo de distancia (case insensitive). Si es null se usa la euclidiana.
+	 */
+	public Metrica(String tipoDistancia) {
+		String normalizado = tipoDistancia == null ? "euclidiana" : tipoDistancia.toLowerCase();
+		if (!normalizado.equals("manhattan") && !normalizado.equals("minkowski")) {
+			normalizado = "euclidiana";
+		}
+		this.tipo = normalizado;
+	}
+
+	/**
+	 * @brief Devuelve el tipo de distancia.
+	 * @return Nombre normalizado de la distancia.
+	 */
+	public String getTipo() {
+		return tipo;
+	}
+
+	/**
+	 * @brief Calcula la contribución de una dimensión a la suma de la distancia.
+	 * @param diferencia Diferencia ya ponderada entre las dos coordenadas.
+	 * @return Término a acumular.
+	 */
+	public double termino(double diferencia) {
+		switch (tipo) {
+			case "manhattan":
+				return Math.abs(diferencia);
+			case "minkowski":
+				return Math.pow(Math.abs(diferencia), P_MINKOWSKI);
+			default:
+				return diferencia * diferencia;
+		}
+	}
+
+	/**
+	 * @brief Convierte una suma de términos en la distancia final.
+	 * @param suma Suma de términos de todas las dimensiones.
+	 * @return Distancia.
+	 */
+	public double raiz(double suma) {
+		switch (tipo) {
+			case "manhattan":
+				return suma;
+			case "minkowski":
+				return Math.pow(suma, 1.0 / P_MINKOWSKI);
+			default:
+				return Math.sqrt(suma);
+		}
+	}
+
+	/**
+	 * @brief Calcula la suma de términos (distancia sin raíz) entre una fila y una consulta.
+	 *
+	 * Solo intervienen las {@code consulta.length} primeras dimensiones, igual que en el
+	 * recorrido lineal de {@link KNN}.
+	 *
+	 * @param datos Matriz de características por filas.
+	 * @param desde Posición de la fila dentro de la matriz.
+	 * @param consulta Vector de la instancia a clasificar.
+	 * @param pesos Pesos para cada dimensión.
+	 * @return Suma de términos.
+	 */
+	public double suma(double[] datos, int desde, double[] consulta, double[] pesos) {
+		return suma(datos, desde, consulta, 0, consulta.length, pesos);
+	}
+
+	/**
+	 * @brief Calcula la suma de términos (distancia sin raíz) entre dos filas cualesquiera.
+	 * @param a Matriz de la primera fila.
+	 * @param desdeA Posición de la primera fila.
+	 * @param b Matriz de la segunda fila.
+	 * @param desdeB Posición de la segunda fila.
+	 * @param dimensiones Número de dimensiones a comparar.
+	 * @param pesos Pesos para cada dimensión.
+	 * @return Suma de términos.
+	 */
+	public double suma(double[] a, int desdeA, double[] b, int desdeB, int dimensiones, double[] pesos) {
+		double suma = 0.0;
+		for (int j = 0; j < dimensiones; j++) {
+			suma += termino((a[desdeA + j] - b[desdeB + j]) * pesos[j]);
+		}
+		return suma;
+	}
+
+	/**
+	 * @brief Calcula la suma de términos entre una fila y una consulta, abandonando en cuanto
+	 *        la suma parcial supera el umbral.
+	 * @param datos Matriz de características por filas.
+	 * @param desde Posición de la fila dentro de la matriz.
+	 * @param consulta Vector de la instancia a clasificar.
+	 * @param pesos Pesos para cada dimensión.
+	 * @param umbral Suma a partir de la cual la fila ya no interesa.
+	 * @return Suma de términos, o una suma parcial mayor que el umbral.
+	 */
+	public double sumaAcotada(double[] datos, int desde, double[] consulta, double[] pesos, double umbral) {
+		double suma = 0.0;
+		for (int j = 0; j < consulta.length; j++) {
+			suma += termino((datos[desde + j] - consulta[j]) * pesos[j]);
+			if (suma > umbral) return suma;
+		}
+		return suma;
+	}
+
+	/**
+	 * @brief Calcula la suma de términos entre una fila y una consulta ya ponderadas,
+	 *        abandonando en cuanto la suma parcial supera el umbral.
+	 * @param datos Matriz de características ponderadas por filas.
+	 * @param desde Posición de la fila dentro de la matriz.
+	 * @param consulta Vector de consulta ponderado.
+	 * @param umbral Suma a partir de la cual la fila ya no interesa.
+	 * @return Suma de términos, o una suma parcial mayor que el umbral.
+	 */
+	public double sumaAcotada(double[] datos, int desde, double[] consulta, double umbral) {
+		double suma = 0.0;
+		for (int j = 0; j < consulta.length; j++) {
+			suma += termino(datos[desde + j] - consulta[j]);
+			if (suma > umbral) return suma;
+		}
+		return suma;
+	}
+
+	/**
+	 * @brief Calcula la suma de términos entre una fila guardada fuera del heap y una consulta
+	 *        ya ponderadas, abandonando en cuanto la suma parcial supera el umbral.
+	 * @param datos Matriz de características ponderadas por filas.
+	 * @param desde Posición de la fila dentro de la matriz.
+	 * @param consulta Vector de consulta ponderado.
+	 * @param umbral Suma a partir de la cual la fila ya no interesa.
+	 * @return Suma de términos, o una suma parcial mayor que el umbral.
+	 */
+	public double sumaAcotada(DoubleBuffer datos, int desde, double[] consulta, double umbral) {
+		double suma = 0.0;
+		for (int j = 0; j < consulta.length; j++) {
+			suma += termino(datos.get(desde + j) - consulta[j]);
+			if (suma > umbral) return suma;
+		}
+		return suma;
+	}
+
+	/**
+	 * @brief Calcula la suma de términos entre la fila actual de un cursor y una consulta.
+	 * @param fila Cursor situado en la fila a comparar.
+	 * @param consulta Vector de la instancia a clasificar.
+	 * @param pesos Pesos para cada dimensión.
+	 * @return Suma de términos.
+	 */
+	public double suma(Fila fila, double[] consulta, double[] pesos) {
+		double suma = 0.0;
+		for (int j = 0; j < consulta.length; j++) {
+			suma += termino((fila.get(j) - consulta[j]) * pesos[j]);
+		}
+		return suma;
+	}
+
+	/**
+	 * @brief Calcula la suma de términos entre la fila actual de un cursor y una consulta,
+	 *        abandonando en cuanto la suma parcial supera el umbral.
+	 * @param fila Cursor situado en la fila a comparar.
+	 * @param consulta Vector de la instancia a clasificar.
+	 * @param pesos Pesos para cada dimensión.
+	 * @param umbral Suma a partir de la cual la fila ya no interesa.
+	 * @return Suma de términos, o una suma parcial mayor que el umbral.
+	 */
+	public double sumaAcotada(Fila fila, double[] consulta, double[] pesos, double umbral) {
+		double suma = 0.0;
+		for (int j = 0; j < consulta.length; j++) {
+			suma += termino((fila.get(j) - consulta[j]) * pesos[j]);
+			if (suma > umbral) return suma;
+		}
+		return suma;
+	}
+
+	/**
+	 * @brief Calcula la distancia entre una fila y una consulta.
+	 * @param datos Matriz de características por filas.
+	 * @param desde Posición de la fila dentro de la matriz.
+	 * @param consulta Vector de la instancia a clasificar.
+	 * @param pesos Pesos para cada dimensión.
+	 * @return Distancia ponderada.
+	 */
+	public double distancia(double[] datos, int desde, double[] consulta, double[] pesos) {
+		return raiz(suma(datos, desde, consulta, pesos));
+	}
+}
@@ -0,0 +1,355 @@
+package clasificacion;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+import datos.*;
+
+/**
+ * @brief Modelo KNN preparado sobre un dataset de entrenamiento.
+ *
+ * Se construye una sola vez a partir del dataset, el número de vecinos y la distancia, y
+ * guarda en memoria contigua la matriz de características ya multiplicadas por sus pesos
+ * (ver {@link Caracteristicas}), los pesos y el código de clase de cada fila. Cada consulta
+ * solo pondera su propio vector y recorre la matriz con abandono temprano.
+ *
+ * El modelo es inmutable y no depende del dataset tras construirse, así que puede
+ * compartirse entre hilos.
+ */
+public final class ModeloKNN {
+
+	/** Número de consultas que se procesan juntas en la clasificación por lotes */
+	private static final int BLOQUE_CONSULTAS = 32;
+
+	/** Número de valores de entrenamiento por bloque (32 KB), pensado para caber en la caché L1/L2 */
+	private static final int VALORES_BLOQUE = 4096;
+
+	/** Número de vecinos a considerar */
+	private final int vecinos;
+
+	/** Métrica de distancia */
+	private final Metrica metrica;
+
+	/** Número de filas de entrenamiento */
+	private final int filas;
+
+	/** Número de dimensiones */
+	private final int dimension;
+
+	/** Características ponderadas por filas: la fila i ocupa [i * dimension, (i + 1) * dimension) */
+	private final double[] valores;
+
+	/** Peso de cada dimensión */
+	private final double[] pesos;
+
+	/** Código de clase de cada fila */
+	private final int[] codigos;
+
+	/** Nombre de la clase de cada código */
+	private final String[] clases;
+
+	/**
+	 * @brief Construye el modelo a partir de un dataset de entrenamiento.
+	 * @param datos Dataset con las instancias de entrenamiento; el último atributo es la clase.
+	 * @param k Número de vecinos a considerar.
+	 * @param tipoDistancia Tipo de distancia ("euclidiana", "manhattan" o "minkowski").
+	 * @throws IllegalArgumentException si k es menor que 1.
+	 */
+	public ModeloKNN(Dataset datos, int k, String tipoDistancia) {
+		this(datos, new Caracteristicas(datos), null, k, tipoDistancia);
+	}
+
+	/**
+	 * @brief Construye el modelo con una selección de filas de un dataset.
+	 *
+	 * Solo se copian las filas seleccionadas. Los índices de los vecinos devueltos son
+	 * posiciones dentro de la selección.
+	 *
+	 * @param datos Dataset con las instancias; el último atributo es la clase.
+	 * @param seleccion Índices de las filas de entrenamiento dentro del dataset.
+	 * @param k Número de vecinos a considerar.
+	 * @param tipoDistancia Tipo de distancia ("euclidiana", "manhattan" o "minkowski").
+	 * @throws IllegalArgumentException si k es menor que 1.
+	 */
+	public ModeloKNN(Dataset datos, int[] seleccion, int k, String tipoDistancia) {
+		this(datos, new Caracteristicas(datos, seleccion), seleccion, k, tipoDistancia);
+	}
+
+	/**
+	 * @brief Constructor común.
+	 * @param datos Dataset con las instancias.
+	 * @param caracteristicas Características de las filas de entrenamiento.
+	 * @param seleccion Índices de las filas de entrenamiento, o null si son todas.
+	 * @param k Número de vecinos a considerar.
+	 * @param tipoDistancia Tipo de distancia.
+	 */
+	private ModeloKNN(Dataset datos, Caracteristicas caracteristicas, int[] seleccion, int k, String tipoDistancia) {
+		if (k < 1) throw new IllegalArgumentException("El número de vecinos debe ser al menos 1: " + k);
+		this.vecinos = k;
+		this.metrica = new Metrica(tipoDistancia);
+		this.filas = caracteristicas.getFilas();
+		this.dimension = caracteristicas.getDimension();
+		this.pesos = caracteristicas.getPesos().clone();
+		this.valores = caracteristicas.getValores().clone();
+		for (int i = 0; i < valores.length; ++i) {
+			valores[i] *= pesos[i % dimension];
+		}
+
+		Fila fila = datos.cursor();
+		Cualitativo columna = fila.columnaClase();
+		this.codigos = new int[filas];
+		for (int i = 0; i < filas; ++i) {
+			codigos[i] = fila.mover(seleccion == null ? i : seleccion[i]).getCodigo();
+		}
+		this.clases = new String[columna.nCodigos()];
+		for (int codigo = 0; codigo < clases.length; ++codigo) {
+			clases[codigo] = columna.valor(codigo);
+		}
+	}
+
+	/**
+	 * @brief Devuelve el número de vecinos.
+	 * @return Número de vecinos.
+	 */
+	public int getK() {
+		return vecinos;
+	}
+
+	/**
+	 * @brief Devuelve la métrica del modelo.
+	 * @return Métrica de distancia.
+	 */
+	public Metrica getMetrica() {
+		return metrica;
+	}
+
+	/**
+	 * @brief Devuelve el número de filas de entrenamiento.
+	 * @return Número de filas.
+	 */
+	public int size() {
+		return filas;
+	}
+
+	/**
+	 * @brief Devuelve el número de dimensiones.
+	 * @return Número de dimensiones.
+	 */
+	public int getDimension() {
+		return dimension;
+	}
+
+	/**
+	 * @brief Devuelve las características ponderadas por filas, sin copiarlas.
+	 * @return Matriz de características; no debe modificarse.
+	 */
+	double[] getValores() {
+		return valores;
+	}
+
+	/**
+	 * @brief Devuelve el código de clase de una fila de entrenamiento.
+	 * @param fila Índice de la fila.
+	 * @return Código de la clase.
+	 */
+	public int getCodigo(int fila) {
+		return codigos[fila];
+	}
+
+	/**
+	 * @brief Devuelve el nombre de la clase de un código.
+	 * @param codigo Código de la clase.
+	 * @return Nombre de la clase.
+	 */
+	public String getClase(int codigo) {
+		return clases[codigo];
+	}
+
+	/**
+	 * @brief Devuelve el número de códigos de clase.
+	 * @return Número de códigos.
+	 */
+	public int nCodigos() {
+		return clases.length;
+	}
+
+	/**
+	 * @brief Busca los k vecinos más cercanos a una consulta.
+	 *
+	 * Solo intervienen las {@code consulta.length} primeras dimensiones, igual que en el
+	 * recorrido lineal de {@link KNN}. A igual distancia se prefiere la fila de menor índice.
+	 *
+	 * @param consulta Vector de la instancia a clasificar (sin ponderar).
+	 * @return Índices y distancias de los k vecinos, de menor a mayor distancia.
+	 * @throws IllegalArgumentException si la consulta tiene más dimensiones que el modelo.
+	 */
+	public Vecinos vecinos(double[] consulta) {
+		if (consulta.length > dimension) {
+			throw new IllegalArgumentException("La consulta tiene " + consulta.length + " dimensiones y el modelo " + dimension);
+		}
+		if (filas == 0) return new Vecinos(new int[0], new double[0]);
+		double[] ponderada = new double[consulta.length];
+		for (int j = 0; j < consulta.length; ++j) {
+			ponderada[j] = consulta[j] * pesos[j];
+		}
+		MonticuloVecinos mejores = new MonticuloVecinos(Math.min(vecinos, filas));
+		for (int i = 0; i < filas; ++i) {
+			double umbral = mejores.umbral();
+			double suma = metrica.sumaAcotada(valores, i * dimension, ponderada, umbral);
+			if (suma <= umbral) mejores.ofrecer(suma, i);
+		}
+		return mejores.extraer(metrica);
+	}
+
+	/**
+	 * @brief Busca los k vecinos más cercanos de varias consultas a la vez.
+	 *
+	 * Las distancias se calculan por bloques de {@value #BLOQUE_CONSULTAS} consultas por un
+	 * bloque de filas de entrenamiento que cabe en caché, de modo que cada bloque de filas se
+	 * lee de memoria una vez por bloque de consultas y no una vez por consulta. Cada distancia
+	 * se calcula con la misma suma acotada que {@link #vecinos(double[])} y las filas se
+	 * recorren en el mismo orden, así que los vecinos, las distancias y los empates son
+	 * idénticos a los de consultar una a una.
+	 *
+	 * @param consultas Vectores de las instancias a clasificar (sin ponderar), todos de la misma longitud.
+	 * @return Vecinos de cada consulta, de menor a mayor distancia.
+	 * @throws IllegalArgumentException si las consultas no tienen la misma longitud o superan
+	 *         las dimensiones del modelo.
+	 */
+	public Vecinos[] vecinos(double[][] consultas) {
+		int longitud = consultas.length == 0 ? 0 : consultas[0].length;
+		if (longitud > dimension) {
+			throw new IllegalArgumentException("La consulta tiene " + longitud + " dimensiones y el modelo " + dimension);
+		}
+		double[][] ponderadas = new double[consultas.length][longitud];
+		for (int q = 0; q < consultas.length; ++q) {
+			if (consultas[q].length != longitud) {
+				throw new IllegalArgumentException("Todas las consultas del lote deben tener " + longitud + " dimensiones: " + consultas[q].length);
+			}
+			for (int j = 0; j < longitud; ++j) {
+				ponderadas[q][j] = consultas[q][j] * pesos[j];
+			}
+		}
+		Vecinos[] resultado = new Vecinos[consultas.length];
+		if (filas == 0) {
+			for (int q = 0; q < resultado.length; ++q) resultado[q] = new Vecinos(new int[0], new double[0]);
+			return resultado;
+		}
+
+		int filasBloque = Math.max(16, VALORES_BLOQUE / Math.max(1, dimension));
+		MonticuloVecinos[] monticulos = new MonticuloVecinos[Math.min(BLOQUE_CONSULTAS, consultas.length)];
+		for (int b = 0; b < monticulos.length; ++b) {
+			monticulos[b] = new MonticuloVecinos(Math.min(vecinos, filas));
+		}
+		for (int q0 = 0; q0 < consultas.length; q0 += BLOQUE_CONSULTAS) {
+			int q1 = Math.min(q0 + BLOQUE_CONSULTAS, consultas.length);
+			for (int r0 = 0; r0 < filas; r0 += filasBloque) {
+				int r1 = Math.min(r0 + filasBloque, filas);
+				for (int q = q0; q < q1; ++q) {
+					MonticuloVecinos mejores = monticulos[q - q0];
+					double[] consulta = ponderadas[q];
+					for (int i = r0; i < r1; ++i) {
+						double umbral = mejores.umbral();
+						double suma = metrica.sumaAcotada(valores, i * dimension, consulta, umbral);
+						if (suma <= umbral) mejores.ofrecer(suma, i);
+					}
+				}
+			}
+			for (int q = q0; q < q1; ++q) {
+				resultado[q] = monticulos[q - q0].extraer(metrica);
+			}
+		}
+		return resultado;
+	}
+
+	/**
+	 * @brief Clasifica varias consultas a la vez.
+	 * @param consultas Vectores de las instancias a clasificar, todos de la misma longitud.
+	 * @return Clase y vecinos de cada consulta, en el mismo orden.
+	 * @see #vecinos(double[][])
+	 */
+	public List<Prediccion> clasificar(double[][] consultas) {
+		Vecinos[] encontrados = vecinos(consultas);
+		List<Prediccion> predicciones = new ArrayList<>(encontrados.length);
+		for (Vecinos cercanos : encontrados) {
+			predicciones.add(new Prediccion(getClase(cercanos), cercanos));
+		}
+		return predicciones;
+	}
+
+	/**
+	 * @brief Obtiene la clase ganadora entre unos vecinos del modelo.
+	 * @param cercanos Vecinos encontrados.
+	 * @return Clase asignada por el algoritmo KNN.
+	 */
+	public String getClase(Vecinos cercanos) {
+		return clases[votar(cercanos, cercanos.size(), null)];
+	}
+
+	/**
+	 * @brief Obtiene el código de la clase ganadora con un desempate reproducible.
+	 *
+	 * El resultado solo depende de los vecinos y de la semilla, así que una misma consulta
+	 * recibe la misma clase sea cual sea el hilo o el orden en que se evalúe.
+	 *
+	 * @param cercanos Vecinos encontrados.
+	 * @param semilla Semilla del desempate.
+	 * @return Código de la clase ganadora.
+	 */
+	public int votar(Vecinos cercanos, long semilla) {
+		return votar(cercanos, cercanos.size(), new SplittableRandom(semilla));
+	}
+
+	/**
+	 * @brief Obtiene el código de la clase ganadora entre los k primeros vecinos, con un
+	 *        desempate reproducible.
+	 *
+	 * Como los vecinos están ordenados, los k primeros son los que se obtendrían buscando
+	 * directamente con ese k, así que una sola búsqueda con el k mayor sirve para votar con
+	 * todos los k menores.
+	 *
+	 * @param cercanos Vecinos encontrados, de menor a mayor distancia.
+	 * @param k Número de vecinos que votan (se limita al número de vecinos disponibles).
+	 * @param semilla Semilla del desempate.
+	 * @return Código de la clase ganadora.
+	 */
+	public int votar(Vecinos cercanos, int k, long semilla) {
+		return votar(cercanos, Math.min(k, cercanos.size()), new SplittableRandom(semilla));
+	}
+
+	/**
+	 * @brief Obtiene el código de la clase ganadora entre los primeros vecinos del modelo.
+	 * @param cercanos Vecinos encontrados.
+	 * @param k Número de vecinos que votan.
+	 * @param aleatorio Generador para los desempates, o null para usar uno seguro.
+	 * @return Código de la clase ganadora.
+	 */
+	private int votar(Vecinos cercanos, int k, RandomGenerator aleatorio) {
+		if (k == 0) throw new IllegalStateException("El modelo no tiene instancias de entrenamiento");
+		int[] elegidos = new int[k];
+		for (int i = 0; i < elegidos.length; ++i) {
+			elegidos[i] = codigos[cercanos.getIndice(i)];
+		}
+		return KNN.votar(elegidos, cercanos, clases.length, aleatorio);
+	}
+
+	/**
+	 * @brief Clasifica un vector de consulta.
+	 * @param consulta Vector de la instancia a clasificar.
+	 * @return Clase asignada.
+	 */
+	public String clasificar(double[] consulta) {
+		return getClase(vecinos(consulta));
+	}
+
+	/**
+	 * @brief Clasifica una instancia nueva.
+	 * @param nueva Instancia a clasificar.
+	 * @return Clase asignada.
+	 */
+	public String clasificar(Instancia nueva) {
+		return clasificar(Caracteristicas.consulta(nueva));
+	}
+}
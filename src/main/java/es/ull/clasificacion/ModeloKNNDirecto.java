@@ -0,0 +1,425 @@
+package clasificacion;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+import datos.*;
+
+/**
+ * @brief Modelo KNN que guarda la matriz de características fuera del heap.
+ *
+ * Funciona igual que {@link ModeloKNN}, pero las características ponderadas y los códigos de
+ * clase de cada fila se guardan en búferes directos ({@link ByteBuffer#allocateDirect}), que
+ * el recolector de basura no recorre ni mueve, así que un conjunto de entrenamiento muy
+ * grande no alarga sus pausas. La matriz se reparte en segmentos de como mucho
+ * {@value #VALORES_SEGMENTO} valores, de modo que el número de filas no está limitado por el
+ * tamaño máximo de un array ni de un búfer.
+ *
+ * El modelo puede construirse desde un dataset en memoria o leyendo un archivo por bloques
+ * con {@link LectorBloques}, sin cargar nunca el archivo entero en el heap. Los vecinos y las
+ * distancias son los mismos que los de un {@link ModeloKNN} con las mismas filas.
+ *
+ * La memoria se libera de forma explícita con {@link #close()}: a partir de ese momento el
+ * modelo deja de referenciar los búferes y cualquier consulta lanza una excepción. Las
+ * consultas pueden hacerse desde varios hilos, también mientras otro hilo cierra el modelo:
+ * cada consulta trabaja con los segmentos que había al empezar, que siguen siendo válidos
+ * hasta que el recolector los descarta.
+ */
+public final class ModeloKNNDirecto implements AutoCloseable {
+
+	/** Número máximo de valores por segmento (128 MB) */
+	static final int VALORES_SEGMENTO = 1 << 24;
+
+	/** Número de vecinos a considerar */
+	private final int vecinos;
+
+	/** Métrica de distancia */
+	private final Metrica metrica;
+
+	/** Número máximo de filas por segmento, o 0 hasta conocer la dimensión */
+	private int filasSegmento;
+
+	/** Número de filas de entrenamiento */
+	private int filas;
+
+	/** Número de dimensiones */
+	private int dimension;
+
+	/** Peso de cada dimensión, o null hasta la primera fila */
+	private double[] pesos;
+
+	/** Segmentos de características ponderadas por filas; la fila r de un segmento ocupa [r * dimension, (r + 1) * dimension) */
+	private volatile List<DoubleBuffer> valores = new ArrayList<>();
+
+	/** Segmentos con el código de clase de cada fila */
+	private volatile List<IntBuffer> codigos = new ArrayList<>();
+
+	/** Nombre de la clase de cada código */
+	private final List<String> clases = new ArrayList<>();
+
+	/** Código de cada nombre de clase */
+	private final Map<String, Integer> codigoClase = new HashMap<>();
+
+	/** Indica si el modelo se ha cerrado */
+	private volatile boolean cerrado;
+
+	/**
+	 * @brief Construye el modelo a partir de un dataset de entrenamiento.
+	 * @param datos Dataset con las instancias de entrenamiento; el último atributo es la clase.
+	 * @param k Número de vecinos a considerar.
+	 * @param tipoDistancia Tipo de distancia ("euclidiana", "manhattan" o "minkowski").
+	 * @throws IllegalArgumentException si k es menor que 1.
+	 */
+	public ModeloKNNDirecto(Dataset datos, int k, String tipoDistancia) {
+		this(k, tipoDistancia, 0);
+		anadir(datos);
+	}
+
+	/**
+	 * @brief Construye un modelo vacío.
+	 * @param k Número de vecinos a considerar.
+	 * @param tipoDistancia Tipo de distancia.
+	 * @param filasSegmento Número máximo de filas por segmento, o 0 para calcularlo con la dimensión.
+	 * @throws IllegalArgumentException si k es menor que 1.
+	 */
+	ModeloKNNDirecto(int k, String tipoDistancia, int filasSegmento) {
+		if (k < 1) throw new IllegalArgumentException("El número de vecinos debe ser al menos 1: " + k);
+		this.vecinos = k;
+		this.metrica = new Metrica(tipoDistancia);
+		this.filasSegmento = filasSegmento;
+	}
+
+	/**
+	 * @brief Construye el modelo leyendo un archivo por bloques.
+	 *
+	 * En el heap solo está a la vez un bloque de {@link ModeloKNNExterno#FILAS_BLOQUE} filas.
+	 *
+	 * @param filename Archivo de entrenamiento, CSV o de {@link FormatoBinario}.
+	 * @param k Número de vecinos a considerar.
+	 * @param tipoDistancia Tipo de distancia ("euclidiana", "manhattan" o "minkowski").
+	 * @return Modelo construido; hay que cerrarlo.
+	 * @throws IOException Si ocurre un error al leer el archivo.
+	 */
+	public static ModeloKNNDirecto leer(String filename, int k, String tipoDistancia) throws IOException {
+		return leer(filename, k, tipoDistancia, ModeloKNNExterno.FILAS_BLOQUE, 0);
+	}
+
+	/**
+	 * @brief Construye el modelo leyendo un archivo con bloques y segmentos de tamaño dado.
+	 * @param filename Archivo de entrenamiento.
+	 * @param k Número de vecinos a considerar.
+	 * @param tipoDistancia Tipo de distancia.
+	 * @param filasBloque Número máximo de filas por bloque de lectura.
+	 * @param filasSegmento Número máximo de filas por segmento, o 0 para calcularlo con la dimensión.
+	 * @return Modelo construido.
+	 * @throws IOException Si ocurre un error al leer el archivo.
+	 */
+	static ModeloKNNDirecto leer(String filename, int k, String tipoDistancia, int filasBloque, int filasSegmento) throws IOException {
+		ModeloKNNDirecto modelo = new ModeloKNNDirecto(k, tipoDistancia, filasSegmento);
+		try (LectorBloques bloques = LectorBloques.abrir(filename, filasBloque)) {
+			Dataset bloque;
+			while ((bloque = bloques.siguiente()) != null) {
+				modelo.anadir(bloque);
+			}
+		} catch (IOException | RuntimeException e) {
+			modelo.close();
+			throw e;
+		}
+		return modelo;
+	}
+
+	/**
+	 * @brief Copia las filas de un dataset al final de los segmentos.
+	 * @param datos Dataset con las filas; el último atributo es la clase.
+	 * @throws IllegalArgumentException si las dimensiones no coinciden con las filas anteriores.
+	 */
+	private void anadir(Dataset datos) {
+		List<Cuantitativo> columnas = Caracteristicas.columnas(datos);
+		int n = datos.numeroCasos();
+		if (pesos == null) {
+			dimension = columnas.size();
+			pesos = new double[dimension];
+			for (int j = 0; j < dimension; ++j) {
+				pesos[j] = columnas.get(j).getPeso();
+			}
+			if (filasSegmento == 0) filasSegmento = Math.max(1, VALORES_SEGMENTO / Math.max(1, dimension));
+		} else if (columnas.size() != dimension) {
+			throw new IllegalArgumentException("El bloque tiene " + columnas.size() + " dimensiones y el modelo " + dimension);
+		}
+		if (n == 0) return;
+		if ((long) filas + n > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("El modelo no admite más de " + Integer.MAX_VALUE + " filas");
+		}
+		reservar(filas + n);
+		int[] nuevos = ModeloKNNExterno.codigos(datos, clases, codigoClase);
+		for (int i = 0; i < n; ++i) {
+			int fila = filas + i;
+			DoubleBuffer segmento = valores.get(fila / filasSegmento);
+			int desde = (fila % filasSegmento) * dimension;
+			// Las filas se ponderan igual que en ModeloKNN para obtener las mismas distancias
+			for (int j = 0; j < dimension; ++j) {
+				segmento.put(desde + j, columnas.get(j).getDouble(i) * pesos[j]);
+			}
+			codigos.get(fila / filasSegmento).put(fila % filasSegmento, nuevos[i]);
+		}
+		filas += n;
+	}
+
+	/**
+	 * @brief Amplía los segmentos hasta que quepan un número de filas.
+	 *
+	 * El último segmento crece al doble hasta llegar a {@link #filasSegmento} filas, así que un
+	 * modelo pequeño no reserva un segmento entero.
+	 *
+	 * @param total Número de filas que deben caber.
+	 */
+	private void reservar(int total) {
+		while (true) {
+			int s = codigos.size();
+			int base = s == 0 ? 0 : (s - 1) * filasSegmento;
+			int capacidad = s == 0 ? 0 : codigos.get(s - 1).capacity();
+			if (base + capacidad >= total) return;
+			if (s > 0 && capacidad < filasSegmento) {
+				int nueva = (int) Math.min(filasSegmento, Math.max(total - base, 2L * capacidad));
+				int usadas = filas - base;
+				DoubleBuffer segmento = segmentoValores(nueva);
+				segmento.put(0, valores.get(s - 1), 0, usadas * dimension);
+				IntBuffer segmentoCodigos = segmentoCodigos(nueva);
+				segmentoCodigos.put(0, codigos.get(s - 1), 0, usadas);
+				valores.set(s - 1, segmento);
+				codigos.set(s - 1, segmentoCodigos);
+			} else {
+				int nueva = Math.min(filasSegmento, total - base - capacidad);
+				valores.add(segmentoValores(nueva));
+				codigos.add(segmentoCodigos(nueva));
+			}
+		}
+	}
+
+	/**
+	 * @brief Reserva un segmento de características fuera del heap.
+	 * @param filasReservadas Número de filas del segmento.
+	 * @return Segmento vacío.
+	 */
+	private DoubleBuffer segmentoValores(int filasReservadas) {
+		return ByteBuffer.allocateDirect(filasReservadas * dimension * Double.BYTES).order(ByteOrder.nativeOrder()).asDoubleBuffer();
+	}
+
+	/**
+	 * @brief Reserva un segmento de códigos de clase fuera del heap.
+	 * @param filasReservadas Número de filas del segmento.
+	 * @return Segmento vacío.
+	 */
+	private static IntBuffer segmentoCodigos(int filasReservadas) {
+		return ByteBuffer.allocateDirect(filasReservadas * Integer.BYTES).order(ByteOrder.nativeOrder()).asIntBuffer();
+	}
+
+	/**
+	 * @brief Comprueba que el modelo no se ha cerrado.
+	 * @throws IllegalStateException si el modelo está cerrado.
+	 */
+	private void abierto() {
+		if (cerrado) throw new IllegalStateException("El modelo está cerrado");
+	}
+
+	/**
+	 * @brief Devuelve el número de vecinos.
+	 * @return Número de vecinos.
+	 */
+	public int getK() {
+		return vecinos;
+	}
+
+	/**
+	 * @brief Devuelve la métrica del modelo.
+	 * @return Métrica de distancia.
+	 */
+	public Metrica getMetrica() {
+		return metrica;
+	}
+
+	/**
+	 * @brief Devuelve el número de filas de entrenamiento.
+	 * @return Número de filas.
+	 */
+	public int size() {
+		return filas;
+	}
+
+	/**
+	 * @brief Devuelve el número de dimensiones.
+	 * @return Número de dimensiones.
+	 */
+	public int getDimension() {
+		return dimension;
+	}
+
+	/**
+	 * @brief Indica si el modelo se ha cerrado.
+	 * @return true si ya no se puede consultar.
+	 */
+	public boolean isCerrado() {
+		return cerrado;
+	}
+
+	/**
+	 * @brief Devuelve el código de clase de una fila de entrenamiento.
+	 * @param fila Índice de la fila.
+	 * @return Código de la clase.
+	 * @throws IllegalStateException si el modelo está cerrado.
+	 */
+	public int getCodigo(int fila) {
+		List<IntBuffer> segmentos = codigos;
+		abierto();
+		if (fila < 0 || fila >= filas) throw new IndexOutOfBoundsException("Fila fuera de rango: " + fila);
+		return segmentos.get(fila / filasSegmento).get(fila % filasSegmento);
+	}
+
+	/**
+	 * @brief Devuelve el nombre de la clase de un código.
+	 * @param codigo Código de la clase.
+	 * @return Nombre de la clase.
+	 */
+	public String getClase(int codigo) {
+		return clases.get(codigo);
+	}
+
+	/**
+	 * @brief Devuelve el número de códigos de clase.
+	 * @return Número de códigos.
+	 */
+	public int nCodigos() {
+		return clases.size();
+	}
+
+	/**
+	 * @brief Busca los k vecinos más cercanos a una consulta.
+	 *
+	 * Recorre los segmentos en orden con abandono temprano, igual que
+	 * {@link ModeloKNN#vecinos(double[])}. A igual distancia se prefiere la fila de menor índice.
+	 *
+	 * @param consulta Vector de la instancia a clasificar (sin ponderar).
+	 * @return Índices y distancias de los k vecinos, de menor a mayor distancia.
+	 * @throws IllegalArgumentException si la consulta tiene más dimensiones que el modelo.
+	 * @throws IllegalStateException si el modelo está cerrado.
+	 */
+	public Vecinos vecinos(double[] consulta) {
+		List<DoubleBuffer> segmentos = valores;
+		abierto();
+		if (consulta.length > dimension) {
+			throw new IllegalArgumentException("La consulta tiene " + consulta.length + " dimensiones y el modelo " + dimension);
+		}
+		if (filas == 0) return new Vecinos(new int[0], new double[0]);
+		double[] ponderada = new double[consulta.length];
+		for (int j = 0; j < consulta.length; ++j) {
+			ponderada[j] = consulta[j] * pesos[j];
+		}
+		MonticuloVecinos mejores = new MonticuloVecinos(Math.min(vecinos, filas));
+		for (int s = 0; s < segmentos.size(); ++s) {
+			DoubleBuffer segmento = segmentos.get(s);
+			int base = s * filasSegmento;
+			int n = Math.min(filasSegmento, filas - base);
+			for (int r = 0; r < n; ++r) {
+				double umbral = mejores.umbral();
+				double suma = metrica.sumaAcotada(segmento, r * dimension, ponderada, umbral);
+				if (suma <= umbral) mejores.ofrecer(suma, base + r);
+			}
+		}
+		return mejores.extraer(metrica);
+	}
+
+	/**
+	 * @brief Clasifica varias consultas.
+	 * @param consultas Vectores de las instancias a clasificar.
+	 * @return Clase y vecinos de cada consulta, en el mismo orden.
+	 * @throws IllegalStateException si el modelo está cerrado.
+	 */
+	public List<Prediccion> clasificar(double[][] consultas) {
+		List<Prediccion> predicciones = new ArrayList<>(consultas.length);
+		for (double[] consulta : consultas) {
+			Vecinos cercanos = vecinos(consulta);
+			predicciones.add(new Prediccion(getClase(cercanos), cercanos));
+		}
+		return predicciones;
+	}
+
+	/**
+	 * @brief Obtiene la clase ganadora entre unos vecinos del modelo.
+	 * @param cercanos Vecinos encontrados.
+	 * @return Clase asignada por el algoritmo KNN.
+	 */
+	public String getClase(Vecinos cercanos) {
+		return clases.get(votar(cercanos, null));
+	}
+
+	/**
+	 * @brief Obtiene el código de la clase ganadora con un desempate reproducible.
+	 * @param cercanos Vecinos encontrados.
+	 * @param semilla Semilla del desempate.
+	 * @return Código de la clase ganadora.
+	 * @see ModeloKNN#votar(Vecinos, long)
+	 */
+	public int votar(Vecinos cercanos, long semilla) {
+		return votar(cercanos, new SplittableRandom(semilla));
+	}
+
+	/**
+	 * @brief Obtiene el código de la clase ganadora entre los vecinos del modelo.
+	 * @param cercanos Vecinos encontrados.
+	 * @param aleatorio Generador para los desempates, o null para usar uno seguro.
+	 * @return Código de la clase ganadora.
+	 */
+	private int votar(Vecinos cercanos, RandomGenerator aleatorio) {
+		if (cercanos.size() == 0) throw new IllegalStateException("El modelo no tiene instancias de entrenamiento");
+		int[] elegidos = new int[cercanos.size()];
+		for (int i = 0; i < elegidos.length; ++i) {
+			elegidos[i] = getCodigo(cercanos.getIndice(i));
+		}
+		return KNN.votar(elegidos, cercanos, clases.size(), aleatorio);
+	}
+
+	/**
+	 * @brief Clasifica un vector de consulta.
+	 * @param consulta Vector de la instancia a clasificar.
+	 * @return Clase asignada.
+	 * @throws IllegalStateException si el modelo está cerrado.
+	 */
+	public String clasificar(double[] consulta) {
+		return getClase(vecinos(consulta));
+	}
+
+	/**
+	 * @brief Clasifica una instancia nueva.
+	 * @param nueva Instancia a clasificar.
+	 * @return Clase asignada.
+	 * @throws IllegalStateException si el modelo está cerrado.
+	 */
+	public String clasificar(Instancia nueva) {
+		return clasificar(Caracteristicas.consulta(nueva));
+	}
+
+	/**
+	 * @brief Libera los segmentos del modelo.
+	 *
+	 * La memoria nativa de los búferes directos se devuelve al sistema cuando el recolector
+	 * descarta los objetos que la envuelven, que ya no tienen ninguna referencia. Una consulta
+	 * que empezó antes de cerrar termina con los segmentos que ya tenía; las posteriores lanzan
+	 * IllegalStateException. Cerrar un modelo ya cerrado no hace nada.
+	 */
+	@Override
+	public void close() {
+		// Se marca antes de soltar los segmentos: quien vea las listas vacías ve el modelo cerrado
+		cerrado = true;
+		valores = new ArrayList<>();
+		codigos = new ArrayList<>();
+	}
+}
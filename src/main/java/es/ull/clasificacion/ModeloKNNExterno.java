@@ -0,0 +1,326 @@
+package clasificacion;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import datos.*;
+
+/**
+ * @brief KNN sobre un dataset de entrenamiento que se lee del disco por bloques.
+ *
+ * A diferencia de {@link ModeloKNN}, no guarda las filas de entrenamiento: cada clasificación
+ * recorre el archivo con un {@link LectorBloques} y, por cada bloque, busca con
+ * {@link MonticuloVecinos} los k mejores candidatos de cada consulta y los mezcla con los k
+ * mejores de los bloques anteriores. La búsqueda en un bloque empieza con el k-ésimo mejor
+ * candidato ya conocido como umbral, así que el abandono temprano sigue funcionando entre
+ * bloques. La memoria depende del tamaño del bloque y del número de consultas, no del
+ * número de filas del archivo.
+ *
+ * Los vecinos y las distancias son los mismos que los de un {@link ModeloKNN} construido con
+ * el archivo entero, con índices de fila del archivo; la clase se vota igual.
+ */
+public final class ModeloKNNExterno {
+
+	/** Número de filas por bloque por defecto */
+	public static final int FILAS_BLOQUE = 1 << 16;
+
+	/** Ruta del archivo de entrenamiento */
+	private final String filename;
+
+	/** Número de vecinos a considerar */
+	private final int vecinos;
+
+	/** Métrica de distancia */
+	private final Metrica metrica;
+
+	/** Número máximo de filas por bloque */
+	private final int filasBloque;
+
+	/**
+	 * @brief Constructor con el tamaño de bloque por defecto.
+	 * @param filename Archivo de entrenamiento, CSV o de {@link FormatoBinario}.
+	 * @param k Número de vecinos a considerar.
+	 * @param tipoDistancia Tipo de distancia ("euclidiana", "manhattan" o "minkowski").
+	 */
+	public ModeloKNNExterno(String filename, int k, String tipoDistancia) {
+		this(filename, k, tipoDistancia, FILAS_BLOQUE);
+	}
+
+	/**
+	 * @brief Constructor.
+	 * @param filename Archivo de entrenamiento, CSV o de {@link FormatoBinario}.
+	 * @param k Número de vecinos a considerar.
+	 * @param tipoDistancia Tipo de distancia ("euclidiana", "manhattan" o "minkowski").
+	 * @param filasBloque Número máximo de filas de entrenamiento en memoria a la vez.
+	 * @throws IllegalArgumentException si k o filasBloque son menores que 1.
+	 */
+	public ModeloKNNExterno(String filename, int k, String tipoDistancia, int filasBloque) {
+		if (k < 1) throw new IllegalArgumentException("El número de vecinos debe ser al menos 1: " + k);
+		if (filasBloque < 1) throw new IllegalArgumentException("El bloque debe tener al menos una fila: " + filasBloque);
+		this.filename = filename;
+		this.vecinos = k;
+		this.metrica = new Metrica(tipoDistancia);
+		this.filasBloque = filasBloque;
+	}
+
+	/**
+	 * @brief Devuelve el número de vecinos.
+	 * @return Número de vecinos.
+	 */
+	public int getK() {
+		return vecinos;
+	}
+
+	/**
+	 * @brief Devuelve la métrica del modelo.
+	 * @return Métrica de distancia.
+	 */
+	public Metrica getMetrica() {
+		return metrica;
+	}
+
+	/**
+	 * @brief Clasifica un vector de consulta.
+	 * @param consulta Vector de la instancia a clasificar.
+	 * @return Clase asignada.
+	 * @throws IOException Si ocurre un error al leer el archivo.
+	 */
+	public String clasificar(double[] consulta) throws IOException {
+		return clasificar(new double[][]{consulta}).get(0).getClase();
+	}
+
+	/**
+	 * @brief Clasifica una instancia nueva.
+	 * @param nueva Instancia a clasificar.
+	 * @return Clase asignada.
+	 * @throws IOException Si ocurre un error al leer el archivo.
+	 */
+	public String clasificar(Instancia nueva) throws IOException {
+		return clasificar(Caracteristicas.consulta(nueva));
+	}
+
+	/**
+	 * @brief Clasifica varias consultas con un solo recorrido del archivo.
+	 * @param consultas Vectores de las instancias a clasificar (sin ponderar), todos de la
+	 *        misma longitud.
+	 * @return Clase y vecinos de cada consulta, en el mismo orden.
+	 * @throws IOException Si ocurre un error al leer el archivo.
+	 * @throws IllegalArgumentException si las consultas no tienen la misma longitud o superan
+	 *         las dimensiones del archivo.
+	 */
+	public List<Prediccion> clasificar(double[][] consultas) throws IOException {
+		return clasificar(consultas, null);
+	}
+
+	/**
+	 * @brief Clasifica varias consultas con un desempate reproducible.
+	 *
+	 * Cada consulta desempata con la misma semilla, igual que {@link ModeloKNN#votar(Vecinos, long)}.
+	 *
+	 * @param consultas Vectores de las instancias a clasificar, todos de la misma longitud.
+	 * @param semilla Semilla del desempate.
+	 * @return Clase y vecinos de cada consulta, en el mismo orden.
+	 * @throws IOException Si ocurre un error al leer el archivo.
+	 */
+	public List<Prediccion> clasificar(double[][] consultas, long semilla) throws IOException {
+		return clasificar(consultas, Long.valueOf(semilla));
+	}
+
+	/**
+	 * @brief Recorre el archivo y vota la clase de cada consulta.
+	 * @param consultas Vectores de las instancias a clasificar.
+	 * @param semilla Semilla del desempate, o null para usar uno seguro.
+	 * @return Clase y vecinos de cada consulta.
+	 * @throws IOException Si ocurre un error al leer el archivo.
+	 */
+	private List<Prediccion> clasificar(double[][] consultas, Long semilla) throws IOException {
+		int longitud = consultas.length == 0 ? 0 : consultas[0].length;
+		for (double[] consulta : consultas) {
+			if (consulta.length != longitud) {
+				throw new IllegalArgumentException("Todas las consultas del lote deben tener " + longitud + " dimensiones: " + consulta.length);
+			}
+		}
+		Candidatos[] candidatos = new Candidatos[consultas.length];
+		for (int q = 0; q < candidatos.length; ++q) {
+			candidatos[q] = new Candidatos(vecinos);
+		}
+		List<String> clases = new ArrayList<>();
+		Map<String, Integer> codigoClase = new HashMap<>();
+		double[][] ponderadas = null;
+		MonticuloVecinos mejores = new MonticuloVecinos(vecinos);
+
+		try (LectorBloques bloques = LectorBloques.abrir(filename, filasBloque)) {
+			int inicio = 0;
+			Dataset bloque;
+			while ((bloque = bloques.siguiente()) != null) {
+				Caracteristicas caracteristicas = new Caracteristicas(bloque);
+				int dimension = caracteristicas.getDimension();
+				if (longitud > dimension) {
+					throw new IllegalArgumentException("La consulta tiene " + longitud + " dimensiones y el modelo " + dimension);
+				}
+				double[] pesos = caracteristicas.getPesos();
+				if (ponderadas == null) ponderadas = ponderar(consultas, pesos);
+				// Las filas se ponderan igual que en ModeloKNN para obtener las mismas distancias
+				double[] valores = caracteristicas.getValores();
+				for (int i = 0; i < valores.length; ++i) {
+					valores[i] *= pesos[i % dimension];
+				}
+				int[] codigos = codigos(bloque, clases, codigoClase);
+
+				int filas = caracteristicas.getFilas();
+				for (int q = 0; q < consultas.length; ++q) {
+					Candidatos actuales = candidatos[q];
+					double cota = actuales.umbral();
+					for (int i = 0; i < filas; ++i) {
+						double umbral = Math.min(mejores.umbral(), cota);
+						double suma = metrica.sumaAcotada(valores, i * dimension, ponderadas[q], umbral);
+						if (suma <= umbral) mejores.ofrecer(suma, inicio + i);
+					}
+					Vecinos delBloque = mejores.extraer();
+					actuales.mezclar(delBloque, codigos, inicio);
+				}
+				inicio += filas;
+			}
+		}
+
+		List<Prediccion> predicciones = new ArrayList<>(consultas.length);
+		for (int q = 0; q < consultas.length; ++q) {
+			Candidatos actuales = candidatos[q];
+			double[] distancias = new double[actuales.tamano];
+			for (int i = 0; i < distancias.length; ++i) {
+				distancias[i] = metrica.raiz(actuales.sumas[i]);
+			}
+			Vecinos cercanos = new Vecinos(Arrays.copyOf(actuales.indices, actuales.tamano), distancias);
+			if (cercanos.size() == 0) throw new IllegalStateException("El modelo no tiene instancias de entrenamiento");
+			int[] elegidos = Arrays.copyOf(actuales.codigos, actuales.tamano);
+			int ganadora = KNN.votar(elegidos, cercanos, clases.size(), semilla == null ? null : new SplittableRandom(semilla));
+			predicciones.add(new Prediccion(clases.get(ganadora), cercanos));
+		}
+		return predicciones;
+	}
+
+	/**
+	 * @brief Multiplica cada consulta por los pesos de las dimensiones.
+	 * @param consultas Consultas sin ponderar.
+	 * @param pesos Peso de cada dimensión.
+	 * @return Consultas ponderadas.
+	 */
+	private static double[][] ponderar(double[][] consultas, double[] pesos) {
+		double[][] ponderadas = new double[consultas.length][];
+		for (int q = 0; q < consultas.length; ++q) {
+			ponderadas[q] = new double[consultas[q].length];
+			for (int j = 0; j < consultas[q].length; ++j) {
+				ponderadas[q][j] = consultas[q][j] * pesos[j];
+			}
+		}
+		return ponderadas;
+	}
+
+	/**
+	 * @brief Traduce la clase de cada fila de un bloque a un código común a todos los bloques.
+	 * @param bloque Bloque de filas; el último atributo es la clase.
+	 * @param clases Nombres de las clases vistas, por código; se amplía con las nuevas.
+	 * @param codigoClase Código de cada clase vista; se amplía con las nuevas.
+	 * @return Código común de cada fila del bloque.
+	 */
+	static int[] codigos(Dataset bloque, List<String> clases, Map<String, Integer> codigoClase) {
+		Fila fila = bloque.cursor();
+		Cualitativo columna = fila.columnaClase();
+		int[] traduccion = new int[columna.nCodigos()];
+		for (int c = 0; c < traduccion.length; ++c) {
+			String clase = columna.valor(c);
+			Integer codigo = codigoClase.get(clase);
+			if (codigo == null) {
+				codigo = clases.size();
+				clases.add(clase);
+				codigoClase.put(clase, codigo);
+			}
+			traduccion[c] = codigo;
+		}
+		int[] codigos = new int[fila.size()];
+		for (int i = 0; i < codigos.length; ++i) {
+			codigos[i] = traduccion[fila.mover(i).getCodigo()];
+		}
+		return codigos;
+	}
+
+	/**
+	 * @brief Los k mejores candidatos de una consulta entre los bloques ya recorridos.
+	 */
+	private static final class Candidatos {
+
+		/** Sumas sin raíz, de menor a mayor */
+		private double[] sumas;
+
+		/** Índice de fila en el archivo de cada candidato */
+		private int[] indices;
+
+		/** Código común de la clase de cada candidato */
+		private int[] codigos;
+
+		/** Número de candidatos */
+		private int tamano;
+
+		/**
+		 * @brief Constructor.
+		 * @param k Número de candidatos a conservar.
+		 */
+		Candidatos(int k) {
+			this.sumas = new double[k];
+			this.indices = new int[k];
+			this.codigos = new int[k];
+		}
+
+		/**
+		 * @brief Devuelve la suma que debe mejorar un candidato nuevo.
+		 * @return Suma del k-ésimo candidato, o infinito si aún no hay k.
+		 */
+		double umbral() {
+			return tamano == sumas.length ? sumas[tamano - 1] : Double.POSITIVE_INFINITY;
+		}
+
+		/**
+		 * @brief Mezcla los candidatos de un bloque, ya ordenados, con los actuales.
+		 *
+		 * A igual suma va primero el de menor índice, igual que en {@link MonticuloVecinos}.
+		 *
+		 * @param bloque Candidatos del bloque, con sumas sin raíz como distancias.
+		 * @param codigosBloque Código común de cada fila del bloque.
+		 * @param inicio Índice en el archivo de la primera fila del bloque.
+		 */
+		void mezclar(Vecinos bloque, int[] codigosBloque, int inicio) {
+			int k = sumas.length;
+			double[] nuevasSumas = new double[k];
+			int[] nuevosIndices = new int[k];
+			int[] nuevosCodigos = new int[k];
+			int a = 0;
+			int b = 0;
+			int n = 0;
+			while (n < k && (a < tamano || b < bloque.size())) {
+				boolean delBloque = a == tamano || (b < bloque.size() && (bloque.getDistancia(b) < sumas[a]
+						|| (bloque.getDistancia(b) == sumas[a] && bloque.getIndice(b) < indices[a])));
+				if (delBloque) {
+					nuevasSumas[n] = bloque.getDistancia(b);
+					nuevosIndices[n] = bloque.getIndice(b);
+					nuevosCodigos[n] = codigosBloque[bloque.getIndice(b) - inicio];
+					b++;
+				} else {
+					nuevasSumas[n] = sumas[a];
+					nuevosIndices[n] = indices[a];
+					nuevosCodigos[n] = codigos[a];
+					a++;
+				}
+				n++;
+			}
+			sumas = nuevasSumas;
+			indices = nuevosIndices;
+			codigos = nuevosCodigos;
+			tamano = n;
+		}
+	}
+}
@@ -0,0 +1,151 @@
+package clasificacion;
+
+/**
+ * @brief Montículo de máximos acotado que conserva los k mejores candidatos.
+ *
+ * Guarda pares (clave, índice) en arrays primitivos; la raíz es siempre el peor candidato
+ * conservado, de modo que cada inserción cuesta O(log k) y no reserva memoria. A igual
+ * clave se considera peor el candidato de mayor índice.
+ */
+public final class MonticuloVecinos {
+
+	/** Número máximo de candidatos */
+	private final int capacidad;
+
+	/** Claves (distancias o sumas sin raíz) de los candidatos */
+	private final double[] claves;
+
+	/** Índices de fila de los candidatos */
+	private final int[] indices;
+
+	/** Número de candidatos almacenados */
+	private int tamano;
+
+	/**
+	 * @brief Constructor que reserva espacio para k candidatos.
+	 * @param k Número de candidatos a conservar.
+	 */
+	public MonticuloVecinos(int k) {
+		if (k < 1) throw new IllegalArgumentException("El número de vecinos debe ser mayor que 0");
+		this.capacidad = k;
+		this.claves = new double[k];
+		this.indices = new int[k];
+	}
+
+	/**
+	 * @brief Devuelve el número de candidatos almacenados.
+	 * @return Número de candidatos.
+	 */
+	public int size() {
+		return tamano;
+	}
+
+	/**
+	 * @brief Indica si ya se han almacenado k candidatos.
+	 * @return true si el montículo está lleno.
+	 */
+	public boolean lleno() {
+		return tamano == capacidad;
+	}
+
+	/**
+	 * @brief Devuelve la clave del peor candidato, o infinito si aún no está lleno.
+	 * @return Umbral que debe mejorar un nuevo candidato.
+	 */
+	public double umbral() {
+		return tamano == capacidad ? claves[0] : Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * @brief Vacía el montículo para reutilizarlo.
+	 */
+	public void clear() {
+		tamano = 0;
+	}
+
+	/**
+	 * @brief Ofrece un candidato; se guarda si está entre los k mejores vistos.
+	 * @param clave Clave del candidato.
+	 * @param indice Índice de fila del candidato.
+	 * @return true si el candidato se ha guardado.
+	 */
+	public boolean ofrecer(double clave, int indice) {
+		if (tamano < capacidad) {
+			int i = tamano++;
+			while (i > 0) {
+				int padre = (i - 1) >>> 1;
+				if (!peor(clave, indice, claves[padre], indices[padre])) break;
+				claves[i] = claves[padre];
+				indices[i] = indices[padre];
+				i = padre;
+			}
+			claves[i] = clave;
+			indices[i] = indice;
+			return true;
+		}
+		if (!peor(claves[0], indices[0], clave, indice)) return false;
+		hundir(clave, indice, tamano);
+		return true;
+	}
+
+	/**
+	 * @brief Extrae los candidatos ordenados de mejor a peor y vacía el montículo.
+	 * @return Vecinos con las claves como distancias.
+	 */
+	public Vecinos extraer() {
+		return extraer(null);
+	}
+
+	/**
+	 * @brief Extrae los candidatos ordenados de mejor a peor y vacía el montículo.
+	 * @param metrica Métrica con la que convertir las claves (sumas sin raíz) en distancias,
+	 *                o null si las claves ya son distancias.
+	 * @return Vecinos ordenados por distancia creciente.
+	 */
+	public Vecinos extraer(Metrica metrica) {
+		int n = tamano;
+		int[] ordenIndices = new int[n];
+		double[] ordenClaves = new double[n];
+		for (int i = n - 1; i >= 0; --i) {
+			ordenClaves[i] = claves[0];
+			ordenIndices[i] = indices[0];
+			--tamano;
+			if (tamano > 0) hundir(claves[tamano], indices[tamano], tamano);
+		}
+		if (metrica != null) {
+			for (int i = 0; i < n; ++i) {
+				ordenClaves[i] = metrica.raiz(ordenClaves[i]);
+			}
+		}
+		return new Vecinos(ordenIndices, ordenClaves);
+	}
+
+	/**
+	 * @brief Coloca un candidato en la raíz y lo hunde hasta su posición.
+	 * @param clave Clave del candidato.
+	 * @param indice Índice del candidato.
+	 * @param n Número de elementos válidos del montículo.
+	 */
+	private void hundir(double clave, int indice, int n) {
+		int i = 0;
+		while (true) {
+			int hijo = 2 * i + 1;
+			if (hijo >= n) break;
+			if (hijo + 1 < n && peor(claves[hijo + 1], indices[hijo + 1], claves[hijo], indices[hijo])) hijo++;
+			if (!peor(claves[hijo], indices[hijo], clave, indice)) break;
+			claves[i] = claves[hijo];
+			indices[i] = indices[hijo];
+			i = hijo;
+		}
+		claves[i] = clave;
+		indices[i] = indice;
+	}
+
+	/**
+	 * @brief Compara dos candidatos.
+	 * @return true si el candidato a es peor (más lejano) que el b.
+	 */
+	private static boolean peor(double claveA, int indiceA, double claveB, int indiceB) {
+		return claveA > claveB || (claveA == claveB && indiceA > indiceB);
+	}
+}
@@ -0,0 +1,50 @@
+package clasificacion;
+
+import java.util.Arrays;
+
+/**
+ * @brief Resultado de clasificar una consulta: la clase asignada y los vecinos usados.
+ */
+public final class Prediccion {
+
+	/** Clase asignada */
+	private final String clase;
+
+	/** Vecinos más cercanos, de menor a mayor distancia */
+	private final Vecinos vecinos;
+
+	/**
+	 * @brief Constructor.
+	 * @param clase Clase asignada.
+	 * @param vecinos Vecinos más cercanos.
+	 */
+	public Prediccion(String clase, Vecinos vecinos) {
+		this.clase = clase;
+		this.vecinos = vecinos;
+	}
+
+	/**
+	 * @brief Devuelve la clase asignada.
+	 * @return Clase asignada.
+	 */
+	public String getClase() {
+		return clase;
+	}
+
+	/**
+	 * @brief Devuelve los vecinos usados en la votación.
+	 * @return Vecinos más cercanos.
+	 */
+	public Vecinos getVecinos() {
+		return vecinos;
+	}
+
+	/**
+	 * @brief Devuelve una representación textual de la predicción.
+	 * @return Cadena con la clase y los índices de los vecinos.
+	 */
+	@Override
+	public String toString() {
+		return clase + " " + Arrays.toString(vecinos.getIndices());
+	}
+}
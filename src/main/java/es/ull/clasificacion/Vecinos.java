@@ -0,0 +1,71 @@
+package clasificacion;
+
+/**
+ * @brief Resultado de una búsqueda de vecinos: índices de las filas y sus distancias.
+ *
+ * Los vecinos están ordenados de menor a mayor distancia; en caso de empate va primero
+ * la fila con menor índice, igual que en el recorrido lineal de {@link KNN#getVecino}.
+ */
+public final class Vecinos {
+
+	/** Índices de las filas vecinas en el dataset de entrenamiento */
+	private final int[] indices;
+
+	/** Distancias de cada vecino a la instancia consultada */
+	private final double[] distancias;
+
+	/**
+	 * @brief Constructor a partir de los índices y distancias ya ordenados.
+	 * @param indices Índices de las filas vecinas.
+	 * @param distancias Distancias correspondientes a cada vecino.
+	 */
+	public Vecinos(int[] indices, double[] distancias) {
+		if (indices.length != distancias.length) {
+			throw new IllegalArgumentException("Debe haber una distancia por cada vecino");
+		}
+		this.indices = indices;
+		this.distancias = distancias;
+	}
+
+	/**
+	 * @brief Devuelve el número de vecinos.
+	 * @return Número de vecinos encontrados.
+	 */
+	public int size() {
+		return indices.length;
+	}
+
+	/**
+	 * @brief Devuelve el índice de fila del vecino i-ésimo.
+	 * @param i Posición del vecino (0 es el más cercano).
+	 * @return Índice de la fila en el dataset.
+	 */
+	public int getIndice(int i) {
+		return indices[i];
+	}
+
+	/**
+	 * @brief Devuelve la distancia del vecino i-ésimo.
+	 * @param i Posición del vecino (0 es el más cercano).
+	 * @return Distancia a la instancia consultada.
+	 */
+	public double getDistancia(int i) {
+		return distancias[i];
+	}
+
+	/**
+	 * @brief Devuelve una copia de los índices de los vecinos.
+	 * @return Índices de las filas vecinas.
+	 */
+	public int[] getIndices() {
+		return indices.clone();
+	}
+
+	/**
+	 * @brief Devuelve una copia de las distancias de los vecinos.
+	 * @return Distancias de los vecinos.
+	 */
+	public double[] getDistancias() {
+		return distancias.clone();
+	}
+}
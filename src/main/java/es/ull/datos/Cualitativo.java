@@ -1,20 +1,53 @@
 package datos;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
 
 /**
  * @brief Clase que representa un atributo cualitativo.
  *
  * Esta clase almacena una lista de valores de tipo String que representan atributos no numéricos.
- * Hereda de la clase abstracta Atributo.
+ * Los valores se guardan codificados con diccionario: cada fila guarda un código entero y el
+ * diccionario traduce cada código a su cadena, llevando además la cuenta de apariciones de cada
+ * código. Hereda de la clase abstracta Atributo.
  */
 public class Cualitativo extends Atributo {
 
 	/**
-	 * @brief Lista de valores cualitativos (cadenas de texto).
+	 * @brief Código del valor de cada fila.
 	 */
-	private List<String> valores;
+	private int[] codigos;
+
+	/**
+	 * @brief Número de filas almacenadas.
+	 */
+	private int tamano;
+
+	/**
+	 * @brief Diccionario código → valor, en orden de aparición.
+	 */
+	private List<String> diccionario;
+
+	/**
+	 * @brief Diccionario valor → código.
+	 */
+	private Map<String, Integer> indices;
+
+	/**
+	 * @brief Número de filas con cada código.
+	 */
+	private int[] cuentas;
+
+	/**
+	 * @brief Número de códigos con al menos una fila.
+	 */
+	private int presentes;
 
 	/**
 	 * @brief Constructor por defecto. Inicializa con nombre vacío y lista vacía de valores.
@@ -22,7 +55,7 @@ public class Cualitativo extends Atributo {
 	public Cualitativo() {
 		super();
 		this.nombre = "";
-		this.valores = new ArrayList<String>();
+		vaciar();
 	}
 
 	/**
@@ -42,7 +75,7 @@ public class Cualitativo extends Atributo {
 	public Cualitativo(String name, String valor) {
 		this();
 		this.nombre = name;
-		valores.add(valor);
+		add(valor);
 	}
 
 	/**
@@ -53,7 +86,7 @@ public class Cualitativo extends Atributo {
 	public Cualitativo(String name, List<String> valor) {
 		this();
 		this.nombre = name;
-		this.valores = valor;
+		setValores(valor);
 	}
 
 	/**
@@ -62,15 +95,32 @@ public class Cualitativo extends Atributo {
 	 */
 	public Cualitativo(Cualitativo otro) {
 		this.nombre = otro.nombre;
-		this.valores = otro.valores;
+		// Se copia a través de los métodos de acceso para admitir también vistas
+		int nCodigos = otro.nCodigos();
+		this.diccionario = new ArrayList<>(nCodigos);
+		this.indices = new HashMap<>();
+		for (int codigo = 0; codigo < nCodigos; ++codigo) {
+			diccionario.add(otro.valor(codigo));
+			indices.put(otro.valor(codigo), codigo);
+		}
+		this.tamano = otro.size();
+		this.codigos = new int[Math.max(tamano, 10)];
+		this.cuentas = new int[Math.max(nCodigos, 4)];
+		for (int i = 0; i < tamano; ++i) {
+			codigos[i] = otro.getCodigo(i);
+			contar(codigos[i], 1);
+		}
 	}
 
 	/**
 	 * @brief Obtiene la lista de valores del atributo.
+	 *
+	 * La lista es una vista sobre los códigos: los cambios en ella se reflejan en el atributo.
+	 *
 	 * @return Lista de valores tipo String.
 	 */
 	public List<String> getValores() {
-		return this.valores;
+		return new Vista();
 	}
 
 	/**
@@ -78,52 +128,111 @@ public class Cualitativo extends Atributo {
 	 * @param nuevos Lista de nuevos valores.
 	 */
 	public void setValores(List<String> nuevos) {
-		this.valores = nuevos;
+		vaciar();
+		codigos = new int[Math.max(nuevos.size(), 10)];
+		for (String valor : nuevos) {
+			add(valor);
+		}
 	}
 
 	/**
 	 * @brief Devuelve una lista con las clases únicas del atributo.
-	 * @return Lista de clases distintas.
+	 * @return Lista de clases distintas, en el orden en que aparecen por primera vez en las
+	 *         filas actuales.
 	 */
 	public List<String> clases() {
-		ArrayList<String> clases = new ArrayList<>();
-		for(int i = 0; i < this.valores.size(); ++i) {
-			if(!clases.contains(this.valores.get(i))) clases.add(this.valores.get(i));
+		int[] orden = codigosPorAparicion();
+		ArrayList<String> clases = new ArrayList<>(orden.length);
+		for (int codigo : orden) {
+			clases.add(valor(codigo));
 		}
 		return clases;
 	}
 
+	/**
+	 * @brief Obtiene los códigos presentes en el orden en que aparecen por primera vez.
+	 *
+	 * Recorre las filas solo hasta encontrar todos los códigos presentes.
+	 *
+	 * @return Códigos distintos de las filas actuales, por orden de primera aparición.
+	 */
+	int[] codigosPorAparicion() {
+		int[] orden = new int[nClases()];
+		boolean[] vistos = new boolean[nCodigos()];
+		int encontrados = 0;
+		for (int i = 0, n = size(); i < n && encontrados < orden.length; ++i) {
+			int codigo = getCodigo(i);
+			if (!vistos[codigo]) {
+				vistos[codigo] = true;
+				orden[encontrados++] = codigo;
+			}
+		}
+		return orden;
+	}
+
 	/**
 	 * @brief Devuelve el número de clases distintas del atributo.
 	 * @return Número de clases únicas.
 	 */
 	public int nClases() {
-		return this.clases().size();
+		return presentes;
 	}
 
 	/**
 	 * @brief Calcula la frecuencia de aparición de cada clase.
-	 * @return Lista de frecuencias relativas de cada clase.
+	 * @return Lista de frecuencias relativas de cada clase, en el orden de {@link #clases()}.
 	 */
 	public List<Double> frecuencia() {
-		List<String> clases = this.clases();
-		ArrayList<Double> frecuencias = new ArrayList<>();
-		for (int j = 0; j < this.nClases(); ++j) {
-			double auxiliar = 0;
-			for(int i = 0; i < this.valores.size(); ++i) {
-				if(clases.get(j).equals(this.valores.get(i))) auxiliar++;
-			}
-			frecuencias.add(auxiliar / this.valores.size());
+		ArrayList<Double> frecuencias = new ArrayList<>(presentes);
+		for (int codigo : codigosPorAparicion()) {
+			frecuencias.add((double) cuentas[codigo] / tamano);
 		}
 		return frecuencias;
 	}
 
+	/**
+	 * @brief Devuelve el código del valor almacenado en una fila.
+	 * @param i Índice de la fila.
+	 * @return Código del valor.
+	 */
+	public int getCodigo(int i) {
+		Objects.checkIndex(i, tamano);
+		return codigos[i];
+	}
+
+	/**
+	 * @brief Devuelve el código asignado a un valor.
+	 * @param valor Valor a buscar.
+	 * @return Código del valor, o -1 si no está en el diccionario.
+	 */
+	public int codigo(String valor) {
+		Integer codigo = indices.get(valor);
+		return codigo == null ? -1 : codigo;
+	}
+
+	/**
+	 * @brief Devuelve el valor correspondiente a un código.
+	 * @param codigo Código del diccionario.
+	 * @return Valor asociado.
+	 */
+	public String valor(int codigo) {
+		return diccionario.get(codigo);
+	}
+
+	/**
+	 * @brief Devuelve el número de códigos del diccionario (incluidos los que ya no tienen filas).
+	 * @return Tamaño del diccionario.
+	 */
+	public int nCodigos() {
+		return diccionario.size();
+	}
+
 	/**
 	 * @brief Devuelve el número de elementos almacenados.
 	 * @return Número de elementos en la lista de valores.
 	 */
 	public int size() {
-		return this.valores.size();
+		return tamano;
 	}
 
 	/**
@@ -132,7 +241,41 @@ public class Cualitativo extends Atributo {
 	 */
 	@Override
 	public void add(Object valor) {
-		valores.add((String) valor);
+		if (tamano == codigos.length) {
+			codigos = Arrays.copyOf(codigos, Math.max(10, tamano + (tamano >> 1)));
+		}
+		int codigo = codificar((String) valor);
+		codigos[tamano++] = codigo;
+		contar(codigo, 1);
+	}
+
+	/**
+	 * @brief Registra un valor en el diccionario sin añadir ninguna fila.
+	 * @param valor Valor a registrar.
+	 * @return Código del valor.
+	 */
+	int registrar(String valor) {
+		return codificar(valor);
+	}
+
+	/**
+	 * @brief Añade una fila con un código ya registrado en el diccionario.
+	 * @param codigo Código del valor.
+	 */
+	void anadirCodigo(int codigo) {
+		if (tamano == codigos.length) {
+			codigos = Arrays.copyOf(codigos, Math.max(10, tamano + (tamano >> 1)));
+		}
+		codigos[tamano++] = codigo;
+		contar(codigo, 1);
+	}
+
+	/**
+	 * @brief Reserva espacio para un número total de filas.
+	 * @param capacidad Número de filas que se espera tener.
+	 */
+	void reservar(int capacidad) {
+		if (capacidad > codigos.length) codigos = Arrays.copyOf(codigos, capacidad);
 	}
 
 	/**
@@ -142,7 +285,7 @@ public class Cualitativo extends Atributo {
 	 */
 	@Override
 	public Object getValor(int i) {
-		return valores.get(i);
+		return diccionario.get(getCodigo(i));
 	}
 
 	/**
@@ -151,7 +294,10 @@ public class Cualitativo extends Atributo {
 	 */
 	@Override
 	public void delete(int index) {
-		valores.remove(index);
+		int codigo = getCodigo(index);
+		System.arraycopy(codigos, index + 1, codigos, index, tamano - index - 1);
+		tamano--;
+		contar(codigo, -1);
 	}
 
 	/**
@@ -160,7 +306,7 @@ public class Cualitativo extends Atributo {
 	 */
 	@Override
 	public String toString() {
-		return valores.toString();
+		return getValores().toString();
 	}
 
 	/**
@@ -168,7 +314,91 @@ public class Cualitativo extends Atributo {
 	 */
 	@Override
 	public void clear() {
-		valores.clear();
+		vaciar();
+	}
+
+	/**
+	 * @brief Reinicia los códigos y el diccionario.
+	 */
+	private void vaciar() {
+		this.codigos = new int[10];
+		this.tamano = 0;
+		this.diccionario = new ArrayList<>();
+		this.indices = new HashMap<>();
+		this.cuentas = new int[4];
+		this.presentes = 0;
 	}
 
+	/**
+	 * @brief Devuelve el código de un valor, añadiéndolo al diccionario si es nuevo.
+	 * @param valor Valor a codificar.
+	 * @return Código del valor.
+	 */
+	private int codificar(String valor) {
+		Integer codigo = indices.get(valor);
+		if (codigo != null) return codigo;
+		int nuevo = diccionario.size();
+		diccionario.add(valor);
+		indices.put(valor, nuevo);
+		if (nuevo == cuentas.length) cuentas = Arrays.copyOf(cuentas, 2 * nuevo);
+		return nuevo;
+	}
+
+	/**
+	 * @brief Actualiza la cuenta de un código y el número de códigos presentes.
+	 * @param codigo Código a actualizar.
+	 * @param cambio Incremento (+1) o decremento (-1).
+	 */
+	private void contar(int codigo, int cambio) {
+		if (cuentas[codigo] == 0 && cambio > 0) presentes++;
+		cuentas[codigo] += cambio;
+		if (cuentas[codigo] == 0) presentes--;
+	}
+
+	/**
+	 * @brief Vista de lista sobre los valores decodificados.
+	 */
+	private class Vista extends AbstractList<String> implements RandomAccess {
+
+		@Override
+		public String get(int index) {
+			return (String) getValor(index);
+		}
+
+		@Override
+		public String set(int index, String valor) {
+			String anterior = get(index);
+			int codigo = codificar(valor);
+			contar(codigos[index], -1);
+			codigos[index] = codigo;
+			contar(codigo, 1);
+			return anterior;
+		}
+
+		@Override
+		public void add(int index, String valor) {
+			Objects.checkIndex(index, tamano + 1);
+			Cualitativo.this.add(valor);
+			int codigo = codigos[tamano - 1];
+			System.arraycopy(codigos, index, codigos, index + 1, tamano - index - 1);
+			codigos[index] = codigo;
+		}
+
+		@Override
+		public String remove(int index) {
+			String anterior = get(index);
+			delete(index);
+			return anterior;
+		}
+
+		@Override
+		public void clear() {
+			vaciar();
+		}
+
+		@Override
+		public int size() {
+			return tamano;
+		}
+	}
 }
@@ -6,7 +6,13 @@ import vectores.Vector;
  * @brief Clase que representa un atributo cuantitativo (numérico).
  *
  * Hereda de la clase abstracta Atributo y utiliza un objeto de tipo Vector
- * para almacenar los valores numéricos.
+ * para almacenar los valores numéricos en una columna primitiva (double[]).
+ *
+ * El mínimo, el máximo, la media y la desviación se guardan en un {@link Resumen} que se
+ * actualiza en O(1) al añadir valores con {@link #add(double)}, así que consultarlos no
+ * recorre la columna. Si los valores se borran o se cambian, incluso directamente sobre el
+ * {@link Vector}, el resumen se descarta y se recalcula con una sola pasada en la siguiente
+ * consulta.
  */
 public class Cuantitativo extends Atributo {
 
@@ -15,6 +21,15 @@ public class Cuantitativo extends Atributo {
 	 */
 	private Vector valores;
 
+	/** Estadísticos de los valores, o null si hay que calcularlos */
+	private Resumen resumen;
+
+	/** Vector al que corresponde el resumen */
+	private Vector resumido;
+
+	/** Modificaciones del vector cuando se calculó o actualizó el resumen */
+	private long version;
+
 	/**
 	 * @brief Constructor por defecto. Inicializa el nombre vacío y un vector vacío.
 	 */
@@ -60,7 +75,7 @@ public class Cuantitativo extends Atributo {
 	 */
 	public Cuantitativo(Cuantitativo otro) {
 		this.nombre = otro.nombre;
-		this.valores = otro.valores;
+		this.valores = otro.getValores();
 	}
 
 	/**
@@ -80,53 +95,95 @@ public class Cuantitativo extends Atributo {
 	}
 
 	/**
-	 * @brief Calcula el valor mínimo del vector.
+	 * @brief Devuelve un atributo cuyos valores se pueden modificar.
+	 *
+	 * Un atributo normal se devuelve a sí mismo; la columna de una {@link VistaDataset}
+	 * devuelve una copia con sus valores, nombre y peso.
+	 *
+	 * @return Este atributo o una copia modificable.
+	 */
+	public Cuantitativo modificable() {
+		return this;
+	}
+
+	/**
+	 * @brief Obtiene el valor en la posición indicada sin convertirlo en objeto.
+	 * @param i Índice del valor a obtener.
+	 * @return Valor en la posición i.
+	 */
+	public double getDouble(int i) {
+		return valores.get(i);
+	}
+
+	/**
+	 * @brief Devuelve una copia de la columna completa en un array primitivo.
+	 * @return Array con los valores del atributo.
+	 */
+	public double[] toArray() {
+		return valores.toArray();
+	}
+
+	/**
+	 * @brief Copia la columna en un array destino, escribiendo el valor i en desde + i * paso.
+	 * @param destino Array destino (por ejemplo, una matriz almacenada por filas).
+	 * @param desde Posición del primer valor.
+	 * @param paso Distancia entre dos valores consecutivos en el destino.
+	 */
+	public void copyTo(double[] destino, int desde, int paso) {
+		valores.copyTo(destino, desde, paso);
+	}
+
+	/**
+	 * @brief Indica si el resumen guardado corresponde a los valores actuales.
+	 * @return true si el resumen es válido.
+	 */
+	private boolean resumenVigente() {
+		return resumen != null && resumido == valores && version == valores.getModificaciones();
+	}
+
+	/**
+	 * @brief Devuelve los estadísticos de la columna, calculándolos si hace falta.
+	 * @return Resumen de los valores actuales.
+	 */
+	Resumen resumen() {
+		if (!resumenVigente()) {
+			resumen = Resumen.de(this);
+			resumido = valores;
+			version = valores.getModificaciones();
+		}
+		return resumen;
+	}
+
+	/**
+	 * @brief Devuelve el valor mínimo del vector.
 	 * @return Valor mínimo.
 	 */
 	public double minimo() {
-		double minimo = this.valores.get(0);
-		for (int i = 0; i < this.valores.size(); ++i) {
-			if (minimo > this.valores.get(i)) minimo = this.valores.get(i);
-		}
-		return minimo;
+		return resumen().minimo();
 	}
 
 	/**
-	 * @brief Calcula el valor máximo del vector.
+	 * @brief Devuelve el valor máximo del vector.
 	 * @return Valor máximo.
 	 */
 	public double maximo() {
-		double maximo = this.valores.get(0);
-		for (int i = 0; i < this.valores.size(); ++i) {
-			if (maximo < this.valores.get(i)) maximo = this.valores.get(i);
-		}
-		return maximo;
+		return resumen().maximo();
 	}
 
 	/**
-	 * @brief Calcula la media de los valores del vector.
+	 * @brief Devuelve la media de los valores del vector.
 	 * @return Valor medio.
 	 */
 	public double media() {
-		double media = 0.0;
-		for (int i = 0; i < this.valores.size(); ++i) {
-			media += this.valores.get(i);
-		}
-		return media / this.valores.size();
+		return resumen().media();
 	}
 
 	/**
-	 * @brief Calcula la desviación estándar de los valores.
+	 * @brief Devuelve la desviación estándar de los valores.
 	 * @return Desviación estándar.
 	 */
 	public double desviacion() {
-		if (valores.size() == 0) return 0.0;
-		double media = this.media();
-		double suma = 0.0;
-		for (int i = 0; i < valores.size(); ++i) {
-			suma += Math.pow(valores.get(i) - media, 2);
-		}
-		return Math.sqrt(suma / valores.size());
+		return resumen().desviacion();
 	}
 
 	/**
@@ -144,21 +201,51 @@ public class Cuantitativo extends Atributo {
 	 * Evita división por cero si la desviación es cero.
 	 */
 	public void estandarizacion() {
-		double media = this.media();
-		double desviacion = this.desviacion();
+		Resumen estadisticos = resumen();
+		double media = estadisticos.media();
+		double desviacion = estadisticos.desviacion();
 		if (desviacion == 0.0) return;
 		for (int i = 0; i < valores.size(); ++i) {
 			valores.set(i, (valores.get(i) - media) / desviacion);
 		}
 	}
 
+	/**
+	 * @brief Aplica normalización min-max a los valores del vector.
+	 *
+	 * Lleva los valores al rango [0, 1] con el mínimo y el máximo del resumen, con el mismo
+	 * resultado que {@link Vector#normalize()} pero sin recorrer la columna para buscarlos.
+	 */
+	public void normalizacion() {
+		if (valores.size() == 0) return;
+		Resumen estadisticos = resumen();
+		double minimo = estadisticos.minimo();
+		double maximo = estadisticos.maximo();
+		for (int i = 0; i < valores.size(); ++i) {
+			valores.set(i, (valores.get(i) - minimo) / (maximo - minimo));
+		}
+	}
+
 	/**
 	 * @brief Agrega un nuevo valor al vector.
 	 * @param valor Valor numérico a añadir (debe ser Double).
 	 */
 	@Override
 	public void add(Object valor) {
-		valores.add((double) valor);
+		add((double) valor);
+	}
+
+	/**
+	 * @brief Agrega un nuevo valor al vector sin convertirlo en objeto.
+	 * @param valor Valor numérico a añadir.
+	 */
+	public void add(double valor) {
+		boolean vigente = resumenVigente();
+		valores.add(valor);
+		if (vigente) {
+			resumen.anadir(valor);
+			version = valores.getModificaciones();
+		}
 	}
 
 	/**
@@ -173,6 +173,10 @@ public class Dataset {
 
 	/**
 	 * @brief Escribe el dataset actual en un archivo CSV.
+	 *
+	 * La escritura la hace {@link EscritorCSV}, que recorre las columnas fila a fila sobre un
+	 * búfer de tamaño fijo, así que no se construye el texto completo en memoria.
+	 *
 	 * @param filename Ruta del archivo a escribir.
 	 * @throws IOException Si ocurre un error de escritura.
 	 */
@@ -182,8 +186,8 @@ public class Dataset {
 			throw new IOException("❌ No se puede escribir en el archivo: " + filename);
 		}
 
-		try (BufferedWriter writer = new BufferedWriter(new FileWriter(filename))) {
-			writer.write(this.toString());
+		try {
+			new EscritorCSV().escribir(this, filename);
 		} catch (SecurityException e) {
 			throw new IOException("❌ No tienes permisos para escribir en el archivo: " + filename, e);
 		}
@@ -199,44 +203,76 @@ public class Dataset {
 	 * @throws IOException Si ocurre un error de lectura.
 	 */
 	public void read(String filename) throws IOException {
+		read(filename, LectorCSV.DELIMITADOR);
+	}
+
+	/**
+	 * @brief Lee un archivo CSV con un delimitador dado y carga los atributos al dataset.
+	 *
+	 * La primera línea da los nombres de los atributos y la primera fila de datos decide el
+	 * tipo de cada uno. La lectura la hace {@link LectorCSV}, que convierte los números desde
+	 * los bytes del archivo y los guarda directamente en columnas primitivas.
+	 *
+	 * @param filename Ruta del archivo CSV.
+	 * @param delimitador Carácter que separa los campos.
+	 * @throws IOException Si ocurre un error de lectura o el archivo no tiene un formato válido.
+	 */
+	public void read(String filename, char delimitador) throws IOException {
 		File archivo = new File(filename);
 
 		if (!archivo.exists() || !archivo.isFile()) {
 			throw new FileNotFoundException("❌ Error: El archivo no existe o no es válido -> " + filename);
 		}
+		this.atributos.addAll(new LectorCSV(delimitador).leer(filename));
+	}
 
-		try (BufferedReader reader = new BufferedReader(new FileReader(filename))) {
-			String primeraLinea = reader.readLine();
-			if (primeraLinea == null) {
-				throw new IOException("❌ Error: El archivo está vacío -> " + filename);
-			}
+	/**
+	 * @brief Lee un archivo CSV repartiendo las filas entre varios hilos.
+	 *
+	 * El resultado es el mismo que con {@link #read(String, char)}; la lectura la hace
+	 * {@link LectorCSVParalelo}, que divide el archivo en trozos proyectados en memoria.
+	 *
+	 * @param filename Ruta del archivo CSV.
+	 * @param delimitador Carácter que separa los campos.
+	 * @param hilos Número de hilos.
+	 * @throws IOException Si ocurre un error de lectura o el archivo no tiene un formato válido.
+	 */
+	public void read(String filename, char delimitador, int hilos) throws IOException {
+		File archivo = new File(filename);
 
-			String[] attributeNamesArray = primeraLinea.split(",");
-			String line;
-			if ((line = reader.readLine()) != null) {
-				String[] values = line.split(",");
-				for (int i = 0; i < attributeNamesArray.length; ++i) {
-					try {
-						this.atributos.add(new Cuantitativo(attributeNamesArray[i], Double.parseDouble(values[i])));
-					} catch (NumberFormatException e) {
-						this.atributos.add(new Cualitativo(attributeNamesArray[i], values[i]));
-					}
-				}
-			}
+		if (!archivo.exists() || !archivo.isFile()) {
+			throw new FileNotFoundException("❌ Error: El archivo no existe o no es válido -> " + filename);
+		}
+		this.atributos.addAll(new LectorCSVParalelo(delimitador, hilos).leer(filename));
+	}
 
-			while ((line = reader.readLine()) != null) {
-				String[] values = line.split(",");
-				for (int i = 0; i < attributeNamesArray.length; ++i) {
-					Atributo nuevo = this.atributos.get(i);
-					try {
-						nuevo.add(Double.parseDouble(values[i]));
-					} catch (NumberFormatException e) {
-						nuevo.add(values[i]);
-					}
-					this.atributos.set(i, nuevo);
-				}
-			}
+	/**
+	 * @brief Escribe el dataset en el formato binario por columnas de {@link FormatoBinario}.
+	 * @param filename Ruta del archivo a escribir.
+	 * @throws IOException Si ocurre un error de escritura.
+	 */
+	public void writeBinario(String filename) throws IOException {
+		FormatoBinario.escribir(this, filename);
+	}
+
+	/**
+	 * @brief Lee un archivo en el formato binario de {@link FormatoBinario} y carga sus atributos.
+	 *
+	 * Las columnas numéricas quedan proyectadas en memoria y se leen del archivo a medida que
+	 * se consultan. También se recupera el estado de preprocesado guardado.
+	 *
+	 * @param filename Ruta del archivo binario.
+	 * @throws IOException Si ocurre un error de lectura o el archivo no tiene el formato.
+	 */
+	public void readBinario(String filename) throws IOException {
+		File archivo = new File(filename);
+
+		if (!archivo.exists() || !archivo.isFile()) {
+			throw new FileNotFoundException("❌ Error: El archivo no existe o no es válido -> " + filename);
 		}
+		Dataset leido = FormatoBinario.leer(filename);
+		this.atributos.addAll(leido.atributos);
+		this.preprocesado = leido.preprocesado;
 	}
 
 	/**
@@ -331,6 +367,18 @@ public class Dataset {
 		return new Instancia(auxiliar);
 	}
 
+	/**
+	 * @brief Devuelve un cursor para recorrer las filas sin copiarlas.
+	 *
+	 * A diferencia de {@link #getInstance(int)}, el cursor se reutiliza para todas las filas
+	 * y lee los valores directamente de las columnas.
+	 *
+	 * @return Cursor sobre las filas del dataset.
+	 */
+	public Fila cursor() {
+		return new Fila(atributos);
+	}
+
 	/**
 	 * @brief Devuelve una representación textual de los pesos de los atributos.
 	 * @return Cadena con los pesos.
@@ -0,0 +1,277 @@
+package datos;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * @brief Escritor de archivos CSV que recorre el dataset fila a fila sobre un búfer de bytes.
+ *
+ * Es la contrapartida de {@link LectorCSV}: no construye el texto completo ni una lista de
+ * celdas, sino que escribe cada valor directamente en un bloque de bytes de tamaño fijo que
+ * se vuelca a la salida cuando se llena, así que la memoria no depende del número de filas.
+ *
+ * Los números se escriben con la representación más corta que vuelve a leerse como el mismo
+ * double, en notación decimal entre 10^-3 y 10^7 igual que {@link Double#toString}; fuera de
+ * ese rango, o si el camino rápido no encuentra una representación exacta, se usa
+ * {@link Double#toString}. Los valores cualitativos se codifican en UTF-8 una sola vez por
+ * entrada del diccionario, y se escriben entre comillas si contienen el delimitador, comillas
+ * o saltos de línea.
+ */
+public final class EscritorCSV {
+
+	/** Tamaño del bloque de escritura */
+	private static final int TAMANO_BLOQUE = 1 << 16;
+
+	/** Mayor entero tal que todos los menores son representables exactamente como double */
+	private static final double LIMITE_EXACTO = 9007199254740992.0;
+
+	/** Potencias de 10 representables exactamente como double */
+	private static final double[] POTENCIAS = {
+		1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+		1e12, 1e13, 1e14, 1e15, 1e16, 1e17
+	};
+
+	/** Potencias de 10 como long */
+	private static final long[] POTENCIAS_ENTERAS = {
+		1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L, 1000000000L,
+		10000000000L, 100000000000L, 1000000000000L, 10000000000000L, 100000000000000L,
+		1000000000000000L, 10000000000000000L, 100000000000000000L
+	};
+
+	/** Delimitador de campos */
+	private final byte delimitador;
+
+	/** Salida actual */
+	private OutputStream salida;
+
+	/** Bloque de bytes pendientes de escribir */
+	private final byte[] bloque = new byte[TAMANO_BLOQUE];
+
+	/** Número de bytes ocupados del bloque */
+	private int posicion;
+
+	/** Dígitos de un número, escritos de derecha a izquierda */
+	private final byte[] digitos = new byte[20];
+
+	/**
+	 * @brief Crea un escritor con el delimitador por defecto (coma).
+	 */
+	public EscritorCSV() {
+		this(LectorCSV.DELIMITADOR);
+	}
+
+	/**
+	 * @brief Crea un escritor con un delimitador dado.
+	 * @param delimitador Carácter ASCII que separa los campos.
+	 * @throws IllegalArgumentException si el delimitador no es ASCII o es una comilla o un
+	 *         salto de línea.
+	 */
+	public EscritorCSV(char delimitador) {
+		new LectorCSV(delimitador); // Valida el delimitador con las mismas reglas
+		this.delimitador = (byte) delimitador;
+	}
+
+	/**
+	 * @brief Escribe un dataset en un archivo CSV.
+	 * @param datos Dataset a escribir; puede ser una vista.
+	 * @param filename Ruta del archivo.
+	 * @throws IOException Si ocurre un error de escritura.
+	 */
+	public void escribir(Dataset datos, String filename) throws IOException {
+		try (OutputStream archivo = new FileOutputStream(filename)) {
+			escribir(datos, archivo);
+		}
+	}
+
+	/**
+	 * @brief Escribe un dataset en un flujo de salida, que no se cierra.
+	 *
+	 * La primera línea son los nombres de los atributos y después va una línea por fila.
+	 *
+	 * @param datos Dataset a escribir; puede ser una vista.
+	 * @param salida Flujo de destino.
+	 * @throws IOException Si ocurre un error de escritura.
+	 */
+	public void escribir(Dataset datos, OutputStream salida) throws IOException {
+		List<Atributo> atributos = datos.getAtributos();
+		if (atributos.isEmpty()) return;
+		this.salida = salida;
+		this.posicion = 0;
+		try {
+			int m = atributos.size();
+			Cuantitativo[] numericos = new Cuantitativo[m];
+			Cualitativo[] cualitativos = new Cualitativo[m];
+			byte[][][] diccionarios = new byte[m][][];
+			for (int j = 0; j < m; ++j) {
+				Atributo atributo = atributos.get(j);
+				if (atributo instanceof Cuantitativo) {
+					numericos[j] = (Cuantitativo) atributo;
+				} else if (atributo instanceof Cualitativo) {
+					cualitativos[j] = (Cualitativo) atributo;
+					diccionarios[j] = new byte[cualitativos[j].nCodigos()][];
+				}
+				if (j > 0) octeto(delimitador);
+				campo(atributo.getNombre().getBytes(StandardCharsets.UTF_8));
+			}
+			octeto((byte) '\n');
+
+			int n = datos.numeroCasos();
+			for (int i = 0; i < n; ++i) {
+				for (int j = 0; j < m; ++j) {
+					if (j > 0) octeto(delimitador);
+					if (numericos[j] != null) {
+						numero(numericos[j].getDouble(i));
+					} else if (cualitativos[j] != null) {
+						int codigo = cualitativos[j].getCodigo(i);
+						byte[] valor = diccionarios[j][codigo];
+						if (valor == null) {
+							valor = cualitativos[j].valor(codigo).getBytes(StandardCharsets.UTF_8);
+							diccionarios[j][codigo] = valor;
+						}
+						campo(valor);
+					} else {
+						campo(String.valueOf(atributos.get(j).getValor(i)).getBytes(StandardCharsets.UTF_8));
+					}
+				}
+				octeto((byte) '\n');
+			}
+			vaciar();
+		} finally {
+			this.salida = null;
+		}
+	}
+
+	/**
+	 * @brief Escribe un número.
+	 *
+	 * Los enteros se escriben con sus dígitos y ".0". El resto busca el menor número de
+	 * decimales k tal que el entero más cercano a v·10^k, dividido entre 10^k, vuelve a dar v.
+	 * Mientras ese entero sea menor que 2^53 y 10^k sea exacto, la división es un único
+	 * redondeo correcto, el mismo que hace la lectura, así que el texto se lee como v.
+	 *
+	 * @param v Valor a escribir.
+	 * @throws IOException Si ocurre un error de escritura.
+	 */
+	private void numero(double v) throws IOException {
+		double absoluto = Math.abs(v);
+		if (v == 0) {
+			if (Double.doubleToRawLongBits(v) < 0) octeto((byte) '-');
+			ascii("0.0");
+			return;
+		}
+		if (absoluto >= 1e-3 && absoluto < 1e7) {
+			if (absoluto == Math.rint(absoluto)) {
+				if (v < 0) octeto((byte) '-');
+				entero((long) absoluto);
+				ascii(".0");
+				return;
+			}
+			for (int k = 1; k < POTENCIAS.length && absoluto * POTENCIAS[k] < LIMITE_EXACTO; ++k) {
+				long mantisa = Math.round(absoluto * POTENCIAS[k]);
+				if (mantisa / POTENCIAS[k] == absoluto) {
+					if (v < 0) octeto((byte) '-');
+					entero(mantisa / POTENCIAS_ENTERAS[k]);
+					octeto((byte) '.');
+					long decimales = mantisa % POTENCIAS_ENTERAS[k];
+					// Ceros a la izquierda de la parte decimal
+					for (long p = POTENCIAS_ENTERAS[k - 1]; p > decimales && p > 1; p /= 10) {
+						octeto((byte) '0');
+					}
+					entero(decimales);
+					return;
+				}
+			}
+		}
+		ascii(Double.toString(v));
+	}
+
+	/**
+	 * @brief Escribe un entero no negativo.
+	 * @param valor Entero a escribir.
+	 * @throws IOException Si ocurre un error de escritura.
+	 */
+	private void entero(long valor) throws IOException {
+		int i = digitos.length;
+		do {
+			digitos[--i] = (byte) ('0' + valor % 10);
+			valor /= 10;
+		} while (valor > 0);
+		bytes(digitos, i, digitos.length - i);
+	}
+
+	/**
+	 * @brief Escribe un campo de texto, entre comillas si hace falta.
+	 * @param valor Bytes UTF-8 del campo.
+	 * @throws IOException Si ocurre un error de escritura.
+	 */
+	private void campo(byte[] valor) throws IOException {
+		boolean comillas = false;
+		for (byte b : valor) {
+			if (b == delimitador || b == '"' || b == '\n' || b == '\r') {
+				comillas = true;
+				break;
+			}
+		}
+		if (!comillas) {
+			bytes(valor, 0, valor.length);
+			return;
+		}
+		octeto((byte) '"');
+		for (byte b : valor) {
+			if (b == '"') octeto((byte) '"');
+			octeto(b);
+		}
+		octeto((byte) '"');
+	}
+
+	/**
+	 * @brief Escribe un texto ASCII.
+	 * @param texto Texto a escribir.
+	 * @throws IOException Si ocurre un error de escritura.
+	 */
+	private void ascii(String texto) throws IOException {
+		for (int i = 0; i < texto.length(); ++i) {
+			octeto((byte) texto.charAt(i));
+		}
+	}
+
+	/**
+	 * @brief Escribe un byte en el bloque.
+	 * @param b Byte a escribir.
+	 * @throws IOException Si ocurre un error al vaciar el bloque.
+	 */
+	private void octeto(byte b) throws IOException {
+		if (posicion == bloque.length) vaciar();
+		bloque[posicion++] = b;
+	}
+
+	/**
+	 * @brief Escribe una secuencia de bytes en el bloque.
+	 * @param origen Bytes a escribir.
+	 * @param desde Posición del primero.
+	 * @param cantidad Número de bytes.
+	 * @throws IOException Si ocurre un error al vaciar el bloque.
+	 */
+	private void bytes(byte[] origen, int desde, int cantidad) throws IOException {
+		while (cantidad > 0) {
+			if (posicion == bloque.length) vaciar();
+			int copia = Math.min(cantidad, bloque.length - posicion);
+			System.arraycopy(origen, desde, bloque, posicion, copia);
+			posicion += copia;
+			desde += copia;
+			cantidad -= copia;
+		}
+	}
+
+	/**
+	 * @brief Vuelca el bloque en la salida.
+	 * @throws IOException Si ocurre un error de escritura.
+	 */
+	private void vaciar() throws IOException {
+		salida.write(bloque, 0, posicion);
+		posicion = 0;
+	}
+}
@@ -0,0 +1,149 @@
+package datos;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * @brief Cursor reutilizable sobre las filas de un dataset.
+ *
+ * Da acceso a los valores numéricos y a la clase de una fila leyendo directamente de las
+ * columnas, sin crear una {@link Instancia} ni un {@link vectores.Vector} por fila. Las
+ * características son los atributos cuantitativos excepto el último atributo, en el mismo
+ * orden que {@link Instancia#getVector()}. El cursor se construye con {@link Dataset#cursor()}
+ * y deja de ser válido si cambian los atributos o el número de filas del dataset.
+ */
+public final class Fila {
+
+	/** Columnas numéricas que forman las características */
+	private final Cuantitativo[] columnas;
+
+	/** Columna de la clase, o null si el último atributo no es cualitativo */
+	private final Cualitativo clase;
+
+	/** Número de filas del dataset */
+	private final int filas;
+
+	/** Fila del dataset que corresponde a cada fila del cursor, o null si son las mismas */
+	private final int[] mapa;
+
+	/** Fila actual */
+	private int indice;
+
+	/** Fila actual en las columnas */
+	private int real;
+
+	/**
+	 * @brief Constructor a partir de los atributos de un dataset.
+	 * @param atributos Atributos del dataset.
+	 */
+	Fila(List<Atributo> atributos) {
+		this(atributos, null);
+	}
+
+	/**
+	 * @brief Constructor a partir de los atributos de un dataset y una selección de sus filas.
+	 * @param atributos Atributos del dataset.
+	 * @param mapa Fila de los atributos que corresponde a cada fila del cursor, o null para
+	 *        recorrerlas todas.
+	 */
+	Fila(List<Atributo> atributos, int[] mapa) {
+		List<Cuantitativo> numericas = new ArrayList<>();
+		for (int j = 0; j < atributos.size() - 1; ++j) {
+			if (atributos.get(j) instanceof Cuantitativo) numericas.add((Cuantitativo) atributos.get(j));
+		}
+		this.columnas = numericas.toArray(new Cuantitativo[0]);
+		Atributo ultimo = atributos.isEmpty() ? null : atributos.get(atributos.size() - 1);
+		this.clase = ultimo instanceof Cualitativo ? (Cualitativo) ultimo : null;
+		this.filas = mapa != null ? mapa.length : atributos.isEmpty() ? 0 : atributos.get(0).size();
+		this.mapa = mapa;
+	}
+
+	/**
+	 * @brief Sitúa el cursor en una fila.
+	 * @param indice Índice de la fila.
+	 * @return El propio cursor.
+	 */
+	public Fila mover(int indice) {
+		this.indice = Objects.checkIndex(indice, filas);
+		this.real = mapa == null ? indice : mapa[indice];
+		return this;
+	}
+
+	/**
+	 * @brief Devuelve el índice de la fila actual.
+	 * @return Índice de la fila.
+	 */
+	public int getIndice() {
+		return indice;
+	}
+
+	/**
+	 * @brief Devuelve el número de filas que puede recorrer el cursor.
+	 * @return Número de filas.
+	 */
+	public int size() {
+		return filas;
+	}
+
+	/**
+	 * @brief Devuelve el número de características numéricas de cada fila.
+	 * @return Número de características.
+	 */
+	public int dimension() {
+		return columnas.length;
+	}
+
+	/**
+	 * @brief Devuelve una característica de la fila actual.
+	 * @param j Índice de la característica.
+	 * @return Valor de la característica.
+	 */
+	public double get(int j) {
+		return columnas[j].getDouble(real);
+	}
+
+	/**
+	 * @brief Copia las primeras características de la fila actual.
+	 * @param destino Array a rellenar; se copian destino.length características.
+	 * @return El array destino.
+	 */
+	public double[] copiar(double[] destino) {
+		for (int j = 0; j < destino.length; ++j) {
+			destino[j] = columnas[j].getDouble(real);
+		}
+		return destino;
+	}
+
+	/**
+	 * @brief Devuelve el código de la clase de la fila actual.
+	 * @return Código de la clase en el diccionario de la columna de clase.
+	 * @throws IllegalStateException si el último atributo no es cualitativo.
+	 */
+	public int getCodigo() {
+		return columnaClase().getCodigo(real);
+	}
+
+	/**
+	 * @brief Devuelve la clase de la fila actual.
+	 * @return Clase de la fila.
+	 * @throws IllegalStateException si el último atributo no es cualitativo.
+	 */
+	public String getClase() {
+		return columnaClase().valor(getCodigo());
+	}
+
+	/**
+	 * @brief Devuelve la columna de la clase.
+	 *
+	 * En el cursor de una {@link VistaDataset} es la columna del dataset raíz, que comparte
+	 * los códigos con la vista.
+	 *
+	 * @return Atributo cualitativo de la clase.
+	 * @throws IllegalStateException si el último atributo no es cualitativo.
+	 */
+	public Cualitativo columnaClase() {
+		if (clase == null) throw new IllegalStateException("El último atributo del dataset no es cualitativo");
+		return clase;
+	}
+}
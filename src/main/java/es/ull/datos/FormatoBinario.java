@@ -0,0 +1,564 @@
+package datos;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import vectores.Vector;
+
+/**
+ * @class FormatoBinario
+ * @brief Formato binario por columnas para guardar y cargar un dataset sin volver a leer CSV.
+ *
+ * El archivo empieza con una cabecera (firma, versión, longitud de la cabecera, estado de
+ * preprocesado, número de filas y, por cada atributo, su tipo, nombre, peso y, si es
+ * cualitativo, su diccionario). Detrás van las columnas, cada una alineada a 8 bytes: los
+ * atributos cuantitativos como n valores double y los cualitativos como n códigos int.
+ * Todo se guarda en little-endian.
+ *
+ * Al leer, las columnas numéricas se proyectan en memoria con {@link FileChannel#map} y no se
+ * copian: el sistema trae las páginas a medida que se consultan. La columna pasa a memoria
+ * propia la primera vez que se modifica. Los códigos cualitativos sí se copian, porque son la
+ * cuarta parte de una columna numérica y el diccionario hay que reconstruirlo igualmente.
+ */
+public final class FormatoBinario {
+
+	/** Extensión recomendada para los archivos */
+	public static final String EXTENSION = ".knnb";
+
+	/** Firma al principio del archivo ("KNNB") */
+	private static final int FIRMA = 0x424E4E4B;
+
+	/** Versión del formato */
+	private static final int VERSION = 1;
+
+	/** Tipo de columna cuantitativa */
+	private static final byte CUANTITATIVO = 0;
+
+	/** Tipo de columna cualitativa */
+	private static final byte CUALITATIVO = 1;
+
+	/** Bytes de la parte fija de la cabecera: firma, versión y longitud */
+	private static final int PREAMBULO = 16;
+
+	/** Tamaño del búfer de escritura */
+	private static final int TAMANO_BLOQUE = 1 << 16;
+
+	/** Clase de utilidad: no se instancia */
+	private FormatoBinario() {
+	}
+
+	/**
+	 * @brief Escribe un dataset en formato binario.
+	 * @param datos Dataset a escribir; puede ser una vista.
+	 * @param filename Ruta del archivo.
+	 * @throws IOException Si ocurre un error de escritura.
+	 */
+	public static void escribir(Dataset datos, String filename) throws IOException {
+		List<Atributo> atributos = datos.getAtributos();
+		int n = datos.numeroCasos();
+		try (FileChannel canal = FileChannel.open(Path.of(filename), StandardOpenOption.WRITE,
+				StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			Salida salida = new Salida(canal);
+			salida.entero(FIRMA);
+			salida.entero(VERSION);
+			salida.largo(0); // Longitud de la cabecera, se completa al final
+			salida.entero(datos.getPreprocesado());
+			salida.entero(n);
+			salida.entero(atributos.size());
+			for (Atributo atributo : atributos) {
+				if (atributo instanceof Cuantitativo) {
+					salida.octeto(CUANTITATIVO);
+				} else if (atributo instanceof Cualitativo) {
+					salida.octeto(CUALITATIVO);
+				} else {
+					throw new IOException("❌ Error: Tipo de atributo no admitido -> " + atributo.getClass().getName());
+				}
+				salida.texto(atributo.getNombre());
+				salida.real(atributo.getPeso());
+				if (atributo instanceof Cualitativo) {
+					Cualitativo columna = (Cualitativo) atributo;
+					salida.entero(columna.nCodigos());
+					for (int c = 0; c < columna.nCodigos(); ++c) {
+						salida.texto(columna.valor(c));
+					}
+				}
+			}
+			salida.alinear();
+			long cabecera = salida.posicion();
+
+			for (Atributo atributo : atributos) {
+				if (atributo instanceof Cuantitativo) {
+					Cuantitativo columna = (Cuantitativo) atributo;
+					for (int i = 0; i < n; ++i) {
+						salida.real(columna.getDouble(i));
+					}
+				} else {
+					Cualitativo columna = (Cualitativo) atributo;
+					for (int i = 0; i < n; ++i) {
+						salida.entero(columna.getCodigo(i));
+					}
+					salida.alinear();
+				}
+			}
+			salida.vaciar();
+			ByteBuffer longitud = ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN).putLong(0, cabecera);
+			canal.write(longitud, 8);
+		}
+	}
+
+	/**
+	 * @brief Lee un dataset en formato binario.
+	 * @param filename Ruta del archivo.
+	 * @return Dataset con las columnas numéricas proyectadas en memoria y el estado de
+	 *         preprocesado guardado.
+	 * @throws IOException Si ocurre un error de lectura o el archivo no tiene el formato.
+	 */
+	public static Dataset leer(String filename) throws IOException {
+		try (FileChannel canal = FileChannel.open(Path.of(filename), StandardOpenOption.READ)) {
+			Cabecera cabecera = new Cabecera(canal, filename);
+			int n = cabecera.filas;
+			List<Atributo> atributos = new ArrayList<>(cabecera.nombres.length);
+			for (int j = 0; j < cabecera.nombres.length; ++j) {
+				Atributo atributo;
+				if (cabecera.diccionarios[j] == null) {
+					DoubleBuffer valores = canal.map(FileChannel.MapMode.READ_ONLY, cabecera.posiciones[j], (long) n * Double.BYTES)
+							.order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+					atributo = new CuantitativoProyectado(cabecera.nombres[j], valores);
+				} else {
+					IntBuffer codigos = canal.map(FileChannel.MapMode.READ_ONLY, cabecera.posiciones[j], (long) n * Integer.BYTES)
+							.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+					atributo = cabecera.cualitativo(j, codigos, n);
+				}
+				atributo.setPeso(cabecera.pesos[j]);
+				atributos.add(atributo);
+			}
+			Dataset datos = new Dataset(atributos);
+			datos.setPreprocesado(cabecera.preprocesado);
+			return datos;
+		}
+	}
+
+	/**
+	 * @brief Cabecera de un archivo binario: descripción de los atributos y posición de cada
+	 *        columna.
+	 */
+	static final class Cabecera {
+
+		/** Ruta del archivo, para los mensajes de error */
+		final String filename;
+
+		/** Estado de preprocesado */
+		final int preprocesado;
+
+		/** Número de filas */
+		final int filas;
+
+		/** Nombre de cada atributo */
+		final String[] nombres;
+
+		/** Peso de cada atributo */
+		final double[] pesos;
+
+		/** Diccionario de cada atributo cualitativo, o null si es cuantitativo */
+		final String[][] diccionarios;
+
+		/** Posición en el archivo del primer valor de cada columna */
+		final long[] posiciones;
+
+		/**
+		 * @brief Lee y valida la cabecera.
+		 * @param canal Canal del archivo.
+		 * @param filename Ruta del archivo, para los mensajes de error.
+		 * @throws IOException Si ocurre un error de lectura o el archivo no tiene el formato.
+		 */
+		Cabecera(FileChannel canal, String filename) throws IOException {
+			this.filename = filename;
+			long tamano = canal.size();
+			ByteBuffer preambulo = leerBytes(canal, 0, PREAMBULO, filename);
+			if (preambulo.getInt() != FIRMA) {
+				throw new IOException("❌ Error: El archivo no tiene formato binario de dataset -> " + filename);
+			}
+			int version = preambulo.getInt();
+			if (version != VERSION) {
+				throw new IOException("❌ Error: Versión de formato binario no admitida (" + version + ") -> " + filename);
+			}
+			long longitud = preambulo.getLong();
+			if (longitud < PREAMBULO || longitud > tamano || longitud > Integer.MAX_VALUE) {
+				throw new IOException("❌ Error: Cabecera no válida -> " + filename);
+			}
+			try {
+				ByteBuffer cabecera = leerBytes(canal, PREAMBULO, (int) longitud - PREAMBULO, filename);
+				this.preprocesado = cabecera.getInt();
+				this.filas = cabecera.getInt();
+				int nAtributos = cabecera.getInt();
+				if (filas < 0 || nAtributos < 0) throw new IOException("❌ Error: Cabecera no válida -> " + filename);
+				this.nombres = new String[nAtributos];
+				this.pesos = new double[nAtributos];
+				this.diccionarios = new String[nAtributos][];
+				this.posiciones = new long[nAtributos];
+				long posicion = longitud;
+				for (int j = 0; j < nAtributos; ++j) {
+					byte tipo = cabecera.get();
+					nombres[j] = leerTexto(cabecera);
+					pesos[j] = cabecera.getDouble();
+					long bytes;
+					if (tipo == CUANTITATIVO) {
+						bytes = (long) filas * Double.BYTES;
+					} else if (tipo == CUALITATIVO) {
+						diccionarios[j] = new String[cabecera.getInt()];
+						for (int c = 0; c < diccionarios[j].length; ++c) {
+							diccionarios[j][c] = leerTexto(cabecera);
+						}
+						bytes = (long) filas * Integer.BYTES;
+					} else {
+						throw new IOException("❌ Error: Tipo de atributo desconocido (" + tipo + ") -> " + filename);
+					}
+					comprobarRegion(posicion, bytes, tamano, filename);
+					posiciones[j] = posicion;
+					posicion += alinear(bytes);
+				}
+			} catch (BufferUnderflowException e) {
+				throw new IOException("❌ Error: Cabecera no válida -> " + filename, e);
+			}
+		}
+
+		/**
+		 * @brief Crea una columna cualitativa con el diccionario de un atributo y unos códigos.
+		 * @param j Índice del atributo.
+		 * @param codigos Códigos de las filas, desde la posición 0.
+		 * @param n Número de filas.
+		 * @return Columna con el nombre y el diccionario completo del atributo.
+		 * @throws IOException Si algún código no está en el diccionario.
+		 */
+		Cualitativo cualitativo(int j, IntBuffer codigos, int n) throws IOException {
+			Cualitativo columna = new Cualitativo(nombres[j]);
+			for (String valor : diccionarios[j]) {
+				columna.registrar(valor);
+			}
+			columna.reservar(n);
+			for (int i = 0; i < n; ++i) {
+				int codigo = codigos.get(i);
+				if (codigo < 0 || codigo >= diccionarios[j].length) {
+					throw new IOException("❌ Error: Código fuera del diccionario en " + nombres[j] + " -> " + filename);
+				}
+				columna.anadirCodigo(codigo);
+			}
+			return columna;
+		}
+	}
+
+	/**
+	 * @brief Lee un tramo del archivo en un búfer.
+	 * @param canal Canal del archivo.
+	 * @param desde Posición del tramo.
+	 * @param bytes Longitud del tramo.
+	 * @param filename Ruta del archivo, para los mensajes de error.
+	 * @return Búfer little-endian con el tramo, listo para leer.
+	 * @throws IOException Si el archivo es más corto o falla la lectura.
+	 */
+	private static ByteBuffer leerBytes(FileChannel canal, long desde, int bytes, String filename) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(bytes).order(ByteOrder.LITTLE_ENDIAN);
+		while (buffer.hasRemaining()) {
+			if (canal.read(buffer, desde + buffer.position()) < 0) {
+				throw new IOException("❌ Error: Archivo binario incompleto -> " + filename);
+			}
+		}
+		return buffer.flip();
+	}
+
+	/**
+	 * @brief Lee una cadena UTF-8 precedida de su longitud.
+	 * @param buffer Búfer de la cabecera.
+	 * @return Cadena leída.
+	 */
+	private static String leerTexto(ByteBuffer buffer) {
+		byte[] bytes = new byte[buffer.getInt()];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * @brief Comprueba que una columna cabe en el archivo y en una proyección.
+	 * @param desde Posición de la columna.
+	 * @param bytes Longitud de la columna.
+	 * @param tamano Tamaño del archivo.
+	 * @param filename Ruta del archivo, para los mensajes de error.
+	 * @throws IOException Si la columna no es válida.
+	 */
+	private static void comprobarRegion(long desde, long bytes, long tamano, String filename) throws IOException {
+		if (desde + bytes > tamano) throw new IOException("❌ Error: Archivo binario incompleto -> " + filename);
+		if (bytes > Integer.MAX_VALUE) throw new IOException("❌ Error: Columna demasiado grande para proyectar -> " + filename);
+	}
+
+	/**
+	 * @brief Redondea una longitud al siguiente múltiplo de 8.
+	 * @param bytes Longitud.
+	 * @return Longitud alineada.
+	 */
+	private static long alinear(long bytes) {
+		return (bytes + 7) & ~7L;
+	}
+
+	/**
+	 * @brief Escritura secuencial con búfer sobre un canal.
+	 */
+	private static final class Salida {
+
+		/** Canal de destino */
+		private final FileChannel canal;
+
+		/** Búfer de escritura */
+		private final ByteBuffer bloque = ByteBuffer.allocate(TAMANO_BLOQUE).order(ByteOrder.LITTLE_ENDIAN);
+
+		/** Bytes ya enviados al canal */
+		private long escritos;
+
+		/**
+		 * @brief Constructor.
+		 * @param canal Canal de destino.
+		 */
+		Salida(FileChannel canal) {
+			this.canal = canal;
+		}
+
+		/**
+		 * @brief Garantiza espacio en el búfer.
+		 * @param bytes Bytes que se van a escribir.
+		 * @throws IOException Si falla la escritura.
+		 */
+		private void reservar(int bytes) throws IOException {
+			if (bloque.remaining() < bytes) vaciar();
+		}
+
+		/**
+		 * @brief Envía el contenido del búfer al canal.
+		 * @throws IOException Si falla la escritura.
+		 */
+		void vaciar() throws IOException {
+			bloque.flip();
+			while (bloque.hasRemaining()) {
+				escritos += canal.write(bloque);
+			}
+			bloque.clear();
+		}
+
+		/**
+		 * @brief Devuelve la posición actual en el archivo.
+		 * @return Bytes escritos, incluidos los que siguen en el búfer.
+		 */
+		long posicion() {
+			return escritos + bloque.position();
+		}
+
+		/**
+		 * @brief Escribe un byte.
+		 * @param valor Valor a escribir.
+		 * @throws IOException Si falla la escritura.
+		 */
+		void octeto(byte valor) throws IOException {
+			reservar(1);
+			bloque.put(valor);
+		}
+
+		/**
+		 * @brief Escribe un int.
+		 * @param valor Valor a escribir.
+		 * @throws IOException Si falla la escritura.
+		 */
+		void entero(int valor) throws IOException {
+			reservar(Integer.BYTES);
+			bloque.putInt(valor);
+		}
+
+		/**
+		 * @brief Escribe un long.
+		 * @param valor Valor a escribir.
+		 * @throws IOException Si falla la escritura.
+		 */
+		void largo(long valor) throws IOException {
+			reservar(Long.BYTES);
+			bloque.putLong(valor);
+		}
+
+		/**
+		 * @brief Escribe un double.
+		 * @param valor Valor a escribir.
+		 * @throws IOException Si falla la escritura.
+		 */
+		void real(double valor) throws IOException {
+			reservar(Double.BYTES);
+			bloque.putDouble(valor);
+		}
+
+		/**
+		 * @brief Escribe una cadena en UTF-8 precedida de su longitud en bytes.
+		 * @param valor Cadena a escribir.
+		 * @throws IOException Si falla la escritura.
+		 */
+		void texto(String valor) throws IOException {
+			byte[] bytes = valor.getBytes(StandardCharsets.UTF_8);
+			entero(bytes.length);
+			for (int desde = 0; desde < bytes.length; ) {
+				reservar(1);
+				int cantidad = Math.min(bloque.remaining(), bytes.length - desde);
+				bloque.put(bytes, desde, cantidad);
+				desde += cantidad;
+			}
+		}
+
+		/**
+		 * @brief Rellena con ceros hasta un múltiplo de 8.
+		 * @throws IOException Si falla la escritura.
+		 */
+		void alinear() throws IOException {
+			while ((posicion() & 7) != 0) {
+				octeto((byte) 0);
+			}
+		}
+	}
+
+	/**
+	 * @brief Columna cuantitativa que lee sus valores de un archivo proyectado en memoria.
+	 *
+	 * Las consultas leen directamente de la proyección. La primera operación que modifica
+	 * la columna, o que pide su {@link Vector}, copia los valores a memoria propia y desde
+	 * entonces se comporta como un {@link Cuantitativo} normal.
+	 */
+	private static final class CuantitativoProyectado extends Cuantitativo {
+
+		/** Valores proyectados, o null cuando ya están en memoria propia */
+		private DoubleBuffer proyeccion;
+
+		/** Estadísticos de la proyección, o null si aún no se han calculado */
+		private Resumen resumenProyeccion;
+
+		/**
+		 * @brief Constructor.
+		 * @param nombre Nombre del atributo.
+		 * @param proyeccion Valores proyectados.
+		 */
+		CuantitativoProyectado(String nombre, DoubleBuffer proyeccion) {
+			super(nombre);
+			this.proyeccion = proyeccion;
+		}
+
+		/**
+		 * @brief Copia los valores proyectados a memoria propia.
+		 */
+		private void cargar() {
+			if (proyeccion == null) return;
+			double[] valores = new double[proyeccion.capacity()];
+			proyeccion.get(0, valores);
+			proyeccion = null;
+			super.setValores(new Vector(valores));
+		}
+
+		@Override
+		public Vector getValores() {
+			cargar();
+			return super.getValores();
+		}
+
+		@Override
+		public void setValores(Vector nuevos) {
+			proyeccion = null;
+			super.setValores(nuevos);
+		}
+
+		@Override
+		public double getDouble(int i) {
+			if (proyeccion == null) return super.getDouble(i);
+			return proyeccion.get(i);
+		}
+
+		@Override
+		public double[] toArray() {
+			if (proyeccion == null) return super.toArray();
+			double[] valores = new double[proyeccion.capacity()];
+			proyeccion.get(0, valores);
+			return valores;
+		}
+
+		@Override
+		public void copyTo(double[] destino, int desde, int paso) {
+			if (proyeccion == null) {
+				super.copyTo(destino, desde, paso);
+				return;
+			}
+			for (int i = 0, n = proyeccion.capacity(); i < n; ++i) {
+				destino[desde + i * paso] = proyeccion.get(i);
+			}
+		}
+
+		@Override
+		Resumen resumen() {
+			if (proyeccion == null) return super.resumen();
+			// La proyección no cambia, así que el resumen se calcula una sola vez
+			if (resumenProyeccion == null) resumenProyeccion = Resumen.de(this);
+			return resumenProyeccion;
+		}
+
+		@Override
+		public int size() {
+			if (proyeccion == null) return super.size();
+			return proyeccion.capacity();
+		}
+
+		@Override
+		public void estandarizacion() {
+			cargar();
+			super.estandarizacion();
+		}
+
+		@Override
+		public void normalizacion() {
+			cargar();
+			super.normalizacion();
+		}
+
+		@Override
+		public void add(Object valor) {
+			cargar();
+			super.add(valor);
+		}
+
+		@Override
+		public void add(double valor) {
+			cargar();
+			super.add(valor);
+		}
+
+		@Override
+		public Object getValor(int i) {
+			return getDouble(i);
+		}
+
+		@Override
+		public void delete(int index) {
+			cargar();
+			super.delete(index);
+		}
+
+		@Override
+		public String toString() {
+			if (proyeccion == null) return super.toString();
+			return new Vector(toArray()).toString();
+		}
+
+		@Override
+		public void clear() {
+			proyeccion = null;
+			super.clear();
+		}
+	}
+}
@@ -0,0 +1,247 @@
+package datos;
+
+import java.io.Closeable;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import vectores.Vector;
+
+/**
+ * @class LectorBloques
+ * @brief Lectura de un dataset guardado en disco por bloques de filas consecutivas.
+ *
+ * Cada llamada a {@link #siguiente()} devuelve un {@link Dataset} normal con, como mucho,
+ * el número de filas del bloque, así que la memoria no depende del tamaño del archivo. Admite
+ * archivos CSV, que se leen en serie con {@link LectorCSV}, y archivos de
+ * {@link FormatoBinario}, de los que se leen solo los tramos de cada columna que forman el
+ * bloque.
+ *
+ * En los bloques de un CSV cada columna cualitativa tiene su propio diccionario; en los de un
+ * archivo binario tiene el diccionario completo del archivo. En ambos casos los valores son
+ * los mismos que al leer el archivo entero.
+ */
+public final class LectorBloques implements Closeable {
+
+	/** Número máximo de filas por bloque */
+	private final int filasBloque;
+
+	/** Archivo CSV abierto, o null si el archivo es binario */
+	private InputStream entrada;
+
+	/** Lector del CSV */
+	private LectorCSV lector;
+
+	/** Columnas con la primera fila del CSV, hasta que se entregan en el primer bloque */
+	private List<Atributo> primera;
+
+	/** Nombres y tipos de las columnas del CSV */
+	private List<Atributo> tipos;
+
+	/** Canal del archivo binario, o null si el archivo es CSV */
+	private FileChannel canal;
+
+	/** Cabecera del archivo binario */
+	private FormatoBinario.Cabecera cabecera;
+
+	/** Búfer de lectura de un tramo de columna */
+	private ByteBuffer tramo;
+
+	/** Primera fila del siguiente bloque */
+	private int fila;
+
+	/**
+	 * @brief Constructor.
+	 * @param filasBloque Número máximo de filas por bloque.
+	 */
+	private LectorBloques(int filasBloque) {
+		if (filasBloque < 1) throw new IllegalArgumentException("El bloque debe tener al menos una fila: " + filasBloque);
+		this.filasBloque = filasBloque;
+	}
+
+	/**
+	 * @brief Abre un archivo CSV para leerlo por bloques.
+	 * @param filename Ruta del archivo.
+	 * @param delimitador Carácter que separa los campos.
+	 * @param filasBloque Número máximo de filas por bloque.
+	 * @return Lector abierto; hay que cerrarlo.
+	 * @throws IOException Si ocurre un error de lectura o la cabecera no es válida.
+	 */
+	public static LectorBloques csv(String filename, char delimitador, int filasBloque) throws IOException {
+		LectorBloques bloques = new LectorBloques(filasBloque);
+		bloques.entrada = new FileInputStream(filename);
+		try {
+			bloques.lector = new LectorCSV(delimitador);
+			bloques.primera = bloques.lector.abrir(bloques.entrada);
+			if (bloques.primera.isEmpty()) {
+				throw new IOException("❌ Error: El archivo está vacío -> " + filename);
+			}
+			bloques.tipos = bloques.primera;
+			// Un CSV con solo la cabecera no tiene primera fila
+			if (bloques.primera.get(0).size() == 0) bloques.primera = null;
+		} catch (IOException | RuntimeException e) {
+			bloques.close();
+			throw e;
+		}
+		return bloques;
+	}
+
+	/**
+	 * @brief Abre un archivo de {@link FormatoBinario} para leerlo por bloques.
+	 * @param filename Ruta del archivo.
+	 * @param filasBloque Número máximo de filas por bloque.
+	 * @return Lector abierto; hay que cerrarlo.
+	 * @throws IOException Si ocurre un error de lectura o el archivo no tiene el formato.
+	 */
+	public static LectorBloques binario(String filename, int filasBloque) throws IOException {
+		LectorBloques bloques = new LectorBloques(filasBloque);
+		bloques.canal = FileChannel.open(Path.of(filename), StandardOpenOption.READ);
+		try {
+			bloques.cabecera = new FormatoBinario.Cabecera(bloques.canal, filename);
+		} catch (IOException e) {
+			bloques.close();
+			throw e;
+		}
+		bloques.tramo = ByteBuffer.allocate(filasBloque * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		return bloques;
+	}
+
+	/**
+	 * @brief Abre un archivo eligiendo el formato por su extensión.
+	 *
+	 * Los archivos que terminan en {@link FormatoBinario#EXTENSION} se leen como binarios y el
+	 * resto como CSV separado por comas.
+	 *
+	 * @param filename Ruta del archivo.
+	 * @param filasBloque Número máximo de filas por bloque.
+	 * @return Lector abierto; hay que cerrarlo.
+	 * @throws IOException Si ocurre un error de lectura o el archivo no es válido.
+	 */
+	public static LectorBloques abrir(String filename, int filasBloque) throws IOException {
+		if (filename.endsWith(FormatoBinario.EXTENSION)) return binario(filename, filasBloque);
+		return csv(filename, LectorCSV.DELIMITADOR, filasBloque);
+	}
+
+	/**
+	 * @brief Devuelve el número máximo de filas por bloque.
+	 * @return Filas por bloque.
+	 */
+	public int getFilasBloque() {
+		return filasBloque;
+	}
+
+	/**
+	 * @brief Devuelve la posición en el archivo de la primera fila del siguiente bloque.
+	 * @return Número de filas ya entregadas.
+	 */
+	public int getFila() {
+		return fila;
+	}
+
+	/**
+	 * @brief Lee el siguiente bloque de filas.
+	 * @return Dataset con las filas del bloque, o null si no quedan filas.
+	 * @throws IOException Si ocurre un error de lectura o una fila no es válida.
+	 */
+	public Dataset siguiente() throws IOException {
+		Dataset bloque = canal != null ? siguienteBinario() : siguienteCSV();
+		if (bloque != null) fila += bloque.numeroCasos();
+		return bloque;
+	}
+
+	/**
+	 * @brief Lee el siguiente bloque de un CSV.
+	 * @return Bloque, o null si no quedan filas.
+	 * @throws IOException Si ocurre un error de lectura o una fila no es válida.
+	 */
+	private Dataset siguienteCSV() throws IOException {
+		if (lector == null || (primera == null && lector.terminado())) return null;
+		List<Atributo> columnas;
+		int leidas;
+		if (primera != null) {
+			columnas = primera;
+			primera = null;
+			leidas = 1 + lector.siguientes(columnas, filasBloque - 1);
+		} else {
+			columnas = modelo();
+			leidas = lector.siguientes(columnas, filasBloque);
+		}
+		return leidas == 0 ? null : new Dataset(columnas);
+	}
+
+	/**
+	 * @brief Crea columnas vacías con el nombre y el tipo de las del CSV.
+	 * @return Columnas vacías.
+	 */
+	private List<Atributo> modelo() {
+		List<Atributo> columnas = new ArrayList<>(tipos.size());
+		for (Atributo atributo : tipos) {
+			if (atributo instanceof Cuantitativo) columnas.add(new Cuantitativo(atributo.getNombre()));
+			else columnas.add(new Cualitativo(atributo.getNombre()));
+		}
+		return columnas;
+	}
+
+	/**
+	 * @brief Lee el siguiente bloque de un archivo binario.
+	 * @return Bloque, o null si no quedan filas.
+	 * @throws IOException Si ocurre un error de lectura.
+	 */
+	private Dataset siguienteBinario() throws IOException {
+		int n = Math.min(filasBloque, cabecera.filas - fila);
+		if (n <= 0) return null;
+		List<Atributo> columnas = new ArrayList<>(cabecera.nombres.length);
+		for (int j = 0; j < cabecera.nombres.length; ++j) {
+			Atributo atributo;
+			if (cabecera.diccionarios[j] == null) {
+				leerTramo(cabecera.posiciones[j] + (long) fila * Double.BYTES, n * Double.BYTES);
+				double[] valores = new double[n];
+				tramo.asDoubleBuffer().get(valores);
+				atributo = new Cuantitativo(cabecera.nombres[j], new Vector(valores));
+			} else {
+				leerTramo(cabecera.posiciones[j] + (long) fila * Integer.BYTES, n * Integer.BYTES);
+				atributo = cabecera.cualitativo(j, tramo.asIntBuffer(), n);
+			}
+			atributo.setPeso(cabecera.pesos[j]);
+			columnas.add(atributo);
+		}
+		return new Dataset(columnas);
+	}
+
+	/**
+	 * @brief Lee un tramo del archivo binario en el búfer.
+	 * @param desde Posición del tramo.
+	 * @param bytes Longitud del tramo.
+	 * @throws IOException Si el archivo es más corto o falla la lectura.
+	 */
+	private void leerTramo(long desde, int bytes) throws IOException {
+		tramo.clear().limit(bytes);
+		while (tramo.hasRemaining()) {
+			if (canal.read(tramo, desde + tramo.position()) < 0) {
+				throw new IOException("❌ Error: Archivo binario incompleto -> " + cabecera.filename);
+			}
+		}
+		tramo.flip();
+	}
+
+	/**
+	 * @brief Cierra el archivo.
+	 * @throws IOException Si ocurre un error al cerrar.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (lector != null) lector.cerrar();
+		lector = null;
+		if (entrada != null) entrada.close();
+		entrada = null;
+		if (canal != null) canal.close();
+		canal = null;
+	}
+}
@@ -0,0 +1,579 @@
+package datos;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @brief Lector de archivos CSV que trabaja directamente sobre los bytes del archivo.
+ *
+ * Lee la entrada por bloques y separa los campos sin crear una línea ni un array de campos
+ * por fila. Los campos numéricos se convierten a double desde los bytes, sin crear un String
+ * ni lanzar excepciones, y se escriben directamente en la columna primitiva del
+ * {@link Cuantitativo}; solo los campos de texto se decodifican a String.
+ *
+ * Admite campos entre comillas dobles (con comillas escapadas como {@code ""}, y con
+ * delimitadores o saltos de línea dentro), finales de línea {@code \n} o {@code \r\n} y un
+ * delimitador configurable. Las líneas vacías se ignoran. Igual que {@link Dataset#read}, la
+ * primera línea da los nombres de los atributos y la primera fila de datos decide el tipo de
+ * cada columna: numérica si el valor es un número y cualitativa si no.
+ */
+public final class LectorCSV {
+
+	/** Delimitador por defecto */
+	public static final char DELIMITADOR = ',';
+
+	/** Tamaño del bloque de lectura */
+	private static final int TAMANO_BLOQUE = 1 << 16;
+
+	/** El campo terminó en un delimitador */
+	private static final int FIN_CAMPO = 0;
+
+	/** El campo terminó en un salto de línea */
+	private static final int FIN_LINEA = 1;
+
+	/** El campo terminó al final de la entrada */
+	private static final int FIN_ENTRADA = 2;
+
+	/** Potencias de 10 representables exactamente como double */
+	private static final double[] POTENCIAS = {
+		1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+		1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+
+	/** Delimitador de campos */
+	private final byte delimitador;
+
+	/** Entrada actual */
+	private InputStream entrada;
+
+	/** Bloque de bytes leídos */
+	private final byte[] bloque = new byte[TAMANO_BLOQUE];
+
+	/** Posición del siguiente byte del bloque */
+	private int posicion;
+
+	/** Número de bytes válidos del bloque */
+	private int limite;
+
+	/** Bytes del último campo leído, sin comillas */
+	private byte[] campo = new byte[64];
+
+	/** Longitud del último campo leído */
+	private int longitud;
+
+	/** Indica si el último campo estaba entre comillas */
+	private boolean entrecomillado;
+
+	/** Valor del último campo convertido a número */
+	private double valor;
+
+	/** Línea actual, para los mensajes de error */
+	private long linea;
+
+	/** Línea en la que empieza el último campo leído */
+	private long lineaCampo;
+
+	/** Bytes leídos del flujo actual */
+	private long leidos;
+
+	/** Indica si la última lectura llegó al final del flujo */
+	private boolean terminado;
+
+	/** Indica si algún campo tenía un salto de línea entre comillas */
+	private boolean saltoEntreComillas;
+
+	/**
+	 * @brief Crea un lector con el delimitador por defecto (coma).
+	 */
+	public LectorCSV() {
+		this(DELIMITADOR);
+	}
+
+	/**
+	 * @brief Crea un lector con un delimitador dado.
+	 * @param delimitador Carácter ASCII que separa los campos.
+	 * @throws IllegalArgumentException si el delimitador no es ASCII o es una comilla o un
+	 *         salto de línea.
+	 */
+	public LectorCSV(char delimitador) {
+		if (delimitador > 127 || delimitador == '"' || delimitador == '\n' || delimitador == '\r') {
+			throw new IllegalArgumentException("Delimitador no válido: " + delimitador);
+		}
+		this.delimitador = (byte) delimitador;
+	}
+
+	/**
+	 * @brief Lee un archivo CSV.
+	 * @param filename Ruta del archivo.
+	 * @return Atributos con los valores de todas las filas.
+	 * @throws IOException Si ocurre un error de lectura, el archivo está vacío o tiene un
+	 *         formato no válido.
+	 */
+	public List<Atributo> leer(String filename) throws IOException {
+		try (InputStream archivo = new FileInputStream(filename)) {
+			List<Atributo> atributos = leer(archivo);
+			if (atributos.isEmpty()) {
+				throw new IOException("❌ Error: El archivo está vacío -> " + filename);
+			}
+			return atributos;
+		}
+	}
+
+	/**
+	 * @brief Lee un CSV de un flujo de entrada, que no se cierra.
+	 * @param entrada Flujo con el contenido CSV.
+	 * @return Atributos con los valores de todas las filas, o una lista vacía si no hay
+	 *         cabecera.
+	 * @throws IOException Si ocurre un error de lectura o el CSV tiene un formato no válido.
+	 */
+	public List<Atributo> leer(InputStream entrada) throws IOException {
+		iniciar(entrada);
+		List<Atributo> atributos;
+		try {
+			atributos = cabecera();
+			filas(atributos, Integer.MAX_VALUE);
+		} finally {
+			this.entrada = null;
+		}
+		for (Atributo atributo : atributos) {
+			if (atributo instanceof Cuantitativo) ((Cuantitativo) atributo).getValores().trimToSize();
+		}
+		return atributos;
+	}
+
+	/**
+	 * @brief Lee la cabecera y la primera fila de datos, que decide el tipo de cada columna.
+	 *
+	 * Tras la llamada, {@link #consumidos()} es la posición del flujo donde empieza la segunda
+	 * fila de datos y {@link #terminado()} indica si ya no quedan más filas.
+	 *
+	 * @param entrada Flujo con el contenido CSV, desde el principio.
+	 * @return Atributos con el valor de la primera fila, o una lista vacía si no hay cabecera.
+	 * @throws IOException Si ocurre un error de lectura o el CSV tiene un formato no válido.
+	 */
+	List<Atributo> leerInicio(InputStream entrada) throws IOException {
+		iniciar(entrada);
+		try {
+			return cabecera();
+		} finally {
+			this.entrada = null;
+		}
+	}
+
+	/**
+	 * @brief Lee filas de datos y añade sus valores al final de unas columnas.
+	 *
+	 * El flujo debe empezar al principio de una fila. El tipo de cada columna decide cómo se
+	 * interpreta el campo correspondiente.
+	 *
+	 * @param entrada Flujo con las filas.
+	 * @param atributos Columnas a las que se añaden los valores.
+	 * @throws IOException Si ocurre un error de lectura o una fila no es válida.
+	 */
+	void leerFilas(InputStream entrada, List<Atributo> atributos) throws IOException {
+		iniciar(entrada);
+		try {
+			filas(atributos, Integer.MAX_VALUE);
+		} finally {
+			this.entrada = null;
+		}
+	}
+
+	/**
+	 * @brief Lee la cabecera y la primera fila del flujo actual.
+	 * @return Atributos con el valor de la primera fila, o una lista vacía si no hay cabecera.
+	 * @throws IOException Si ocurre un error de lectura o el CSV tiene un formato no válido.
+	 */
+	private List<Atributo> cabecera() throws IOException {
+		List<Atributo> atributos = new ArrayList<>();
+		terminado = true;
+		List<String> nombres = new ArrayList<>();
+		int fin = saltarLineasVacias();
+		if (fin == FIN_ENTRADA && longitud == 0 && !entrecomillado) return atributos;
+		nombres.add(texto());
+		while (fin == FIN_CAMPO) {
+			fin = leerCampo();
+			nombres.add(texto());
+		}
+		if (fin == FIN_ENTRADA) return vacios(nombres);
+
+		// La primera fila decide el tipo de cada columna
+		fin = saltarLineasVacias();
+		if (fin == FIN_ENTRADA && longitud == 0 && !entrecomillado) return vacios(nombres);
+		for (int j = 0; j < nombres.size(); ++j) {
+			if (j > 0) {
+				comprobarCampo(fin, j, nombres.size());
+				fin = leerCampo();
+			}
+			Atributo atributo;
+			if (numero()) {
+				Cuantitativo numerico = new Cuantitativo(nombres.get(j));
+				numerico.add(valor);
+				atributo = numerico;
+			} else {
+				atributo = new Cualitativo(nombres.get(j), texto());
+			}
+			atributos.add(atributo);
+		}
+		comprobarFinFila(fin, nombres.size());
+		terminado = fin == FIN_ENTRADA;
+		return atributos;
+	}
+
+	/**
+	 * @brief Empieza una lectura por bloques: lee la cabecera y la primera fila de datos.
+	 *
+	 * El flujo queda abierto en el lector para seguir con {@link #siguientes(List, int)}
+	 * hasta que {@link #terminado()} sea cierto; después hay que llamar a {@link #cerrar()}.
+	 *
+	 * @param entrada Flujo con el contenido CSV, desde el principio.
+	 * @return Atributos con el valor de la primera fila, o una lista vacía si no hay cabecera.
+	 * @throws IOException Si ocurre un error de lectura o el CSV tiene un formato no válido.
+	 */
+	List<Atributo> abrir(InputStream entrada) throws IOException {
+		iniciar(entrada);
+		return cabecera();
+	}
+
+	/**
+	 * @brief Lee como mucho un número de filas del flujo abierto con {@link #abrir}.
+	 * @param atributos Columnas a las que se añaden los valores.
+	 * @param maximo Número máximo de filas.
+	 * @return Número de filas leídas; 0 si ya no quedan.
+	 * @throws IOException Si ocurre un error de lectura o una fila no es válida.
+	 */
+	int siguientes(List<Atributo> atributos, int maximo) throws IOException {
+		return filas(atributos, maximo);
+	}
+
+	/**
+	 * @brief Termina una lectura por bloques sin cerrar el flujo.
+	 */
+	void cerrar() {
+		this.entrada = null;
+	}
+
+	/**
+	 * @brief Lee filas del flujo actual hasta un máximo o hasta el final.
+	 * @param atributos Columnas a las que se añaden los valores.
+	 * @param maximo Número máximo de filas.
+	 * @return Número de filas leídas.
+	 * @throws IOException Si ocurre un error de lectura o una fila no es válida.
+	 */
+	private int filas(List<Atributo> atributos, int maximo) throws IOException {
+		int n = atributos.size();
+		Cuantitativo[] numericos = new Cuantitativo[n];
+		Cualitativo[] cualitativos = new Cualitativo[n];
+		for (int j = 0; j < n; ++j) {
+			if (atributos.get(j) instanceof Cuantitativo) numericos[j] = (Cuantitativo) atributos.get(j);
+			else cualitativos[j] = (Cualitativo) atributos.get(j);
+		}
+		int leidas = 0;
+		while (!terminado && leidas < maximo) {
+			int fin = saltarLineasVacias();
+			if (fin == FIN_ENTRADA && longitud == 0 && !entrecomillado) {
+				terminado = true;
+				break;
+			}
+			for (int j = 0; j < n; ++j) {
+				if (j > 0) {
+					comprobarCampo(fin, j, n);
+					fin = leerCampo();
+				}
+				if (numericos[j] != null) {
+					if (!numero()) {
+						throw new IOException("❌ Error: Valor no numérico en la línea " + lineaCampo + " para el atributo "
+								+ numericos[j].getNombre() + ": " + texto());
+					}
+					numericos[j].add(valor);
+				} else {
+					cualitativos[j].add(texto());
+				}
+			}
+			comprobarFinFila(fin, n);
+			leidas++;
+			terminado = fin == FIN_ENTRADA;
+		}
+		return leidas;
+	}
+
+	/**
+	 * @brief Prepara el lector para un flujo nuevo.
+	 * @param entrada Flujo a leer.
+	 */
+	private void iniciar(InputStream entrada) {
+		this.entrada = entrada;
+		this.posicion = 0;
+		this.limite = 0;
+		this.leidos = 0;
+		this.terminado = false;
+		this.linea = 1;
+		this.saltoEntreComillas = false;
+	}
+
+	/**
+	 * @brief Devuelve el número de bytes del flujo ya interpretados.
+	 * @return Posición del siguiente byte por leer.
+	 */
+	long consumidos() {
+		return leidos - (limite - posicion);
+	}
+
+	/**
+	 * @brief Indica si la última lectura llegó al final del flujo.
+	 * @return true si no quedan filas.
+	 */
+	boolean terminado() {
+		return terminado;
+	}
+
+	/**
+	 * @brief Indica si algún campo leído tenía un salto de línea entre comillas.
+	 * @return true si se encontró un salto de línea dentro de comillas.
+	 */
+	boolean haySaltoEntreComillas() {
+		return saltoEntreComillas;
+	}
+
+	/**
+	 * @brief Crea atributos sin valores cuando el CSV solo tiene cabecera.
+	 * @param nombres Nombres de los atributos.
+	 * @return Atributos cualitativos vacíos.
+	 */
+	private static List<Atributo> vacios(List<String> nombres) {
+		List<Atributo> atributos = new ArrayList<>();
+		for (String nombre : nombres) {
+			atributos.add(new Cualitativo(nombre));
+		}
+		return atributos;
+	}
+
+	/**
+	 * @brief Comprueba que antes del campo j no terminó la fila.
+	 * @param fin Terminador del campo anterior.
+	 * @param j Índice del campo que se va a leer.
+	 * @param campos Número de campos esperados.
+	 * @throws IOException si la fila tiene menos campos.
+	 */
+	private void comprobarCampo(int fin, int j, int campos) throws IOException {
+		if (fin != FIN_CAMPO) {
+			throw new IOException("❌ Error: La línea " + lineaCampo + " tiene " + j
+					+ " campos y se esperaban " + campos);
+		}
+	}
+
+	/**
+	 * @brief Comprueba que la fila terminó tras el último campo.
+	 * @param fin Terminador del último campo.
+	 * @param campos Número de campos esperados.
+	 * @throws IOException si la fila tiene más campos.
+	 */
+	private void comprobarFinFila(int fin, int campos) throws IOException {
+		if (fin == FIN_CAMPO) {
+			throw new IOException("❌ Error: La línea " + lineaCampo + " tiene más de " + campos + " campos");
+		}
+	}
+
+	/**
+	 * @brief Lee el primer campo de la siguiente línea que no esté vacía.
+	 * @return Terminador del campo.
+	 * @throws IOException Si ocurre un error de lectura.
+	 */
+	private int saltarLineasVacias() throws IOException {
+		int fin = leerCampo();
+		while (fin == FIN_LINEA && longitud == 0 && !entrecomillado) {
+			fin = leerCampo();
+		}
+		return fin;
+	}
+
+	/**
+	 * @brief Lee el siguiente byte de la entrada.
+	 * @return Byte leído (0-255), o -1 al final de la entrada.
+	 * @throws IOException Si ocurre un error de lectura.
+	 */
+	private int leerByte() throws IOException {
+		if (posicion == limite) {
+			limite = entrada.read(bloque, 0, bloque.length);
+			posicion = 0;
+			if (limite <= 0) {
+				limite = 0;
+				return -1;
+			}
+			leidos += limite;
+		}
+		return bloque[posicion++] & 0xFF;
+	}
+
+	/**
+	 * @brief Añade un byte al campo actual.
+	 * @param b Byte a añadir.
+	 */
+	private void anadir(int b) {
+		if (longitud == campo.length) {
+			byte[] mayor = new byte[2 * campo.length];
+			System.arraycopy(campo, 0, mayor, 0, longitud);
+			campo = mayor;
+		}
+		campo[longitud++] = (byte) b;
+	}
+
+	/**
+	 * @brief Lee el siguiente campo en el buffer del campo.
+	 * @return FIN_CAMPO, FIN_LINEA o FIN_ENTRADA según lo que terminó el campo.
+	 * @throws IOException Si ocurre un error de lectura o hay comillas sin cerrar.
+	 */
+	private int leerCampo() throws IOException {
+		longitud = 0;
+		entrecomillado = false;
+		lineaCampo = linea;
+		int c = leerByte();
+		if (c == '"') {
+			entrecomillado = true;
+			long inicio = linea;
+			while (true) {
+				c = leerByte();
+				if (c < 0) throw new IOException("❌ Error: Comillas sin cerrar desde la línea " + inicio);
+				if (c == '"') {
+					c = leerByte();
+					if (c != '"') break;
+				} else if (c == '\n') {
+					linea++;
+					saltoEntreComillas = true;
+				}
+				anadir(c);
+			}
+		}
+		while (c >= 0 && c != delimitador && c != '\n') {
+			anadir(c);
+			c = leerByte();
+		}
+		if (c == '\n') {
+			linea++;
+			if (longitud > 0 && campo[longitud - 1] == '\r') longitud--;
+			return FIN_LINEA;
+		}
+		if (c < 0) {
+			if (longitud > 0 && campo[longitud - 1] == '\r') longitud--;
+			return FIN_ENTRADA;
+		}
+		return FIN_CAMPO;
+	}
+
+	/**
+	 * @brief Decodifica el campo actual como texto UTF-8.
+	 * @return Texto del campo.
+	 */
+	private String texto() {
+		return new String(campo, 0, longitud, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * @brief Intenta convertir el campo actual en un número y lo deja en {@link #valor}.
+	 *
+	 * Los decimales habituales (signo, dígitos, punto y exponente) cuya mantisa decimal cabe
+	 * exactamente en un double y cuyo exponente decimal es pequeño se convierten con una sola
+	 * operación exacta, que da el mismo resultado que {@link Double#parseDouble}. El resto de números se delegan
+	 * en {@link Double#parseDouble}, pero solo tras comprobar la sintaxis, así que un campo de
+	 * texto nunca provoca una excepción.
+	 *
+	 * @return true si el campo es un número.
+	 */
+	boolean numero() {
+		int inicio = 0;
+		int fin = longitud;
+		while (inicio < fin && (campo[inicio] & 0xFF) <= ' ') inicio++;
+		while (fin > inicio && (campo[fin - 1] & 0xFF) <= ' ') fin--;
+		if (inicio == fin) return false;
+
+		int i = inicio;
+		boolean negativo = false;
+		if (campo[i] == '-' || campo[i] == '+') {
+			negativo = campo[i] == '-';
+			i++;
+		}
+		long mantisa = 0;
+		int cifras = 0;
+		int exponente = 0;
+		boolean digitos = false;
+		boolean exacto = true;
+		for (; i < fin && campo[i] >= '0' && campo[i] <= '9'; ++i) {
+			digitos = true;
+			if (cifras < 18) {
+				mantisa = mantisa * 10 + (campo[i] - '0');
+				if (mantisa != 0) cifras++;
+			} else {
+				exponente++;
+				if (campo[i] != '0') exacto = false;
+			}
+		}
+		if (i < fin && campo[i] == '.') {
+			for (++i; i < fin && campo[i] >= '0' && campo[i] <= '9'; ++i) {
+				digitos = true;
+				if (cifras < 18) {
+					mantisa = mantisa * 10 + (campo[i] - '0');
+					if (mantisa != 0) cifras++;
+					exponente--;
+				} else if (campo[i] != '0') {
+					exacto = false;
+				}
+			}
+		}
+		if (!digitos) return numeroEspecial(inicio, fin);
+		if (i < fin && (campo[i] == 'e' || campo[i] == 'E')) {
+			int j = i + 1;
+			boolean exponenteNegativo = false;
+			if (j < fin && (campo[j] == '-' || campo[j] == '+')) {
+				exponenteNegativo = campo[j] == '-';
+				j++;
+			}
+			if (j == fin || campo[j] < '0' || campo[j] > '9') return numeroEspecial(inicio, fin);
+			int valorExponente = 0;
+			for (; j < fin && campo[j] >= '0' && campo[j] <= '9'; ++j) {
+				if (valorExponente < 100000) valorExponente = valorExponente * 10 + (campo[j] - '0');
+			}
+			exponente += exponenteNegativo ? -valorExponente : valorExponente;
+			i = j;
+		}
+		if (i != fin) return numeroEspecial(inicio, fin);
+
+		if (exacto && mantisa < (1L << 53) && exponente >= -22 && exponente <= 22) {
+			double resultado = exponente >= 0 ? mantisa * POTENCIAS[exponente] : mantisa / POTENCIAS[-exponente];
+			valor = negativo ? -resultado : resultado;
+			return true;
+		}
+		valor = Double.parseDouble(new String(campo, inicio, fin - inicio, StandardCharsets.ISO_8859_1));
+		return true;
+	}
+
+	/**
+	 * @brief Convierte los números que no son decimales simples: NaN, infinitos, hexadecimales
+	 *        y decimales con sufijo de tipo ({@code 1.5f}, {@code 2d}).
+	 *
+	 * Solo se llama a {@link Double#parseDouble} si el campo tiene la forma de uno de ellos,
+	 * así que un texto cualquiera se descarta sin lanzar excepciones.
+	 *
+	 * @param inicio Primer byte del campo sin espacios.
+	 * @param fin Fin del campo sin espacios.
+	 * @return true si el campo es un número.
+	 */
+	private boolean numeroEspecial(int inicio, int fin) {
+		String texto = new String(campo, inicio, fin - inicio, StandardCharsets.ISO_8859_1);
+		String sinSigno = texto.startsWith("-") || texto.startsWith("+") ? texto.substring(1) : texto;
+		char ultimo = texto.charAt(texto.length() - 1);
+		boolean hexadecimal = sinSigno.startsWith("0x") || sinSigno.startsWith("0X");
+		boolean sufijo = (ultimo == 'd' || ultimo == 'D' || ultimo == 'f' || ultimo == 'F') && texto.length() > 1
+				&& (Character.isDigit(texto.charAt(texto.length() - 2)) || texto.charAt(texto.length() - 2) == '.');
+		if (!sinSigno.equals("NaN") && !sinSigno.equals("Infinity") && !hexadecimal && !sufijo) return false;
+		try {
+			valor = Double.parseDouble(texto);
+			return true;
+		} catch (NumberFormatException e) {
+			return false;
+		}
+	}
+}
@@ -0,0 +1,297 @@
+package datos;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import vectores.Vector;
+
+/**
+ * @class LectorCSVParalelo
+ * @brief Lector de archivos CSV que reparte las filas entre varios hilos.
+ *
+ * La cabecera y la primera fila de datos se leen en serie para fijar el tipo de cada columna.
+ * El resto del archivo se corta en trozos que empiezan justo después de un salto de línea,
+ * cada trozo se proyecta en memoria con {@link FileChannel#map} y lo interpreta un
+ * {@link LectorCSV} propio. Después se concatenan las columnas de los trozos en orden y se
+ * traducen los códigos de cada diccionario local al diccionario final, que queda en el
+ * mismo orden de aparición que en la lectura en serie.
+ *
+ * Un corte solo es válido si ningún salto de línea está entre comillas. Si algún trozo
+ * encuentra uno, o falla por cualquier motivo, el archivo se vuelve a leer en serie, que da
+ * el resultado correcto o el error con su número de línea.
+ */
+public final class LectorCSVParalelo {
+
+	/** Tamaño máximo de cada trozo */
+	static final int TAMANO_MAXIMO_TROZO = 1 << 28;
+
+	/** Trozos por hilo, para repartir mejor el trabajo */
+	private static final int TROZOS_POR_HILO = 4;
+
+	/** Tamaño mínimo de cada trozo */
+	private static final int TAMANO_MINIMO_TROZO = 1 << 20;
+
+	/** Delimitador de campos */
+	private final char delimitador;
+
+	/** Número de hilos */
+	private final int hilos;
+
+	/** Tamaño mínimo de trozo usado al dividir */
+	private final long tamanoMinimo;
+
+	/**
+	 * @brief Constructor con el delimitador por defecto y un hilo por procesador.
+	 */
+	public LectorCSVParalelo() {
+		this(LectorCSV.DELIMITADOR, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * @brief Constructor con delimitador y número de hilos.
+	 * @param delimitador Carácter que separa los campos.
+	 * @param hilos Número de hilos.
+	 * @throws IllegalArgumentException Si el delimitador no es válido o hilos es menor que 1.
+	 */
+	public LectorCSVParalelo(char delimitador, int hilos) {
+		this(delimitador, hilos, TAMANO_MINIMO_TROZO);
+	}
+
+	/**
+	 * @brief Constructor que fija también el tamaño mínimo de trozo.
+	 * @param delimitador Carácter que separa los campos.
+	 * @param hilos Número de hilos.
+	 * @param tamanoMinimo Tamaño mínimo de cada trozo en bytes.
+	 */
+	LectorCSVParalelo(char delimitador, int hilos, long tamanoMinimo) {
+		new LectorCSV(delimitador); // Valida el delimitador
+		if (hilos < 1) throw new IllegalArgumentException("El número de hilos debe ser positivo: " + hilos);
+		this.delimitador = delimitador;
+		this.hilos = hilos;
+		this.tamanoMinimo = Math.max(1, tamanoMinimo);
+	}
+
+	/**
+	 * @brief Lee un archivo CSV.
+	 * @param filename Ruta del archivo.
+	 * @return Atributos con los valores de todas las filas.
+	 * @throws IOException Si ocurre un error de lectura, el archivo está vacío o tiene un
+	 *         formato no válido.
+	 */
+	public List<Atributo> leer(String filename) throws IOException {
+		if (hilos == 1) return new LectorCSV(delimitador).leer(filename);
+		List<Atributo> atributos;
+		try (FileChannel canal = FileChannel.open(Path.of(filename), StandardOpenOption.READ)) {
+			atributos = leer(canal);
+		}
+		if (atributos == null) return new LectorCSV(delimitador).leer(filename);
+		if (atributos.isEmpty()) {
+			throw new IOException("❌ Error: El archivo está vacío -> " + filename);
+		}
+		return atributos;
+	}
+
+	/**
+	 * @brief Lee en paralelo el contenido de un canal.
+	 * @param canal Canal del archivo.
+	 * @return Atributos leídos, o null si hay que repetir la lectura en serie.
+	 * @throws IOException Si ocurre un error de lectura.
+	 */
+	private List<Atributo> leer(FileChannel canal) throws IOException {
+		LectorCSV inicio = new LectorCSV(delimitador);
+		List<Atributo> atributos;
+		try {
+			atributos = inicio.leerInicio(Channels.newInputStream(canal.position(0)));
+		} catch (IOException e) {
+			return null;
+		}
+		if (inicio.haySaltoEntreComillas()) return null;
+		if (inicio.terminado()) {
+			for (Atributo atributo : atributos) {
+				if (atributo instanceof Cuantitativo) ((Cuantitativo) atributo).getValores().trimToSize();
+			}
+			return atributos;
+		}
+
+		long[] cortes = cortes(canal, inicio.consumidos(), canal.size());
+		if (cortes == null) return null;
+		List<List<Atributo>> trozos;
+		ForkJoinPool pool = new ForkJoinPool(hilos);
+		try {
+			trozos = pool.invoke(ForkJoinTask.adapt(() -> IntStream.range(0, cortes.length - 1).parallel()
+					.mapToObj(t -> leerTrozo(canal, cortes[t], cortes[t + 1], atributos))
+					.collect(Collectors.toList())));
+		} catch (UncheckedIOException e) {
+			return null;
+		} finally {
+			pool.shutdown();
+		}
+		if (trozos.contains(null)) return null;
+		return unir(atributos, trozos);
+	}
+
+	/**
+	 * @brief Divide la región de datos en trozos que empiezan al principio de una línea.
+	 * @param canal Canal del archivo.
+	 * @param desde Posición donde empiezan los datos.
+	 * @param hasta Tamaño del archivo.
+	 * @return Posiciones de corte en orden creciente, incluidos los extremos, o null si algún
+	 *         trozo no se puede proyectar.
+	 * @throws IOException Si ocurre un error de lectura.
+	 */
+	private long[] cortes(FileChannel canal, long desde, long hasta) throws IOException {
+		long region = hasta - desde;
+		long nTrozos = Math.max(1, Math.min((long) hilos * TROZOS_POR_HILO, region / tamanoMinimo));
+		nTrozos = Math.max(nTrozos, (region + TAMANO_MAXIMO_TROZO - 1) / TAMANO_MAXIMO_TROZO);
+		List<Long> cortes = new ArrayList<>();
+		cortes.add(desde);
+		ByteBuffer bloque = ByteBuffer.allocate(1 << 12);
+		for (long t = 1; t < nTrozos; ++t) {
+			long objetivo = Math.max(desde + region / nTrozos * t, cortes.get(cortes.size() - 1));
+			long corte = siguienteLinea(canal, objetivo, hasta, bloque);
+			if (corte >= hasta) break;
+			if (corte > cortes.get(cortes.size() - 1)) cortes.add(corte);
+		}
+		cortes.add(hasta);
+		long[] resultado = new long[cortes.size()];
+		for (int i = 0; i < resultado.length; ++i) {
+			resultado[i] = cortes.get(i);
+		}
+		// Una línea muy larga puede dejar un trozo mayor de lo que admite una proyección
+		for (int i = 1; i < resultado.length; ++i) {
+			if (resultado[i] - resultado[i - 1] > Integer.MAX_VALUE) return null;
+		}
+		return resultado;
+	}
+
+	/**
+	 * @brief Busca el principio de la línea siguiente a una posición.
+	 * @param canal Canal del archivo.
+	 * @param desde Posición donde empieza la búsqueda.
+	 * @param hasta Tamaño del archivo.
+	 * @param bloque Búfer auxiliar.
+	 * @return Posición justo después del primer salto de línea, o el final del archivo.
+	 * @throws IOException Si ocurre un error de lectura.
+	 */
+	private static long siguienteLinea(FileChannel canal, long desde, long hasta, ByteBuffer bloque) throws IOException {
+		long posicion = desde;
+		while (posicion < hasta) {
+			bloque.clear();
+			int leidos = canal.read(bloque, posicion);
+			if (leidos <= 0) break;
+			for (int i = 0; i < leidos; ++i) {
+				if (bloque.get(i) == '\n') return posicion + i + 1;
+			}
+			posicion += leidos;
+		}
+		return hasta;
+	}
+
+	/**
+	 * @brief Lee las filas de un trozo en columnas vacías del mismo tipo que las dadas.
+	 * @param canal Canal del archivo.
+	 * @param desde Principio del trozo.
+	 * @param hasta Final del trozo.
+	 * @param modelo Columnas que dan el nombre y el tipo.
+	 * @return Columnas del trozo, o null si el trozo tiene saltos de línea entre comillas.
+	 */
+	private List<Atributo> leerTrozo(FileChannel canal, long desde, long hasta, List<Atributo> modelo) {
+		List<Atributo> columnas = new ArrayList<>(modelo.size());
+		for (Atributo atributo : modelo) {
+			if (atributo instanceof Cuantitativo) columnas.add(new Cuantitativo(atributo.getNombre()));
+			else columnas.add(new Cualitativo(atributo.getNombre()));
+		}
+		try {
+			LectorCSV lector = new LectorCSV(delimitador);
+			lector.leerFilas(new EntradaBuffer(canal.map(FileChannel.MapMode.READ_ONLY, desde, hasta - desde)), columnas);
+			return lector.haySaltoEntreComillas() ? null : columnas;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * @brief Concatena las columnas de los trozos detrás de la primera fila.
+	 * @param primera Columnas con la primera fila.
+	 * @param trozos Columnas de cada trozo, en orden.
+	 * @return Columnas completas.
+	 */
+	private static List<Atributo> unir(List<Atributo> primera, List<List<Atributo>> trozos) {
+		int total = 1;
+		for (List<Atributo> trozo : trozos) {
+			total += trozo.get(0).size();
+		}
+		List<Atributo> atributos = new ArrayList<>(primera.size());
+		for (int j = 0; j < primera.size(); ++j) {
+			Atributo atributo = primera.get(j);
+			if (atributo instanceof Cuantitativo) {
+				Vector valores = new Vector(total);
+				valores.clear();
+				valores.concat(((Cuantitativo) atributo).getValores());
+				for (List<Atributo> trozo : trozos) {
+					valores.concat(((Cuantitativo) trozo.get(j)).getValores());
+				}
+				atributos.add(new Cuantitativo(atributo.getNombre(), valores));
+			} else {
+				Cualitativo columna = (Cualitativo) atributo;
+				columna.reservar(total);
+				for (List<Atributo> trozo : trozos) {
+					Cualitativo local = (Cualitativo) trozo.get(j);
+					// Registrar los diccionarios en orden mantiene el orden de aparición global
+					int[] traduccion = new int[local.nCodigos()];
+					for (int c = 0; c < traduccion.length; ++c) {
+						traduccion[c] = columna.registrar(local.valor(c));
+					}
+					for (int i = 0; i < local.size(); ++i) {
+						columna.anadirCodigo(traduccion[local.getCodigo(i)]);
+					}
+				}
+				atributos.add(columna);
+			}
+		}
+		return atributos;
+	}
+
+	/**
+	 * @brief Flujo de entrada sobre un búfer de bytes.
+	 */
+	private static final class EntradaBuffer extends InputStream {
+
+		/** Búfer con los bytes */
+		private final ByteBuffer buffer;
+
+		/**
+		 * @brief Constructor.
+		 * @param buffer Búfer a leer desde su posición actual.
+		 */
+		EntradaBuffer(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] destino, int desde, int cantidad) {
+			if (cantidad == 0) return 0;
+			if (!buffer.hasRemaining()) return -1;
+			int leidos = Math.min(cantidad, buffer.remaining());
+			buffer.get(destino, desde, leidos);
+			return leidos;
+		}
+	}
+}
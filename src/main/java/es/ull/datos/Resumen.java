@@ -0,0 +1,102 @@
+package datos;
+
+/**
+ * @brief Estadísticos de una columna numérica acumulados valor a valor.
+ *
+ * Guarda el número de valores, el mínimo, el máximo, la media y la suma de cuadrados de las
+ * diferencias con la media (M2) con el algoritmo de Welford, de modo que añadir un valor
+ * cuesta O(1) y la media y la desviación se obtienen sin volver a recorrer la columna y sin
+ * la pérdida de precisión de restar sumas de cuadrados.
+ */
+final class Resumen {
+
+	/** Número de valores */
+	private int n;
+
+	/** Valor mínimo */
+	private double minimo;
+
+	/** Valor máximo */
+	private double maximo;
+
+	/** Media de los valores */
+	private double media;
+
+	/** Suma de los cuadrados de las diferencias con la media */
+	private double m2;
+
+	/**
+	 * @brief Calcula el resumen de una columna con una sola pasada.
+	 * @param columna Columna a resumir.
+	 * @return Resumen con todos los valores de la columna.
+	 */
+	static Resumen de(Cuantitativo columna) {
+		Resumen resumen = new Resumen();
+		for (int i = 0, n = columna.size(); i < n; ++i) {
+			resumen.anadir(columna.getDouble(i));
+		}
+		return resumen;
+	}
+
+	/**
+	 * @brief Añade un valor al resumen.
+	 * @param valor Valor nuevo.
+	 */
+	void anadir(double valor) {
+		if (n == 0) {
+			minimo = valor;
+			maximo = valor;
+		} else {
+			if (valor < minimo) minimo = valor;
+			if (valor > maximo) maximo = valor;
+		}
+		n++;
+		double delta = valor - media;
+		media += delta / n;
+		m2 += delta * (valor - media);
+	}
+
+	/**
+	 * @brief Devuelve el número de valores.
+	 * @return Número de valores resumidos.
+	 */
+	int size() {
+		return n;
+	}
+
+	/**
+	 * @brief Devuelve el valor mínimo.
+	 * @return Valor mínimo.
+	 * @throws IndexOutOfBoundsException si no hay valores.
+	 */
+	double minimo() {
+		if (n == 0) throw new IndexOutOfBoundsException("La columna no tiene valores");
+		return minimo;
+	}
+
+	/**
+	 * @brief Devuelve el valor máximo.
+	 * @return Valor máximo.
+	 * @throws IndexOutOfBoundsException si no hay valores.
+	 */
+	double maximo() {
+		if (n == 0) throw new IndexOutOfBoundsException("La columna no tiene valores");
+		return maximo;
+	}
+
+	/**
+	 * @brief Devuelve la media.
+	 * @return Media de los valores, o NaN si no hay valores.
+	 */
+	double media() {
+		return n == 0 ? Double.NaN : media;
+	}
+
+	/**
+	 * @brief Devuelve la desviación estándar poblacional.
+	 * @return Desviación estándar, o 0 si no hay valores.
+	 */
+	double desviacion() {
+		return n == 0 ? 0.0 : Math.sqrt(m2 / n);
+	}
+}
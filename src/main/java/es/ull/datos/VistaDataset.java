@@ -0,0 +1,480 @@
+package datos;
+
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+import vectores.Vector;
+
+/**
+ * @brief Vista de solo lectura sobre una selección de filas (y opcionalmente de columnas)
+ *        de otro dataset.
+ *
+ * La vista no copia valores: guarda el dataset base y los índices de las filas y columnas
+ * seleccionadas, así que un subconjunto, un pliegue o una muestra bootstrap cuestan solo el
+ * array de índices. Se puede usar en cualquier sitio donde se acepte un {@link Dataset}; las
+ * operaciones que añaden, borran o reemplazan valores lanzan
+ * {@link UnsupportedOperationException}. Los nombres, los pesos y el estado de preprocesado
+ * son propios de la vista y se copian del base al crearla.
+ *
+ * Igual que un {@link Fila}, la vista deja de ser válida si cambian las filas del base.
+ */
+public class VistaDataset extends Dataset {
+
+	/** Atributos del dataset raíz (que no es una vista) */
+	private final List<Atributo> base;
+
+	/** Filas seleccionadas del dataset raíz */
+	private final int[] filas;
+
+	/**
+	 * @brief Crea una vista sobre una selección de filas con todas las columnas.
+	 * @param base Dataset base (puede ser a su vez una vista).
+	 * @param filas Índices de las filas del base, en el orden de la vista.
+	 * @throws IndexOutOfBoundsException si algún índice no es una fila del base.
+	 */
+	public VistaDataset(Dataset base, int[] filas) {
+		this(base, filas, null);
+	}
+
+	/**
+	 * @brief Crea una vista sobre una selección de filas y columnas.
+	 *
+	 * Si la vista se usa para clasificar, la clase debe seguir siendo la última columna.
+	 *
+	 * @param base Dataset base (puede ser a su vez una vista).
+	 * @param filas Índices de las filas del base, en el orden de la vista.
+	 * @param columnas Índices de los atributos del base, en el orden de la vista, o null para
+	 *        todos.
+	 * @throws IndexOutOfBoundsException si algún índice no es una fila o un atributo del base.
+	 */
+	public VistaDataset(Dataset base, int[] filas, int[] columnas) {
+		super(new ArrayList<>());
+		int casos = base.numeroAtributos() == 0 ? 0 : base.numeroCasos();
+		int[] seleccion = new int[filas.length];
+		for (int i = 0; i < filas.length; ++i) {
+			seleccion[i] = Objects.checkIndex(filas[i], casos);
+		}
+		List<Atributo> elegidos = new ArrayList<>();
+		List<Atributo> atributosBase = base.getAtributos();
+		if (columnas == null) {
+			elegidos.addAll(atributosBase);
+		} else {
+			for (int j : columnas) {
+				elegidos.add(atributosBase.get(Objects.checkIndex(j, atributosBase.size())));
+			}
+		}
+		// Una vista de una vista se compone sobre el dataset raíz
+		if (base instanceof VistaDataset) {
+			VistaDataset vista = (VistaDataset) base;
+			for (int i = 0; i < seleccion.length; ++i) {
+				seleccion[i] = vista.filas[seleccion[i]];
+			}
+			List<Atributo> raiz = new ArrayList<>(elegidos.size());
+			for (Atributo atributo : elegidos) {
+				raiz.add(vista.base.get(vista.getAtributosInternos().indexOf(atributo)));
+			}
+			elegidos = raiz;
+		}
+		this.base = elegidos;
+		this.filas = seleccion;
+
+		List<Atributo> propios = getAtributosInternos();
+		for (int j = 0; j < elegidos.size(); ++j) {
+			Atributo original = columnas == null ? atributosBase.get(j) : atributosBase.get(columnas[j]);
+			Atributo vista = elegidos.get(j) instanceof Cuantitativo
+					? new VistaCuantitativo((Cuantitativo) elegidos.get(j), seleccion)
+					: new VistaCualitativo((Cualitativo) elegidos.get(j), seleccion);
+			vista.setNombre(original.getNombre());
+			vista.setPeso(original.getPeso());
+			propios.add(vista);
+		}
+		this.preprocesado = base.getPreprocesado();
+	}
+
+	/**
+	 * @brief Devuelve los atributos de la vista como lista interna modificable.
+	 * @return Lista de atributos propia de la vista.
+	 */
+	private List<Atributo> getAtributosInternos() {
+		return super.getAtributos();
+	}
+
+	/**
+	 * @brief Devuelve el número de filas de la vista.
+	 * @return Número de casos.
+	 */
+	@Override
+	public int numeroCasos() {
+		return filas.length;
+	}
+
+	/**
+	 * @brief Devuelve los atributos de la vista, que no admiten cambios en sus valores.
+	 * @return Lista no modificable de atributos.
+	 */
+	@Override
+	public List<Atributo> getAtributos() {
+		return Collections.unmodifiableList(super.getAtributos());
+	}
+
+	/**
+	 * @brief Devuelve un cursor que lee directamente las columnas del dataset raíz.
+	 * @return Cursor sobre las filas de la vista.
+	 */
+	@Override
+	public Fila cursor() {
+		return new Fila(base, filas);
+	}
+
+	/**
+	 * @brief Devuelve el índice en el dataset raíz de una fila de la vista.
+	 * @param i Fila de la vista.
+	 * @return Fila del dataset raíz.
+	 */
+	public int filaBase(int i) {
+		return filas[i];
+	}
+
+	/**
+	 * @brief No admitido: la vista es de solo lectura.
+	 * @param nueva Instancia.
+	 */
+	@Override
+	public void add(Instancia nueva) {
+		throw new UnsupportedOperationException("Una vista de dataset es de solo lectura");
+	}
+
+	/**
+	 * @brief No admitido: la vista es de solo lectura.
+	 * @param nueva Valores.
+	 */
+	@Override
+	public void add(List<String> nueva) {
+		throw new UnsupportedOperationException("Una vista de dataset es de solo lectura");
+	}
+
+	/**
+	 * @brief No admitido: la vista es de solo lectura.
+	 * @param nueva Índice.
+	 */
+	@Override
+	public void delete(int nueva) {
+		throw new UnsupportedOperationException("Una vista de dataset es de solo lectura");
+	}
+
+	/**
+	 * @brief No admitido: la vista es de solo lectura.
+	 * @param filename Ruta del archivo.
+	 */
+	@Override
+	public void read(String filename) throws IOException {
+		throw new UnsupportedOperationException("Una vista de dataset es de solo lectura");
+	}
+
+	/**
+	 * @brief No admitido: la vista es de solo lectura.
+	 * @param filename Ruta del archivo.
+	 * @param delimitador Carácter que separa los campos.
+	 */
+	@Override
+	public void read(String filename, char delimitador) throws IOException {
+		throw new UnsupportedOperationException("Una vista de dataset es de solo lectura");
+	}
+
+	/**
+	 * @brief No admitido: la vista es de solo lectura.
+	 * @param filename Ruta del archivo.
+	 * @param delimitador Carácter que separa los campos.
+	 * @param hilos Número de hilos.
+	 */
+	@Override
+	public void read(String filename, char delimitador, int hilos) throws IOException {
+		throw new UnsupportedOperationException("Una vista de dataset es de solo lectura");
+	}
+
+	/**
+	 * @brief No admitido: la vista es de solo lectura.
+	 * @param filename Ruta del archivo.
+	 */
+	@Override
+	public void readBinario(String filename) throws IOException {
+		throw new UnsupportedOperationException("Una vista de dataset es de solo lectura");
+	}
+
+	/**
+	 * @brief No admitido: la vista es de solo lectura.
+	 * @param nuevos Atributos.
+	 */
+	@Override
+	public void setAtributos(List<Atributo> nuevos) {
+		throw new UnsupportedOperationException("Una vista de dataset es de solo lectura");
+	}
+
+	/**
+	 * @brief No admitido: la vista es de solo lectura.
+	 */
+	@Override
+	public void restaurarOriginal() {
+		throw new UnsupportedOperationException("Una vista de dataset es de solo lectura");
+	}
+
+	/**
+	 * @brief Columna numérica de solo lectura sobre una selección de filas de otra columna.
+	 */
+	private static final class VistaCuantitativo extends Cuantitativo {
+
+		/** Columna original */
+		private final Cuantitativo original;
+
+		/** Filas seleccionadas de la columna original */
+		private final int[] filas;
+
+		/**
+		 * @brief Constructor.
+		 * @param original Columna original.
+		 * @param filas Filas seleccionadas.
+		 */
+		VistaCuantitativo(Cuantitativo original, int[] filas) {
+			this.original = original;
+			this.filas = filas;
+		}
+
+		/**
+		 * @brief Devuelve una copia de los valores seleccionados.
+		 * @return Vector nuevo con los valores.
+		 */
+		@Override
+		public Vector getValores() {
+			return new Vector(toArray());
+		}
+
+		@Override
+		public void setValores(Vector nuevos) {
+			throw new UnsupportedOperationException("Una vista de dataset es de solo lectura");
+		}
+
+		/**
+		 * @brief Devuelve una copia modificable de la columna.
+		 * @return Atributo con los valores seleccionados, el nombre y el peso.
+		 */
+		@Override
+		public Cuantitativo modificable() {
+			Cuantitativo copia = new Cuantitativo(getNombre(), getValores());
+			copia.setPeso(getPeso());
+			return copia;
+		}
+
+		@Override
+		public double getDouble(int i) {
+			return original.getDouble(filas[i]);
+		}
+
+		@Override
+		public double[] toArray() {
+			double[] valores = new double[filas.length];
+			for (int i = 0; i < filas.length; ++i) {
+				valores[i] = original.getDouble(filas[i]);
+			}
+			return valores;
+		}
+
+		@Override
+		public void copyTo(double[] destino, int desde, int paso) {
+			for (int i = 0; i < filas.length; ++i) {
+				destino[desde + i * paso] = original.getDouble(filas[i]);
+			}
+		}
+
+		/**
+		 * @brief Calcula los estadísticos de las filas seleccionadas en una sola pasada.
+		 *
+		 * No se guardan porque la columna original puede cambiar.
+		 *
+		 * @return Resumen de los valores seleccionados.
+		 */
+		@Override
+		Resumen resumen() {
+			return Resumen.de(this);
+		}
+
+		@Override
+		public int size() {
+			return filas.length;
+		}
+
+		@Override
+		public void estandarizacion() {
+			throw new UnsupportedOperationException("Una vista de dataset es de solo lectura");
+		}
+
+		@Override
+		public void normalizacion() {
+			throw new UnsupportedOperationException("Una vista de dataset es de solo lectura");
+		}
+
+		@Override
+		public void add(Object valor) {
+			throw new UnsupportedOperationException("Una vista de dataset es de solo lectura");
+		}
+
+		@Override
+		public void add(double valor) {
+			throw new UnsupportedOperationException("Una vista de dataset es de solo lectura");
+		}
+
+		@Override
+		public Object getValor(int i) {
+			return getDouble(i);
+		}
+
+		@Override
+		public void delete(int index) {
+			throw new UnsupportedOperationException("Una vista de dataset es de solo lectura");
+		}
+
+		@Override
+		public String toString() {
+			return getValores().toString();
+		}
+
+		@Override
+		public void clear() {
+			throw new UnsupportedOperationException("Una vista de dataset es de solo lectura");
+		}
+	}
+
+	/**
+	 * @brief Columna cualitativa de solo lectura sobre una selección de filas de otra columna.
+	 *
+	 * Comparte el diccionario de la columna original, así que los códigos son los mismos; las
+	 * clases presentes son las de las filas seleccionadas.
+	 */
+	private static final class VistaCualitativo extends Cualitativo {
+
+		/** Columna original */
+		private final Cualitativo original;
+
+		/** Filas seleccionadas de la columna original */
+		private final int[] filas;
+
+		/** Número de filas seleccionadas con cada código */
+		private final int[] cuentas;
+
+		/**
+		 * @brief Constructor.
+		 * @param original Columna original.
+		 * @param filas Filas seleccionadas.
+		 */
+		VistaCualitativo(Cualitativo original, int[] filas) {
+			this.original = original;
+			this.filas = filas;
+			this.cuentas = new int[original.nCodigos()];
+			for (int fila : filas) {
+				cuentas[original.getCodigo(fila)]++;
+			}
+		}
+
+		/**
+		 * @brief Devuelve una lista no modificable que lee los valores seleccionados.
+		 * @return Lista de valores.
+		 */
+		@Override
+		public List<String> getValores() {
+			return new Valores();
+		}
+
+		@Override
+		public void setValores(List<String> nuevos) {
+			throw new UnsupportedOperationException("Una vista de dataset es de solo lectura");
+		}
+
+		@Override
+		public int nClases() {
+			int presentes = 0;
+			for (int cuenta : cuentas) {
+				if (cuenta > 0) presentes++;
+			}
+			return presentes;
+		}
+
+		@Override
+		public List<Double> frecuencia() {
+			List<Double> frecuencias = new ArrayList<>();
+			for (int codigo : codigosPorAparicion()) {
+				frecuencias.add((double) cuentas[codigo] / filas.length);
+			}
+			return frecuencias;
+		}
+
+		@Override
+		public int getCodigo(int i) {
+			return original.getCodigo(filas[i]);
+		}
+
+		@Override
+		public int codigo(String valor) {
+			return original.codigo(valor);
+		}
+
+		@Override
+		public String valor(int codigo) {
+			return original.valor(codigo);
+		}
+
+		@Override
+		public int nCodigos() {
+			return cuentas.length;
+		}
+
+		@Override
+		public int size() {
+			return filas.length;
+		}
+
+		@Override
+		public void add(Object valor) {
+			throw new UnsupportedOperationException("Una vista de dataset es de solo lectura");
+		}
+
+		@Override
+		public Object getValor(int i) {
+			return original.valor(getCodigo(i));
+		}
+
+		@Override
+		public void delete(int index) {
+			throw new UnsupportedOperationException("Una vista de dataset es de solo lectura");
+		}
+
+		@Override
+		public String toString() {
+			return getValores().toString();
+		}
+
+		@Override
+		public void clear() {
+			throw new UnsupportedOperationException("Una vista de dataset es de solo lectura");
+		}
+
+		/**
+		 * @brief Lista de solo lectura con los valores de las filas seleccionadas.
+		 */
+		private final class Valores extends AbstractList<String> implements RandomAccess {
+
+			@Override
+			public String get(int index) {
+				return original.valor(getCodigo(index));
+			}
+
+			@Override
+			public int size() {
+				return filas.length;
+			}
+		}
+	}
+}
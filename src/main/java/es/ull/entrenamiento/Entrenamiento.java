@@ -1,16 +1,15 @@
 package entrenamiento;
 
-import java.io.BufferedWriter;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.util.*;
-import java.security.SecureRandom;
-import java.util.logging.Level;
-import java.util.logging.Logger;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
 
-import clasificacion.KNN;
+import clasificacion.ModeloKNN;
+import clasificacion.Vecinos;
 import datos.*;
-import vectores.Matriz;
 
 /**
  * @class Entrenamiento
@@ -22,6 +21,12 @@ import vectores.Matriz;
  */
 public class Entrenamiento {
 
+	/** Número de casos de prueba que clasifica cada tarea de la evaluación */
+	static final int TAMANO_LOTE = 256;
+
+	/** Constante para derivar la semilla de desempate de cada caso de prueba */
+	static final long MEZCLA_SEMILLA = 0x9E3779B97F4A7C15L;
+
 	/** Dataset de entrenamiento */
 	private Dataset train;
 
@@ -34,6 +39,12 @@ public class Entrenamiento {
 	/** Tipo de distancia a utilizar en KNN */
 	private String distancia;
 
+	/** Número de hilos usados para clasificar el conjunto de prueba */
+	private int hilos = Runtime.getRuntime().availableProcessors();
+
+	/** Semilla de los desempates aleatorios de la votación */
+	private long semillaDesempate;
+
 	/**
 	 * Constructor vacío.
 	 */
@@ -48,105 +59,315 @@ public class Entrenamiento {
 	 * @param distancia Tipo de distancia a utilizar (por ejemplo "euclidiana", "manhattan").
 	 */
 	public Entrenamiento(Dataset datos, double porcentaje, String distancia) {
-		this.distancia = distancia;
-		Dataset trainset = new Dataset(datos.getAtributosEmpty());
-		Dataset testset = new Dataset(datos.getAtributosEmpty());
-		clases = datos.getClases();
-		int indice = 0;
-		while(indice < datos.numeroCasos()*porcentaje) {
-			trainset.add(datos.getInstance(indice));
-			indice += 1;
-		}
-		for (int i = indice; i < datos.numeroCasos(); ++i) {
-			testset.add(datos.getInstance(i));
-		}
-		this.test = testset;
-		this.train = trainset;
-		this.test.setPreprocesado(datos.getPreprocesado());
-		this.train.setPreprocesado(datos.getPreprocesado());
+		this(Particion.secuencial(datos, porcentaje), distancia);
 	}
 
 	/**
 	 * Constructor que divide el dataset en entrenamiento y prueba usando una semilla para
 	 * selección aleatoria reproducible.
 	 *
+	 * La semilla se usa también para los desempates de la votación.
+	 *
 	 * @param datos Dataset completo con las instancias.
 	 * @param porcentaje Porcentaje de datos que se usarán para entrenamiento.
 	 * @param semilla Semilla para la generación aleatoria.
 	 * @param distancia Tipo de distancia a utilizar en KNN.
+	 * @see Particion#aleatoria(Dataset, double, long)
 	 */
 	public Entrenamiento(Dataset datos, double porcentaje, int semilla, String distancia) {
+		this(Particion.aleatoria(datos, porcentaje, semilla), distancia);
+		this.semillaDesempate = semilla;
+	}
+
+	/**
+	 * Constructor a partir de una partición ya hecha.
+	 *
+	 * Los conjuntos de entrenamiento y prueba son vistas de la partición sobre el dataset
+	 * original; no se copia ninguna fila.
+	 *
+	 * @param particion Partición del dataset en entrenamiento y prueba.
+	 * @param distancia Tipo de distancia a utilizar en KNN.
+	 */
+	public Entrenamiento(Particion particion, String distancia) {
 		this.distancia = distancia;
-		Dataset trainset = new Dataset(datos.getAtributosEmpty());
-		Dataset testset = new Dataset(datos.getAtributosEmpty());
-		clases = datos.getClases();
-		ArrayList<Integer> indices = new ArrayList<>();
-		SecureRandom secureRandom = new SecureRandom();
-		secureRandom.setSeed(semilla);
-		while(indices.size() < datos.numeroCasos()*porcentaje) {
-			int randomNumber = secureRandom.nextInt(datos.numeroCasos());
-			if (!indices.contains(randomNumber)) {
-				trainset.add(datos.getInstance(randomNumber));
-				indices.add(randomNumber);
-			}
-		}
-		for (int i = 0; i < datos.numeroCasos(); ++i) {
-			if (!indices.contains(i)) {
-				testset.add(datos.getInstance(i));
-			}
-		}
-		this.test = testset;
-		this.train =  trainset;
-		this.test.setPreprocesado(datos.getPreprocesado());
-		this.train.setPreprocesado(datos.getPreprocesado());
+		this.train = particion.getConjuntoEntrenamiento();
+		this.test = particion.getConjuntoPrueba();
+		this.clases = particion.getDatos().getClases();
 	}
 
 	/**
 	 * Genera predicciones para el conjunto de prueba usando KNN con el valor de K dado,
 	 * y calcula la precisión del modelo.
 	 *
+	 * Equivale a {@code evaluar(valorK).mostrarPrecision()}; si también se quiere la matriz
+	 * de confusión, es mejor llamar a {@link #evaluar} una vez y usar el resultado.
+	 *
 	 * @param valorK Número de vecinos a considerar en KNN.
 	 */
 	public void generarPrediccion(int valorK) {
-		Dataset pruebas = new Dataset(test);
-		Double aciertos = 0.0;
-		for (int i = 0; i < pruebas.numeroCasos(); ++i) {
-			ArrayList<Object> instance = new ArrayList<>();
-			for (int j = 0; j < pruebas.numeroAtributos()-1; ++j) {
-				instance.add(pruebas.getInstance(i).getValores().get(j));
-			}
-			Instancia nueva = new Instancia(instance);
-			String clase = (new KNN(valorK, distancia).clasificar(train, nueva));
-			if (clase.equals(test.getInstance(i).getClase())) aciertos += 1;
-		}
-		Logger logger = Logger.getLogger(Entrenamiento.class.getName());
-		if (logger.isLoggable(Level.INFO)) {
-			logger.info(String.format("La precisión predictiva: %.2f / %d = %.2f%%", aciertos, test.numeroCasos(), (aciertos / test.numeroCasos()) * 100));
-		}
+		evaluar(valorK).mostrarPrecision();
 	}
 
 	/**
 	 * Genera y muestra la matriz de confusión para el conjunto de prueba usando KNN.
 	 *
+	 * Equivale a {@code evaluar(valorK).mostrarMatriz()}.
+	 *
 	 * @param valorK Número de vecinos a considerar en KNN.
 	 */
 	public void generarMatriz(int valorK) {
-		Dataset pruebas = new Dataset(test);
-		Matriz confusion = new Matriz (clases.size(), clases.size());
-		for (int i = 0; i < pruebas.numeroCasos(); ++i) {
-			ArrayList<Object> instance = new ArrayList<>();
-			for (int j = 0; j < pruebas.numeroAtributos()-1; ++j) {
-				instance.add(pruebas.getInstance(i).getValores().get(j));
+		evaluar(valorK).mostrarMatriz();
+	}
+
+	/**
+	 * Establece el número de hilos con que se clasifica el conjunto de prueba.
+	 *
+	 * @param hilos Número de hilos (1 para evaluar en el hilo actual).
+	 * @throws IllegalArgumentException si el número de hilos es menor que 1.
+	 */
+	public void setHilos(int hilos) {
+		if (hilos < 1) throw new IllegalArgumentException("El número de hilos debe ser al menos 1: " + hilos);
+		this.hilos = hilos;
+	}
+
+	/**
+	 * Devuelve el número de hilos de la evaluación.
+	 *
+	 * @return Número de hilos.
+	 */
+	public int getHilos() {
+		return hilos;
+	}
+
+	/**
+	 * Establece la semilla de los desempates aleatorios de la votación.
+	 *
+	 * @param semilla Semilla de los desempates.
+	 */
+	public void setSemillaDesempate(long semilla) {
+		this.semillaDesempate = semilla;
+	}
+
+	/**
+	 * Clasifica todo el conjunto de prueba y devuelve el resultado de la evaluación.
+	 *
+	 * Cada caso de prueba se clasifica una sola vez. El conjunto de prueba se reparte en lotes
+	 * de {@value #TAMANO_LOTE} casos que se clasifican en paralelo en un ForkJoinPool de
+	 * {@link #getHilos()} hilos, cada uno con su propio recuento, y los recuentos se suman al
+	 * final. Los desempates de cada caso usan una semilla derivada de su posición en el
+	 * conjunto de prueba, así que el resultado es el mismo con cualquier número de hilos.
+	 *
+	 * @param valorK Número de vecinos a considerar en KNN.
+	 * @return Aciertos, matriz de confusión y métricas por clase.
+	 */
+	public Evaluacion evaluar(int valorK) {
+		return evaluacion(contar(valorK, valorK)[0]);
+	}
+
+	/**
+	 * Evalúa el conjunto de prueba para todos los valores de k entre 1 y kMaximo.
+	 *
+	 * Los kMaximo vecinos de cada caso de prueba se buscan una sola vez y, como están
+	 * ordenados por distancia, los k primeros son los vecinos para cada k menor; solo se
+	 * repite la votación. El resultado para cada k es el mismo que el de {@link #evaluar(int)}.
+	 *
+	 * @param kMaximo Mayor número de vecinos a evaluar.
+	 * @return Evaluación para cada k, en la posición k - 1.
+	 */
+	public List<Evaluacion> evaluarBarridoK(int kMaximo) {
+		List<Evaluacion> evaluaciones = new ArrayList<>(kMaximo);
+		for (Recuento recuento : contar(1, kMaximo)) {
+			evaluaciones.add(evaluacion(recuento));
+		}
+		return evaluaciones;
+	}
+
+	/**
+	 * Construye el resultado de la evaluación a partir de un recuento.
+	 *
+	 * @param recuento Recuento de todo el conjunto de prueba.
+	 * @return Evaluación.
+	 */
+	private Evaluacion evaluacion(Recuento recuento) {
+		return new Evaluacion(clases, recuento.aciertos, test.numeroCasos(), recuento.confusion);
+	}
+
+	/**
+	 * Clasifica todo el conjunto de prueba, una sola vez, y cuenta aciertos y confusiones
+	 * para cada k entre kMinimo y kMaximo.
+	 *
+	 * @param kMinimo Menor número de vecinos a evaluar.
+	 * @param kMaximo Mayor número de vecinos a evaluar.
+	 * @return Recuento de cada k, en la posición k - kMinimo.
+	 */
+	private Recuento[] contar(int kMinimo, int kMaximo) {
+		if (kMinimo < 1 || kMaximo < kMinimo) {
+			throw new IllegalArgumentException("Valores de k no válidos: " + kMinimo + ".." + kMaximo);
+		}
+		ModeloKNN modelo = new ModeloKNN(train, kMaximo, distancia);
+		Fila fila = test.cursor();
+		double[][] consultas = consultas(fila);
+		int[] codigosReales = new int[consultas.length];
+		for (int i = 0; i < codigosReales.length; ++i) {
+			codigosReales[i] = fila.mover(i).getCodigo();
+		}
+
+		// Traducción de los códigos del modelo y del dataset de prueba a posiciones de la lista de clases
+		HashMap<String, Integer> posiciones = new HashMap<>();
+		for (int i = 0; i < clases.size(); ++i) {
+			posiciones.putIfAbsent(clases.get(i), i);
+		}
+		Cualitativo reales = fila.columnaClase();
+		int[] posicionReal = new int[reales.nCodigos()];
+		for (int codigo = 0; codigo < posicionReal.length; ++codigo) {
+			posicionReal[codigo] = posiciones.getOrDefault(reales.valor(codigo), -1);
+		}
+		int[] posicionPredicha = new int[modelo.nCodigos()];
+		int[] realDePredicho = new int[modelo.nCodigos()];
+		for (int codigo = 0; codigo < posicionPredicha.length; ++codigo) {
+			posicionPredicha[codigo] = posiciones.getOrDefault(modelo.getClase(codigo), -1);
+			realDePredicho[codigo] = reales.codigo(modelo.getClase(codigo));
+		}
+
+		int nClases = clases.size();
+		int nK = kMaximo - kMinimo + 1;
+		int lotes = (consultas.length + TAMANO_LOTE - 1) / TAMANO_LOTE;
+		IntFunction<Recuento[]> tarea = lote -> {
+			int desde = lote * TAMANO_LOTE;
+			Vecinos[] vecinos = modelo.vecinos(Arrays.copyOfRange(consultas, desde, Math.min(desde + TAMANO_LOTE, consultas.length)));
+			Recuento[] recuentos = Recuento.vacios(nK, nClases);
+			for (int q = 0; q < vecinos.length; ++q) {
+				int i = desde + q;
+				int real = posicionReal[codigosReales[i]];
+				long semilla = semillaDesempate ^ (i * MEZCLA_SEMILLA);
+				for (int k = kMinimo; k <= kMaximo; ++k) {
+					Recuento recuento = recuentos[k - kMinimo];
+					int predicho = modelo.votar(vecinos[q], k, semilla);
+					if (realDePredicho[predicho] == codigosReales[i]) recuento.aciertos++;
+					if (real >= 0 && posicionPredicha[predicho] >= 0) recuento.confusion[real][posicionPredicha[predicho]]++;
+				}
+			}
+			return recuentos;
+		};
+
+		if (hilos == 1 || lotes <= 1) {
+			Recuento[] total = Recuento.vacios(nK, nClases);
+			for (int lote = 0; lote < lotes; ++lote) {
+				Recuento.sumar(total, tarea.apply(lote));
 			}
-			Instancia nueva = new Instancia(instance);
-			String clase = (new KNN(valorK, distancia).clasificar(train, nueva));
-			confusion.set( clases.indexOf(test.getInstance(i).getClase()),clases.indexOf(clase),confusion.get(clases.indexOf(test.getInstance(i).getClase()),clases.indexOf(clase))+1);
+			return total;
 		}
-		Logger logger = Logger.getLogger(Entrenamiento.class.getName());
-		if (logger.isLoggable(Level.INFO)) {
-			logger.info(clases.toString());
+		ForkJoinPool pool = new ForkJoinPool(hilos);
+		try {
+			return pool.invoke(ForkJoinTask.adapt(() -> IntStream.range(0, lotes).parallel().mapToObj(tarea)
+					.collect(() -> Recuento.vacios(nK, nClases), Recuento::sumar, Recuento::sumar)));
+		} finally {
+			pool.shutdown();
 		}
-		confusion.print();
+	}
+
+	/**
+	 * Recuento de aciertos y matriz de confusión de una parte del conjunto de prueba.
+	 */
+	static final class Recuento {
+
+		/** Número de casos bien clasificados */
+		long aciertos;
+
+		/** Número de casos de cada clase real (fila) asignados a cada clase (columna) */
+		final long[][] confusion;
+
+		/**
+		 * Crea un recuento vacío.
+		 *
+		 * @param nClases Número de clases.
+		 */
+		Recuento(int nClases) {
+			this.confusion = new long[nClases][nClases];
+		}
+
+		/**
+		 * Crea varios recuentos vacíos.
+		 *
+		 * @param cantidad Número de recuentos.
+		 * @param nClases Número de clases.
+		 * @return Recuentos vacíos.
+		 */
+		static Recuento[] vacios(int cantidad, int nClases) {
+			Recuento[] recuentos = new Recuento[cantidad];
+			for (int i = 0; i < cantidad; ++i) {
+				recuentos[i] = new Recuento(nClases);
+			}
+			return recuentos;
+		}
+
+		/**
+		 * Suma, posición a posición, unos recuentos a otros.
+		 *
+		 * @param destino Recuentos a los que se suma.
+		 * @param otros Recuentos a sumar.
+		 */
+		static void sumar(Recuento[] destino, Recuento[] otros) {
+			for (int i = 0; i < destino.length; ++i) {
+				destino[i].sumar(otros[i]);
+			}
+		}
+
+		/**
+		 * Suma otro recuento a este.
+		 *
+		 * @param otro Recuento a sumar.
+		 */
+		void sumar(Recuento otro) {
+			aciertos += otro.aciertos;
+			for (int i = 0; i < confusion.length; ++i) {
+				for (int j = 0; j < confusion.length; ++j) {
+					confusion[i][j] += otro.confusion[i][j];
+				}
+			}
+		}
+	}
+
+	/**
+	 * Extrae las consultas de todos los casos de prueba para clasificarlas en un solo lote.
+	 *
+	 * @param fila Cursor sobre el dataset de prueba.
+	 * @return Vector de consulta de cada caso de prueba.
+	 */
+	private double[][] consultas(Fila fila) {
+		double[][] consultas = new double[fila.size()][dimensionConsulta()];
+		for (int i = 0; i < consultas.length; ++i) {
+			fila.mover(i).copiar(consultas[i]);
+		}
+		return consultas;
+	}
+
+	/**
+	 * Calcula el número de dimensiones de las consultas de prueba.
+	 *
+	 * Cada caso de prueba se clasifica sin su último atributo (la clase), y
+	 * {@link Instancia#getVector()} descarta a su vez el último valor de lo que queda, así que
+	 * la consulta son los atributos cuantitativos anteriores al penúltimo atributo.
+	 *
+	 * @return Número de dimensiones de la consulta.
+	 */
+	private int dimensionConsulta() {
+		return dimensionConsulta(test);
+	}
+
+	/**
+	 * Calcula el número de dimensiones de las consultas formadas con las filas de un dataset.
+	 *
+	 * @param datos Dataset con las filas a clasificar.
+	 * @return Número de dimensiones de la consulta.
+	 * @see #dimensionConsulta()
+	 */
+	static int dimensionConsulta(Dataset datos) {
+		int dimension = 0;
+		for (int j = 0; j < datos.numeroAtributos() - 2; ++j) {
+			if (datos.get(j) instanceof Cuantitativo) dimension++;
+		}
+		return dimension;
 	}
 
 	/**
@@ -157,14 +378,11 @@ public class Entrenamiento {
 	 * @throws IOException En caso de error durante la escritura de archivos.
 	 */
 	public void write(String filename1, String filename2) throws IOException {
-		try (BufferedWriter writer = new BufferedWriter(new FileWriter(filename1))) {
-			train.write(filename1);
-		}
-		try (BufferedWriter writer = new BufferedWriter(new FileWriter(filename2))) {
-			test.write(filename2);
-		}
+		train.write(filename1);
+		test.write(filename2);
 	}
 
+
 	/**
 	 * Lee los datasets de entrenamiento y prueba desde los archivos indicados y actualiza
 	 * la lista de clases.
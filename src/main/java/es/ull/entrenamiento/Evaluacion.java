@@ -0,0 +1,198 @@
+package entrenamiento;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import vectores.Matriz;
+
+/**
+ * @class Evaluacion
+ * @brief Resultado de clasificar una sola vez el conjunto de prueba.
+ *
+ * Guarda el número de aciertos y la matriz de confusión, y a partir de ellos calcula la
+ * precisión predictiva global y la precisión, exhaustividad (recall) y F1 de cada clase.
+ * Las filas de la matriz son las clases reales y las columnas las asignadas, en el orden
+ * de {@link #getClases()}.
+ */
+public class Evaluacion {
+
+	/** Logger para mostrar los resultados */
+	private static final Logger logger = Logger.getLogger(Evaluacion.class.getName());
+
+	/** Clases en el orden de filas y columnas de la matriz */
+	private final List<String> clases;
+
+	/** Número de casos bien clasificados */
+	private final long aciertos;
+
+	/** Número de casos evaluados */
+	private final long total;
+
+	/** Cuentas de la matriz de confusión */
+	private final long[][] confusion;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param clases Clases en el orden de la matriz de confusión.
+	 * @param aciertos Número de casos bien clasificados.
+	 * @param total Número de casos evaluados.
+	 * @param confusion Cuentas de cada clase real (fila) asignadas a cada clase (columna).
+	 */
+	public Evaluacion(List<String> clases, long aciertos, long total, long[][] confusion) {
+		this.clases = new ArrayList<>(clases);
+		this.aciertos = aciertos;
+		this.total = total;
+		this.confusion = new long[confusion.length][];
+		for (int i = 0; i < confusion.length; ++i) {
+			this.confusion[i] = confusion[i].clone();
+		}
+	}
+
+	/**
+	 * Devuelve las clases en el orden de la matriz de confusión.
+	 *
+	 * @return Lista de clases.
+	 */
+	public List<String> getClases() {
+		return new ArrayList<>(clases);
+	}
+
+	/**
+	 * Devuelve el número de casos bien clasificados.
+	 *
+	 * @return Número de aciertos.
+	 */
+	public long getAciertos() {
+		return aciertos;
+	}
+
+	/**
+	 * Devuelve el número de casos evaluados.
+	 *
+	 * @return Número de casos.
+	 */
+	public long getTotal() {
+		return total;
+	}
+
+	/**
+	 * Devuelve la precisión predictiva (proporción de aciertos).
+	 *
+	 * @return Aciertos entre casos evaluados, o 0 si no hay casos.
+	 */
+	public double getPrecisionPredictiva() {
+		return total == 0 ? 0.0 : (double) aciertos / total;
+	}
+
+	/**
+	 * Devuelve una cuenta de la matriz de confusión.
+	 *
+	 * @param real Posición de la clase real.
+	 * @param asignada Posición de la clase asignada.
+	 * @return Número de casos de la clase real asignados a la otra clase.
+	 */
+	public long getCuenta(int real, int asignada) {
+		return confusion[real][asignada];
+	}
+
+	/**
+	 * Devuelve una copia de las cuentas de la matriz de confusión.
+	 *
+	 * @return Cuentas por clase real (fila) y asignada (columna).
+	 */
+	public long[][] getConfusion() {
+		long[][] copia = new long[confusion.length][];
+		for (int i = 0; i < confusion.length; ++i) {
+			copia[i] = confusion[i].clone();
+		}
+		return copia;
+	}
+
+	/**
+	 * Devuelve la matriz de confusión.
+	 *
+	 * @return Matriz de confusión.
+	 */
+	public Matriz getMatriz() {
+		Matriz matriz = new Matriz(clases.size(), clases.size());
+		for (int i = 0; i < confusion.length; ++i) {
+			for (int j = 0; j < confusion.length; ++j) {
+				matriz.set(i, j, confusion[i][j]);
+			}
+		}
+		return matriz;
+	}
+
+	/**
+	 * Devuelve la precisión de una clase: aciertos entre los casos asignados a ella.
+	 *
+	 * @param clase Posición de la clase.
+	 * @return Precisión de la clase, o 0 si no se le asignó ningún caso.
+	 */
+	public double getPrecision(int clase) {
+		long asignados = 0;
+		for (long[] fila : confusion) {
+			asignados += fila[clase];
+		}
+		return asignados == 0 ? 0.0 : (double) confusion[clase][clase] / asignados;
+	}
+
+	/**
+	 * Devuelve la exhaustividad (recall) de una clase: aciertos entre los casos que son de ella.
+	 *
+	 * @param clase Posición de la clase.
+	 * @return Exhaustividad de la clase, o 0 si no hay casos de ella.
+	 */
+	public double getExhaustividad(int clase) {
+		long reales = 0;
+		for (long cuenta : confusion[clase]) {
+			reales += cuenta;
+		}
+		return reales == 0 ? 0.0 : (double) confusion[clase][clase] / reales;
+	}
+
+	/**
+	 * Devuelve el valor F1 de una clase (media armónica de precisión y exhaustividad).
+	 *
+	 * @param clase Posición de la clase.
+	 * @return F1 de la clase, o 0 si precisión y exhaustividad son 0.
+	 */
+	public double getF1(int clase) {
+		double precision = getPrecision(clase);
+		double exhaustividad = getExhaustividad(clase);
+		return precision + exhaustividad == 0 ? 0.0 : 2 * precision * exhaustividad / (precision + exhaustividad);
+	}
+
+	/**
+	 * Muestra la precisión predictiva por el logger.
+	 */
+	public void mostrarPrecision() {
+		if (logger.isLoggable(Level.INFO)) {
+			logger.info(String.format("La precisión predictiva: %.2f / %d = %.2f%%", (double) aciertos, total, getPrecisionPredictiva() * 100));
+		}
+	}
+
+	/**
+	 * Muestra las clases y la matriz de confusión.
+	 */
+	public void mostrarMatriz() {
+		if (logger.isLoggable(Level.INFO)) {
+			logger.info(clases.toString());
+		}
+		getMatriz().print();
+	}
+
+	/**
+	 * Muestra la precisión, exhaustividad y F1 de cada clase por el logger.
+	 */
+	public void mostrarMetricas() {
+		if (logger.isLoggable(Level.INFO)) {
+			for (int i = 0; i < clases.size(); ++i) {
+				logger.info(String.format("%s: precisión %.4f, exhaustividad %.4f, F1 %.4f", clases.get(i), getPrecision(i), getExhaustividad(i), getF1(i)));
+			}
+		}
+	}
+}
@@ -0,0 +1,252 @@
+package entrenamiento;
+
+import java.util.SplittableRandom;
+
+import datos.*;
+
+/**
+ * @class Particion
+ * @brief División de un dataset en entrenamiento y prueba mediante listas de índices.
+ *
+ * Las filas no se copian: la partición guarda el dataset original y los índices de las filas
+ * de cada conjunto, en orden creciente, y cada conjunto se obtiene como {@link VistaDataset}.
+ * Las divisiones aleatorias barajan una permutación de índices con Fisher–Yates, así que
+ * cuestan O(n) y son reproducibles con la misma semilla.
+ */
+public final class Particion {
+
+	/** Dataset original */
+	private final Dataset datos;
+
+	/** Filas de entrenamiento, en orden creciente */
+	private final int[] entrenamiento;
+
+	/** Filas de prueba, en orden creciente */
+	private final int[] prueba;
+
+	/**
+	 * Constructor a partir de la marca de cada fila.
+	 *
+	 * @param datos Dataset original.
+	 * @param enEntrenamiento Indica qué filas van a entrenamiento; el resto va a prueba.
+	 */
+	private Particion(Dataset datos, boolean[] enEntrenamiento) {
+		this.datos = datos;
+		int total = 0;
+		for (boolean marca : enEntrenamiento) {
+			if (marca) total++;
+		}
+		this.entrenamiento = new int[total];
+		this.prueba = new int[enEntrenamiento.length - total];
+		for (int i = 0, e = 0, p = 0; i < enEntrenamiento.length; ++i) {
+			if (enEntrenamiento[i]) entrenamiento[e++] = i;
+			else prueba[p++] = i;
+		}
+	}
+
+	/**
+	 * Divide el dataset sin barajar: las primeras filas van a entrenamiento.
+	 *
+	 * @param datos Dataset a dividir.
+	 * @param porcentaje Proporción de filas de entrenamiento, entre 0 y 1.
+	 * @return Partición.
+	 */
+	public static Particion secuencial(Dataset datos, double porcentaje) {
+		int n = datos.numeroCasos();
+		int enEntrenamiento = tamanoEntrenamiento(n, porcentaje);
+		boolean[] marcas = new boolean[n];
+		for (int i = 0; i < enEntrenamiento; ++i) {
+			marcas[i] = true;
+		}
+		return new Particion(datos, marcas);
+	}
+
+	/**
+	 * Divide el dataset al azar.
+	 *
+	 * @param datos Dataset a dividir.
+	 * @param porcentaje Proporción de filas de entrenamiento, entre 0 y 1.
+	 * @param semilla Semilla del barajado.
+	 * @return Partición.
+	 */
+	public static Particion aleatoria(Dataset datos, double porcentaje, long semilla) {
+		int n = datos.numeroCasos();
+		int[] orden = permutacion(n, semilla);
+		boolean[] marcas = new boolean[n];
+		int enEntrenamiento = tamanoEntrenamiento(n, porcentaje);
+		for (int i = 0; i < enEntrenamiento; ++i) {
+			marcas[orden[i]] = true;
+		}
+		return new Particion(datos, marcas);
+	}
+
+	/**
+	 * Divide el dataset al azar manteniendo la proporción de cada clase.
+	 *
+	 * De cada clase (último atributo) se toma al azar la proporción indicada de sus filas,
+	 * redondeada, para entrenamiento.
+	 *
+	 * @param datos Dataset a dividir.
+	 * @param porcentaje Proporción de filas de entrenamiento, entre 0 y 1.
+	 * @param semilla Semilla del barajado.
+	 * @return Partición.
+	 */
+	public static Particion estratificada(Dataset datos, double porcentaje, long semilla) {
+		comprobarPorcentaje(porcentaje);
+		Fila fila = datos.cursor();
+		int n = fila.size();
+		int[] codigos = new int[n];
+		for (int i = 0; i < n; ++i) {
+			codigos[i] = fila.mover(i).getCodigo();
+		}
+		int[] orden = permutacion(n, semilla);
+		int[] cuentas = new int[fila.columnaClase().nCodigos()];
+		for (int codigo : codigos) cuentas[codigo]++;
+		int[] cupo = new int[cuentas.length];
+		for (int c = 0; c < cuentas.length; ++c) {
+			cupo[c] = (int) Math.round(cuentas[c] * porcentaje);
+		}
+		// Recorriendo la permutación, las primeras filas de cada clase ocupan su cupo
+		boolean[] marcas = new boolean[n];
+		for (int i : orden) {
+			if (cupo[codigos[i]] > 0) {
+				cupo[codigos[i]]--;
+				marcas[i] = true;
+			}
+		}
+		return new Particion(datos, marcas);
+	}
+
+	/**
+	 * Divide el dataset al azar sin separar las filas de un mismo grupo.
+	 *
+	 * Los grupos se barajan y se pasan enteros a entrenamiento hasta alcanzar la proporción
+	 * indicada de filas; el resto de grupos va a prueba.
+	 *
+	 * @param datos Dataset a dividir.
+	 * @param grupos Grupo de cada fila, entre 0 y el número de grupos menos uno.
+	 * @param porcentaje Proporción de filas de entrenamiento, entre 0 y 1.
+	 * @param semilla Semilla del barajado.
+	 * @return Partición.
+	 * @throws IllegalArgumentException si hay un grupo por fila distinto del número de filas o
+	 *         algún grupo es negativo.
+	 */
+	public static Particion porGrupos(Dataset datos, int[] grupos, double porcentaje, long semilla) {
+		int n = datos.numeroCasos();
+		if (grupos.length != n) {
+			throw new IllegalArgumentException("Se esperaban " + n + " grupos y hay " + grupos.length);
+		}
+		int enEntrenamiento = tamanoEntrenamiento(n, porcentaje);
+		int nGrupos = 0;
+		for (int grupo : grupos) {
+			if (grupo < 0) throw new IllegalArgumentException("Grupo no válido: " + grupo);
+			nGrupos = Math.max(nGrupos, grupo + 1);
+		}
+		int[] tamanos = new int[nGrupos];
+		for (int grupo : grupos) tamanos[grupo]++;
+		boolean[] gruposEntrenamiento = new boolean[nGrupos];
+		int asignadas = 0;
+		for (int grupo : permutacion(nGrupos, semilla)) {
+			if (asignadas >= enEntrenamiento) break;
+			gruposEntrenamiento[grupo] = true;
+			asignadas += tamanos[grupo];
+		}
+		boolean[] marcas = new boolean[n];
+		for (int i = 0; i < n; ++i) {
+			marcas[i] = gruposEntrenamiento[grupos[i]];
+		}
+		return new Particion(datos, marcas);
+	}
+
+	/**
+	 * Devuelve una permutación aleatoria de los índices 0..n-1 (Fisher–Yates).
+	 *
+	 * @param n Número de índices.
+	 * @param semilla Semilla del barajado.
+	 * @return Permutación.
+	 */
+	static int[] permutacion(int n, long semilla) {
+		int[] orden = new int[n];
+		for (int i = 0; i < n; ++i) {
+			orden[i] = i;
+		}
+		SplittableRandom aleatorio = new SplittableRandom(semilla);
+		for (int i = n - 1; i > 0; --i) {
+			int j = aleatorio.nextInt(i + 1);
+			int aux = orden[i];
+			orden[i] = orden[j];
+			orden[j] = aux;
+		}
+		return orden;
+	}
+
+	/**
+	 * Calcula el número de filas de entrenamiento: el menor entero que no es menor que
+	 * n · porcentaje.
+	 *
+	 * @param n Número de filas.
+	 * @param porcentaje Proporción de filas de entrenamiento.
+	 * @return Número de filas de entrenamiento.
+	 */
+	private static int tamanoEntrenamiento(int n, double porcentaje) {
+		comprobarPorcentaje(porcentaje);
+		return (int) Math.ceil(n * porcentaje);
+	}
+
+	/**
+	 * Comprueba que una proporción está entre 0 y 1.
+	 *
+	 * @param porcentaje Proporción.
+	 * @throws IllegalArgumentException si no está entre 0 y 1.
+	 */
+	private static void comprobarPorcentaje(double porcentaje) {
+		if (!(porcentaje >= 0 && porcentaje <= 1)) {
+			throw new IllegalArgumentException("El porcentaje debe estar entre 0 y 1: " + porcentaje);
+		}
+	}
+
+	/**
+	 * Devuelve el dataset original.
+	 *
+	 * @return Dataset dividido.
+	 */
+	public Dataset getDatos() {
+		return datos;
+	}
+
+	/**
+	 * Devuelve el conjunto de entrenamiento como vista sobre el dataset original.
+	 *
+	 * @return Vista de las filas de entrenamiento.
+	 */
+	public VistaDataset getConjuntoEntrenamiento() {
+		return new VistaDataset(datos, entrenamiento);
+	}
+
+	/**
+	 * Devuelve el conjunto de prueba como vista sobre el dataset original.
+	 *
+	 * @return Vista de las filas de prueba.
+	 */
+	public VistaDataset getConjuntoPrueba() {
+		return new VistaDataset(datos, prueba);
+	}
+
+	/**
+	 * Devuelve las filas de entrenamiento.
+	 *
+	 * @return Índices en orden creciente.
+	 */
+	public int[] getEntrenamiento() {
+		return entrenamiento.clone();
+	}
+
+	/**
+	 * Devuelve las filas de prueba.
+	 *
+	 * @return Índices en orden creciente.
+	 */
+	public int[] getPrueba() {
+		return prueba.clone();
+	}
+}
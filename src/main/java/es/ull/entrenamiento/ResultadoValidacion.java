@@ -0,0 +1,91 @@
+package entrenamiento;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * @class ResultadoValidacion
+ * @brief Resultado de una validación cruzada.
+ *
+ * Guarda la precisión predictiva de cada pliegue (de todas las repeticiones, en orden) y la
+ * evaluación conjunta, cuya matriz de confusión suma las de todos los pliegues.
+ */
+public class ResultadoValidacion {
+
+	/** Logger para mostrar los resultados */
+	private static final Logger logger = Logger.getLogger(ResultadoValidacion.class.getName());
+
+	/** Precisión predictiva de cada pliegue */
+	private final double[] precisiones;
+
+	/** Evaluación con las cuentas de todos los pliegues */
+	private final Evaluacion conjunta;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param precisiones Precisión predictiva de cada pliegue.
+	 * @param conjunta Evaluación con las cuentas de todos los pliegues.
+	 */
+	public ResultadoValidacion(double[] precisiones, Evaluacion conjunta) {
+		this.precisiones = precisiones.clone();
+		this.conjunta = conjunta;
+	}
+
+	/**
+	 * Devuelve la precisión predictiva de cada pliegue.
+	 *
+	 * @return Precisiones, pliegue a pliegue y repetición a repetición.
+	 */
+	public double[] getPrecisiones() {
+		return precisiones.clone();
+	}
+
+	/**
+	 * Devuelve la media de la precisión predictiva de los pliegues.
+	 *
+	 * @return Media de las precisiones.
+	 */
+	public double getMedia() {
+		double suma = 0.0;
+		for (double precision : precisiones) {
+			suma += precision;
+		}
+		return precisiones.length == 0 ? 0.0 : suma / precisiones.length;
+	}
+
+	/**
+	 * Devuelve la varianza muestral de la precisión predictiva de los pliegues.
+	 *
+	 * @return Varianza de las precisiones, o 0 si hay menos de dos pliegues.
+	 */
+	public double getVarianza() {
+		if (precisiones.length < 2) return 0.0;
+		double media = getMedia();
+		double suma = 0.0;
+		for (double precision : precisiones) {
+			suma += (precision - media) * (precision - media);
+		}
+		return suma / (precisiones.length - 1);
+	}
+
+	/**
+	 * Devuelve la evaluación conjunta de todos los pliegues.
+	 *
+	 * @return Evaluación con la matriz de confusión acumulada.
+	 */
+	public Evaluacion getEvaluacion() {
+		return conjunta;
+	}
+
+	/**
+	 * Muestra la media y la varianza de la precisión y la matriz de confusión acumulada.
+	 */
+	public void mostrar() {
+		if (logger.isLoggable(Level.INFO)) {
+			logger.info(String.format("Precisión media en %d pliegues: %.2f%% (varianza %.6f)", precisiones.length, getMedia() * 100, getVarianza()));
+		}
+		conjunta.mostrarMatriz();
+		conjunta.mostrarMetricas();
+	}
+}
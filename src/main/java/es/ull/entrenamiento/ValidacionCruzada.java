@@ -0,0 +1,298 @@
+package entrenamiento;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+import clasificacion.MatrizDistancias;
+import clasificacion.ModeloKNN;
+import clasificacion.Vecinos;
+import datos.*;
+
+/**
+ * @class ValidacionCruzada
+ * @brief Validación cruzada estratificada en k pliegues, con repeticiones, de un modelo KNN.
+ *
+ * Los pliegues son listas de índices sobre el dataset original: no se copian filas, cada
+ * pliegue construye su modelo solo con las filas de entrenamiento y clasifica las de prueba
+ * leyéndolas con un {@link Fila}. Los pliegues de todas las repeticiones se evalúan en
+ * paralelo y el resultado no depende del número de hilos.
+ *
+ * También ofrece la validación dejando uno fuera, que parte de la matriz de distancias entre
+ * todas las filas calculada una sola vez.
+ */
+public class ValidacionCruzada {
+
+	/** Dataset completo */
+	private final Dataset datos;
+
+	/** Tipo de distancia a utilizar en KNN */
+	private final String distancia;
+
+	/** Número de hilos usados para evaluar los pliegues */
+	private int hilos = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * Constructor.
+	 *
+	 * @param datos Dataset completo; el último atributo es la clase.
+	 * @param distancia Tipo de distancia a utilizar en KNN.
+	 */
+	public ValidacionCruzada(Dataset datos, String distancia) {
+		this.datos = datos;
+		this.distancia = distancia;
+	}
+
+	/**
+	 * Establece el número de hilos con que se evalúan los pliegues.
+	 *
+	 * @param hilos Número de hilos (1 para evaluar en el hilo actual).
+	 * @throws IllegalArgumentException si el número de hilos es menor que 1.
+	 */
+	public void setHilos(int hilos) {
+		if (hilos < 1) throw new IllegalArgumentException("El número de hilos debe ser al menos 1: " + hilos);
+		this.hilos = hilos;
+	}
+
+	/**
+	 * Devuelve el número de hilos de la evaluación.
+	 *
+	 * @return Número de hilos.
+	 */
+	public int getHilos() {
+		return hilos;
+	}
+
+	/**
+	 * Realiza una validación cruzada estratificada en k pliegues.
+	 *
+	 * @param valorK Número de vecinos a considerar en KNN.
+	 * @param pliegues Número de pliegues.
+	 * @param semilla Semilla del reparto en pliegues y de los desempates.
+	 * @return Precisión de cada pliegue y evaluación conjunta.
+	 */
+	public ResultadoValidacion validar(int valorK, int pliegues, long semilla) {
+		return validar(valorK, pliegues, 1, semilla);
+	}
+
+	/**
+	 * Realiza una validación cruzada estratificada en k pliegues, repetida varias veces con
+	 * repartos distintos.
+	 *
+	 * @param valorK Número de vecinos a considerar en KNN.
+	 * @param pliegues Número de pliegues de cada repetición.
+	 * @param repeticiones Número de repeticiones.
+	 * @param semilla Semilla de los repartos en pliegues y de los desempates.
+	 * @return Precisión de cada pliegue y evaluación conjunta.
+	 * @throws IllegalArgumentException si el número de pliegues no está entre 2 y el número de
+	 *         casos o no hay al menos una repetición.
+	 */
+	public ResultadoValidacion validar(int valorK, int pliegues, int repeticiones, long semilla) {
+		int n = datos.numeroCasos();
+		if (pliegues < 2 || pliegues > n) {
+			throw new IllegalArgumentException("El número de pliegues debe estar entre 2 y " + n + ": " + pliegues);
+		}
+		if (repeticiones < 1) {
+			throw new IllegalArgumentException("El número de repeticiones debe ser al menos 1: " + repeticiones);
+		}
+		Fila cursor = datos.cursor();
+		int[] codigos = new int[n];
+		for (int i = 0; i < n; ++i) {
+			codigos[i] = cursor.mover(i).getCodigo();
+		}
+		List<String> clases = datos.getClases();
+		int[] posicion = posiciones(clases);
+
+		int[][] asignaciones = new int[repeticiones][];
+		for (int r = 0; r < repeticiones; ++r) {
+			asignaciones[r] = asignarPliegues(codigos, posicion.length, pliegues, semilla + r * Entrenamiento.MEZCLA_SEMILLA);
+		}
+		int dimensionConsulta = Entrenamiento.dimensionConsulta(datos);
+		int nClases = clases.size();
+
+		IntFunction<Entrenamiento.Recuento> tarea = t -> {
+			int[] asignacion = asignaciones[t / pliegues];
+			int pliegue = t % pliegues;
+			int enPrueba = 0;
+			for (int a : asignacion) {
+				if (a == pliegue) enPrueba++;
+			}
+			int[] prueba = new int[enPrueba];
+			int[] entrenamiento = new int[n - enPrueba];
+			for (int i = 0, p = 0, e = 0; i < n; ++i) {
+				if (asignacion[i] == pliegue) prueba[p++] = i;
+				else entrenamiento[e++] = i;
+			}
+
+			ModeloKNN modelo = new ModeloKNN(datos, entrenamiento, valorK, distancia);
+			Fila fila = datos.cursor();
+			double[][] consultas = new double[prueba.length][dimensionConsulta];
+			for (int q = 0; q < prueba.length; ++q) {
+				fila.mover(prueba[q]).copiar(consultas[q]);
+			}
+			Vecinos[] vecinos = modelo.vecinos(consultas);
+			Entrenamiento.Recuento recuento = new Entrenamiento.Recuento(nClases);
+			long semillaPliegue = semilla ^ ((t / pliegues + 1) * Entrenamiento.MEZCLA_SEMILLA);
+			for (int q = 0; q < prueba.length; ++q) {
+				int i = prueba[q];
+				int predicho = modelo.votar(vecinos[q], semillaPliegue ^ (i * Entrenamiento.MEZCLA_SEMILLA));
+				if (predicho == codigos[i]) recuento.aciertos++;
+				recuento.confusion[posicion[codigos[i]]][posicion[predicho]]++;
+			}
+			return recuento;
+		};
+
+		int tareas = repeticiones * pliegues;
+		Entrenamiento.Recuento[] recuentos;
+		if (hilos == 1) {
+			recuentos = new Entrenamiento.Recuento[tareas];
+			for (int t = 0; t < tareas; ++t) {
+				recuentos[t] = tarea.apply(t);
+			}
+		} else {
+			ForkJoinPool pool = new ForkJoinPool(hilos);
+			try {
+				recuentos = pool.invoke(ForkJoinTask.adapt(() -> IntStream.range(0, tareas).parallel().mapToObj(tarea)
+						.toArray(Entrenamiento.Recuento[]::new)));
+			} finally {
+				pool.shutdown();
+			}
+		}
+
+		double[] precisiones = new double[tareas];
+		Entrenamiento.Recuento total = new Entrenamiento.Recuento(nClases);
+		for (int t = 0; t < tareas; ++t) {
+			long casos = 0;
+			for (long[] fila : recuentos[t].confusion) {
+				for (long cuenta : fila) casos += cuenta;
+			}
+			precisiones[t] = casos == 0 ? 0.0 : (double) recuentos[t].aciertos / casos;
+			total.sumar(recuentos[t]);
+		}
+		return new ResultadoValidacion(precisiones, new Evaluacion(clases, total.aciertos, (long) n * repeticiones, total.confusion));
+	}
+
+	/**
+	 * Realiza una validación dejando uno fuera para todos los valores de k hasta uno máximo.
+	 *
+	 * Las distancias entre todas las parejas de filas se calculan una sola vez en una
+	 * {@link MatrizDistancias}; cada fila se clasifica con sus vecinos en esa matriz sin contarse
+	 * a sí misma, y como los k vecinos más cercanos son los primeros k de los kMaximo más
+	 * cercanos, una sola búsqueda por fila sirve para todos los k.
+	 *
+	 * @param kMaximo Mayor número de vecinos a evaluar.
+	 * @param semilla Semilla de los desempates.
+	 * @return Evaluación de cada k, de 1 a kMaximo, en ese orden.
+	 * @throws IllegalArgumentException si kMaximo es menor que 1 o hay menos de dos casos.
+	 */
+	public List<Evaluacion> dejarUnoFuera(int kMaximo, long semilla) {
+		int n = datos.numeroCasos();
+		if (n < 2) throw new IllegalArgumentException("Se necesitan al menos dos casos: " + n);
+		ModeloKNN modelo = new ModeloKNN(datos, kMaximo, distancia);
+		List<String> clases = datos.getClases();
+		int[] posicion = posiciones(clases);
+		int nClases = clases.size();
+		int[] codigos = new int[n];
+		for (int i = 0; i < n; ++i) {
+			codigos[i] = modelo.getCodigo(i);
+		}
+		MatrizDistancias matriz = new MatrizDistancias(modelo, Entrenamiento.dimensionConsulta(datos), hilos);
+
+		IntFunction<Entrenamiento.Recuento[]> tarea = lote -> {
+			Entrenamiento.Recuento[] recuentos = Entrenamiento.Recuento.vacios(kMaximo, nClases);
+			int fin = Math.min(n, (lote + 1) * Entrenamiento.TAMANO_LOTE);
+			for (int i = lote * Entrenamiento.TAMANO_LOTE; i < fin; ++i) {
+				Vecinos vecinos = matriz.vecinos(i, kMaximo);
+				long semillaFila = semilla ^ (i * Entrenamiento.MEZCLA_SEMILLA);
+				for (int k = 1; k <= kMaximo; ++k) {
+					int predicho = modelo.votar(vecinos, k, semillaFila);
+					if (predicho == codigos[i]) recuentos[k - 1].aciertos++;
+					recuentos[k - 1].confusion[posicion[codigos[i]]][posicion[predicho]]++;
+				}
+			}
+			return recuentos;
+		};
+		int lotes = (n + Entrenamiento.TAMANO_LOTE - 1) / Entrenamiento.TAMANO_LOTE;
+		Entrenamiento.Recuento[] total;
+		if (hilos == 1) {
+			total = Entrenamiento.Recuento.vacios(kMaximo, nClases);
+			for (int lote = 0; lote < lotes; ++lote) {
+				Entrenamiento.Recuento.sumar(total, tarea.apply(lote));
+			}
+		} else {
+			ForkJoinPool pool = new ForkJoinPool(hilos);
+			try {
+				total = pool.invoke(ForkJoinTask.adapt(() -> IntStream.range(0, lotes).parallel().mapToObj(tarea)
+						.collect(() -> Entrenamiento.Recuento.vacios(kMaximo, nClases), Entrenamiento.Recuento::sumar, Entrenamiento.Recuento::sumar)));
+			} finally {
+				pool.shutdown();
+			}
+		}
+
+		List<Evaluacion> evaluaciones = new ArrayList<>(kMaximo);
+		for (Entrenamiento.Recuento recuento : total) {
+			evaluaciones.add(new Evaluacion(clases, recuento.aciertos, n, recuento.confusion));
+		}
+		return evaluaciones;
+	}
+
+	/**
+	 * Relaciona cada código de la columna de clase con su posición en la lista de clases.
+	 *
+	 * @param clases Clases presentes, en el orden de la matriz de confusión.
+	 * @return Posición de cada código.
+	 */
+	private int[] posiciones(List<String> clases) {
+		Cualitativo columnaClase = datos.cursor().columnaClase();
+		int[] posicion = new int[columnaClase.nCodigos()];
+		for (int codigo = 0; codigo < posicion.length; ++codigo) {
+			posicion[codigo] = clases.indexOf(columnaClase.valor(codigo));
+		}
+		return posicion;
+	}
+
+	/**
+	 * Reparte las filas en pliegues estratificados por clase.
+	 *
+	 * Las filas de cada clase se barajan (Fisher–Yates con la semilla dada) y se reparten
+	 * por turnos entre los pliegues, continuando el turno de una clase a la siguiente, así que
+	 * cada pliegue recibe la misma proporción de cada clase y los tamaños de los pliegues
+	 * difieren como mucho en uno.
+	 *
+	 * @param codigos Código de clase de cada fila.
+	 * @param nCodigos Número de códigos posibles.
+	 * @param pliegues Número de pliegues.
+	 * @param semilla Semilla del barajado.
+	 * @return Pliegue asignado a cada fila.
+	 */
+	static int[] asignarPliegues(int[] codigos, int nCodigos, int pliegues, long semilla) {
+		// Ordenación por cuentas: las filas de cada clase quedan contiguas en porClase
+		int[] inicio = new int[nCodigos + 1];
+		for (int codigo : codigos) inicio[codigo + 1]++;
+		for (int c = 0; c < nCodigos; ++c) inicio[c + 1] += inicio[c];
+		int[] siguiente = inicio.clone();
+		int[] porClase = new int[codigos.length];
+		for (int i = 0; i < codigos.length; ++i) {
+			porClase[siguiente[codigos[i]]++] = i;
+		}
+
+		SplittableRandom aleatorio = new SplittableRandom(semilla);
+		for (int c = 0; c < nCodigos; ++c) {
+			for (int i = inicio[c + 1] - 1; i > inicio[c]; --i) {
+				int j = inicio[c] + aleatorio.nextInt(i - inicio[c] + 1);
+				int aux = porClase[i];
+				porClase[i] = porClase[j];
+				porClase[j] = aux;
+			}
+		}
+		int[] asignacion = new int[codigos.length];
+		for (int p = 0; p < porClase.length; ++p) {
+			asignacion[porClase[p]] = p % pliegues;
+		}
+		return asignacion;
+	}
+}
@@ -33,6 +33,9 @@ public class KnnTfg {
 	private static final String DISTANCIA_MINKOWSKI = "minkowski";
 	private static final Scanner scanner = new Scanner(System.in);
 
+	/** Preprocesado ajustado al dataset crudo con el que se obtuvo el dataset actual */
+	private static Preprocesado preprocesado;
+
 	/**
 	 * @brief Punto de entrada principal del programa.
 	 * @param args Argumentos de línea de comandos (no utilizados).
@@ -41,7 +44,6 @@ public class KnnTfg {
 	public static void main(String[] args) throws IOException {
 		String ruta = "";
 		boolean salida = false;
-		Dataset datosCrudos = new Dataset();
 		Dataset datos = new Dataset();
 
 		while (!salida) {
@@ -50,8 +52,7 @@ public class KnnTfg {
 
 			switch (opcion) {
 				case 1:
-					datosCrudos = cargarDataset(ruta);
-					datos = preprocesar(new Dataset(datosCrudos));
+					datos = preprocesar(cargarDataset(ruta));
 					break;
 				case 2:
 					guardarDataset(ruta, datos);
@@ -69,7 +70,7 @@ public class KnnTfg {
 					experimentar(datos);
 					break;
 				case 7:
-					ejecutarKNN(datos, datosCrudos);
+					ejecutarKNN(datos);
 					break;
 				default:
 					LOGGER.warning("Opción no válida.");
@@ -131,6 +132,12 @@ public class KnnTfg {
 	 */
 	private static Dataset cargarDataset(String ruta) throws IOException {
 		String archivo = readFile(ruta);
+		if (archivo.endsWith(FormatoBinario.EXTENSION)) {
+			Dataset datos = new Dataset();
+			datos.readBinario(ruta + archivo);
+			datos.setOriginal();
+			return datos;
+		}
 		return new Dataset(ruta + archivo);
 	}
 
@@ -142,15 +149,20 @@ public class KnnTfg {
 	 */
 	private static void guardarDataset(String ruta, Dataset datos) throws IOException {
 		String archivo = readFile(ruta);
-		datos.write(ruta + archivo);
+		if (archivo.endsWith(FormatoBinario.EXTENSION)) datos.writeBinario(ruta + archivo);
+		else datos.write(ruta + archivo);
 	}
 
 	/**
 	 * @brief Ejecuta el algoritmo KNN sobre una instancia ingresada manualmente.
+	 *
+	 * La instancia se transforma con los parámetros del preprocesado ajustados al cargar el
+	 * dataset, en O(d), de modo que queda en la misma escala que las filas de entrenamiento
+	 * sin copiar ni volver a procesar el dataset.
+	 *
 	 * @param datos Dataset preprocesado sobre el cual clasificar.
-	 * @param datosCrudos Dataset original sin preprocesar.
 	 */
-	private static void ejecutarKNN(Dataset datos, Dataset datosCrudos) {
+	private static void ejecutarKNN(Dataset datos) {
 		LOGGER.info(MSG_INTRODUCE_VALOR_K);
 		int k = leerOpcion(scanner, 1, datos.numeroCasos());
 		String tipoDistancia = "";
@@ -177,24 +189,17 @@ public class KnnTfg {
 		LOGGER.info(MSG_INTRODUCE_VALORES);
 		String valoresString = scanner.nextLine();
 
-		String[] subcadenas = valoresString.split(",");
-		ArrayList<String> arrayList = new ArrayList<>(Arrays.asList(subcadenas));
-		Instancia instance = new Instancia(valoresString);
-
-		Dataset copiaCrudos = new Dataset(datosCrudos);
-
-		if (datos.getPreprocesado() != 1) {
-			arrayList.add("clase");
-			copiaCrudos.add(arrayList);
-			Preprocesado intento1 = datos.getPreprocesado() == 2 ? new Normalizacion() : new Estandarizacion();
-			copiaCrudos = new Dataset(intento1.procesar(copiaCrudos));
-			instance = copiaCrudos.getInstance(copiaCrudos.numeroCasos() - 1);
-			copiaCrudos.delete(copiaCrudos.numeroCasos() - 1);
-			instance.deleteClase();
+		if (preprocesado == null) {
+			preprocesado = new DatosCrudos();
+			preprocesado.ajustar(datos);
 		}
+		// Se añade una clase provisional para que la instancia tenga la forma de una fila
+		Instancia instance = new Instancia(valoresString + ",clase");
+		instance = preprocesado.transformar(instance);
+		instance.deleteClase();
 
 		if (LOGGER.isLoggable(Level.INFO)) {
-			LOGGER.info("La clase elegida es: " + intento.clasificar(copiaCrudos, instance));
+			LOGGER.info("La clase elegida es: " + intento.clasificar(datos, instance));
 		}
 	}
 
@@ -259,6 +264,10 @@ public class KnnTfg {
 			return data;
 			case(5):
 					data.restaurarOriginal();
+					// Los datos vuelven a estar sin escalar: las consultas tampoco deben escalarse
+					preprocesado = new DatosCrudos();
+					preprocesado.ajustar(data);
+					data.setPreprocesado(1);
 					return data;
 			case(6):
 				break;
@@ -340,6 +349,8 @@ public class KnnTfg {
 		opcion = leerOpcion(scanner,1,4);
 		switch(opcion) {
 		case(1):
+			preprocesado = new DatosCrudos();
+			preprocesado.ajustar(data);
 			data.setPreprocesado(1);
 			return data;
 		case(2):
@@ -348,6 +359,7 @@ public class KnnTfg {
 				data.setOriginal();
 			}
 			data = new Dataset (intento1.procesar(data));
+			preprocesado = intento1;
 			LOGGER.info("El dataset ha sido normalizado.");
 			data.setPreprocesado(2);
 			break;
@@ -357,6 +369,7 @@ public class KnnTfg {
 				data.setOriginal();
 			}
 			data = new Dataset (intento2.procesar(data));
+			preprocesado = intento2;
 			LOGGER.info("El dataset ha sido estandarizado.");
 			data.setPreprocesado(3);
 			break;
@@ -366,6 +379,7 @@ public class KnnTfg {
 				data.setOriginal();
 			}
 			data = new Dataset (intento1.procesar(data));
+			preprocesado = intento1;
 			LOGGER.info("El dataset ha sido normalizado.");
 			data.setPreprocesado(2);
 		}
@@ -609,8 +623,7 @@ public class KnnTfg {
 				nuevo = new Entrenamiento(datos, (double)valor/100, tipoDistancia);
 				LOGGER.info(MSG_INTRODUCE_VALOR_K);
 				int k = leerOpcion(scanner, 1, datos.numeroCasos());
-				nuevo.generarPrediccion(k);
-				nuevo.generarMatriz(k);
+				mostrarEvaluacion(nuevo, k);
 				break;
 			case(2):
 				nuevo = experimentacionAleatoria(datos);
@@ -630,8 +643,7 @@ public class KnnTfg {
 				nuevo.read(archivo1, archivo2);
 				LOGGER.info(MSG_INTRODUCE_VALOR_K);
 				k = leerOpcion(scanner, 1, datos.numeroCasos());
-				nuevo.generarPrediccion(k);
-				nuevo.generarMatriz(k);
+				mostrarEvaluacion(nuevo, k);
 				break;
 			default:
 				break;
@@ -639,6 +651,19 @@ public class KnnTfg {
 		}
 	}
 
+	/**
+	 * @brief Clasifica una sola vez el conjunto de prueba y muestra la precisión, la matriz de
+	 *        confusión y las métricas por clase.
+	 * @param nuevo Entrenamiento con los conjuntos de entrenamiento y prueba.
+	 * @param k Número de vecinos a considerar.
+	 */
+	public static void mostrarEvaluacion(Entrenamiento nuevo, int k) {
+		Evaluacion resultado = nuevo.evaluar(k);
+		resultado.mostrarPrecision();
+		resultado.mostrarMatriz();
+		resultado.mostrarMetricas();
+	}
+
 	/**
 	 * @brief Ejecuta un experimento con partición aleatoria del dataset.
 	 * @param datos Dataset sobre el cual se realizará el experimento.
@@ -677,8 +702,7 @@ public class KnnTfg {
 			nuevo = new Entrenamiento(datos, (double)valor/100, 1234, tipoDistancia);
 			LOGGER.info(MSG_INTRODUCE_VALOR_K);
 			int k = leerOpcion(scanner, 1, datos.numeroCasos());
-			nuevo.generarPrediccion(k);
-			nuevo.generarMatriz(k);
+			mostrarEvaluacion(nuevo, k);
 			return nuevo;
 		case(2):
 			valor = 0;
@@ -689,8 +713,7 @@ public class KnnTfg {
 			nuevo = new Entrenamiento(datos, (double)valor/100, valor2, tipoDistancia);
 			LOGGER.info(MSG_INTRODUCE_VALOR_K);
 			k = leerOpcion(scanner, 1, datos.numeroCasos());
-			nuevo.generarPrediccion(k);
-			nuevo.generarMatriz(k);
+			mostrarEvaluacion(nuevo, k);
 			return nuevo;
 		default:
 			break;
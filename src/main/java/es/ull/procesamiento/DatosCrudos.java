@@ -9,12 +9,39 @@ import datos.*;
  */
 public class DatosCrudos implements Preprocesado {
 
+	/** Columnas numéricas del dataset ajustado, o null si aún no se ha ajustado */
+	private Escalado escalado;
+
 	/**
 	 * @brief Devuelve los atributos originales del dataset sin ningún tipo de procesamiento.
 	 * @param datos Dataset a procesar.
 	 * @return Lista de atributos tal cual están en el dataset.
 	 */
 	public List<Atributo> procesar(Dataset datos) {
+		ajustar(datos);
 		return datos.getAtributos();
 	}
+
+	/**
+	 * @brief Registra qué columnas son numéricas.
+	 * @param datos Dataset de referencia.
+	 */
+	public void ajustar(Dataset datos) {
+		List<Atributo> atributos = datos.getAtributos();
+		Escalado nuevo = new Escalado(atributos.size());
+		for (int i = 0; i < atributos.size(); i++) {
+			if (atributos.get(i) instanceof Cuantitativo) nuevo.fijar(i, 0.0, 1.0);
+		}
+		escalado = nuevo;
+	}
+
+	/**
+	 * @brief Convierte en Double los valores de las columnas numéricas, sin cambiarlos.
+	 * @param nueva Instancia a transformar.
+	 * @return Instancia con los valores numéricos convertidos.
+	 */
+	public Instancia transformar(Instancia nueva) {
+		if (escalado == null) throw new IllegalStateException("El preprocesado no está ajustado");
+		return escalado.aplicar(nueva);
+	}
 }
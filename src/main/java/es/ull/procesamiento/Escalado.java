@@ -0,0 +1,93 @@
+package procesamiento;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import datos.Instancia;
+
+/**
+ * @brief Parámetros ajustados de un preprocesado que lleva cada columna numérica a
+ *        (valor - desplazamiento) / divisor.
+ *
+ * Guarda un desplazamiento y un divisor por columna, de modo que una instancia nueva se
+ * transforma en O(d) con la misma fórmula que se aplicó a las columnas del dataset.
+ */
+final class Escalado {
+
+	/** Indica qué columnas son numéricas */
+	private final boolean[] numericas;
+
+	/** Valor que se resta a cada columna */
+	private final double[] desplazamientos;
+
+	/** Valor entre el que se divide cada columna */
+	private final double[] divisores;
+
+	/**
+	 * @brief Crea un escalado sin columnas numéricas.
+	 * @param columnas Número de columnas del dataset.
+	 */
+	Escalado(int columnas) {
+		this.numericas = new boolean[columnas];
+		this.desplazamientos = new double[columnas];
+		this.divisores = new double[columnas];
+	}
+
+	/**
+	 * @brief Marca una columna como numérica con sus parámetros.
+	 * @param columna Índice de la columna.
+	 * @param desplazamiento Valor que se resta.
+	 * @param divisor Valor entre el que se divide.
+	 */
+	void fijar(int columna, double desplazamiento, double divisor) {
+		numericas[columna] = true;
+		desplazamientos[columna] = desplazamiento;
+		divisores[columna] = divisor;
+	}
+
+	/**
+	 * @brief Transforma los valores de una instancia.
+	 *
+	 * Cada valor de una columna numérica, sea un número o un texto numérico, se convierte en
+	 * Double y se escala; el resto de valores, como la clase, se copian sin cambios.
+	 *
+	 * @param nueva Instancia con los valores en el orden de las columnas del dataset.
+	 * @return Instancia nueva con los valores transformados.
+	 * @throws IllegalArgumentException si la instancia tiene más valores que columnas el
+	 *         dataset o un valor numérico no es un número.
+	 */
+	Instancia aplicar(Instancia nueva) {
+		List<Object> valores = nueva.getValores();
+		if (valores.size() > numericas.length) {
+			throw new IllegalArgumentException("La instancia tiene " + valores.size() + " valores y el dataset " + numericas.length + " atributos");
+		}
+		List<Object> resultado = new ArrayList<>(valores.size());
+		for (int j = 0; j < valores.size(); ++j) {
+			Object valor = valores.get(j);
+			if (numericas[j]) {
+				resultado.add((numero(valor) - desplazamientos[j]) / divisores[j]);
+			} else {
+				resultado.add(valor);
+			}
+		}
+		return new Instancia(resultado);
+	}
+
+	/**
+	 * @brief Convierte un valor en número.
+	 * @param valor Número o texto con un número.
+	 * @return Valor numérico.
+	 * @throws IllegalArgumentException si el valor no es un número.
+	 */
+	private static double numero(Object valor) {
+		if (valor instanceof Number) return ((Number) valor).doubleValue();
+		if (valor instanceof String) {
+			try {
+				return Double.parseDouble(((String) valor).trim());
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException("Valor numérico no válido: " + valor, e);
+			}
+		}
+		throw new IllegalArgumentException("Valor numérico no válido: " + valor);
+	}
+}
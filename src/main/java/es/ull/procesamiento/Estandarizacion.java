@@ -1,38 +1,77 @@
 package procesamiento;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import datos.Atributo;
 import datos.Cuantitativo;
 import datos.Dataset;
+import datos.Instancia;
 
 /**
  * @brief Clase que implementa la normalización de atributos cuantitativos mediante estandarización.
  *
  * Esta clase implementa la interfaz Preprocesado y procesa un Dataset
- * aplicando la estandarización a todos los atributos de tipo Cuantitativo.
+ * aplicando la estandarización a todos los atributos de tipo Cuantitativo. Guarda la
+ * media y la desviación de cada columna para estandarizar instancias nuevas igual.
  */
 public class Estandarizacion implements Preprocesado {
 
+	/** Media y desviación de cada columna, o null si aún no se ha ajustado */
+	private Escalado escalado;
+
 	/**
 	 * @brief Procesa el dataset estandarizando los atributos cuantitativos.
 	 *
 	 * Recorre la lista de atributos del dataset y aplica la estandarización
-	 * a cada atributo que sea de tipo Cuantitativo.
+	 * a cada atributo que sea de tipo Cuantitativo. Si el dataset es una
+	 * {@link datos.VistaDataset}, se estandarizan copias de sus columnas y la vista no cambia.
 	 *
 	 * @param datos Dataset a procesar.
 	 * @return Lista de atributos estandarizados.
 	 */
 	public List<Atributo> procesar(Dataset datos) {
-		List<Atributo> nuevos = datos.getAtributos();
-		Cuantitativo ejemplo = new Cuantitativo();
+		ajustar(datos);
+		List<Atributo> nuevos = new ArrayList<Atributo>(datos.getAtributos());
+		Cuantitativo ejemplo;
 		for (int i = 0; i < nuevos.size(); i++) {
-			if (nuevos.get(i).getClass() == ejemplo.getClass()) {
-				ejemplo = (Cuantitativo) nuevos.get(i);
+			if (nuevos.get(i) instanceof Cuantitativo) {
+				ejemplo = ((Cuantitativo) nuevos.get(i)).modificable();
 				ejemplo.estandarizacion();
 				nuevos.set(i, ejemplo);
 			}
 		}
 		return nuevos;
 	}
+
+	/**
+	 * @brief Guarda la media y la desviación estándar de cada atributo cuantitativo.
+	 *
+	 * Una columna con desviación cero no se estandariza, así que sus valores se dejan igual.
+	 *
+	 * @param datos Dataset de referencia, sin estandarizar.
+	 */
+	public void ajustar(Dataset datos) {
+		List<Atributo> atributos = datos.getAtributos();
+		Escalado nuevo = new Escalado(atributos.size());
+		for (int i = 0; i < atributos.size(); i++) {
+			if (atributos.get(i) instanceof Cuantitativo) {
+				Cuantitativo columna = (Cuantitativo) atributos.get(i);
+				double desviacion = columna.desviacion();
+				if (desviacion == 0.0) nuevo.fijar(i, 0.0, 1.0);
+				else nuevo.fijar(i, columna.media(), desviacion);
+			}
+		}
+		escalado = nuevo;
+	}
+
+	/**
+	 * @brief Estandariza una instancia con la media y la desviación ajustadas.
+	 * @param nueva Instancia a estandarizar.
+	 * @return Instancia estandarizada.
+	 */
+	public Instancia transformar(Instancia nueva) {
+		if (escalado == null) throw new IllegalStateException("El preprocesado no está ajustado");
+		return escalado.aplicar(nueva);
+	}
 }
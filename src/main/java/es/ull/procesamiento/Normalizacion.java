@@ -4,37 +4,68 @@ import java.util.ArrayList;
 import java.util.List;
 
 import datos.*;
-import vectores.Vector;
 
 /**
  * @brief Clase que implementa la normalización de atributos cuantitativos.
  *
  * Esta clase implementa la interfaz Preprocesado y procesa un Dataset
- * normalizando todos los atributos de tipo Cuantitativo.
+ * normalizando todos los atributos de tipo Cuantitativo. Guarda el mínimo y el
+ * máximo de cada columna para normalizar instancias nuevas con la misma escala.
  */
 public class Normalizacion implements Preprocesado {
 
+	/** Mínimo y rango de cada columna, o null si aún no se ha ajustado */
+	private Escalado escalado;
+
 	/**
 	 * @brief Procesa el dataset normalizando los atributos cuantitativos.
 	 *
 	 * Para cada atributo del dataset que sea de tipo Cuantitativo, se normalizan sus valores
-	 * utilizando el método normalize() de la clase Vector.
+	 * con {@link Cuantitativo#normalizacion()}, que toma el mínimo y el máximo del resumen de
+	 * la columna. Si el dataset es una {@link VistaDataset}, se normalizan copias de sus
+	 * columnas y la vista no cambia.
 	 *
 	 * @param datos Dataset a procesar.
 	 * @return Lista de atributos con los valores normalizados.
 	 */
 	public List<Atributo> procesar(Dataset datos) {
+		ajustar(datos);
 		List<Atributo> nuevos = new ArrayList<Atributo>(datos.getAtributos());
-		Cuantitativo ejemplo = new Cuantitativo();
+		Cuantitativo ejemplo;
 		for (int i = 0; i < nuevos.size(); i++) {
-			if (nuevos.get(i).getClass() == ejemplo.getClass()) {
-				ejemplo = (Cuantitativo) nuevos.get(i);
-				Vector valores = ejemplo.getValores();
-				valores.normalize();
-				ejemplo.setValores(valores);
+			if (nuevos.get(i) instanceof Cuantitativo) {
+				ejemplo = ((Cuantitativo) nuevos.get(i)).modificable();
+				ejemplo.normalizacion();
 				nuevos.set(i, ejemplo);
 			}
 		}
 		return nuevos;
 	}
+
+	/**
+	 * @brief Guarda el mínimo y el rango (máximo - mínimo) de cada atributo cuantitativo.
+	 * @param datos Dataset de referencia, sin normalizar.
+	 */
+	public void ajustar(Dataset datos) {
+		List<Atributo> atributos = datos.getAtributos();
+		Escalado nuevo = new Escalado(atributos.size());
+		for (int i = 0; i < atributos.size(); i++) {
+			if (atributos.get(i) instanceof Cuantitativo) {
+				Cuantitativo columna = (Cuantitativo) atributos.get(i);
+				if (columna.size() == 0) nuevo.fijar(i, 0.0, 1.0);
+				else nuevo.fijar(i, columna.minimo(), columna.maximo() - columna.minimo());
+			}
+		}
+		escalado = nuevo;
+	}
+
+	/**
+	 * @brief Normaliza una instancia con el mínimo y el máximo ajustados.
+	 * @param nueva Instancia a normalizar.
+	 * @return Instancia normalizada.
+	 */
+	public Instancia transformar(Instancia nueva) {
+		if (escalado == null) throw new IllegalStateException("El preprocesado no está ajustado");
+		return escalado.aplicar(nueva);
+	}
 }
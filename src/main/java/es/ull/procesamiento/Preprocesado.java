@@ -4,16 +4,46 @@ import java.util.List;
 
 import datos.Atributo;
 import datos.Dataset;
+import datos.Instancia;
 
 /**
  * @brief Interfaz que define el contrato para clases de preprocesamiento de datasets.
+ *
+ * Un preprocesado se ajusta a un dataset, guardando los parámetros de cada columna (por
+ * ejemplo, el mínimo y el máximo), y después puede transformar instancias sueltas con esos
+ * mismos parámetros, sin volver a recorrer ni copiar el dataset.
  */
 public interface Preprocesado {
 
 	/**
 	 * @brief Método para procesar un dataset y devolver la lista de atributos procesados.
+	 *
+	 * Además ajusta el preprocesado al dataset, igual que {@link #ajustar(Dataset)}.
+	 *
 	 * @param datos Dataset a procesar.
 	 * @return Lista de atributos resultante tras el preprocesamiento.
 	 */
 	public List<Atributo> procesar(Dataset datos);
+
+	/**
+	 * @brief Calcula los parámetros del preprocesado de cada columna sin modificar el dataset.
+	 * @param datos Dataset de referencia, sin preprocesar.
+	 */
+	public void ajustar(Dataset datos);
+
+	/**
+	 * @brief Transforma una instancia con los parámetros ajustados.
+	 *
+	 * Los valores de las columnas numéricas, sean números o textos numéricos, se convierten en
+	 * Double y se transforman igual que las columnas del dataset; el resto se copian. Cuesta
+	 * O(d), con d el número de valores.
+	 *
+	 * @param nueva Instancia con los valores en el orden de los atributos del dataset; puede
+	 *        tener o no la clase al final.
+	 * @return Instancia nueva con los valores transformados.
+	 * @throws IllegalStateException si el preprocesado no se ha ajustado.
+	 * @throws IllegalArgumentException si la instancia tiene más valores que atributos el
+	 *         dataset o un valor numérico no es un número.
+	 */
+	public Instancia transformar(Instancia nueva);
 }
@@ -11,17 +11,22 @@ import java.util.logging.Logger;
  *
  * Proporciona funcionalidad como suma, producto escalar, normalización,
  * escritura/lectura desde archivos y manipulación directa de los elementos del vector.
+ * Los valores se guardan en un array primitivo que crece con coste amortizado constante,
+ * sin un objeto Double por elemento.
  *
  * @author
  * @version 1.0
  */
 public class Vector {
-    private List<Double> coef;
+    private double[] coef;
+    private int size;
+    private long modificaciones;
     private static final String MSG_MISMO_TAMANO = "Los vectores deben tener el mismo tamaño";
+    private static final int CAPACIDAD_INICIAL = 10;
 
-    /** @brief Constructor vacío. Inicializa el vector como una lista vacía. */
+    /** @brief Constructor vacío. Inicializa el vector sin elementos. */
     public Vector() {
-        coef = new ArrayList<>();
+        coef = new double[CAPACIDAD_INICIAL];
     }
 
     /**
@@ -29,10 +34,8 @@ public class Vector {
      * @param array Arreglo de valores que se añaden al vector.
      */
     public Vector(double[] array) {
-        this();
-        for (double value : array) {
-            coef.add(value);
-        }
+        coef = Arrays.copyOf(array, Math.max(array.length, CAPACIDAD_INICIAL));
+        size = array.length;
     }
 
     /**
@@ -40,7 +43,10 @@ public class Vector {
      * @param coef Lista de coeficientes que se copian al vector.
      */
     public Vector(List<Double> coef) {
-        this.coef = new ArrayList<>(coef);
+        this.coef = new double[Math.max(coef.size(), CAPACIDAD_INICIAL)];
+        for (double value : coef) {
+            this.coef[size++] = value;
+        }
     }
 
     /**
@@ -48,10 +54,8 @@ public class Vector {
      * @param size Tamaño del vector.
      */
     public Vector(int size) {
-        this();
-        for (int i = 0; i < size; ++i) {
-            coef.add(0.0);
-        }
+        coef = new double[Math.max(size, CAPACIDAD_INICIAL)];
+        this.size = size;
     }
 
     /**
@@ -60,7 +64,7 @@ public class Vector {
      * @throws FileNotFoundException Si el archivo no se encuentra.
      */
     public Vector(File file) throws FileNotFoundException {
-        coef = new ArrayList<>();
+        this();
         readFileWithScanner(file);
     }
 
@@ -69,10 +73,10 @@ public class Vector {
      * @param str Cadena con números separados por comas.
      */
     public Vector(String str) {
-        coef = new ArrayList<>();
+        this();
         String[] values = str.split(",");
         for (String value : values) {
-            coef.add(Double.parseDouble(value.trim()));
+            add(Double.parseDouble(value.trim()));
         }
     }
 
@@ -81,22 +85,47 @@ public class Vector {
      * @param otro Otro objeto Vector del cual se copia el contenido.
      */
     public Vector(Vector otro) {
-        coef = new ArrayList<>(otro.coef);
+        coef = Arrays.copyOf(otro.coef, Math.max(otro.size, CAPACIDAD_INICIAL));
+        size = otro.size;
     }
 
     /** @brief Devuelve el tamaño (dimensión) del vector. */
     public int size() {
-        return coef.size();
+        return size;
+    }
+
+    /**
+     * @brief Devuelve el número de modificaciones del contenido del vector.
+     *
+     * Aumenta con cada operación que añade, quita o cambia valores, incluidas las hechas a
+     * través de {@link #getValores()}. Permite saber si un resultado calculado sobre el vector
+     * sigue siendo válido sin volver a recorrerlo.
+     *
+     * @return Contador de modificaciones.
+     */
+    public long getModificaciones() {
+        return modificaciones;
+    }
+
+    /** @brief Ajusta la capacidad del array interno al número de elementos. */
+    public void trimToSize() {
+        if (coef.length > size) coef = Arrays.copyOf(coef, size);
     }
 
     /** @brief Vacía el contenido del vector. */
     public void clear() {
-        coef.clear();
+        size = 0;
+        modificaciones++;
     }
 
     /** @brief Representación en forma de cadena del vector. */
     public String toString() {
-        return coef.toString();
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) builder.append(", ");
+            builder.append(coef[i]);
+        }
+        return builder.append(']').toString();
     }
 
     /** @brief Imprime el vector usando un logger a nivel INFO. */
@@ -113,7 +142,8 @@ public class Vector {
      * @return Valor en la posición indicada.
      */
     public double get(int index) {
-        return coef.get(index);
+        Objects.checkIndex(index, size);
+        return coef[index];
     }
 
     /**
@@ -122,7 +152,9 @@ public class Vector {
      * @param value Valor a establecer.
      */
     public void set(int index, double value) {
-        coef.set(index, value);
+        Objects.checkIndex(index, size);
+        coef[index] = value;
+        modificaciones++;
     }
 
     /**
@@ -130,7 +162,11 @@ public class Vector {
      * @param value Valor a añadir.
      */
     public void add(double value) {
-        coef.add(value);
+        if (size == coef.length) {
+            coef = Arrays.copyOf(coef, Math.max(CAPACIDAD_INICIAL, size + (size >> 1)));
+        }
+        coef[size++] = value;
+        modificaciones++;
     }
 
     /**
@@ -140,9 +176,10 @@ public class Vector {
      */
     public void add(Vector other) {
         if (this.size() != other.size()) throw new IllegalArgumentException(MSG_MISMO_TAMANO);
-        for (int i = 0; i < this.size(); i++) {
-            coef.set(i, coef.get(i) + other.get(i));
+        for (int i = 0; i < size; i++) {
+            coef[i] += other.coef[i];
         }
+        modificaciones++;
     }
 
     /**
@@ -150,14 +187,17 @@ public class Vector {
      * @param index Índice del valor a eliminar.
      */
     public void remove(int index) {
-        coef.remove(index);
+        Objects.checkIndex(index, size);
+        System.arraycopy(coef, index + 1, coef, index, size - index - 1);
+        size--;
+        modificaciones++;
     }
 
     /** @brief Devuelve el valor máximo del vector. */
     public double getMax() {
         double max = Double.NEGATIVE_INFINITY;
-        for (double value : coef) {
-            if (value > max) max = value;
+        for (int i = 0; i < size; i++) {
+            if (coef[i] > max) max = coef[i];
         }
         return max;
     }
@@ -166,9 +206,9 @@ public class Vector {
     public int getMaxInt() {
         double max = Double.NEGATIVE_INFINITY;
         int maxint = -1;
-        for (int i = 0; i < coef.size(); ++i) {
-            if (coef.get(i) > max) {
-                max = coef.get(i);
+        for (int i = 0; i < size; ++i) {
+            if (coef[i] > max) {
+                max = coef[i];
                 maxint = i;
             }
         }
@@ -178,8 +218,8 @@ public class Vector {
     /** @brief Devuelve el valor mínimo del vector. */
     public double getMin() {
         double min = Double.POSITIVE_INFINITY;
-        for (double value : coef) {
-            if (value < min) min = value;
+        for (int i = 0; i < size; i++) {
+            if (coef[i] < min) min = coef[i];
         }
         return min;
     }
@@ -193,7 +233,7 @@ public class Vector {
     public double productoEscalar(Vector other) {
         if (this.size() != other.size()) throw new IllegalArgumentException(MSG_MISMO_TAMANO);
         double result = 0;
-        for (int i = 0; i < this.size(); i++) result += this.get(i) * other.get(i);
+        for (int i = 0; i < size; i++) result += coef[i] * other.coef[i];
         return result;
     }
 
@@ -203,9 +243,9 @@ public class Vector {
      * @return Nuevo vector con el resultado.
      */
     public Vector sum(double value) {
-        Vector suma = new Vector();
-        for (int i = 0; i < coef.size(); i++) {
-            suma.add(coef.get(i) + value);
+        Vector suma = new Vector(size);
+        for (int i = 0; i < size; i++) {
+            suma.coef[i] = coef[i] + value;
         }
         return suma;
     }
@@ -218,9 +258,9 @@ public class Vector {
      */
     public Vector sum(Vector other) {
         if (this.size() != other.size()) throw new IllegalArgumentException(MSG_MISMO_TAMANO);
-        Vector suma = new Vector();
-        for (int i = 0; i < this.size(); i++) {
-            suma.add(coef.get(i) + other.get(i));
+        Vector suma = new Vector(size);
+        for (int i = 0; i < size; i++) {
+            suma.coef[i] = coef[i] + other.coef[i];
         }
         return suma;
     }
@@ -231,7 +271,11 @@ public class Vector {
      * @return true si son iguales.
      */
     public boolean equals(Vector other) {
-        return this.coef.equals(other.coef);
+        if (this.size != other.size) return false;
+        for (int i = 0; i < size; i++) {
+            if (Double.doubleToLongBits(coef[i]) != Double.doubleToLongBits(other.coef[i])) return false;
+        }
+        return true;
     }
 
     /**
@@ -249,7 +293,10 @@ public class Vector {
      * @return true si existe en el vector.
      */
     public boolean isContent(double value) {
-        return coef.contains(value);
+        for (int i = 0; i < size; i++) {
+            if (Double.doubleToLongBits(coef[i]) == Double.doubleToLongBits(value)) return true;
+        }
+        return false;
     }
 
     /**
@@ -257,7 +304,12 @@ public class Vector {
      * @param other Vector a concatenar.
      */
     public void concat(Vector other) {
-        coef.addAll(other.coef);
+        if (size + other.size > coef.length) {
+            coef = Arrays.copyOf(coef, Math.max(size + other.size, size + (size >> 1)));
+        }
+        System.arraycopy(other.coef, 0, coef, size, other.size);
+        size += other.size;
+        modificaciones++;
     }
 
     /**
@@ -288,7 +340,7 @@ public class Vector {
      * @throws IOException Si hay un error al leer.
      */
     public void read(String filename) throws IOException {
-        coef.clear();
+        clear();
         readFile(filename);
     }
 
@@ -298,7 +350,7 @@ public class Vector {
      * @throws FileNotFoundException Si el archivo no existe.
      */
     public void read(File file) throws FileNotFoundException {
-        coef.clear();
+        clear();
         readFileWithScanner(file);
     }
 
@@ -307,17 +359,17 @@ public class Vector {
      * @param scanner Scanner con entrada de datos.
      */
     public void read(Scanner scanner) {
-        coef.clear();
+        clear();
         while (scanner.hasNextDouble()) {
-            coef.add(scanner.nextDouble());
+            add(scanner.nextDouble());
         }
     }
 
     /** @brief Calcula el módulo (norma) del vector. */
     public double module() {
         double sum = 0;
-        for (double value : coef) {
-            sum += Math.pow(value, 2);
+        for (int i = 0; i < size; i++) {
+            sum += Math.pow(coef[i], 2);
         }
         return Math.sqrt(sum);
     }
@@ -327,26 +379,28 @@ public class Vector {
      * @param scalar Valor escalar.
      */
     public void multiply(double scalar) {
-        for (int i = 0; i < coef.size(); i++) {
-            coef.set(i, coef.get(i) * scalar);
+        for (int i = 0; i < size; i++) {
+            coef[i] *= scalar;
         }
+        modificaciones++;
     }
 
     /** @brief Normaliza el vector al rango [0, 1]. */
     public void normalize() {
         double min  = this.getMin();
         double max = this.getMax();
-        for (int i = 0; i < coef.size(); ++i)
-            coef.set(i, (coef.get(i) - min) / (max - min));
+        for (int i = 0; i < size; ++i)
+            coef[i] = (coef[i] - min) / (max - min);
+        modificaciones++;
     }
 
     /** @brief Calcula la media (promedio) del vector. */
     public double avg() {
         double sum = 0;
-        for (double value : coef) {
-            sum += value;
+        for (int i = 0; i < size; i++) {
+            sum += coef[i];
         }
-        return sum / coef.size();
+        return sum / size;
     }
 
     /**
@@ -358,7 +412,7 @@ public class Vector {
         try (BufferedReader reader = new BufferedReader(new FileReader(filename))) {
             String line;
             while ((line = reader.readLine()) != null) {
-                coef.add(Double.parseDouble(line));
+                add(Double.parseDouble(line));
             }
         }
     }
@@ -376,7 +430,7 @@ public class Vector {
                     String[] tokens = line.split("[,\\s]+");
                     for (String token : tokens) {
                         try {
-                            coef.add(Double.parseDouble(token.trim()));
+                            add(Double.parseDouble(token.trim()));
                         } catch (NumberFormatException e) {
                             Logger.getLogger(Vector.class.getName()).log(Level.WARNING, "Valor no válido: " + token, e);
                         }
@@ -387,10 +441,82 @@ public class Vector {
     }
 
     /**
-     * @brief Devuelve la lista interna de coeficientes del vector.
+     * @brief Devuelve los coeficientes del vector como lista.
+     *
+     * La lista es una vista sobre el array interno: los cambios en ella se reflejan en el vector.
+     * Para recorridos numéricos es preferible {@link #get(int)} o {@link #toArray()}, que no crean
+     * objetos Double.
+     *
      * @return Lista de valores double.
      */
     public List<Double> getValores() {
-        return this.coef;
+        return new Vista();
+    }
+
+    /**
+     * @brief Devuelve una copia de los coeficientes en un array primitivo.
+     * @return Array con los valores del vector.
+     */
+    public double[] toArray() {
+        return Arrays.copyOf(coef, size);
+    }
+
+    /**
+     * @brief Copia los coeficientes en un array destino con un salto entre posiciones.
+     *
+     * El elemento i se escribe en {@code destino[desde + i * paso]}, lo que permite volcar una
+     * columna dentro de una matriz almacenada por filas sin crear objetos intermedios.
+     *
+     * @param destino Array destino.
+     * @param desde Posición del primer elemento.
+     * @param paso Distancia entre dos elementos consecutivos en el destino.
+     */
+    public void copyTo(double[] destino, int desde, int paso) {
+        for (int i = 0; i < size; i++) {
+            destino[desde + i * paso] = coef[i];
+        }
+    }
+
+    /**
+     * @brief Vista de lista sobre los coeficientes del vector.
+     */
+    private class Vista extends AbstractList<Double> implements RandomAccess {
+
+        @Override
+        public Double get(int index) {
+            return Vector.this.get(index);
+        }
+
+        @Override
+        public Double set(int index, Double value) {
+            double anterior = Vector.this.get(index);
+            Vector.this.set(index, value);
+            return anterior;
+        }
+
+        @Override
+        public void add(int index, Double value) {
+            Objects.checkIndex(index, size + 1);
+            Vector.this.add(0.0);
+            System.arraycopy(coef, index, coef, index + 1, size - index - 1);
+            coef[index] = value;
+        }
+
+        @Override
+        public Double remove(int index) {
+            double anterior = Vector.this.get(index);
+            Vector.this.remove(index);
+            return anterior;
+        }
+
+        @Override
+        public void clear() {
+            Vector.this.clear();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
     }
 }
@@ -0,0 +1,139 @@
+package clasificacion;
+
+import datos.*;
+import vectores.Vector;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * @class ArbolKDTest
+ * @brief Pruebas unitarias para la clase {@link ArbolKD}.
+ *
+ * Se comprueba que el índice devuelve exactamente los mismos vecinos que una búsqueda
+ * exhaustiva con las distancias de {@link KNN}, con y sin pesos.
+ */
+class ArbolKDTest {
+
+    /**
+     * @brief Crea un dataset aleatorio con atributos cuantitativos y una clase final.
+     */
+    static Dataset datasetAleatorio(int filas, int columnas, long semilla) {
+        Random random = new Random(semilla);
+        List<Atributo> atributos = new ArrayList<>();
+        for (int j = 0; j < columnas; j++) {
+            Vector valores = new Vector();
+            for (int i = 0; i < filas; i++) {
+                // Valores discretos para forzar empates
+                valores.add(random.nextInt(20) / 4.0);
+            }
+            atributos.add(new Cuantitativo("x" + j, valores));
+        }
+        List<String> clases = new ArrayList<>();
+        for (int i = 0; i < filas; i++) {
+            clases.add(random.nextBoolean() ? "A" : "B");
+        }
+        atributos.add(new Cualitativo("clase", clases));
+        return new Dataset(atributos);
+    }
+
+    /**
+     * @brief Calcula las distancias de todas las filas con {@link KNN#calcularDistancia}.
+     */
+    static double[] distanciasExhaustivas(KNN knn, Dataset datos, Vector consulta) {
+        List<Double> pesos = new ArrayList<>();
+        for (Atributo atributo : datos.getAtributos()) {
+            pesos.add(atributo.getPeso());
+        }
+        double[] distancias = new double[datos.numeroCasos()];
+        for (int i = 0; i < datos.numeroCasos(); i++) {
+            distancias[i] = knn.calcularDistancia(datos.getInstance(i).getVector(), consulta, pesos);
+        }
+        return distancias;
+    }
+
+    /**
+     * @brief Comprueba que los vecinos son los k de menor distancia (desempate por índice).
+     */
+    static void comprobarVecinos(double[] distancias, Vecinos vecinos, int k) {
+        assertEquals(k, vecinos.size());
+        double peor = vecinos.getDistancia(k - 1);
+        int dentro = 0;
+        for (int i = 0; i < distancias.length; i++) {
+            if (distancias[i] < peor - 1e-9) dentro++;
+        }
+        assertTrue(dentro < k);
+        for (int i = 0; i < k; i++) {
+            assertEquals(distancias[vecinos.getIndice(i)], vecinos.getDistancia(i), 1e-9);
+            if (i > 0) assertTrue(vecinos.getDistancia(i - 1) <= vecinos.getDistancia(i));
+        }
+    }
+
+    /**
+     * @test Verifica el índice con las distancias manhattan y minkowski y pesos distintos.
+     */
+    @Test
+    void testBusquedaExactaConPesos() {
+        Dataset datos = datasetAleatorio(500, 4, 7);
+        datos.cambiarPeso(1, 0.5);
+        datos.cambiarPeso(2, 2.0);
+        Random random = new Random(3);
+        for (String tipo : List.of("manhattan", "minkowski")) {
+            KNN knn = new KNN(7, tipo);
+            ArbolKD arbol = new ArbolKD(new Caracteristicas(datos), new Metrica(tipo));
+            for (int q = 0; q < 20; q++) {
+                double[] consulta = {random.nextDouble() * 5, random.nextDouble() * 5, random.nextDouble() * 5, random.nextDouble() * 5};
+                double[] distancias = distanciasExhaustivas(knn, datos, new Vector(consulta));
+                comprobarVecinos(distancias, arbol.buscar(consulta, 7), 7);
+            }
+        }
+    }
+
+    /**
+     * @test Verifica el índice euclidiano con consultas que no aportan la última dimensión.
+     */
+    @Test
+    void testBusquedaEuclideaConsultaParcial() {
+        Dataset datos = datasetAleatorio(400, 3, 11);
+        datos.cambiarPeso(0, 3.0);
+        KNN knn = new KNN(5, "euclidiana");
+        ArbolKD arbol = new ArbolKD(new Caracteristicas(datos), new Metrica("euclidiana"));
+        Random random = new Random(5);
+        for (int q = 0; q < 20; q++) {
+            double[] consulta = {random.nextDouble() * 5, random.nextDouble() * 5};
+            double[] distancias = distanciasExhaustivas(knn, datos, new Vector(consulta));
+            comprobarVecinos(distancias, arbol.buscar(consulta, 5), 5);
+        }
+    }
+
+    /**
+     * @test Verifica que clasificar usa el índice solo para el dataset sobre el que se construyó.
+     */
+    @Test
+    void testClasificarConIndice() {
+        Dataset datos = datasetAleatorio(200, 2, 13);
+        KNN knn = new KNN(3, "manhattan");
+        assertFalse(knn.tieneIndice(datos));
+        knn.construirIndice(datos);
+        assertTrue(knn.tieneIndice(datos));
+        assertFalse(knn.tieneIndice(new Dataset(datos)));
+
+        String clase = knn.clasificar(datos, new Instancia(List.of(1.0, 2.0, "?")));
+        assertTrue(clase.equals("A") || clase.equals("B"));
+        assertThrows(IllegalArgumentException.class, () -> new ArbolKD(new Caracteristicas(datos), new Metrica("manhattan")).buscar(new double[3], 1));
+    }
+
+    /**
+     * @test Verifica que se devuelven todas las filas si k supera su número.
+     */
+    @Test
+    void testKMayorQueFilas() {
+        Dataset datos = datasetAleatorio(5, 2, 17);
+        ArbolKD arbol = new ArbolKD(new Caracteristicas(datos), new Metrica("euclidiana"));
+        assertEquals(5, arbol.size());
+        assertEquals(5, arbol.buscar(new double[] {0.0, 0.0}, 10).size());
+    }
+}
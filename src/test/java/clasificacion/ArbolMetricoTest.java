@@ -0,0 +1,58 @@
+package clasificacion;
+
+import datos.*;
+import vectores.Vector;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * @class ArbolMetricoTest
+ * @brief Pruebas unitarias para la clase {@link ArbolMetrico}.
+ *
+ * Se comprueba que el árbol métrico devuelve los mismos vecinos que una búsqueda exhaustiva
+ * con las distancias de {@link KNN}, también con muchas dimensiones y pesos.
+ */
+class ArbolMetricoTest {
+
+    /**
+     * @test Verifica la búsqueda exacta con 40 dimensiones para las tres distancias.
+     */
+    @Test
+    void testBusquedaExactaAltaDimension() {
+        Dataset datos = ArbolKDTest.datasetAleatorio(600, 40, 21);
+        for (int j = 0; j < 40; j += 3) {
+            datos.cambiarPeso(j, 0.25 * (j % 5));
+        }
+        Random random = new Random(8);
+        for (String tipo : List.of("euclidiana", "manhattan", "minkowski")) {
+            KNN knn = new KNN(10, tipo);
+            ArbolMetrico arbol = new ArbolMetrico(new Caracteristicas(datos), new Metrica(tipo));
+            // La euclidiana del recorrido lineal no usa la última dimensión de la consulta
+            int dimensiones = tipo.equals("euclidiana") ? 39 : 40;
+            for (int q = 0; q < 10; q++) {
+                double[] consulta = new double[dimensiones];
+                for (int j = 0; j < dimensiones; j++) consulta[j] = random.nextDouble() * 5;
+                double[] distancias = ArbolKDTest.distanciasExhaustivas(knn, datos, new Vector(consulta));
+                ArbolKDTest.comprobarVecinos(distancias, arbol.buscar(consulta, 10), 10);
+            }
+        }
+    }
+
+    /**
+     * @test Verifica que construirIndice elige el árbol métrico con muchas dimensiones
+     *       y que la clasificación coincide con la del recorrido lineal.
+     */
+    @Test
+    void testClasificarConArbolMetrico() {
+        Dataset datos = ArbolKDTest.datasetAleatorio(300, 30, 4);
+        KNN knn = new KNN(1, "manhattan");
+        Instancia nueva = datos.getInstance(17);
+        String lineal = knn.clasificar(datos, nueva);
+        knn.construirIndice(datos);
+        assertTrue(knn.tieneIndice(datos));
+        assertEquals(lineal, knn.clasificar(datos, nueva));
+    }
+}
@@ -0,0 +1,61 @@
+package clasificacion;
+
+import datos.*;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @class GrafoHNSWTest
+ * @brief Pruebas unitarias para la clase {@link GrafoHNSW}.
+ *
+ * Se comprueba la exhaustividad del grafo frente al recorrido lineal y el efecto de efSearch.
+ */
+class GrafoHNSWTest {
+
+    /**
+     * @brief Construye consultas a partir de filas de otro dataset, sin la clase.
+     */
+    private static List<Instancia> consultas(Dataset datos) {
+        List<Instancia> consultas = new ArrayList<>();
+        for (int i = 0; i < datos.numeroCasos(); i++) {
+            consultas.add(datos.getInstance(i));
+        }
+        return consultas;
+    }
+
+    /**
+     * @test Verifica que el recall es alto y no empeora al aumentar efSearch.
+     */
+    @Test
+    void testRecallSegunEfBusqueda() {
+        Dataset datos = ArbolKDTest.datasetAleatorio(1500, 8, 31);
+        List<Instancia> pruebas = consultas(ArbolKDTest.datasetAleatorio(30, 8, 32));
+        KNN knn = new KNN(10, "manhattan");
+        GrafoHNSW grafo = knn.construirIndiceAproximado(datos, 8, 100, 10);
+        assertTrue(knn.tieneIndice(datos));
+
+        double recallBajo = grafo.recall(datos, pruebas, 10);
+        grafo.setEfBusqueda(200);
+        double recallAlto = grafo.recall(datos, pruebas, 10);
+        assertTrue(recallAlto >= recallBajo);
+        assertTrue(recallAlto > 0.95, "recall = " + recallAlto);
+    }
+
+    /**
+     * @test Verifica que el vecino más cercano de una fila indexada es ella misma.
+     */
+    @Test
+    void testBuscarFilaIndexada() {
+        Dataset datos = ArbolKDTest.datasetAleatorio(300, 3, 5);
+        Caracteristicas caracteristicas = new Caracteristicas(datos);
+        GrafoHNSW grafo = new GrafoHNSW(caracteristicas, new Metrica("euclidiana"), 6, 50, 50, 1);
+        double[] consulta = {caracteristicas.get(42, 0), caracteristicas.get(42, 1), caracteristicas.get(42, 2)};
+        Vecinos vecinos = grafo.buscar(consulta, 3);
+        assertEquals(3, vecinos.size());
+        assertEquals(0.0, vecinos.getDistancia(0), 1e-12);
+        assertThrows(IllegalArgumentException.class, () -> grafo.setEfBusqueda(0));
+    }
+}
@@ -97,4 +97,110 @@ class KNNTest {
         assertEquals("Rojo", clase);
     }
 
+    /**
+     * @test Verifica que la selección de vecinos devuelve los k más cercanos con sus distancias.
+     */
+    @Test
+    void testSeleccionarVecinos() {
+        KNN knn = new KNN(2, "euclidiana");
+        Vector distancias = new Vector(List.of(5.0, 3.0, 1.0, 4.0, 1.0));
+        Vecinos vecinos = knn.seleccionarVecinos(distancias);
+        assertEquals(2, vecinos.size());
+        assertEquals(2, vecinos.getIndice(0));
+        assertEquals(4, vecinos.getIndice(1));
+        assertEquals(1.0, vecinos.getDistancia(1), 1e-12);
+    }
+
+    /**
+     * @test Verifica que getVecino vota con las instancias y distancias de los vecinos elegidos.
+     */
+    @Test
+    void testGetVecinoConVariosVecinos() {
+        KNN knn = new KNN(2, "euclidiana");
+        List<Instancia> candidatos = new ArrayList<>();
+        candidatos.add(new Instancia(new ArrayList<>(List.of(0.0, "Rojo"))));
+        candidatos.add(new Instancia(new ArrayList<>(List.of(9.0, "Verde"))));
+        candidatos.add(new Instancia(new ArrayList<>(List.of(1.0, "Verde"))));
+        Vector distancias = new Vector(List.of(0.5, 9.0, 0.6));
+        assertEquals("Rojo", knn.getVecino(candidatos, distancias));
+    }
+
+    /**
+     * @test Verifica que la búsqueda lineal con abandono temprano devuelve los vecinos exactos.
+     */
+    @Test
+    void testSeleccionarVecinosDataset() {
+        Dataset datos = ArbolKDTest.datasetAleatorio(300, 4, 2);
+        Instancia nueva = new Instancia(new ArrayList<>(List.of(1.0, 2.0, 3.0, 4.0)));
+        for (String tipo : List.of("euclidiana", "manhattan", "minkowski")) {
+            KNN knn = new KNN(6, tipo);
+            Vecinos esperado = knn.seleccionarVecinos(knn.getDistancias(datos, nueva));
+            Vecinos obtenido = knn.seleccionarVecinos(datos, nueva);
+            assertArrayEquals(esperado.getIndices(), obtenido.getIndices());
+            assertArrayEquals(esperado.getDistancias(), obtenido.getDistancias(), 1e-12);
+        }
+    }
+
+    /**
+     * @test Verifica la clasificación por lotes con y sin índice construido.
+     */
+    @Test
+    void testClasificarLote() {
+        Dataset datos = ArbolKDTest.datasetAleatorio(200, 3, 6);
+        List<Instancia> nuevas = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            nuevas.add(new Instancia(List.<Object>of(i / 4.0, 5 - i / 4.0, 1.0, "?")));
+        }
+        KNN knn = new KNN(4, "manhattan");
+        List<Prediccion> lineal = knn.clasificar(datos, nuevas);
+        knn.construirIndice(datos);
+        List<Prediccion> indexado = knn.clasificar(datos, nuevas);
+        assertEquals(20, lineal.size());
+        for (int q = 0; q < nuevas.size(); q++) {
+            double[] distancias = ArbolKDTest.distanciasExhaustivas(knn, datos, nuevas.get(q).getVector());
+            ArbolKDTest.comprobarVecinos(distancias, lineal.get(q).getVecinos(), 4);
+            ArbolKDTest.comprobarVecinos(distancias, indexado.get(q).getVecinos(), 4);
+            assertTrue(List.of("A", "B").contains(lineal.get(q).getClase()));
+        }
+    }
+
+    /**
+     * @test Verifica que cada dimensión usa el peso de su propia columna numérica aunque haya
+     * atributos cualitativos delante, igual con y sin índice.
+     */
+    @Test
+    void testPesosConCualitativoDelante() {
+        List<String> colores = new ArrayList<>();
+        List<Double> x = new ArrayList<>();
+        List<Double> y = new ArrayList<>();
+        List<String> clases = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            colores.add(i % 2 == 0 ? "Rojo" : "Azul");
+            x.add((double) (i % 6));
+            y.add((double) (i / 6));
+            clases.add(i % 3 == 0 ? "A" : "B");
+        }
+        List<Atributo> atributos = new ArrayList<>();
+        atributos.add(new Cualitativo("Color", colores));
+        atributos.add(new Cuantitativo("X", new Vector(x)));
+        atributos.add(new Cuantitativo("Y", new Vector(y)));
+        atributos.add(new Cualitativo("Clase", clases));
+        Dataset datos = new Dataset(atributos);
+        datos.cambiarPeso(0, 5.0);
+        datos.cambiarPeso(2, 3.0);
+
+        Instancia nueva = new Instancia(new ArrayList<>(List.of("Rojo", 2.5, 1.5, "?")));
+        KNN knn = new KNN(3, "manhattan");
+        Vecinos lineal = knn.seleccionarVecinos(datos, nueva);
+        for (int i = 0; i < lineal.size(); i++) {
+            int fila = lineal.getIndice(i);
+            double esperada = Math.abs(x.get(fila) - 2.5) + 3.0 * Math.abs(y.get(fila) - 1.5);
+            assertEquals(esperada, lineal.getDistancia(i), 1e-12);
+        }
+        String claseLineal = knn.clasificar(datos, nueva);
+        knn.construirIndice(datos);
+        Vecinos indexado = knn.clasificar(datos, List.of(nueva)).get(0).getVecinos();
+        assertArrayEquals(lineal.getDistancias(), indexado.getDistancias(), 1e-12);
+        assertEquals(claseLineal, knn.clasificar(datos, nueva));
+    }
 }
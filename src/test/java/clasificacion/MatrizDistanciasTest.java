@@ -0,0 +1,80 @@
+package clasificacion;
+
+import datos.*;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+/**
+ * @class MatrizDistanciasTest
+ * @brief Pruebas unitarias para la clase {@link MatrizDistancias}.
+ *
+ * Se comprueba la matriz empaquetada contra las distancias calculadas directamente y que los
+ * vecinos de cada fila, sin contarla, coinciden con los del modelo sin esa fila.
+ */
+class MatrizDistanciasTest {
+
+    /**
+     * @test Verifica que las distancias son simétricas, no dependen de los hilos y coinciden con la métrica.
+     */
+    @Test
+    void testDistancias() {
+        Dataset datos = ArbolKDTest.datasetAleatorio(101, 4, 8);
+        datos.cambiarPeso(2, 3.0);
+        for (String tipo : List.of("euclidiana", "manhattan", "minkowski")) {
+            ModeloKNN modelo = new ModeloKNN(datos, 5, tipo);
+            MatrizDistancias secuencial = new MatrizDistancias(modelo, 3, 1);
+            MatrizDistancias paralela = new MatrizDistancias(modelo, 3, 4);
+            Metrica metrica = modelo.getMetrica();
+            double[] valores = modelo.getValores();
+            assertEquals(101, secuencial.size());
+            for (int i = 0; i < 101; i++) {
+                assertEquals(0.0, secuencial.get(i, i));
+                for (int j = 0; j < 101; j++) {
+                    double suma = 0.0;
+                    for (int d = 0; d < 3; d++) suma += metrica.termino(valores[i * 4 + d] - valores[j * 4 + d]);
+                    assertEquals(metrica.raiz(suma), secuencial.get(i, j), 1e-12);
+                    assertEquals(secuencial.get(i, j), secuencial.get(j, i));
+                    assertEquals(secuencial.get(i, j), paralela.get(i, j));
+                }
+            }
+        }
+    }
+
+    /**
+     * @test Verifica que los vecinos de cada fila son los del modelo construido sin ella.
+     */
+    @Test
+    void testVecinosSinLaFila() {
+        Dataset datos = ArbolKDTest.datasetAleatorio(60, 3, 2);
+        ModeloKNN modelo = new ModeloKNN(datos, 6, "euclidiana");
+        MatrizDistancias matriz = new MatrizDistancias(modelo, 3, 2);
+        Fila fila = datos.cursor();
+        for (int i = 0; i < 60; i++) {
+            int[] resto = new int[59];
+            for (int j = 0, r = 0; j < 60; j++) {
+                if (j != i) resto[r++] = j;
+            }
+            double[] consulta = new double[3];
+            fila.mover(i).copiar(consulta);
+            Vecinos esperados = new ModeloKNN(datos, resto, 6, "euclidiana").vecinos(consulta);
+            Vecinos vecinos = matriz.vecinos(i, 6);
+            assertEquals(6, vecinos.size());
+            for (int v = 0; v < 6; v++) {
+                assertEquals(resto[esperados.getIndice(v)], vecinos.getIndice(v));
+                assertEquals(esperados.getDistancia(v), vecinos.getDistancia(v), 1e-9);
+            }
+        }
+    }
+
+    /**
+     * @test Verifica los errores de construcción.
+     */
+    @Test
+    void testParametrosNoValidos() {
+        ModeloKNN modelo = new ModeloKNN(ArbolKDTest.datasetAleatorio(10, 2, 1), 3, "manhattan");
+        assertThrows(IllegalArgumentException.class, () -> new MatrizDistancias(modelo, 3, 1));
+        assertThrows(IllegalArgumentException.class, () -> new MatrizDistancias(modelo, 2, 0));
+    }
+}
@@ -0,0 +1,129 @@
+package clasificacion;
+
+import datos.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * @class ModeloKNNDirectoTest
+ * @brief Pruebas unitarias para la clase {@link ModeloKNNDirecto}.
+ *
+ * Se comprueba que el modelo fuera del heap, construido desde un dataset o leyendo un archivo
+ * por bloques, devuelve los mismos vecinos, distancias y clases que un {@link ModeloKNN}, y
+ * que no se puede consultar una vez cerrado, ni siquiera mientras otro hilo lo cierra.
+ */
+class ModeloKNNDirectoTest {
+
+    @TempDir
+    Path carpeta;
+
+    /**
+     * @brief Compara los vecinos y las clases con los de un modelo en memoria.
+     */
+    private static void comprobarIgual(ModeloKNN esperado, ModeloKNNDirecto obtenido, int semillaConsultas) {
+        assertEquals(esperado.size(), obtenido.size());
+        assertEquals(esperado.getDimension(), obtenido.getDimension());
+        Random random = new Random(semillaConsultas);
+        for (int q = 0; q < 20; q++) {
+            double[] consulta = new double[esperado.getDimension()];
+            for (int j = 0; j < consulta.length; j++) consulta[j] = random.nextInt(20) / 4.0;
+            Vecinos a = esperado.vecinos(consulta);
+            Vecinos b = obtenido.vecinos(consulta);
+            assertArrayEquals(a.getIndices(), b.getIndices());
+            assertArrayEquals(a.getDistancias(), b.getDistancias());
+            assertEquals(esperado.getClase(esperado.votar(a, 3)), obtenido.getClase(obtenido.votar(b, 3)));
+        }
+    }
+
+    /**
+     * @test Verifica el resultado desde un dataset, con pesos, para las tres distancias.
+     */
+    @Test
+    void testIgualQueModeloEnMemoria() {
+        Dataset datos = ArbolKDTest.datasetAleatorio(300, 4, 2);
+        datos.cambiarPeso(1, 0.5);
+        for (String tipo : List.of("euclidiana", "manhattan", "minkowski")) {
+            try (ModeloKNNDirecto directo = new ModeloKNNDirecto(datos, 5, tipo)) {
+                comprobarIgual(new ModeloKNN(datos, 5, tipo), directo, 7);
+            }
+        }
+    }
+
+    /**
+     * @test Verifica la lectura por bloques de un archivo con segmentos pequeños.
+     */
+    @Test
+    void testLecturaPorBloquesYSegmentos() throws IOException {
+        Dataset datos = ArbolKDTest.datasetAleatorio(500, 3, 8);
+        datos.cambiarPeso(0, 2.0);
+        String binario = carpeta.resolve("datos" + FormatoBinario.EXTENSION).toString();
+        datos.writeBinario(binario);
+        ModeloKNN modelo = new ModeloKNN(datos, 4, "manhattan");
+        try (ModeloKNNDirecto directo = ModeloKNNDirecto.leer(binario, 4, "manhattan", 37, 64)) {
+            comprobarIgual(modelo, directo, 3);
+            for (int i = 0; i < datos.numeroCasos(); i++) {
+                assertEquals(modelo.getClase(modelo.getCodigo(i)), directo.getClase(directo.getCodigo(i)));
+            }
+        }
+        String csv = carpeta.resolve("datos.csv").toString();
+        datos.write(csv);
+        try (ModeloKNNDirecto directo = ModeloKNNDirecto.leer(csv, 4, "euclidiana")) {
+            comprobarIgual(new ModeloKNN(new Dataset(csv), 4, "euclidiana"), directo, 5);
+        }
+    }
+
+    /**
+     * @test Verifica los errores de construcción y de uso tras cerrar el modelo.
+     */
+    @Test
+    void testErroresYCierre() {
+        Dataset datos = ArbolKDTest.datasetAleatorio(10, 2, 1);
+        assertThrows(IllegalArgumentException.class, () -> new ModeloKNNDirecto(datos, 0, "euclidiana"));
+        ModeloKNNDirecto directo = new ModeloKNNDirecto(datos, 3, "euclidiana");
+        assertThrows(IllegalArgumentException.class, () -> directo.vecinos(new double[3]));
+        assertNotNull(directo.clasificar(new double[2]));
+        directo.close();
+        assertTrue(directo.isCerrado());
+        assertThrows(IllegalStateException.class, () -> directo.clasificar(new double[2]));
+        assertThrows(IllegalStateException.class, () -> directo.getCodigo(0));
+        directo.close();
+    }
+
+    /**
+     * @test Verifica que cerrar el modelo durante las consultas solo produce resultados
+     * correctos o IllegalStateException.
+     */
+    @Test
+    void testCierreDuranteConsultas() throws InterruptedException {
+        Dataset datos = ArbolKDTest.datasetAleatorio(2000, 3, 4);
+        ModeloKNN modelo = new ModeloKNN(datos, 3, "euclidiana");
+        ModeloKNNDirecto directo = new ModeloKNNDirecto(datos, 3, "euclidiana");
+        double[] consulta = {1.0, 2.0, 3.0};
+        int[] esperados = modelo.vecinos(consulta).getIndices();
+        List<Throwable> errores = new CopyOnWriteArrayList<>();
+        Thread[] hilos = new Thread[4];
+        for (int h = 0; h < hilos.length; h++) {
+            hilos[h] = new Thread(() -> {
+                try {
+                    while (true) assertArrayEquals(esperados, directo.vecinos(consulta).getIndices());
+                } catch (IllegalStateException e) {
+                    // El modelo se ha cerrado
+                } catch (Throwable e) {
+                    errores.add(e);
+                }
+            });
+            hilos[h].start();
+        }
+        Thread.sleep(50);
+        directo.close();
+        for (Thread hilo : hilos) hilo.join();
+        assertEquals(List.of(), errores);
+    }
+}
@@ -0,0 +1,91 @@
+package clasificacion;
+
+import datos.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * @class ModeloKNNExternoTest
+ * @brief Pruebas unitarias para la clase {@link ModeloKNNExterno}.
+ *
+ * Se comprueba que el recorrido por bloques de un archivo CSV o binario devuelve los mismos
+ * vecinos, distancias y clases que un {@link ModeloKNN} con el dataset entero en memoria.
+ */
+class ModeloKNNExternoTest {
+
+    @TempDir
+    Path carpeta;
+
+    /**
+     * @brief Compara los vecinos y las clases con los de un modelo en memoria.
+     */
+    private static void comprobarIgual(ModeloKNN modelo, List<Prediccion> predicciones, double[][] consultas) {
+        Vecinos[] esperados = modelo.vecinos(consultas);
+        for (int q = 0; q < consultas.length; q++) {
+            Vecinos esperado = modelo.vecinos(consultas[q]);
+            Vecinos obtenido = predicciones.get(q).getVecinos();
+            assertArrayEquals(esperado.getIndices(), obtenido.getIndices());
+            assertArrayEquals(esperado.getDistancias(), obtenido.getDistancias());
+            assertEquals(esperados[q].size(), obtenido.size());
+            assertEquals(modelo.getClase(modelo.votar(esperado, 5)), predicciones.get(q).getClase());
+        }
+    }
+
+    /**
+     * @brief Crea consultas aleatorias.
+     */
+    private static double[][] consultas(int n, int dimension, long semilla) {
+        Random random = new Random(semilla);
+        double[][] consultas = new double[n][dimension];
+        for (double[] consulta : consultas) {
+            for (int j = 0; j < dimension; j++) consulta[j] = random.nextInt(20) / 4.0;
+        }
+        return consultas;
+    }
+
+    /**
+     * @test Verifica el resultado con bloques pequeños sobre CSV y binario, con pesos y empates.
+     */
+    @Test
+    void testIgualQueModeloEnMemoria() throws IOException {
+        Dataset datos = ArbolKDTest.datasetAleatorio(500, 4, 9);
+        datos.cambiarPeso(2, 0.5);
+        String binario = carpeta.resolve("datos" + FormatoBinario.EXTENSION).toString();
+        datos.writeBinario(binario);
+        String csv = carpeta.resolve("datos.csv").toString();
+        datos.write(csv);
+        double[][] consultas = consultas(20, 4, 4);
+
+        for (String tipo : List.of("euclidiana", "manhattan", "minkowski")) {
+            ModeloKNN modelo = new ModeloKNN(datos, 6, tipo);
+            comprobarIgual(modelo, new ModeloKNNExterno(binario, 6, tipo, 37).clasificar(consultas, 5), consultas);
+            comprobarIgual(modelo, new ModeloKNNExterno(binario, 6, tipo, 1000).clasificar(consultas, 5), consultas);
+        }
+        // El CSV no guarda los pesos
+        Dataset sinPesos = new Dataset(csv);
+        ModeloKNN modelo = new ModeloKNN(sinPesos, 3, "euclidiana");
+        comprobarIgual(modelo, new ModeloKNNExterno(csv, 3, "euclidiana", 64).clasificar(consultas, 5), consultas);
+        assertEquals(modelo.clasificar(consultas[0]), new ModeloKNNExterno(csv, 3, "euclidiana", 64).clasificar(consultas[0]));
+    }
+
+    /**
+     * @test Verifica los errores de construcción y de consulta.
+     */
+    @Test
+    void testErrores() throws IOException {
+        String csv = carpeta.resolve("datos.csv").toString();
+        ArbolKDTest.datasetAleatorio(10, 2, 1).write(csv);
+        assertThrows(IllegalArgumentException.class, () -> new ModeloKNNExterno(csv, 0, "euclidiana"));
+        assertThrows(IllegalArgumentException.class, () -> new ModeloKNNExterno(csv, 1, "euclidiana", 0));
+        ModeloKNNExterno modelo = new ModeloKNNExterno(csv, 3, "euclidiana", 4);
+        assertThrows(IllegalArgumentException.class, () -> modelo.clasificar(new double[3]));
+        assertThrows(IllegalArgumentException.class, () -> modelo.clasificar(new double[][]{new double[2], new double[1]}));
+        assertThrows(IOException.class, () -> new ModeloKNNExterno("no_existe.csv", 3, "euclidiana").clasificar(new double[2]));
+    }
+}
@@ -0,0 +1,155 @@
+package clasificacion;
+
+import datos.*;
+import vectores.Vector;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * @class ModeloKNNTest
+ * @brief Pruebas unitarias para la clase {@link ModeloKNN}.
+ *
+ * Se comprueba que el modelo preparado devuelve los mismos vecinos y clases que el
+ * recorrido lineal de {@link KNN}, y que puede compartirse entre hilos.
+ */
+class ModeloKNNTest {
+
+    /**
+     * @test Verifica que los vecinos coinciden con la búsqueda exhaustiva para las tres distancias, con pesos.
+     */
+    @Test
+    void testVecinosIgualQueRecorridoLineal() {
+        Dataset datos = ArbolKDTest.datasetAleatorio(400, 6, 5);
+        datos.cambiarPeso(1, 0.5);
+        datos.cambiarPeso(4, 2.0);
+        Random random = new Random(3);
+        for (String tipo : List.of("euclidiana", "manhattan", "minkowski")) {
+            KNN knn = new KNN(7, tipo);
+            ModeloKNN modelo = knn.ajustar(datos);
+            assertEquals(400, modelo.size());
+            assertEquals(6, modelo.getDimension());
+            for (int q = 0; q < 10; q++) {
+                double[] consulta = new double[5];
+                for (int j = 0; j < consulta.length; j++) consulta[j] = random.nextDouble() * 5;
+                double[] distancias = ArbolKDTest.distanciasExhaustivas(knn, datos, new Vector(consulta));
+                ArbolKDTest.comprobarVecinos(distancias, modelo.vecinos(consulta), 7);
+            }
+        }
+    }
+
+    /**
+     * @test Verifica la clase asignada en un caso sin empates y los errores de construcción y consulta.
+     */
+    @Test
+    void testClasificar() {
+        List<Atributo> atributos = new ArrayList<>();
+        atributos.add(new Cuantitativo("x", new Vector(new double[]{0.0, 0.1, 5.0, 5.1})));
+        atributos.add(new Cuantitativo("y", new Vector(new double[]{0.0, 0.0, 0.0, 0.0})));
+        atributos.add(new Cualitativo("clase", List.of("A", "A", "B", "B")));
+        Dataset datos = new Dataset(atributos);
+        ModeloKNN modelo = new ModeloKNN(datos, 2, "euclidiana");
+        assertEquals("A", modelo.clasificar(new double[]{0.2}));
+        assertEquals("B", modelo.clasificar(new Instancia(List.<Object>of(4.9, 0.0, "?"))));
+        assertEquals(new KNN(2, "euclidiana").clasificar(datos, new double[]{4.9}), modelo.clasificar(new double[]{4.9}));
+        assertEquals(2, modelo.nCodigos());
+        assertEquals("B", modelo.getClase(modelo.getCodigo(3)));
+
+        assertThrows(IllegalArgumentException.class, () -> new ModeloKNN(datos, 0, "euclidiana"));
+        assertThrows(IllegalArgumentException.class, () -> modelo.vecinos(new double[3]));
+    }
+
+    /**
+     * @test Verifica que varios hilos pueden consultar el mismo modelo a la vez.
+     */
+    @Test
+    void testConcurrente() throws Exception {
+        Dataset datos = ArbolKDTest.datasetAleatorio(300, 4, 9);
+        ModeloKNN modelo = new ModeloKNN(datos, 5, "manhattan");
+        double[][] consultas = new double[50][3];
+        Random random = new Random(1);
+        for (double[] consulta : consultas) {
+            for (int j = 0; j < consulta.length; j++) consulta[j] = random.nextDouble() * 5;
+        }
+        ExecutorService hilos = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Vecinos>> resultados = new ArrayList<>();
+            for (double[] consulta : consultas) {
+                resultados.add(hilos.submit(() -> modelo.vecinos(consulta)));
+            }
+            for (int q = 0; q < consultas.length; q++) {
+                Vecinos esperados = modelo.vecinos(consultas[q]);
+                assertArrayEquals(esperados.getIndices(), resultados.get(q).get().getIndices());
+            }
+        } finally {
+            hilos.shutdown();
+        }
+    }
+
+    /**
+     * @test Verifica que la búsqueda por lotes devuelve los mismos vecinos que la exhaustiva,
+     * con más consultas y filas que un bloque, y que rechaza lotes de longitudes distintas.
+     */
+    @Test
+    void testLotes() {
+        Dataset datos = ArbolKDTest.datasetAleatorio(1500, 5, 12);
+        datos.cambiarPeso(2, 2.0);
+        Random random = new Random(4);
+        double[][] consultas = new double[70][4];
+        for (double[] consulta : consultas) {
+            for (int j = 0; j < consulta.length; j++) consulta[j] = random.nextDouble() * 5;
+        }
+        for (String tipo : List.of("euclidiana", "manhattan", "minkowski")) {
+            KNN knn = new KNN(6, tipo);
+            ModeloKNN modelo = knn.ajustar(datos);
+            List<Prediccion> predicciones = modelo.clasificar(consultas);
+            assertEquals(consultas.length, predicciones.size());
+            for (int q = 0; q < consultas.length; q++) {
+                double[] distancias = ArbolKDTest.distanciasExhaustivas(knn, datos, new Vector(consultas[q]));
+                Vecinos vecinos = predicciones.get(q).getVecinos();
+                ArbolKDTest.comprobarVecinos(distancias, vecinos, 6);
+                assertTrue(List.of("A", "B").contains(predicciones.get(q).getClase()));
+            }
+        }
+        assertEquals(0, new ModeloKNN(datos, 3, "euclidiana").vecinos(new double[0][]).length);
+        assertThrows(IllegalArgumentException.class, () -> new ModeloKNN(datos, 3, "euclidiana").vecinos(new double[][]{{1.0}, {1.0, 2.0}}));
+    }
+
+    /**
+     * @test Verifica que, con valores no enteros y filas repetidas, la búsqueda por lotes
+     * devuelve exactamente los mismos vecinos, distancias y empates que consultar una a una.
+     */
+    @Test
+    void testLotesIgualQueConsultasSueltas() {
+        Random random = new Random(9);
+        List<Atributo> atributos = new ArrayList<>();
+        for (int j = 0; j < 3; j++) {
+            Vector valores = new Vector();
+            for (int i = 0; i < 600; i++) valores.add(random.nextInt(4) * 0.1 + 1 / 3.0);
+            atributos.add(new Cuantitativo("x" + j, valores));
+        }
+        List<String> clases = new ArrayList<>();
+        for (int i = 0; i < 600; i++) clases.add(random.nextBoolean() ? "A" : "B");
+        atributos.add(new Cualitativo("clase", clases));
+        Dataset datos = new Dataset(atributos);
+        double[][] consultas = new double[40][3];
+        for (double[] consulta : consultas) {
+            for (int j = 0; j < consulta.length; j++) consulta[j] = random.nextInt(4) * 0.1 + 1 / 3.0;
+        }
+        for (String tipo : List.of("euclidiana", "manhattan", "minkowski")) {
+            ModeloKNN modelo = new ModeloKNN(datos, 7, tipo);
+            Vecinos[] lote = modelo.vecinos(consultas);
+            for (int q = 0; q < consultas.length; q++) {
+                Vecinos suelta = modelo.vecinos(consultas[q]);
+                assertArrayEquals(suelta.getIndices(), lote[q].getIndices());
+                assertArrayEquals(suelta.getDistancias(), lote[q].getDistancias());
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package clasificacion;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @class VecinosTest
+ * @brief Pruebas unitarias para las clases {@link Vecinos} y {@link MonticuloVecinos}.
+ *
+ * Se comprueba el orden, el umbral y el desempate por índice del montículo acotado.
+ */
+class VecinosTest {
+
+    /**
+     * @test Verifica el orden y el umbral del montículo acotado.
+     */
+    @Test
+    void testMonticuloAcotado() {
+        MonticuloVecinos monticulo = new MonticuloVecinos(2);
+        assertEquals(Double.POSITIVE_INFINITY, monticulo.umbral());
+        assertTrue(monticulo.ofrecer(3.0, 0));
+        assertTrue(monticulo.ofrecer(1.0, 1));
+        assertTrue(monticulo.lleno());
+        assertEquals(3.0, monticulo.umbral());
+        assertFalse(monticulo.ofrecer(3.0, 2));
+        assertTrue(monticulo.ofrecer(2.0, 3));
+        Vecinos vecinos = monticulo.extraer();
+        assertArrayEquals(new int[] {1, 3}, vecinos.getIndices());
+        assertEquals(0, monticulo.size());
+        assertThrows(IllegalArgumentException.class, () -> new MonticuloVecinos(0));
+    }
+}
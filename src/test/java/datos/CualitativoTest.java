@@ -100,4 +100,37 @@ public class CualitativoTest {
         c.clear();
         assertTrue(c.getValores().isEmpty());
     }
+
+    /**
+     * @test Verifica la codificación con diccionario.
+     *
+     * Comprueba que cada valor recibe un código estable, que las cuentas se actualizan al
+     * borrar y modificar valores y que la vista de {@code getValores} refleja los cambios.
+     */
+    @Test
+    void testCodificacion() {
+        Cualitativo c = new Cualitativo("Color", List.of("Rojo", "Azul", "Rojo", "Verde"));
+        assertEquals(3, c.nCodigos());
+        assertEquals(0, c.getCodigo(0));
+        assertEquals(1, c.getCodigo(1));
+        assertEquals(0, c.getCodigo(2));
+        assertEquals(0, c.codigo("Rojo"));
+        assertEquals(-1, c.codigo("Negro"));
+        assertEquals("Verde", c.valor(2));
+        assertEquals(List.of(0.5, 0.25, 0.25), c.frecuencia());
+
+        c.delete(1);
+        assertEquals(2, c.nClases());
+        assertEquals(List.of("Rojo", "Verde"), c.clases());
+        assertEquals(List.of("Rojo", "Rojo", "Verde"), c.getValores());
+
+        c.getValores().set(2, "Azul");
+        c.getValores().add(0, "Negro");
+        assertEquals(List.of("Negro", "Rojo", "Rojo", "Azul"), c.getValores());
+        // Las clases siguen el orden de aparición en las filas, no el del diccionario
+        assertEquals(List.of("Negro", "Rojo", "Azul"), c.clases());
+        assertEquals(List.of(0.25, 0.5, 0.25), c.frecuencia());
+        assertEquals(3, c.nClases());
+        assertEquals(4, c.size());
+    }
 }
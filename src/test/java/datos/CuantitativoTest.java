@@ -120,4 +120,84 @@ public class CuantitativoTest {
         c.clear();
         assertEquals(0, c.getValores().size());
     }
+
+    /**
+     * @test Verifica los accesos sin conversión a objeto: {@code getDouble}, {@code toArray} y {@code copyTo}.
+     */
+    @Test
+    void testAccesoPrimitivo() {
+        Cuantitativo c = new Cuantitativo("Altura");
+        c.add(1.8);
+        c.add(1.9);
+        assertEquals(1.9, c.getDouble(1));
+        assertArrayEquals(new double[] {1.8, 1.9}, c.toArray());
+        double[] destino = new double[4];
+        c.copyTo(destino, 0, 2);
+        assertArrayEquals(new double[] {1.8, 0.0, 1.9, 0.0}, destino);
+    }
+
+    /**
+     * @test Verifica que los estadísticos siguen a los valores al añadir, borrar y cambiar
+     * valores, también cuando se cambian directamente sobre el {@link Vector}.
+     */
+    @Test
+    void testResumenIncremental() {
+        Cuantitativo c = new Cuantitativo("X");
+        assertTrue(Double.isNaN(c.media()));
+        assertEquals(0.0, c.desviacion());
+        assertThrows(IndexOutOfBoundsException.class, c::minimo);
+
+        double[] valores = {4.0, -1.5, 9.25, 3.0, 3.0, 7.5};
+        for (double v : valores) {
+            c.add(v);
+            comprobarResumen(c);
+        }
+        c.delete(2);
+        comprobarResumen(c);
+        c.getValores().set(0, 20.0);
+        comprobarResumen(c);
+        c.getValores().getValores().add(1, -8.0);
+        comprobarResumen(c);
+        c.setValores(new Vector(new double[] {2.0, 6.0}));
+        assertEquals(4.0, c.media());
+        assertEquals(2.0, c.desviacion());
+        c.clear();
+        assertTrue(Double.isNaN(c.media()));
+    }
+
+    /**
+     * @brief Compara los estadísticos con los calculados recorriendo los valores.
+     */
+    private static void comprobarResumen(Cuantitativo c) {
+        double[] valores = c.toArray();
+        double minimo = Double.POSITIVE_INFINITY;
+        double maximo = Double.NEGATIVE_INFINITY;
+        double suma = 0.0;
+        for (double v : valores) {
+            minimo = Math.min(minimo, v);
+            maximo = Math.max(maximo, v);
+            suma += v;
+        }
+        double media = suma / valores.length;
+        double cuadrados = 0.0;
+        for (double v : valores) cuadrados += (v - media) * (v - media);
+        assertEquals(minimo, c.minimo());
+        assertEquals(maximo, c.maximo());
+        assertEquals(media, c.media(), 1e-12);
+        assertEquals(Math.sqrt(cuadrados / valores.length), c.desviacion(), 1e-12);
+    }
+
+    /**
+     * @test Verifica que la normalización lleva los valores a [0, 1] como {@link Vector#normalize()}.
+     */
+    @Test
+    void testNormalizacion() {
+        Cuantitativo c = new Cuantitativo("X", new Vector(List.of(2.0, 4.0, 10.0)));
+        Vector esperado = new Vector(c.getValores());
+        esperado.normalize();
+        c.normalizacion();
+        assertTrue(esperado.equals(c.getValores()));
+        assertEquals(0.0, c.minimo());
+        assertEquals(1.0, c.maximo());
+    }
 }
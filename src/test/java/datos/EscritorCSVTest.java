@@ -0,0 +1,92 @@
+package datos;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import vectores.Vector;
+
+/**
+ * @class EscritorCSVTest
+ * @brief Pruebas unitarias para la clase {@link EscritorCSV}.
+ *
+ * Comprueba que lo escrito se vuelve a leer con {@link LectorCSV} exactamente igual y que los
+ * números tienen el mismo texto que con {@link Double#toString}.
+ */
+public class EscritorCSVTest {
+
+    /**
+     * @brief Escribe un dataset en memoria.
+     */
+    private static String escribir(Dataset datos) throws IOException {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        new EscritorCSV().escribir(datos, salida);
+        return salida.toString(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @test Verifica que los números se leen de nuevo bit a bit iguales.
+     */
+    @Test
+    void testNumerosIdaYVuelta() throws IOException {
+        Random aleatorio = new Random(11);
+        double[] valores = new double[5000];
+        for (int i = 0; i < valores.length; ++i) {
+            switch (i % 5) {
+                case 0: valores[i] = aleatorio.nextGaussian(); break;
+                case 1: valores[i] = Math.round(aleatorio.nextDouble() * 1e5) / 1000.0; break;
+                case 2: valores[i] = Double.longBitsToDouble(aleatorio.nextLong()); break;
+                case 3: valores[i] = aleatorio.nextInt(2000000) - 1000000; break;
+                default: valores[i] = aleatorio.nextDouble() * Math.pow(10, aleatorio.nextInt(20) - 10);
+            }
+        }
+        valores[0] = -0.0;
+        valores[1] = Double.NaN;
+        valores[2] = Double.NEGATIVE_INFINITY;
+        valores[3] = 0.001;
+        valores[4] = 9999999.999999998;
+
+        List<Atributo> atributos = new ArrayList<>();
+        atributos.add(new Cuantitativo("x", new Vector(valores)));
+        String csv = escribir(new Dataset(atributos));
+        List<Atributo> leidos = new LectorCSV().leer(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+        double[] obtenidos = ((Cuantitativo) leidos.get(0)).toArray();
+        for (int i = 0; i < valores.length; ++i) {
+            assertEquals(Double.doubleToLongBits(valores[i]), Double.doubleToLongBits(obtenidos[i]), "fila " + i);
+        }
+        String[] lineas = csv.split("\n");
+        assertEquals("-0.0", lineas[1]);
+        assertEquals("0.001", lineas[4]);
+        for (int i = 0; i < valores.length; i += 5) {
+            assertEquals(Double.toString(valores[i + 1]), lineas[i + 2]);
+        }
+    }
+
+    /**
+     * @test Verifica las comillas en los textos y que el dataset iris se escribe igual que con
+     * {@link Dataset#toString()}.
+     */
+    @Test
+    void testTextoEIris() throws IOException {
+        List<Atributo> atributos = new ArrayList<>();
+        atributos.add(new Cualitativo("nombre, completo", List.of("Pérez, \"Ana\"", "dos\nlíneas", "c")));
+        atributos.add(new Cuantitativo("x", new Vector(new double[]{1.5, 2, -0.25})));
+        Dataset datos = new Dataset(atributos);
+        String csv = escribir(datos);
+        assertEquals("\"nombre, completo\",x\n\"Pérez, \"\"Ana\"\"\",1.5\n\"dos\nlíneas\",2.0\nc,-0.25\n", csv);
+        List<Atributo> leidos = new LectorCSV().leer(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(((Cualitativo) atributos.get(0)).getValores(), ((Cualitativo) leidos.get(0)).getValores());
+
+        Dataset iris = new Dataset("iris.csv");
+        assertEquals(iris.toString(), escribir(iris));
+        assertEquals("", escribir(new Dataset()));
+    }
+}
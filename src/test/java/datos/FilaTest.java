@@ -0,0 +1,72 @@
+package datos;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import vectores.Vector;
+
+/**
+ * @class FilaTest
+ * @brief Pruebas unitarias para el cursor {@link Fila}.
+ *
+ * Comprueba que el cursor devuelve los mismos valores que {@link Dataset#getInstance(int)}
+ * sin copiar las filas.
+ */
+public class FilaTest {
+
+    /**
+     * @brief Crea un dataset con una columna cualitativa intermedia y la clase al final.
+     * @return Dataset de ejemplo.
+     */
+    private Dataset crearDataset() {
+        List<Atributo> atributos = new ArrayList<>();
+        atributos.add(new Cuantitativo("Alto", new Vector(new double[]{1.0, 2.0, 3.0})));
+        atributos.add(new Cualitativo("Forma", List.of("a", "b", "a")));
+        atributos.add(new Cuantitativo("Ancho", new Vector(new double[]{4.0, 5.0, 6.0})));
+        atributos.add(new Cualitativo("Clase", List.of("X", "Y", "X")));
+        return new Dataset(atributos);
+    }
+
+    /**
+     * @test Verifica que las características y la clase coinciden con las de {@code getInstance}.
+     */
+    @Test
+    void testCoincideConGetInstance() {
+        Dataset datos = crearDataset();
+        Fila fila = datos.cursor();
+        assertEquals(3, fila.size());
+        assertEquals(2, fila.dimension());
+        for (int i = 0; i < fila.size(); ++i) {
+            Instancia instancia = datos.getInstance(i);
+            Vector vector = instancia.getVector();
+            fila.mover(i);
+            assertEquals(i, fila.getIndice());
+            for (int j = 0; j < fila.dimension(); ++j) {
+                assertEquals(vector.get(j), fila.get(j));
+            }
+            assertEquals(instancia.getClase(), fila.getClase());
+            assertEquals(datos.get(3).getValor(i), fila.columnaClase().valor(fila.getCodigo()));
+        }
+        assertArrayEquals(new double[]{2.0}, fila.mover(1).copiar(new double[1]));
+    }
+
+    /**
+     * @test Verifica los errores por índice fuera de rango y por clase no cualitativa.
+     */
+    @Test
+    void testErrores() {
+        Fila fila = crearDataset().cursor();
+        assertThrows(IndexOutOfBoundsException.class, () -> fila.mover(3));
+
+        List<Atributo> atributos = new ArrayList<>();
+        atributos.add(new Cuantitativo("A", new Vector(new double[]{1.0})));
+        atributos.add(new Cuantitativo("B", new Vector(new double[]{2.0})));
+        Fila numerica = new Dataset(atributos).cursor().mover(0);
+        assertEquals(1, numerica.dimension());
+        assertThrows(IllegalStateException.class, numerica::getCodigo);
+    }
+}
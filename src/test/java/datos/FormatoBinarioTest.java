@@ -0,0 +1,102 @@
+package datos;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import procesamiento.Normalizacion;
+
+/**
+ * @class FormatoBinarioTest
+ * @brief Pruebas unitarias para la clase {@link FormatoBinario}.
+ *
+ * Comprueba que un dataset escrito en binario se lee con los mismos atributos, pesos, códigos
+ * y estado de preprocesado, y que las columnas proyectadas se pueden modificar.
+ */
+public class FormatoBinarioTest {
+
+    @TempDir
+    Path carpeta;
+
+    /**
+     * @test Verifica que escribir y leer el dataset iris conserva todos sus datos.
+     */
+    @Test
+    void testIdaYVuelta() throws IOException {
+        Dataset iris = new Dataset("iris.csv");
+        iris.cambiarPeso(0, 2.5);
+        iris.setPreprocesado(2);
+        String archivo = carpeta.resolve("iris" + FormatoBinario.EXTENSION).toString();
+        iris.writeBinario(archivo);
+
+        Dataset leido = new Dataset();
+        leido.readBinario(archivo);
+        assertEquals(2, leido.getPreprocesado());
+        assertEquals(iris.nombreAtributos(), leido.nombreAtributos());
+        assertEquals(iris.numeroCasos(), leido.numeroCasos());
+        assertEquals(iris.getPesos(), leido.getPesos());
+        for (int j = 0; j < iris.numeroAtributos(); ++j) {
+            Atributo esperado = iris.get(j);
+            Atributo obtenido = leido.get(j);
+            assertEquals(esperado instanceof Cuantitativo, obtenido instanceof Cuantitativo);
+            if (esperado instanceof Cuantitativo) {
+                Cuantitativo a = (Cuantitativo) esperado;
+                Cuantitativo b = (Cuantitativo) obtenido;
+                assertArrayEquals(a.toArray(), b.toArray());
+                assertEquals(a.maximo(), b.maximo());
+                assertEquals(a.desviacion(), b.desviacion(), 1e-12);
+            } else {
+                assertEquals(((Cualitativo) esperado).getValores(), ((Cualitativo) obtenido).getValores());
+                assertEquals(((Cualitativo) esperado).clases(), ((Cualitativo) obtenido).clases());
+            }
+        }
+        assertEquals(iris.toString(), leido.toString());
+    }
+
+    /**
+     * @test Verifica que las columnas proyectadas pasan a memoria al modificarse y que una
+     * vista se escribe con sus filas.
+     */
+    @Test
+    void testModificacionYVistas() throws IOException {
+        Dataset iris = new Dataset("iris.csv");
+        String archivo = carpeta.resolve("vista.knnb").toString();
+        new VistaDataset(iris, new int[]{149, 0, 75}).writeBinario(archivo);
+
+        Dataset leido = new Dataset();
+        leido.readBinario(archivo);
+        assertEquals(3, leido.numeroCasos());
+        Cuantitativo primera = (Cuantitativo) leido.get(0);
+        assertEquals(((Cuantitativo) iris.get(0)).getDouble(149), primera.getDouble(0));
+
+        leido.add(List.of("1.0", "2.0", "3.0", "4.0", "Iris-setosa"));
+        leido.delete(0);
+        assertEquals(3, leido.numeroCasos());
+        assertEquals(1.0, primera.getDouble(2));
+        assertEquals(((Cuantitativo) iris.get(0)).getDouble(0), primera.getDouble(0));
+
+        Dataset otro = new Dataset();
+        otro.readBinario(archivo);
+        List<Atributo> normalizados = new Normalizacion().procesar(otro);
+        assertEquals(0.0, ((Cuantitativo) normalizados.get(0)).minimo(), 1e-12);
+        assertEquals(1.0, ((Cuantitativo) normalizados.get(0)).maximo(), 1e-12);
+    }
+
+    /**
+     * @test Verifica que un archivo que no tiene el formato se rechaza.
+     */
+    @Test
+    void testArchivoNoValido() throws IOException {
+        Path archivo = carpeta.resolve("malo.knnb");
+        Files.writeString(archivo, "x,y\n1,2\n");
+        assertThrows(IOException.class, () -> new Dataset().readBinario(archivo.toString()));
+        Files.write(archivo, new byte[3]);
+        assertThrows(IOException.class, () -> new Dataset().readBinario(archivo.toString()));
+    }
+}
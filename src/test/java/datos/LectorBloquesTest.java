@@ -0,0 +1,81 @@
+package datos;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * @class LectorBloquesTest
+ * @brief Pruebas unitarias para la clase {@link LectorBloques}.
+ *
+ * Comprueba que los bloques de un CSV y de un archivo binario, puestos uno detrás de otro,
+ * tienen los mismos valores que el dataset leído entero.
+ */
+public class LectorBloquesTest {
+
+    @TempDir
+    Path carpeta;
+
+    /**
+     * @brief Recorre un archivo por bloques y compara cada fila con el dataset completo.
+     */
+    private static void comprobarBloques(Dataset completo, LectorBloques bloques, int filasBloque) throws IOException {
+        int fila = 0;
+        Dataset bloque;
+        while ((bloque = bloques.siguiente()) != null) {
+            assertTrue(bloque.numeroCasos() <= filasBloque);
+            assertTrue(bloque.numeroCasos() > 0);
+            for (int i = 0; i < bloque.numeroCasos(); ++i, ++fila) {
+                for (int j = 0; j < completo.numeroAtributos(); ++j) {
+                    assertEquals(completo.get(j).getValor(fila), bloque.get(j).getValor(i));
+                    assertEquals(completo.get(j).getPeso(), bloque.get(j).getPeso());
+                }
+            }
+            assertEquals(fila, bloques.getFila());
+        }
+        assertEquals(completo.numeroCasos(), fila);
+        assertNull(bloques.siguiente());
+    }
+
+    /**
+     * @test Verifica los bloques de iris en CSV y en binario.
+     */
+    @Test
+    void testBloques() throws IOException {
+        Dataset iris = new Dataset("iris.csv");
+        try (LectorBloques bloques = LectorBloques.abrir("iris.csv", 16)) {
+            comprobarBloques(iris, bloques, 16);
+        }
+        try (LectorBloques bloques = LectorBloques.csv("iris.csv", ',', 1)) {
+            comprobarBloques(iris, bloques, 1);
+        }
+        iris.cambiarPeso(1, 3.0);
+        String binario = carpeta.resolve("iris" + FormatoBinario.EXTENSION).toString();
+        iris.writeBinario(binario);
+        try (LectorBloques bloques = LectorBloques.abrir(binario, 40)) {
+            comprobarBloques(iris, bloques, 40);
+        }
+    }
+
+    /**
+     * @test Verifica un CSV con solo cabecera y los errores.
+     */
+    @Test
+    void testCasosLimite() throws IOException {
+        Path cabecera = carpeta.resolve("cabecera.csv");
+        Files.write(cabecera, "a,b\n".getBytes(StandardCharsets.UTF_8));
+        try (LectorBloques bloques = LectorBloques.abrir(cabecera.toString(), 8)) {
+            assertNull(bloques.siguiente());
+        }
+        Path vacio = carpeta.resolve("vacio.csv");
+        Files.write(vacio, new byte[0]);
+        assertThrows(IOException.class, () -> LectorBloques.abrir(vacio.toString(), 8));
+        assertThrows(IllegalArgumentException.class, () -> LectorBloques.abrir("iris.csv", 0));
+    }
+}
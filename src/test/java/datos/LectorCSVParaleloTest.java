@@ -0,0 +1,109 @@
+package datos;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * @class LectorCSVParaleloTest
+ * @brief Pruebas unitarias para la clase {@link LectorCSVParalelo}.
+ *
+ * Comprueba que la lectura en paralelo da las mismas columnas que {@link LectorCSV}, tanto
+ * con trozos pequeños como cuando hay que volver a la lectura en serie.
+ */
+public class LectorCSVParaleloTest {
+
+    @TempDir
+    Path carpeta;
+
+    /**
+     * @brief Escribe un CSV en un archivo temporal.
+     */
+    private String escribir(String csv) throws IOException {
+        Path archivo = carpeta.resolve("datos.csv");
+        Files.write(archivo, csv.getBytes(StandardCharsets.UTF_8));
+        return archivo.toString();
+    }
+
+    /**
+     * @brief Comprueba que dos listas de atributos tienen los mismos nombres, tipos y valores.
+     */
+    private static void comprobarIguales(List<Atributo> esperados, List<Atributo> obtenidos) {
+        assertEquals(esperados.size(), obtenidos.size());
+        for (int j = 0; j < esperados.size(); ++j) {
+            Atributo esperado = esperados.get(j);
+            Atributo obtenido = obtenidos.get(j);
+            assertEquals(esperado.getNombre(), obtenido.getNombre());
+            assertEquals(esperado.getClass(), obtenido.getClass());
+            if (esperado instanceof Cuantitativo) {
+                assertArrayEquals(((Cuantitativo) esperado).toArray(), ((Cuantitativo) obtenido).toArray());
+            } else {
+                Cualitativo a = (Cualitativo) esperado;
+                Cualitativo b = (Cualitativo) obtenido;
+                assertEquals(a.getValores(), b.getValores());
+                assertEquals(a.clases(), b.clases());
+                for (int i = 0; i < a.size(); ++i) {
+                    assertEquals(a.getCodigo(i), b.getCodigo(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * @test Verifica que un archivo dividido en muchos trozos se lee igual que en serie.
+     */
+    @Test
+    void testTrozos() throws IOException {
+        Random aleatorio = new Random(7);
+        StringBuilder csv = new StringBuilder("x,y,clase\r\n");
+        for (int i = 0; i < 2000; ++i) {
+            csv.append(aleatorio.nextGaussian()).append(',').append(aleatorio.nextInt(100))
+                    .append(",c").append(aleatorio.nextInt(i / 100 + 1)).append(i % 7 == 0 ? "\r\n" : "\n");
+            if (i % 500 == 0) csv.append('\n');
+        }
+        String archivo = escribir(csv.toString());
+        List<Atributo> serie = new LectorCSV().leer(archivo);
+        List<Atributo> paralelo = new LectorCSVParalelo(',', 4, 64).leer(archivo);
+        comprobarIguales(serie, paralelo);
+        assertEquals(2000, paralelo.get(0).size());
+
+        Dataset datos = new Dataset();
+        datos.read(archivo, ',', 3);
+        assertEquals(2000, datos.numeroCasos());
+    }
+
+    /**
+     * @test Verifica los saltos de línea entre comillas, los archivos cortos y los errores.
+     */
+    @Test
+    void testSerie() throws IOException {
+        StringBuilder csv = new StringBuilder("texto,n\n");
+        for (int i = 0; i < 300; ++i) {
+            csv.append(i % 50 == 49 ? "\"con\nsalto\"" : "t" + (i % 3)).append(',').append(i).append('\n');
+        }
+        String archivo = escribir(csv.toString());
+        comprobarIguales(new LectorCSV().leer(archivo), new LectorCSVParalelo(',', 4, 16).leer(archivo));
+
+        archivo = escribir("a,b\n1,x\n");
+        comprobarIguales(new LectorCSV().leer(archivo), new LectorCSVParalelo(',', 4, 1).leer(archivo));
+
+        StringBuilder erroneo = new StringBuilder("a,b\n");
+        for (int i = 0; i < 200; ++i) {
+            erroneo.append(i == 150 ? "no" : String.valueOf(i)).append(",x\n");
+        }
+        String archivoErroneo = escribir(erroneo.toString());
+        IOException error = assertThrows(IOException.class,
+                () -> new LectorCSVParalelo(',', 4, 16).leer(archivoErroneo));
+        assertTrue(error.getMessage().contains("línea 152"), error.getMessage());
+        assertThrows(IOException.class, () -> new LectorCSVParalelo(',', 2, 16).leer(escribir("")));
+        assertThrows(IllegalArgumentException.class, () -> new LectorCSVParalelo(',', 0));
+    }
+}
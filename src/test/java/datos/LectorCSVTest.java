@@ -0,0 +1,120 @@
+package datos;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @class LectorCSVTest
+ * @brief Pruebas unitarias para la clase {@link LectorCSV}.
+ *
+ * Comprueba la separación de campos (comillas, delimitadores, finales de línea), la
+ * conversión de números frente a {@link Double#parseDouble} y los errores de formato.
+ */
+public class LectorCSVTest {
+
+    /**
+     * @brief Lee un CSV desde un texto.
+     */
+    private static List<Atributo> leer(String csv, char delimitador) throws IOException {
+        return new LectorCSV(delimitador).leer(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * @test Verifica los tipos de columna, las comillas, los finales de línea y las líneas vacías.
+     */
+    @Test
+    void testCampos() throws IOException {
+        String csv = "x,\"nombre, completo\",y,clase\r\n"
+                + "1.5,\"Pérez, \"\"Ana\"\"\",-2e3,A\r\n"
+                + "\n"
+                + "  3 ,\"dos\nlíneas\",0.25,B\n"
+                + "4,c,NaN,A";
+        List<Atributo> atributos = leer(csv, ',');
+        assertEquals(4, atributos.size());
+        assertEquals("nombre, completo", atributos.get(1).getNombre());
+        Cuantitativo x = (Cuantitativo) atributos.get(0);
+        Cualitativo nombre = (Cualitativo) atributos.get(1);
+        Cuantitativo y = (Cuantitativo) atributos.get(2);
+        assertEquals(3, x.size());
+        assertArrayEquals(new double[]{1.5, 3.0, 4.0}, x.toArray());
+        assertEquals(List.of("Pérez, \"Ana\"", "dos\nlíneas", "c"), nombre.getValores());
+        assertEquals(-2000.0, y.getDouble(0));
+        assertTrue(Double.isNaN(y.getDouble(2)));
+        assertEquals(List.of("A", "B"), ((Cualitativo) atributos.get(3)).clases());
+
+        List<Atributo> puntoYComa = leer("a;b\n1,5;x\n2;y\n", ';');
+        assertTrue(puntoYComa.get(0) instanceof Cualitativo);
+        assertEquals(List.of("1,5", "2"), ((Cualitativo) puntoYComa.get(0)).getValores());
+        assertTrue(leer("", ',').isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> new LectorCSV('"'));
+    }
+
+    /**
+     * @test Verifica que los números se convierten igual que con {@link Double#parseDouble}.
+     */
+    @Test
+    void testNumerosIgualQueParseDouble() throws IOException {
+        Random random = new Random(7);
+        StringBuilder csv = new StringBuilder("v\n");
+        String[] fijos = {"0", "-0", "+1", ".5", "5.", "007.250", "1e-300", "1.7976931348623157E308", "4.9e-324",
+            "123456789012345678901234567890", "0.1", "0.30000000000000004", "9007199254740993", "1.5f", "2d",
+            "0x1p4", "-Infinity", "1E22", "1e23", "3.14159265358979323846"};
+        for (String fijo : fijos) csv.append(fijo).append('\n');
+        for (int i = 0; i < 3000; i++) {
+            switch (i % 3) {
+                case 0: csv.append(Double.toString(Double.longBitsToDouble(random.nextLong()))); break;
+                case 1: csv.append(random.nextInt(2000000) - 1000000).append('.').append(random.nextInt(100000)); break;
+                default: csv.append(random.nextGaussian() * Math.pow(10, random.nextInt(40) - 20)); break;
+            }
+            csv.append('\n');
+        }
+        String[] lineas = csv.toString().split("\n");
+        Cuantitativo columna = (Cuantitativo) leer(csv.toString(), ',').get(0);
+        assertEquals(lineas.length - 1, columna.size());
+        for (int i = 1; i < lineas.length; i++) {
+            assertEquals(Double.doubleToLongBits(Double.parseDouble(lineas[i])),
+                    Double.doubleToLongBits(columna.getDouble(i - 1)), lineas[i]);
+        }
+    }
+
+    /**
+     * @test Verifica que el texto con forma parecida a un número se lee como cualitativo.
+     */
+    @Test
+    void testTextoNoNumerico() throws IOException {
+        for (String texto : List.of("abc", "Iris-setosa", "-", ".", "1e", "e5", "2nd", "Infinite", "12-3")) {
+            assertTrue(leer("a\n" + texto + "\n", ',').get(0) instanceof Cualitativo, texto);
+        }
+    }
+
+    /**
+     * @test Verifica los errores de formato.
+     */
+    @Test
+    void testErrores() {
+        assertThrows(IOException.class, () -> leer("a,b\n1,2\n3\n", ','));
+        assertThrows(IOException.class, () -> leer("a,b\n1,2\n3,4,5\n", ','));
+        assertThrows(IOException.class, () -> leer("a,b\n1,2\nx,4\n", ','));
+        assertThrows(IOException.class, () -> leer("a,b\n1,\"2\n", ','));
+    }
+
+    /**
+     * @test Verifica la lectura de un archivo real a través de {@link Dataset#read}.
+     */
+    @Test
+    void testDatasetIris() throws IOException {
+        Dataset iris = new Dataset("iris.csv");
+        assertEquals(5, iris.numeroAtributos());
+        assertEquals(150, iris.numeroCasos());
+        assertEquals(5.1, ((Cuantitativo) iris.get(0)).getDouble(0));
+        assertEquals(3, iris.getClases().size());
+        assertThrows(IOException.class, () -> new Dataset("no-existe.csv"));
+    }
+}
@@ -0,0 +1,110 @@
+package datos;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import procesamiento.Estandarizacion;
+import procesamiento.Normalizacion;
+import vectores.Vector;
+
+/**
+ * @class VistaDatasetTest
+ * @brief Pruebas unitarias para la clase {@link VistaDataset}.
+ *
+ * Comprueba que la vista se comporta como un dataset con las filas y columnas seleccionadas,
+ * sin copiar ni modificar el dataset base.
+ */
+public class VistaDatasetTest {
+
+    /**
+     * @brief Crea un dataset con cinco filas, una columna cualitativa intermedia y la clase al final.
+     * @return Dataset de ejemplo.
+     */
+    private Dataset crearDataset() {
+        List<Atributo> atributos = new ArrayList<>();
+        atributos.add(new Cuantitativo("Alto", new Vector(new double[]{1.0, 2.0, 3.0, 4.0, 5.0})));
+        atributos.add(new Cualitativo("Forma", List.of("a", "b", "a", "c", "b")));
+        atributos.add(new Cuantitativo("Ancho", new Vector(new double[]{10.0, 20.0, 30.0, 40.0, 50.0})));
+        atributos.add(new Cualitativo("Clase", List.of("X", "Y", "X", "Z", "Y")));
+        return new Dataset(atributos);
+    }
+
+    /**
+     * @test Verifica que la vista devuelve las filas seleccionadas, en su orden.
+     */
+    @Test
+    void testFilasSeleccionadas() {
+        Dataset base = crearDataset();
+        base.cambiarPeso(2, 3.0);
+        VistaDataset vista = new VistaDataset(base, new int[]{4, 1, 3});
+        assertEquals(3, vista.numeroCasos());
+        assertEquals(4, vista.numeroAtributos());
+        assertEquals(base.getInstance(4).toString(), vista.getInstance(0).toString());
+        assertEquals(base.getInstance(3).toString(), vista.getInstance(2).toString());
+        assertEquals(List.of("Y", "Z"), vista.getClases());
+        assertEquals(3.0, vista.get(2).getPeso());
+        assertEquals(List.of("b", "b", "c"), ((Cualitativo) vista.get(1)).getValores());
+        assertEquals(5.0, ((Cuantitativo) vista.get(0)).maximo());
+        assertEquals(2.0, ((Cuantitativo) vista.get(0)).minimo());
+
+        Fila fila = vista.cursor();
+        assertEquals(3, fila.size());
+        assertEquals(2, fila.dimension());
+        fila.mover(1);
+        assertEquals(2.0, fila.get(0));
+        assertEquals(20.0, fila.get(1));
+        assertEquals("Y", fila.getClase());
+        assertEquals(1, vista.filaBase(1));
+        assertTrue(vista.toString().startsWith("Alto,Forma,Ancho,Clase\n5.0,b,50.0,Y\n"));
+    }
+
+    /**
+     * @test Verifica la selección de columnas y la vista de una vista.
+     */
+    @Test
+    void testColumnasYVistaDeVista() {
+        Dataset base = crearDataset();
+        VistaDataset columnas = new VistaDataset(base, new int[]{0, 2, 4}, new int[]{2, 3});
+        assertEquals(List.of("Ancho", "Clase"), columnas.nombreAtributos());
+        VistaDataset anidada = new VistaDataset(columnas, new int[]{2, 0});
+        assertEquals(2, anidada.numeroCasos());
+        assertEquals(50.0, ((Cuantitativo) anidada.get(0)).getDouble(0));
+        assertEquals(4, anidada.filaBase(0));
+        assertEquals("X", anidada.cursor().mover(1).getClase());
+        assertEquals(List.of(50.0, 10.0), ((Cuantitativo) anidada.get(0)).getValores().getValores());
+        assertThrows(IndexOutOfBoundsException.class, () -> new VistaDataset(base, new int[]{5}));
+    }
+
+    /**
+     * @test Verifica que la vista no admite cambios y que copiarla o preprocesarla no toca el base.
+     */
+    @Test
+    void testSoloLectura() {
+        Dataset base = crearDataset();
+        VistaDataset vista = new VistaDataset(base, new int[]{0, 1, 2});
+        assertThrows(UnsupportedOperationException.class, () -> vista.delete(0));
+        assertThrows(UnsupportedOperationException.class, () -> vista.add(base.getInstance(0)));
+        assertThrows(UnsupportedOperationException.class, () -> vista.getAtributos().remove(0));
+        assertThrows(UnsupportedOperationException.class, () -> vista.get(0).add(1.0));
+        assertThrows(UnsupportedOperationException.class, () -> ((Cualitativo) vista.get(3)).getValores().set(0, "Z"));
+        assertThrows(UnsupportedOperationException.class, () -> vista.read("iris.csv", ','));
+        assertThrows(UnsupportedOperationException.class, () -> vista.read("iris.csv", ',', 2));
+        assertThrows(UnsupportedOperationException.class, () -> vista.readBinario("iris" + FormatoBinario.EXTENSION));
+
+        Cualitativo copia = new Cualitativo((Cualitativo) vista.get(3));
+        assertEquals(List.of("X", "Y", "X"), copia.getValores());
+        copia.add("W");
+        assertEquals(4, copia.size());
+
+        Dataset normalizado = new Dataset(new Normalizacion().procesar(vista));
+        Dataset estandarizado = new Dataset(new Estandarizacion().procesar(vista));
+        assertEquals(3, normalizado.numeroCasos());
+        assertEquals(0.0, ((Cuantitativo) estandarizado.get(0)).media(), 1e-12);
+        assertEquals(1.0, ((Cuantitativo) base.get(0)).getDouble(0));
+        assertEquals(2.0, ((Cuantitativo) vista.get(0)).getDouble(1));
+    }
+}
@@ -258,4 +258,85 @@ class EntrenamientoTest {
         f1.delete();
         f2.delete();
     }
+
+    /**
+     * @brief Crea un dataset aleatorio con valores discretos para forzar empates en la votación.
+     */
+    static Dataset datasetConEmpates(int filas, long semilla) {
+        Random random = new Random(semilla);
+        ArrayList<Atributo> atributos = new ArrayList<>();
+        for (int j = 0; j < 3; j++) {
+            Cuantitativo columna = new Cuantitativo("x" + j);
+            for (int i = 0; i < filas; i++) columna.add((double) random.nextInt(3));
+            atributos.add(columna);
+        }
+        Cualitativo clase = new Cualitativo("Clase");
+        for (int i = 0; i < filas; i++) clase.add("c" + random.nextInt(3));
+        atributos.add(clase);
+        return new Dataset(atributos);
+    }
+
+    /**
+     * @test Verifica que la evaluación en paralelo da exactamente los mismos aciertos y
+     * confusiones que la secuencial, incluidos los desempates aleatorios.
+     */
+    @Test
+    void testEvaluacionParalela() {
+        Dataset dataset = datasetConEmpates(2000, 3);
+        Entrenamiento entrenamiento = new Entrenamiento(dataset, 0.6, 7, "manhattan");
+        entrenamiento.setHilos(1);
+        Evaluacion secuencial = entrenamiento.evaluar(4);
+        entrenamiento.setHilos(4);
+        assertEquals(4, entrenamiento.getHilos());
+        Evaluacion paralelo = entrenamiento.evaluar(4);
+
+        assertEquals(secuencial.getAciertos(), paralelo.getAciertos());
+        assertArrayEquals(secuencial.getConfusion(), paralelo.getConfusion());
+        long total = 0;
+        long diagonal = 0;
+        for (int i = 0; i < secuencial.getClases().size(); i++) {
+            diagonal += secuencial.getCuenta(i, i);
+            for (long cuenta : secuencial.getConfusion()[i]) total += cuenta;
+        }
+        assertEquals(800, total);
+        assertEquals(800, secuencial.getTotal());
+        assertEquals(diagonal, secuencial.getAciertos());
+        assertThrows(IllegalArgumentException.class, () -> entrenamiento.setHilos(0));
+    }
+
+    /**
+     * @test Verifica que el barrido de k da, para cada k, el mismo resultado que evaluar con ese k.
+     */
+    @Test
+    void testBarridoK() {
+        Dataset dataset = datasetConEmpates(900, 11);
+        for (String distancia : List.of("euclidiana", "manhattan")) {
+            Entrenamiento entrenamiento = new Entrenamiento(dataset, 0.7, 5, distancia);
+            List<Evaluacion> barrido = entrenamiento.evaluarBarridoK(12);
+            assertEquals(12, barrido.size());
+            for (int k = 1; k <= 12; k++) {
+                Evaluacion directa = entrenamiento.evaluar(k);
+                assertEquals(directa.getAciertos(), barrido.get(k - 1).getAciertos());
+                assertArrayEquals(directa.getConfusion(), barrido.get(k - 1).getConfusion());
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> new Entrenamiento(dataset, 0.7, 5, "euclidiana").evaluarBarridoK(0));
+    }
+
+    /**
+     * @test Verifica que el entrenamiento sobre una partición da lo mismo que con el constructor con semilla.
+     */
+    @Test
+    void testParticion() {
+        Dataset dataset = datasetConEmpates(700, 9);
+        Entrenamiento conSemilla = new Entrenamiento(dataset, 0.8, 21, "euclidiana");
+        Entrenamiento conParticion = new Entrenamiento(Particion.aleatoria(dataset, 0.8, 21), "euclidiana");
+        conParticion.setSemillaDesempate(21);
+        Evaluacion a = conSemilla.evaluar(5);
+        Evaluacion b = conParticion.evaluar(5);
+        assertEquals(140, a.getTotal());
+        assertEquals(a.getAciertos(), b.getAciertos());
+        assertArrayEquals(a.getConfusion(), b.getConfusion());
+        assertEquals(140, new Entrenamiento(Particion.estratificada(dataset, 0.8, 2), "manhattan").evaluar(3).getTotal(), 2);
+    }
 }
@@ -0,0 +1,34 @@
+package entrenamiento;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+
+/**
+ * @class EvaluacionTest
+ * @brief Pruebas unitarias para la clase {@link Evaluacion}.
+ */
+class EvaluacionTest {
+
+    /**
+     * @test Verifica las métricas por clase calculadas a partir de la matriz de confusión.
+     */
+    @Test
+    void testMetricasEvaluacion() {
+        long[][] confusion = {{3, 1}, {2, 4}};
+        Evaluacion evaluacion = new Evaluacion(List.of("Rojo", "Azul"), 7, 10, confusion);
+        confusion[0][0] = 100;
+        assertEquals(3, evaluacion.getCuenta(0, 0));
+        assertEquals(0.7, evaluacion.getPrecisionPredictiva(), 1e-12);
+        assertEquals(3.0 / 5, evaluacion.getPrecision(0), 1e-12);
+        assertEquals(3.0 / 4, evaluacion.getExhaustividad(0), 1e-12);
+        assertEquals(2 * 0.6 * 0.75 / 1.35, evaluacion.getF1(0), 1e-12);
+        assertEquals(4.0 / 5, evaluacion.getPrecision(1), 1e-12);
+        assertEquals(4.0 / 6, evaluacion.getExhaustividad(1), 1e-12);
+        assertEquals(2.0, evaluacion.getMatriz().get(1, 0), 1e-12);
+
+        Evaluacion vacia = new Evaluacion(List.of("Rojo"), 0, 0, new long[][] {{0}});
+        assertEquals(0.0, vacia.getPrecisionPredictiva());
+        assertEquals(0.0, vacia.getF1(0));
+    }
+}
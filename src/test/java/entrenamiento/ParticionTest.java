@@ -0,0 +1,87 @@
+package entrenamiento;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import datos.*;
+
+/**
+ * @class ParticionTest
+ * @brief Pruebas unitarias para la clase {@link Particion}.
+ *
+ * Se comprueba que las particiones cubren todas las filas sin repetir ninguna, que son
+ * reproducibles y que respetan las clases y los grupos.
+ */
+class ParticionTest {
+
+    /**
+     * @brief Comprueba que entrenamiento y prueba son disjuntos, crecientes y cubren todas las filas.
+     */
+    static void comprobarCobertura(Particion particion, int n) {
+        boolean[] vistas = new boolean[n];
+        for (int[] filas : new int[][]{particion.getEntrenamiento(), particion.getPrueba()}) {
+            for (int i = 0; i < filas.length; i++) {
+                if (i > 0) assertTrue(filas[i - 1] < filas[i]);
+                assertFalse(vistas[filas[i]]);
+                vistas[filas[i]] = true;
+            }
+        }
+        for (boolean vista : vistas) assertTrue(vista);
+    }
+
+    /**
+     * @test Verifica las divisiones secuencial y aleatoria.
+     */
+    @Test
+    void testAleatoria() {
+        Dataset dataset = EntrenamientoTest.datasetConEmpates(1001, 2);
+        Particion secuencial = Particion.secuencial(dataset, 0.3);
+        assertEquals(301, secuencial.getEntrenamiento().length);
+        assertEquals(0, secuencial.getEntrenamiento()[0]);
+        assertEquals(300, secuencial.getEntrenamiento()[300]);
+        comprobarCobertura(secuencial, 1001);
+
+        Particion aleatoria = Particion.aleatoria(dataset, 0.3, 17);
+        assertEquals(301, aleatoria.getEntrenamiento().length);
+        assertEquals(700, aleatoria.getPrueba().length);
+        comprobarCobertura(aleatoria, 1001);
+        assertArrayEquals(aleatoria.getEntrenamiento(), Particion.aleatoria(dataset, 0.3, 17).getEntrenamiento());
+        assertFalse(java.util.Arrays.equals(aleatoria.getEntrenamiento(), Particion.aleatoria(dataset, 0.3, 18).getEntrenamiento()));
+        assertSame(dataset, aleatoria.getDatos());
+    }
+
+    /**
+     * @test Verifica que la división estratificada mantiene la proporción de cada clase.
+     */
+    @Test
+    void testEstratificada() {
+        Dataset dataset = EntrenamientoTest.datasetConEmpates(900, 5);
+        Particion particion = Particion.estratificada(dataset, 0.75, 3);
+        comprobarCobertura(particion, 900);
+        Fila fila = dataset.cursor();
+        int[] total = new int[3];
+        int[] enEntrenamiento = new int[3];
+        for (int i = 0; i < 900; i++) total[fila.mover(i).getCodigo()]++;
+        for (int i : particion.getEntrenamiento()) enEntrenamiento[fila.mover(i).getCodigo()]++;
+        for (int c = 0; c < 3; c++) assertEquals(Math.round(total[c] * 0.75), enEntrenamiento[c]);
+    }
+
+    /**
+     * @test Verifica que ningún grupo queda repartido entre entrenamiento y prueba.
+     */
+    @Test
+    void testPorGrupos() {
+        Dataset dataset = EntrenamientoTest.datasetConEmpates(500, 8);
+        int[] grupos = new int[500];
+        for (int i = 0; i < 500; i++) grupos[i] = (i * 7) % 40;
+        Particion particion = Particion.porGrupos(dataset, grupos, 0.5, 1);
+        comprobarCobertura(particion, 500);
+        boolean[] grupoEntrenamiento = new boolean[40];
+        for (int i : particion.getEntrenamiento()) grupoEntrenamiento[grupos[i]] = true;
+        for (int i : particion.getPrueba()) assertFalse(grupoEntrenamiento[grupos[i]]);
+        assertTrue(particion.getEntrenamiento().length >= 250);
+        assertTrue(particion.getEntrenamiento().length < 250 + 13);
+
+        assertThrows(IllegalArgumentException.class, () -> Particion.porGrupos(dataset, new int[3], 0.5, 1));
+        assertThrows(IllegalArgumentException.class, () -> Particion.aleatoria(dataset, 1.5, 1));
+    }
+}
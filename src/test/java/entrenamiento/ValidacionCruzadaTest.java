@@ -0,0 +1,121 @@
+package entrenamiento;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+
+import clasificacion.ModeloKNN;
+import datos.*;
+
+/**
+ * @class ValidacionCruzadaTest
+ * @brief Pruebas unitarias para la clase {@link ValidacionCruzada}.
+ *
+ * Se comprueba la estratificación de los pliegues, que el resultado no depende del número
+ * de hilos y la coherencia de la media, la varianza y la matriz acumulada.
+ */
+class ValidacionCruzadaTest {
+
+    /**
+     * @test Verifica que cada pliegue recibe la misma proporción de cada clase.
+     */
+    @Test
+    void testPlieguesEstratificados() {
+        int[] codigos = new int[103];
+        for (int i = 0; i < codigos.length; i++) codigos[i] = i % 7 == 0 ? 2 : i % 3 == 0 ? 1 : 0;
+        int[] asignacion = ValidacionCruzada.asignarPliegues(codigos, 3, 5, 42);
+        int[][] cuentas = new int[5][3];
+        int[] tamanos = new int[5];
+        for (int i = 0; i < codigos.length; i++) {
+            cuentas[asignacion[i]][codigos[i]]++;
+            tamanos[asignacion[i]]++;
+        }
+        for (int c = 0; c < 3; c++) {
+            int minimo = Integer.MAX_VALUE;
+            int maximo = 0;
+            for (int p = 0; p < 5; p++) {
+                minimo = Math.min(minimo, cuentas[p][c]);
+                maximo = Math.max(maximo, cuentas[p][c]);
+            }
+            assertTrue(maximo - minimo <= 1);
+        }
+        for (int p = 1; p < 5; p++) assertTrue(Math.abs(tamanos[p] - tamanos[0]) <= 1);
+        assertArrayEquals(asignacion, ValidacionCruzada.asignarPliegues(codigos, 3, 5, 42));
+    }
+
+    /**
+     * @test Verifica que la validación repetida da lo mismo en secuencial y en paralelo.
+     */
+    @Test
+    void testValidacionParalela() {
+        Dataset dataset = EntrenamientoTest.datasetConEmpates(600, 4);
+        ValidacionCruzada validacion = new ValidacionCruzada(dataset, "euclidiana");
+        validacion.setHilos(1);
+        ResultadoValidacion secuencial = validacion.validar(5, 4, 3, 9);
+        validacion.setHilos(4);
+        ResultadoValidacion paralelo = validacion.validar(5, 4, 3, 9);
+
+        assertArrayEquals(secuencial.getPrecisiones(), paralelo.getPrecisiones());
+        assertArrayEquals(secuencial.getEvaluacion().getConfusion(), paralelo.getEvaluacion().getConfusion());
+        assertEquals(12, secuencial.getPrecisiones().length);
+        assertEquals(1800, secuencial.getEvaluacion().getTotal());
+
+        long total = 0;
+        for (long[] fila : secuencial.getEvaluacion().getConfusion()) {
+            for (long cuenta : fila) total += cuenta;
+        }
+        assertEquals(1800, total);
+        double media = 0;
+        for (double precision : secuencial.getPrecisiones()) media += precision;
+        assertEquals(media / 12, secuencial.getMedia(), 1e-12);
+        assertTrue(secuencial.getVarianza() >= 0);
+        assertEquals(secuencial.getEvaluacion().getPrecisionPredictiva(), secuencial.getMedia(), 0.01);
+    }
+
+    /**
+     * @test Verifica que dejar uno fuera coincide con clasificar cada fila con un modelo sin ella.
+     */
+    @Test
+    void testDejarUnoFuera() {
+        Dataset dataset = EntrenamientoTest.datasetConEmpates(80, 6);
+        ValidacionCruzada validacion = new ValidacionCruzada(dataset, "manhattan");
+        validacion.setHilos(1);
+        List<Evaluacion> secuencial = validacion.dejarUnoFuera(7, 3);
+        validacion.setHilos(4);
+        List<Evaluacion> paralelo = validacion.dejarUnoFuera(7, 3);
+        assertEquals(7, secuencial.size());
+
+        int dimension = Entrenamiento.dimensionConsulta(dataset);
+        Fila fila = dataset.cursor();
+        for (int k = 1; k <= 7; k++) {
+            long aciertos = 0;
+            for (int i = 0; i < 80; i++) {
+                int[] resto = new int[79];
+                for (int j = 0, r = 0; j < 80; j++) {
+                    if (j != i) resto[r++] = j;
+                }
+                double[] consulta = new double[dimension];
+                fila.mover(i).copiar(consulta);
+                ModeloKNN modelo = new ModeloKNN(dataset, resto, k, "manhattan");
+                int predicho = modelo.votar(modelo.vecinos(consulta), i * Entrenamiento.MEZCLA_SEMILLA ^ 3);
+                if (modelo.getClase(predicho).equals(fila.getClase())) aciertos++;
+            }
+            assertEquals(aciertos, secuencial.get(k - 1).getAciertos());
+            assertEquals(80, secuencial.get(k - 1).getTotal());
+            assertArrayEquals(secuencial.get(k - 1).getConfusion(), paralelo.get(k - 1).getConfusion());
+        }
+        assertThrows(IllegalArgumentException.class, () -> validacion.dejarUnoFuera(0, 3));
+    }
+
+    /**
+     * @test Verifica los errores de parámetros.
+     */
+    @Test
+    void testParametrosNoValidos() {
+        ValidacionCruzada validacion = new ValidacionCruzada(EntrenamientoTest.datasetConEmpates(10, 1), "manhattan");
+        assertThrows(IllegalArgumentException.class, () -> validacion.validar(3, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> validacion.validar(3, 11, 0));
+        assertThrows(IllegalArgumentException.class, () -> validacion.validar(3, 2, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> validacion.setHilos(0));
+    }
+}
@@ -34,4 +34,20 @@ public class DatosCrudosTest {
 
         assertEquals(dataset.getAtributos(), resultado);
     }
+
+    /**
+     * @test Verifica que la transformación solo convierte en números los valores de las
+     * columnas numéricas.
+     */
+    @Test
+    void testTransformarInstancia() {
+        Dataset dataset = new Dataset();
+        dataset.setAtributos(List.of(
+                new Cuantitativo("Edad", new Vector(List.of(10.0, 20.0, 30.0))),
+                new Cualitativo("Color", List.of("Rojo", "Verde", "Azul"))
+        ));
+        Preprocesado preprocesado = new DatosCrudos();
+        preprocesado.procesar(dataset);
+        assertEquals(List.of(12.5, "1"), preprocesado.transformar(new Instancia(" 12.5,1")).getValores());
+    }
 }
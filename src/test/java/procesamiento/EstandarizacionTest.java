@@ -62,4 +62,28 @@ public class EstandarizacionTest {
 
         assertTrue(resultado.get(0) instanceof Cualitativo);
     }
+
+    /**
+     * @test Verifica que una instancia nueva se estandariza con la media y la desviación
+     * ajustadas, con el mismo resultado que las filas del dataset.
+     */
+    @Test
+    void testTransformarInstancia() {
+        Dataset dataset = new Dataset();
+        dataset.setAtributos(new ArrayList<>(List.of(
+                new Cuantitativo("X", new Vector(List.of(1.0, 2.0, 6.0))),
+                new Cuantitativo("Constante", new Vector(List.of(3.0, 3.0, 3.0))),
+                new Cualitativo("Clase", List.of("a", "b", "a"))
+        )));
+        Estandarizacion estandar = new Estandarizacion();
+        estandar.ajustar(dataset);
+        Instancia transformada = estandar.transformar(new Instancia("3,5,a"));
+        assertEquals(0.0, (double) transformada.getValores().get(0), 1e-12);
+        assertEquals(5.0, transformada.getValores().get(1));
+
+        List<Instancia> filas = List.of(dataset.getInstance(0), dataset.getInstance(2));
+        Dataset procesado = new Dataset(estandar.procesar(dataset));
+        assertEquals(procesado.getInstance(0).getValores(), estandar.transformar(filas.get(0)).getValores());
+        assertEquals(procesado.getInstance(2).getValores(), estandar.transformar(filas.get(1)).getValores());
+    }
 }
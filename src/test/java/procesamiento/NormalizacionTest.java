@@ -65,4 +65,33 @@ public class NormalizacionTest {
 
         assertTrue(resultado.get(0) instanceof Cualitativo);
     }
+
+    /**
+     * @test Verifica que una instancia nueva se normaliza con el mínimo y el máximo ajustados,
+     * igual que las filas del dataset y sin modificar el dataset.
+     */
+    @Test
+    void testTransformarInstancia() {
+        Dataset dataset = new Dataset();
+        dataset.setAtributos(List.of(
+                new Cuantitativo("Edad", new Vector(List.of(10.0, 20.0, 40.0))),
+                new Cualitativo("Clase", List.of("a", "b", "a"))
+        ));
+        Normalizacion norm = new Normalizacion();
+        assertThrows(IllegalStateException.class, () -> norm.transformar(new Instancia("15")));
+        norm.ajustar(dataset);
+        assertEquals(40.0, ((Cuantitativo) dataset.get(0)).getDouble(2));
+
+        Instancia transformada = norm.transformar(new Instancia("25,b"));
+        assertEquals(0.5, transformada.getValores().get(0));
+        assertEquals("b", transformada.getValores().get(1));
+        // Fuera del rango ajustado no se vuelve a escalar
+        assertEquals(2.0, norm.transformar(new Instancia("70")).getValores().get(0));
+        assertThrows(IllegalArgumentException.class, () -> norm.transformar(new Instancia("x")));
+        assertThrows(IllegalArgumentException.class, () -> norm.transformar(new Instancia("1,a,2")));
+
+        Instancia fila = dataset.getInstance(1);
+        Dataset procesado = new Dataset(norm.procesar(dataset));
+        assertEquals(procesado.getInstance(1).getValores(), norm.transformar(fila).getValores());
+    }
 }
@@ -257,4 +257,37 @@ class VectorTest {
         assertEquals(3.0, vectorLeido.get(2), 0.0001);
     }
 
+    /**
+     * @brief Test del crecimiento del array interno y de los accesos en bloque.
+     */
+    @Test
+    void testCrecimientoYAccesoEnBloque() {
+        Vector grande = new Vector();
+        for (int i = 0; i < 1000; i++) {
+            grande.add(i);
+        }
+        grande.trimToSize();
+        assertEquals(1000, grande.size());
+        assertEquals(999.0, grande.get(999));
+        assertThrows(IndexOutOfBoundsException.class, () -> grande.get(1000));
+
+        assertArrayEquals(new double[] {1.0, 2.0, 3.0}, v1.toArray());
+        double[] matriz = new double[6];
+        v1.copyTo(matriz, 1, 2);
+        assertArrayEquals(new double[] {0.0, 1.0, 0.0, 2.0, 0.0, 3.0}, matriz);
+    }
+
+    /**
+     * @brief Test de la vista de lista devuelta por getValores.
+     */
+    @Test
+    void testVistaGetValores() {
+        List<Double> vista = v1.getValores();
+        vista.set(0, 10.0);
+        vista.add(4.0);
+        vista.remove(1);
+        assertEquals(Arrays.asList(10.0, 3.0, 4.0), v1.getValores());
+        assertEquals("[10.0, 3.0, 4.0]", v1.toString());
+    }
+
 }